@@ -87,11 +87,14 @@ public class ModelClipboard {
             public int compare(ARXNode o1, ARXNode o2) {
                 double val1 = 0d;
                 double val2 = 0d;
-                for (int i = 0; i< o1.getTransformation().length; i++) {
-                    double max = (double)definition.getMaximumGeneralization(o1.getQuasiIdentifyingAttributes()[i]);
+                ARXNode.Access access1 = o1.access();
+                ARXNode.Access access2 = o2.access();
+                String[] attributes = o1.getQuasiIdentifyingAttributes();
+                for (int i = 0; i< attributes.length; i++) {
+                    double max = (double)definition.getMaximumGeneralization(attributes[i]);
                     max = max > 0d ? max : 1d;
-                    val1 += (double)o1.getTransformation()[i] / max;
-                    val2 += (double)o2.getTransformation()[i] / max;
+                    val1 += (double)access1.getGeneralization(i) / max;
+                    val2 += (double)access2.getGeneralization(i) / max;
                 }
                 int cmp = Double.valueOf(val1).compareTo(val2);
                 if (cmp == 0) {
@@ -290,6 +290,14 @@ public class ModelConfiguration implements Serializable, Cloneable {
     public int getGeneticAlgorithmSubpopulationSize() {
         return config.getGeneticAlgorithmSubpopulationSize();
     }
+
+    /**
+     * @return
+     * @see org.deidentifier.arx.ARXConfiguration#getGeneticAlgorithmSubpopulations()
+     */
+    public int getGeneticAlgorithmSubpopulations() {
+        return config.getGeneticAlgorithmSubpopulations();
+    }
     
     /**
      * @return
@@ -707,6 +715,16 @@ public class ModelConfiguration implements Serializable, Cloneable {
         config.setGeneticAlgorithmSubpopulationSize(geneticAlgorithmSubpopulationSize);
     }
     
+    /**
+     * Setter
+     * 
+     * @param geneticAlgorithmSubpopulations
+     */
+    public void setGeneticAlgorithmSubpopulations(int geneticAlgorithmSubpopulations) {
+        setModified();
+        config.setGeneticAlgorithmSubpopulations(geneticAlgorithmSubpopulations);
+    }
+    
     /**
      * @param value
      * @see org.deidentifier.arx.ARXConfiguration#setUseHeuristicSearchForSampleBasedCriteria(boolean)
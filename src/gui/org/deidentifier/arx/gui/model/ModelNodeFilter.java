@@ -394,9 +394,9 @@ public class ModelNodeFilter implements Serializable {
         } else if (min > maxInformationLoss) {
             return false;
         } else if (!anonymity.contains(node.getAnonymity())) { return false; }
-        final int[] transformation = node.getTransformation();
-        for (int i = 0; i < transformation.length; i++) {
-            if (!generalizations[i].contains(transformation[i])) { return false; }
+        final ARXNode.Access access = node.access();
+        for (int i = 0; i < generalizations.length; i++) {
+            if (!generalizations[i].contains(access.getGeneralization(i))) { return false; }
         }
         return true;
     }
@@ -492,8 +492,9 @@ public class ModelNodeFilter implements Serializable {
             required[j] = new HashSet<Integer>();
         }
         for (final ARXNode node : visible) {
+            final ARXNode.Access access = node.access();
             for (int j = 0; j < optimum.length; j++) {
-                required[j].add(node.getTransformation()[j]);
+                required[j].add(access.getGeneralization(j));
             }
         }
 
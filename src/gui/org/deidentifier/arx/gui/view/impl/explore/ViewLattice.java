@@ -19,7 +19,6 @@ package org.deidentifier.arx.gui.view.impl.explore;
 
 import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -627,7 +626,7 @@ public class ViewLattice extends ViewSolutionSpace {
         for (List<ARXNode> level : this.lattice) {
             for (ARXNode node : level) {
                 if (!node.getAttributes().containsKey(ATTRIBUTE_LABEL)) {
-                    String text = Arrays.toString(node.getTransformation());
+                    String text = node.access().getTransformationAsString();
                     text = text.substring(1, text.length() - 1);
                     text = super.trimLabel(text);
                     node.getAttributes().put(ATTRIBUTE_LABEL, text);
@@ -228,7 +228,7 @@ public class ViewList extends ViewSolutionSpace {
 
         final ARXNode node = list.get(index);
 
-        final String transformation = Arrays.toString(node.getTransformation());
+        final String transformation = node.access().getTransformationAsString();
         item.setText(0, transformation);
 
         final String anonymity = node.getAnonymity().toString();
@@ -39,7 +39,6 @@ import org.eclipse.swt.graphics.Color;
 import org.eclipse.swt.graphics.Point;
 import org.eclipse.swt.widgets.Composite;
 
-import cern.colt.Arrays;
 import de.linearbits.swt.tiles.DecoratorColor;
 import de.linearbits.swt.tiles.DecoratorInteger;
 import de.linearbits.swt.tiles.DecoratorString;
@@ -134,7 +133,7 @@ public class ViewTiles extends ViewSolutionSpace {
         tiles.setDecoratorLabel(new DecoratorString<ARXNode>() {
             @Override
             public String decorate(ARXNode node) {
-                String text = Arrays.toString(node.getTransformation());
+                String text = node.access().getTransformationAsString();
                 text = text.substring(1, text.length() - 1);
                 return trimLabel(text);
             }
@@ -107,6 +107,10 @@ public class DialogProperties implements IDialog {
             protected Integer getValue() { return model.getInputConfig().getGeneticAlgorithmSubpopulationSize(); }
             protected void setValue(Object t) { model.getInputConfig().setGeneticAlgorithmSubpopulationSize((Integer)t); }});
         
+        window.addPreference(new PreferenceInteger(Resources.getMessage("PropertyDialog.145"), 1, 1000, 2) { //$NON-NLS-1$
+            protected Integer getValue() { return model.getInputConfig().getGeneticAlgorithmSubpopulations(); }
+            protected void setValue(Object t) { model.getInputConfig().setGeneticAlgorithmSubpopulations((Integer)t); }});
+        
         window.addPreference(new PreferenceInteger(Resources.getMessage("PropertyDialog.138"), 1, 1000000, 10) { //$NON-NLS-1$
             protected Integer getValue() { return model.getInputConfig().getGeneticAlgorithmImmigrationInterval(); }
             protected void setValue(Object t) { model.getInputConfig().setGeneticAlgorithmImmigrationInterval((Integer)t); }});
@@ -25,7 +25,6 @@ import java.lang.reflect.InvocationTargetException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
@@ -170,6 +169,22 @@ public class WorkerLoad extends Worker<Model> {
         return charset;
     }
 
+    /**
+     * Returns a map from transformations to the nodes in the given lattice.
+     *
+     * @param lattice
+     * @return
+     */
+    private Map<String, ARXNode> getNodes(final ARXLattice lattice) {
+        final Map<String, ARXNode> result = new HashMap<String, ARXNode>();
+        for (final ARXNode[] level : lattice.getLevels()) {
+            for (final ARXNode node : level) {
+                result.put(node.access().getTransformationAsString(), node);
+            }
+        }
+        return result;
+    }
+
     /**
      * Reads the clipboard from the file.
      *
@@ -745,7 +760,8 @@ public class WorkerLoad extends Worker<Model> {
     }
 
     /**
-     * Reads the lattice from several files.
+     * Reads the lattice from the binary file or, for projects saved by previous versions,
+     * from several files.
      *
      * @param zip
      * @return
@@ -759,7 +775,17 @@ public class WorkerLoad extends Worker<Model> {
                                                                        ClassNotFoundException,
                                                                        SAXException, ParserConfigurationException {
 
-        ZipEntry entry = zip.getEntry("infoloss.dat"); //$NON-NLS-1$
+        // Read binary lattice
+        ZipEntry entry = zip.getEntry("lattice.bin"); //$NON-NLS-1$
+        if (entry != null) {
+            final InputStream stream = new BufferedInputStream(zip.getInputStream(entry));
+            lattice = ARXLattice.read(stream);
+            stream.close();
+            return getNodes(lattice);
+        }
+
+        // Legacy format
+        entry = zip.getEntry("infoloss.dat"); //$NON-NLS-1$
         if (entry == null) { return null; }
 
         // Read infoloss
@@ -986,14 +1012,7 @@ public class WorkerLoad extends Worker<Model> {
         lattice.access().setTop(llevels[llevels.length - 1][0]);
 
         // Return the map
-        final Map<String, ARXNode> result = new HashMap<String, ARXNode>();
-        for (final List<ARXNode> e : levels.values()) {
-            for (final ARXNode node : e) {
-                result.put(Arrays.toString(node.getTransformation()), node);
-            }
-        }
-
-        return result;
+        return getNodes(lattice);
     }
 
     /**
@@ -17,26 +17,18 @@
 
 package org.deidentifier.arx.gui.worker;
 
-import java.io.BufferedOutputStream;
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.ObjectOutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
 import java.lang.reflect.InvocationTargetException;
 import java.nio.charset.StandardCharsets;
-import java.util.Arrays;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
-import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
-import java.util.zip.Deflater;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipOutputStream;
 
 import org.apache.commons.io.FileUtils;
 import org.deidentifier.arx.ARXAnonymizer;
@@ -46,6 +38,7 @@ import org.deidentifier.arx.AttributeType;
 import org.deidentifier.arx.AttributeType.Hierarchy;
 import org.deidentifier.arx.DataDefinition;
 import org.deidentifier.arx.DataHandle;
+import org.deidentifier.arx.DataHandleInput;
 import org.deidentifier.arx.DataHandleOutput;
 import org.deidentifier.arx.DataType;
 import org.deidentifier.arx.DataType.DataTypeWithFormat;
@@ -58,9 +51,9 @@ import org.deidentifier.arx.gui.worker.io.FileBuilder;
 import org.deidentifier.arx.gui.worker.io.Vocabulary;
 import org.deidentifier.arx.gui.worker.io.Vocabulary_V2;
 import org.deidentifier.arx.gui.worker.io.XMLWriter;
+import org.deidentifier.arx.gui.worker.io.ZipWriter;
 import org.deidentifier.arx.io.CSVDataOutput;
 import org.deidentifier.arx.io.CSVSyntax;
-import org.deidentifier.arx.metric.InformationLoss;
 import org.eclipse.core.runtime.IProgressMonitor;
 
 /**
@@ -101,9 +94,7 @@ public class WorkerSave extends Worker<Model> {
         File temp = null;
         try {
             temp = File.createTempFile("arx", "deid");
-            final FileOutputStream f = new FileOutputStream(temp);
-            final ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(f));
-            zip.setLevel(Deflater.BEST_SPEED);
+            final ZipWriter zip = new ZipWriter(temp, new File(path), model.getInputConfig().getConfig().getNumberOfThreads());
             model.createConfig(); 
             writeMetadata(model, zip);
             arg0.worked(1);
@@ -115,9 +106,9 @@ public class WorkerSave extends Worker<Model> {
             arg0.worked(1);
             writeConfiguration(model, zip);
             arg0.worked(1);
-            final Map<String, Integer> map = writeLattice(model, zip);
+            writeLattice(model, zip);
             arg0.worked(1);
-            writeClipboard(model, map, zip);
+            writeClipboard(model, zip);
             arg0.worked(1);
             writeFilter(model, zip);
             zip.close();
@@ -144,82 +135,19 @@ public class WorkerSave extends Worker<Model> {
         return a;
     }
 
-    /**
-     * Returns an XML representation of the lattice.
-     *
-     * @param map
-     * @param l
-     * @param zip
-     * @throws IOException
-     */
-    private void toXML(final Map<String, Integer> map,
-                       final ARXLattice l,
-                       final ZipOutputStream zip) throws IOException {
-
-        // Build mapping
-        int id = 0;
-        for (final ARXNode[] level : l.getLevels()) {
-            for (final ARXNode n : level) {
-                final String key = Arrays.toString(n.getTransformation());
-                if (!map.containsKey(key)) {
-                    map.put(key, id++);
-                }
-            }
-        }
-
-        // Write directly because of size
-        final FileBuilder b = new FileBuilder(new OutputStreamWriter(zip));
-        final XMLWriter writer = new XMLWriter(b, true);
-        
-        writer.write(vocabulary.getHeader());
-
-        // Build xml
-        writer.indent(vocabulary.getLattice());
-        for (int i = 0; i < l.getLevels().length; i++) {
-        	
-        	writer.indent(vocabulary.getLevel(), vocabulary.getDepth(), i);
-            for (final ARXNode n : l.getLevels()[i]) {
-                
-            	final String key = Arrays.toString(n.getTransformation());
-                final int currentId = map.get(key);
-                
-                writer.indent(vocabulary.getNode2(), vocabulary.getId(), currentId);
-                writer.write(vocabulary.getTransformation(), n.getTransformation());
-                writer.write(vocabulary.getAnonymity(), n.getAnonymity());
-                writer.write(vocabulary.getChecked(), n.isChecked());
-                if (n.getPredecessors().length > 0) {
-                	writer.write(vocabulary.getPredecessors(), n.getPredecessors(), map);
-                }
-                if (n.getSuccessors().length > 0) {
-                	writer.write(vocabulary.getSuccessors(), n.getSuccessors(), map);
-                }
-                writer.indent(vocabulary.getInfoloss());
-                writer.write(vocabulary.getMax2(), n.getHighestScore().toString());
-                writer.write(vocabulary.getMin2(), n.getLowestScore().toString());
-                writer.unindent();
-                writer.unindent();
-            }
-            writer.unindent();
-        }
-        writer.unindent();
-        b.flush();
-    }
-
     /**
      * Returns an XML representation of the clipboard.
      *
-     * @param map
      * @param clipboard
      * @return
      * @throws IOException
      */
-    private String toXML(final Map<String, Integer> map,
-                         final List<ARXNode> clipboard) throws IOException {
+    private String toXML(final List<ARXNode> clipboard) throws IOException {
 
         XMLWriter writer = new XMLWriter();
         writer.indent(vocabulary.getClipboard()); //$NON-NLS-1$
         for (final ARXNode n : clipboard) {
-        	writer.write(vocabulary.getNode(), Arrays.toString(n.getTransformation())); //$NON-NLS-1$
+        	writer.write(vocabulary.getNode(), n.access().getTransformationAsString()); //$NON-NLS-1$
         }
         writer.unindent();
         return writer.toString();
@@ -383,19 +311,17 @@ public class WorkerSave extends Worker<Model> {
      * Writes the clipboard to the file.
      *
      * @param model
-     * @param map
      * @param zip
      * @throws IOException
      */
     private void writeClipboard(final Model model,
-                                final Map<String, Integer> map,
-                                final ZipOutputStream zip) throws IOException {
+                                final ZipWriter zip) throws IOException {
         if (model.getClipboard().getClipboardEntries().isEmpty()) { return; }
 
         // Write clipboard
-        zip.putNextEntry(new ZipEntry("clipboard.xml")); //$NON-NLS-1$
+        zip.putNextEntry("clipboard.xml"); //$NON-NLS-1$
         final Writer w = new OutputStreamWriter(zip);
-        w.write(toXML(map, model.getClipboard().getClipboardEntries()));
+        w.write(toXML(model.getClipboard().getClipboardEntries()));
         w.flush();
 
     }
@@ -407,7 +333,7 @@ public class WorkerSave extends Worker<Model> {
      * @param zip
      * @throws IOException
      */
-    private void writeConfiguration(final Model model, final ZipOutputStream zip) throws IOException {
+    private void writeConfiguration(final Model model, final ZipWriter zip) throws IOException {
 
         if (model.getInputConfig() != null) {
             writeConfiguration(model.getInputConfig(), "input/", zip); //$NON-NLS-1$
@@ -427,14 +353,14 @@ public class WorkerSave extends Worker<Model> {
      */
     private void writeConfiguration(final ModelConfiguration config,
                                     final String prefix,
-                                    final ZipOutputStream zip) throws IOException {
+                                    final ZipWriter zip) throws IOException {
     	
-        zip.putNextEntry(new ZipEntry(prefix + "config.dat")); //$NON-NLS-1$
+        zip.putNextEntry(prefix + "config.dat"); //$NON-NLS-1$
         final ObjectOutputStream oos = new ObjectOutputStream(zip);
         oos.writeObject(config);
         oos.flush();
 
-        zip.putNextEntry(new ZipEntry(prefix + "config.xml")); //$NON-NLS-1$
+        zip.putNextEntry(prefix + "config.xml"); //$NON-NLS-1$
         final Writer w = new OutputStreamWriter(zip);
         w.write(toXML(config));
         w.flush();
@@ -453,7 +379,7 @@ public class WorkerSave extends Worker<Model> {
      */
     private void writeDefinition(final ModelConfiguration config,
                                  final String prefix,
-                                 final ZipOutputStream zip) throws IOException {
+                                 final ZipWriter zip) throws IOException {
     	
     	// Obtain definition
     	DataDefinition definition = null;
@@ -462,7 +388,7 @@ public class WorkerSave extends Worker<Model> {
     	
     	// Store
 		if (definition != null) {
-			zip.putNextEntry(new ZipEntry(prefix + "definition.xml")); //$NON-NLS-1$
+			zip.putNextEntry(prefix + "definition.xml"); //$NON-NLS-1$
 			final Writer w = new OutputStreamWriter(zip);
 			w.write(toXML(config, config.getInput().getHandle(), definition));
 			w.flush();
@@ -476,9 +402,9 @@ public class WorkerSave extends Worker<Model> {
      * @param zip
      * @throws IOException
      */
-    private void writeFilter(final Model model, final ZipOutputStream zip) throws IOException {
+    private void writeFilter(final Model model, final ZipWriter zip) throws IOException {
         if ((model.getAnonymizer() == null) || (model.getResult() == null)) { return; }
-        zip.putNextEntry(new ZipEntry("filter.dat")); //$NON-NLS-1$
+        zip.putNextEntry("filter.dat"); //$NON-NLS-1$
         final ObjectOutputStream oos = new ObjectOutputStream(zip);
         oos.writeObject(model.getNodeFilter());
         oos.flush();
@@ -494,14 +420,14 @@ public class WorkerSave extends Worker<Model> {
      */
     private void writeHierarchies(final ModelConfiguration config,
                                   final String prefix,
-                                  final ZipOutputStream zip) throws IOException {
+                                  final ZipWriter zip) throws IOException {
 
         // Store all from config
         Set<String> saved = new HashSet<>();
         for (Entry<String, Hierarchy> entry : config.getHierarchies().entrySet()) {
 
             // Store this hierarchy
-            zip.putNextEntry(new ZipEntry(prefix + "hierarchies/" + toFileName(entry.getKey()) + ".csv")); //$NON-NLS-1$ //$NON-NLS-2$
+            zip.putNextEntry(prefix + "hierarchies/" + toFileName(entry.getKey()) + ".csv"); //$NON-NLS-1$ //$NON-NLS-2$
             CSVDataOutput out = new CSVDataOutput(zip, model.getCSVSyntax().getDelimiter());
             out.write(entry.getValue().getHierarchy());
             saved.add(entry.getKey());
@@ -530,7 +456,7 @@ public class WorkerSave extends Worker<Model> {
                     definition.getHierarchy(attr)[0].length != 0) {
 
                     // Store this hierarchy
-                    zip.putNextEntry(new ZipEntry(prefix + "hierarchies/" + toFileName(attr) + ".csv")); //$NON-NLS-1$ //$NON-NLS-2$
+                    zip.putNextEntry(prefix + "hierarchies/" + toFileName(attr) + ".csv"); //$NON-NLS-1$ //$NON-NLS-2$
                     CSVDataOutput out = new CSVDataOutput(zip, model.getCSVSyntax().getDelimiter());
                     out.write(definition.getHierarchy(attr));
                     saved.add(attr);
@@ -546,10 +472,16 @@ public class WorkerSave extends Worker<Model> {
      * @param zip
      * @throws IOException
      */
-    private void writeInput(final Model model, final ZipOutputStream zip) throws IOException {
+    private void writeInput(final Model model, final ZipWriter zip) throws IOException {
         if (model.getInputConfig().getInput() != null) {
-            if (model.getInputConfig().getInput().getHandle() != null) {
-                zip.putNextEntry(new ZipEntry("data/input.csv")); //$NON-NLS-1$
+            DataHandle handle = model.getInputConfig().getInput().getHandle();
+            if (handle != null) {
+
+                // Skip, if unchanged
+                String fingerprint = handle instanceof DataHandleInput ? model.getCSVSyntax().getDelimiter() + ((DataHandleInput) handle).getFingerprint() : null;
+                if (!zip.putNextEntry("data/input.csv", fingerprint)) { //$NON-NLS-1$
+                    return;
+                }
                 
                 // Write UTF-8 only
                 final CSVDataOutput out = new CSVDataOutput(zip,
@@ -560,10 +492,7 @@ public class WorkerSave extends Worker<Model> {
                                                             StandardCharsets.UTF_8);
                 
                 // Write
-                out.write(model.getInputConfig()
-                               .getInput()
-                               .getHandle()
-                               .iterator());
+                out.write(handle.iterator());
                 
             }
         }
@@ -574,64 +503,17 @@ public class WorkerSave extends Worker<Model> {
      *
      * @param model
      * @param zip
-     * @return
      * @throws IOException
      */
-    private Map<String, Integer> writeLattice(final Model model, final ZipOutputStream zip) throws IOException {
+    private void writeLattice(final Model model, final ZipWriter zip) throws IOException {
 
-        // Mapping
-        final Map<String, Integer> map = new HashMap<String, Integer>();
         if ((model.getResult() == null) ||
-            (model.getResult().getLattice() == null)) { return map; }
+            (model.getResult().getLattice() == null)) { return; }
 
         // Write lattice
         final ARXLattice l = model.getResult().getLattice();
-        zip.putNextEntry(new ZipEntry("lattice.xml")); //$NON-NLS-1$
-        toXML(map, l, zip);
-
-        zip.putNextEntry(new ZipEntry("lattice.dat")); //$NON-NLS-1$
-        ObjectOutputStream oos = new ObjectOutputStream(zip);
-        oos.writeObject(model.getResult().getLattice());
-        oos.writeObject(model.getResult()
-                             .getLattice()
-                             .access()
-                             .getAttributeMap());
-        oos.flush();
-
-        // Write score
-        zip.putNextEntry(new ZipEntry("infoloss.dat")); //$NON-NLS-1$
-        final Map<Integer, InformationLoss<?>> max = new HashMap<Integer, InformationLoss<?>>();
-        final Map<Integer, InformationLoss<?>> min = new HashMap<Integer, InformationLoss<?>>();
-        for (final ARXNode[] level : l.getLevels()) {
-            for (final ARXNode n : level) {
-                final String key = Arrays.toString(n.getTransformation());
-                min.put(map.get(key), n.getLowestScore());
-                max.put(map.get(key), n.getHighestScore());
-            }
-        }
-        oos = new ObjectOutputStream(zip);
-        oos.writeObject(min);
-        oos.writeObject(max);
-        oos.flush();
-        min.clear();
-        max.clear();
-
-        // Write attributes
-        zip.putNextEntry(new ZipEntry("attributes.dat")); //$NON-NLS-1$
-        final Map<Integer, Map<Integer, Object>> attrs = new HashMap<Integer, Map<Integer, Object>>();
-        for (final ARXNode[] level : l.getLevels()) {
-            for (final ARXNode n : level) {
-                final String key = Arrays.toString(n.getTransformation());
-                attrs.put(map.get(key), n.getAttributes());
-            }
-        }
-        oos = new ObjectOutputStream(zip);
-        oos.writeObject(attrs);
-        oos.flush();
-        attrs.clear();
-
-        // Return mapping
-        return map;
+        zip.putNextEntry("lattice.bin"); //$NON-NLS-1$
+        l.write(zip);
     }
 
     /**
@@ -641,10 +523,10 @@ public class WorkerSave extends Worker<Model> {
      * @param zip
      * @throws IOException
      */
-    private void writeMetadata(final Model model, final ZipOutputStream zip) throws IOException {
+    private void writeMetadata(final Model model, final ZipWriter zip) throws IOException {
     	
         // Write metadata
-        zip.putNextEntry(new ZipEntry("metadata.xml")); //$NON-NLS-1$
+        zip.putNextEntry("metadata.xml"); //$NON-NLS-1$
         final OutputStreamWriter w = new OutputStreamWriter(zip);
         XMLWriter writer = new XMLWriter(new FileBuilder(w));
         writer.indent(vocabulary.getMetadata());
@@ -662,17 +544,17 @@ public class WorkerSave extends Worker<Model> {
      * @param zip
      * @throws IOException
      */
-    private void writeModel(final Model model, final ZipOutputStream zip) throws IOException {
+    private void writeModel(final Model model, final ZipWriter zip) throws IOException {
         
         // Backwards compatibility
         model.setCharset("UTF-8");
         
-        zip.putNextEntry(new ZipEntry("project.dat")); //$NON-NLS-1$
+        zip.putNextEntry("project.dat"); //$NON-NLS-1$
         final ObjectOutputStream oos = new ObjectOutputStream(zip);
         oos.writeObject(model);
         oos.flush();
 
-        zip.putNextEntry(new ZipEntry("project.xml")); //$NON-NLS-1$
+        zip.putNextEntry("project.xml"); //$NON-NLS-1$
         final Writer w = new OutputStreamWriter(zip);
         w.write(toXML(model));
         w.flush();
@@ -685,9 +567,9 @@ public class WorkerSave extends Worker<Model> {
      * @param zip
      * @throws IOException
      */
-    private void writeOutput(final Model model, final ZipOutputStream zip) throws IOException {
+    private void writeOutput(final Model model, final ZipWriter zip) throws IOException {
         if (model.getOutput() != null) {
-            zip.putNextEntry(new ZipEntry("data/output.dat")); //$NON-NLS-1$
+            zip.putNextEntry("data/output.dat"); //$NON-NLS-1$
             ((DataHandleOutput) model.getOutput()).write(zip);
         }
     }
@@ -197,7 +197,7 @@ public class XMLWriter {
 	public void write(String attribute, ARXNode[] array, Map<String, Integer> map) throws IOException {
 		StringBuilder builder = new StringBuilder();
 		 for (int j = 0; j < array.length; j++) {
-			 builder.append(map.get(Arrays.toString(array[j].getTransformation())));
+			 builder.append(map.get(array[j].access().getTransformationAsString()));
              if (j < (array.length - 1)) {
             	 builder.append(","); //$NON-NLS-1$
              }
@@ -0,0 +1,865 @@
+/*
+ * ARX Data Anonymization Tool
+ * Copyright 2012 - 2022 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.gui.worker.io;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import org.deidentifier.arx.common.WorkerPool;
+
+/**
+ * Writes ZIP archives, which can be read with java.util.zip. Entries are buffered and
+ * compressed in parallel by splitting them into chunks, which are deflated independently
+ * with the preceding data as a preset dictionary. Entries which exceed a size threshold are
+ * compressed sequentially while they are written, and their checksums and sizes are stored in
+ * data descriptors. A fingerprint of each entry is stored as its comment. If a previous version
+ * of the archive contains an entry with the same name and fingerprint, its compressed data is
+ * copied instead. Callers may provide fingerprints, which allows them to skip rendering unchanged
+ * entries altogether. Large entries can only be copied if a fingerprint is provided.
+ *
+ * @author Fabian Prasser
+ */
+public class ZipWriter extends OutputStream {
+
+    /**
+     * A buffer providing access to its content
+     *
+     * @author Fabian Prasser
+     */
+    private static class Buffer extends ByteArrayOutputStream {
+
+        /**
+         * Returns the underlying array
+         * @return
+         */
+        private byte[] getArray() {
+            return buf;
+        }
+    }
+
+    /**
+     * An entry in an archive
+     *
+     * @author Fabian Prasser
+     */
+    private static class Entry {
+
+        /** Name */
+        private byte[] name;
+
+        /** Comment */
+        private byte[] comment;
+
+        /** General purpose flags in addition to the encoding of names */
+        private int    flags;
+
+        /** Compression method */
+        private int    method;
+
+        /** Checksum */
+        private long   crc;
+
+        /** Compressed size */
+        private long   compressedSize;
+
+        /** Uncompressed size */
+        private long   size;
+
+        /** Offset of the local header */
+        private long   offset;
+    }
+
+    /** Size of chunks which are compressed independently */
+    private static final int   CHUNK_SIZE      = 1 << 18;
+
+    /** Size of preset dictionaries */
+    private static final int   DICTIONARY_SIZE = 1 << 15;
+
+    /** Size of entries above which they are compressed while they are written */
+    private static final int   STREAM_SIZE     = 1 << 24;
+
+    /** Value indicating that a field is stored in the ZIP64 extra field */
+    private static final long  ZIP64_MARKER    = 0xFFFFFFFFL;
+
+    /** Compression method */
+    private static final int   DEFLATED        = 8;
+
+    /** Compression method */
+    private static final int   STORED          = 0;
+
+    /** Flag for UTF-8 encoded names */
+    private static final int   FLAG_UTF8       = 1 << 11;
+
+    /** Flag for checksums and sizes which are stored in a data descriptor */
+    private static final int   FLAG_DESCRIPTOR = 1 << 3;
+
+    /** The buffer of the current entry */
+    private final Buffer       buffer          = new Buffer();
+
+    /** The DOS timestamp of all entries */
+    private final long         time;
+
+    /** Entries written so far */
+    private final List<Entry>  entries         = new ArrayList<Entry>();
+
+    /** The output */
+    private final OutputStream out;
+
+    /** Entries of the previous version of the archive */
+    private final Map<String, Entry> previousEntries = new HashMap<String, Entry>();
+
+    /** The previous version of the archive, if any */
+    private RandomAccessFile   previous;
+
+    /** Pool for compressing chunks in parallel, null if chunks are compressed sequentially */
+    private final WorkerPool   pool;
+
+    /** The name of the current entry, null if there is none */
+    private String             name;
+
+    /** The fingerprint of the current entry, null if it is computed from its content */
+    private String             fingerprint;
+
+    /** The current offset */
+    private long               offset          = 0;
+
+    /** The current entry, if it is compressed while it is written, null otherwise */
+    private Entry              streamed;
+
+    /** Compresses the current entry, if it is compressed while it is written */
+    private Deflater           deflater;
+
+    /** Checksum of the current entry, if it is compressed while it is written */
+    private CRC32              checksum;
+
+    /** Digest of the current entry, if it is compressed while it is written without a fingerprint */
+    private MessageDigest      digest;
+
+    /** Output buffer of the deflater */
+    private byte[]             compressed;
+
+    /**
+     * Creates a new instance, which compresses entries in the current thread. If a previous
+     * version of the archive is given, compressed data of unchanged entries is copied from it.
+     *
+     * @param file
+     * @param previous May be null
+     * @throws IOException
+     */
+    public ZipWriter(File file, File previous) throws IOException {
+        this(file, previous, 1);
+    }
+
+    /**
+     * Creates a new instance, which compresses entries with the given number of threads. If a
+     * previous version of the archive is given, compressed data of unchanged entries is copied from it.
+     *
+     * @param file
+     * @param previous May be null
+     * @param threads
+     * @throws IOException
+     */
+    public ZipWriter(File file, File previous, int threads) throws IOException {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Number of threads must be > 0");
+        }
+        this.out = new BufferedOutputStream(new FileOutputStream(file), 1 << 16);
+        this.pool = threads > 1 ? new WorkerPool(threads) : null;
+        this.time = getDOSTime();
+        if (previous != null && previous.isFile()) {
+            try {
+                this.previous = new RandomAccessFile(previous, "r");
+                readPreviousEntries();
+            } catch (IOException | RuntimeException e) {
+                // Just don't reuse anything
+                this.previousEntries.clear();
+                closePrevious();
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            closeEntry();
+            writeCentralDirectory();
+            out.close();
+        } finally {
+            closePrevious();
+            if (deflater != null) {
+                deflater.end();
+                deflater = null;
+            }
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        // Entries are written when they are complete
+    }
+
+    /**
+     * Begins a new entry, the fingerprint of which is computed from its content
+     *
+     * @param name
+     * @throws IOException
+     */
+    public void putNextEntry(String name) throws IOException {
+        putNextEntry(name, null);
+    }
+
+    /**
+     * Begins a new entry with the given fingerprint. Returns false, if an unchanged
+     * entry has been copied from the previous version of the archive. In this case,
+     * no content must be written.
+     *
+     * @param name
+     * @param fingerprint
+     * @return
+     * @throws IOException
+     */
+    public boolean putNextEntry(String name, String fingerprint) throws IOException {
+        closeEntry();
+        if (fingerprint != null && copyEntry(name, fingerprint)) {
+            return false;
+        }
+        this.name = name;
+        this.fingerprint = fingerprint;
+        this.buffer.reset();
+        return true;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        checkEntry();
+        if (streamed == null && buffer.size() + len > STREAM_SIZE) {
+            beginStream();
+        }
+        if (streamed != null) {
+            stream(b, off, len);
+        } else {
+            buffer.write(b, off, len);
+        }
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        checkEntry();
+        if (streamed == null && buffer.size() < STREAM_SIZE) {
+            buffer.write(b);
+        } else {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+    }
+
+    /**
+     * Writes the local header of the current entry and compresses the buffered content.
+     * All further content of the entry is compressed while it is written.
+     *
+     * @throws IOException
+     */
+    private void beginStream() throws IOException {
+        streamed = new Entry();
+        streamed.name = name.getBytes(StandardCharsets.UTF_8);
+        streamed.flags = FLAG_DESCRIPTOR;
+        streamed.method = DEFLATED;
+        writeLocalHeader(streamed);
+        deflater = new Deflater(Deflater.BEST_SPEED, true);
+        checksum = new CRC32();
+        digest = fingerprint == null ? getDigest() : null;
+        compressed = new byte[1 << 16];
+        stream(buffer.getArray(), 0, buffer.size());
+        buffer.reset();
+    }
+
+    /**
+     * Checks whether content can be written
+     *
+     * @throws IOException
+     */
+    private void checkEntry() throws IOException {
+        if (name == null) {
+            throw new IOException("No current entry");
+        }
+    }
+
+    /**
+     * Completes the current entry, if any
+     *
+     * @throws IOException
+     */
+    private void closeEntry() throws IOException {
+
+        // Check
+        if (name == null) {
+            return;
+        }
+        String name = this.name;
+        this.name = null;
+
+        // Complete, if compressed while written
+        if (streamed != null) {
+            closeStream();
+            return;
+        }
+
+        // Reuse, if unchanged
+        final byte[] data = buffer.getArray();
+        final int size = buffer.size();
+        String fingerprint = this.fingerprint;
+        if (fingerprint == null) {
+            MessageDigest digest = getDigest();
+            digest.update(data, 0, size);
+            fingerprint = getFingerprint(digest);
+        }
+        if (this.fingerprint == null && copyEntry(name, fingerprint)) {
+            return;
+        }
+
+        // Compress chunks
+        List<Callable<byte[]>> tasks = new ArrayList<Callable<byte[]>>();
+        for (int start = 0; start < size || start == 0; start += CHUNK_SIZE) {
+            final int chunk = start;
+            tasks.add(new Callable<byte[]>() {
+                @Override
+                public byte[] call() throws Exception {
+                    return compress(data, chunk, Math.min(chunk + CHUNK_SIZE, size), size);
+                }
+            });
+        }
+        List<byte[]> chunks = pool == null || tasks.size() == 1 ? getResultSequential(tasks) : pool.invokeAll(tasks);
+
+        // Prepare
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, size);
+        Entry entry = new Entry();
+        entry.name = name.getBytes(StandardCharsets.UTF_8);
+        entry.comment = fingerprint.getBytes(StandardCharsets.UTF_8);
+        entry.method = DEFLATED;
+        entry.crc = crc.getValue();
+        entry.size = size;
+        for (byte[] chunk : chunks) {
+            entry.compressedSize += chunk.length;
+        }
+
+        // Write
+        writeLocalHeader(entry);
+        for (byte[] chunk : chunks) {
+            writeBytes(chunk, chunk.length);
+        }
+        buffer.reset();
+    }
+
+    /**
+     * Closes the previous version of the archive
+     */
+    private void closePrevious() {
+        if (previous != null) {
+            try {
+                previous.close();
+            } catch (IOException e) {
+                // Ignore
+            }
+            previous = null;
+        }
+    }
+
+    /**
+     * Completes the current entry, which has been compressed while it was written,
+     * by writing its data descriptor
+     *
+     * @throws IOException
+     */
+    private void closeStream() throws IOException {
+
+        // Compress remaining data
+        deflater.finish();
+        while (!deflater.finished()) {
+            deflate();
+        }
+        deflater.end();
+
+        // Complete entry
+        Entry entry = streamed;
+        entry.crc = checksum.getValue();
+        entry.comment = (fingerprint != null ? fingerprint : getFingerprint(digest)).getBytes(StandardCharsets.UTF_8);
+        streamed = null;
+        deflater = null;
+        checksum = null;
+        digest = null;
+        compressed = null;
+
+        // Write data descriptor
+        writeInt(0x08074b50L);
+        writeInt(entry.crc);
+        if (entry.size >= ZIP64_MARKER || entry.compressedSize >= ZIP64_MARKER) {
+            writeLong(entry.compressedSize);
+            writeLong(entry.size);
+        } else {
+            writeInt(entry.compressedSize);
+            writeInt(entry.size);
+        }
+    }
+
+    /**
+     * Compresses a chunk of the given data
+     *
+     * @param data
+     * @param start
+     * @param end
+     * @param size
+     * @return
+     */
+    private byte[] compress(byte[] data, int start, int end, int size) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+        try {
+            if (start > 0) {
+                int length = Math.min(start, DICTIONARY_SIZE);
+                deflater.setDictionary(data, start - length, length);
+            }
+            deflater.setInput(data, start, end - start);
+            ByteArrayOutputStream result = new ByteArrayOutputStream((end - start) / 2 + 64);
+            byte[] output = new byte[1 << 16];
+            if (end == size) {
+                deflater.finish();
+                while (!deflater.finished()) {
+                    result.write(output, 0, deflater.deflate(output));
+                }
+            } else {
+                while (!deflater.needsInput()) {
+                    result.write(output, 0, deflater.deflate(output));
+                }
+                int length;
+                do {
+                    length = deflater.deflate(output, 0, output.length, Deflater.SYNC_FLUSH);
+                    result.write(output, 0, length);
+                } while (length == output.length);
+            }
+            return result.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Copies an entry with the given name and fingerprint from the previous version
+     * of the archive. Returns false, if there is no such entry.
+     *
+     * @param name
+     * @param fingerprint
+     * @return
+     * @throws IOException
+     */
+    private boolean copyEntry(String name, String fingerprint) throws IOException {
+
+        // Check
+        Entry source = previousEntries.get(name);
+        if (source == null || !fingerprint.equals(new String(source.comment, StandardCharsets.UTF_8))) {
+            return false;
+        }
+
+        // Locate data
+        previous.seek(source.offset);
+        byte[] header = new byte[30];
+        previous.readFully(header);
+        if (getInt(header, 0) != 0x04034b50L) {
+            return false;
+        }
+        previous.seek(source.offset + 30 + getShort(header, 26) + getShort(header, 28));
+
+        // Copy
+        Entry entry = new Entry();
+        entry.name = source.name;
+        entry.comment = source.comment;
+        entry.method = source.method;
+        entry.crc = source.crc;
+        entry.size = source.size;
+        entry.compressedSize = source.compressedSize;
+        writeLocalHeader(entry);
+        byte[] data = new byte[1 << 16];
+        for (long remaining = source.compressedSize; remaining > 0;) {
+            int length = (int) Math.min(data.length, remaining);
+            previous.readFully(data, 0, length);
+            writeBytes(data, length);
+            remaining -= length;
+        }
+        return true;
+    }
+
+    /**
+     * Writes the output of the deflater of the current entry
+     *
+     * @throws IOException
+     */
+    private void deflate() throws IOException {
+        int length = deflater.deflate(compressed);
+        writeBytes(compressed, length);
+        streamed.compressedSize += length;
+    }
+
+    /**
+     * Returns a digest for computing fingerprints
+     *
+     * @return
+     */
+    private MessageDigest getDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Returns the current time in DOS format
+     *
+     * @return
+     */
+    private long getDOSTime() {
+        Calendar calendar = Calendar.getInstance();
+        int year = Math.max(calendar.get(Calendar.YEAR), 1980);
+        return ((year - 1980) << 25) | ((calendar.get(Calendar.MONTH) + 1) << 21) |
+               (calendar.get(Calendar.DAY_OF_MONTH) << 16) | (calendar.get(Calendar.HOUR_OF_DAY) << 11) |
+               (calendar.get(Calendar.MINUTE) << 5) | (calendar.get(Calendar.SECOND) >> 1);
+    }
+
+    /**
+     * Returns the fingerprint of the data passed to the given digest
+     *
+     * @param digest
+     * @return
+     */
+    private String getFingerprint(MessageDigest digest) {
+        return new BigInteger(1, digest.digest()).toString(16);
+    }
+
+    /**
+     * Reads a little-endian 4-byte value
+     *
+     * @param data
+     * @param offset
+     * @return
+     */
+    private long getInt(byte[] data, int offset) {
+        return (getShort(data, offset) | ((long) getShort(data, offset + 2) << 16)) & 0xFFFFFFFFL;
+    }
+
+    /**
+     * Reads a little-endian 8-byte value
+     *
+     * @param data
+     * @param offset
+     * @return
+     */
+    private long getLong(byte[] data, int offset) {
+        return getInt(data, offset) | (getInt(data, offset + 4) << 32);
+    }
+
+    /**
+     * Executes the given tasks in the current thread
+     *
+     * @param tasks
+     * @return
+     * @throws IOException
+     */
+    private List<byte[]> getResultSequential(List<Callable<byte[]>> tasks) throws IOException {
+        List<byte[]> result = new ArrayList<byte[]>();
+        for (Callable<byte[]> task : tasks) {
+            try {
+                result.add(task.call());
+            } catch (Exception e) {
+                throw new IOException(e);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Reads a little-endian 2-byte value
+     *
+     * @param data
+     * @param offset
+     * @return
+     */
+    private int getShort(byte[] data, int offset) {
+        return (data[offset] & 0xFF) | ((data[offset + 1] & 0xFF) << 8);
+    }
+
+    /**
+     * Reads the central directory of the previous version of the archive
+     *
+     * @throws IOException
+     */
+    private void readPreviousEntries() throws IOException {
+
+        // Find end of central directory
+        long length = previous.length();
+        int tail = (int) Math.min(length, 22 + 0xFFFF);
+        byte[] data = new byte[tail];
+        previous.seek(length - tail);
+        previous.readFully(data);
+        int end = -1;
+        for (int i = tail - 22; i >= 0 && end == -1; i--) {
+            if (getInt(data, i) == 0x06054b50L) {
+                end = i;
+            }
+        }
+        if (end == -1) {
+            return;
+        }
+        long size = getInt(data, end + 12);
+        long offset = getInt(data, end + 16);
+        if (size == ZIP64_MARKER || offset == ZIP64_MARKER) {
+            return;
+        }
+
+        // Read central directory
+        data = new byte[(int) size];
+        previous.seek(offset);
+        previous.readFully(data);
+        for (int i = 0; i + 46 <= data.length && getInt(data, i) == 0x02014b50L;) {
+            Entry entry = new Entry();
+            int flags = getShort(data, i + 8);
+            entry.method = getShort(data, i + 10);
+            entry.crc = getInt(data, i + 16);
+            entry.compressedSize = getInt(data, i + 20);
+            entry.size = getInt(data, i + 24);
+            int nameLength = getShort(data, i + 28);
+            int extraLength = getShort(data, i + 30);
+            int commentLength = getShort(data, i + 32);
+            entry.offset = getInt(data, i + 42);
+            int position = i + 46;
+            entry.name = new byte[nameLength];
+            System.arraycopy(data, position, entry.name, 0, nameLength);
+            position += nameLength;
+
+            // ZIP64 extra field
+            for (int extra = position; extra + 4 <= position + extraLength;) {
+                int id = getShort(data, extra);
+                int next = extra + 4 + getShort(data, extra + 2);
+                if (id == 0x0001) {
+                    int field = extra + 4;
+                    if (entry.size == ZIP64_MARKER) {
+                        entry.size = getLong(data, field);
+                        field += 8;
+                    }
+                    if (entry.compressedSize == ZIP64_MARKER) {
+                        entry.compressedSize = getLong(data, field);
+                        field += 8;
+                    }
+                    if (entry.offset == ZIP64_MARKER) {
+                        entry.offset = getLong(data, field);
+                    }
+                }
+                extra = next;
+            }
+            position += extraLength;
+            entry.comment = new byte[commentLength];
+            System.arraycopy(data, position, entry.comment, 0, commentLength);
+            position += commentLength;
+
+            // Only use unencrypted entries in supported formats
+            if ((flags & 1) == 0 && (entry.method == DEFLATED || entry.method == STORED)) {
+                previousEntries.put(new String(entry.name, StandardCharsets.UTF_8), entry);
+            }
+            i = position;
+        }
+    }
+
+    /**
+     * Compresses the given content of the current entry
+     *
+     * @param data
+     * @param start
+     * @param length
+     * @throws IOException
+     */
+    private void stream(byte[] data, int start, int length) throws IOException {
+        checksum.update(data, start, length);
+        if (digest != null) {
+            digest.update(data, start, length);
+        }
+        streamed.size += length;
+        deflater.setInput(data, start, length);
+        while (!deflater.needsInput()) {
+            deflate();
+        }
+    }
+
+    /**
+     * Writes the given bytes and updates the offset
+     *
+     * @param data
+     * @param length
+     * @throws IOException
+     */
+    private void writeBytes(byte[] data, int length) throws IOException {
+        out.write(data, 0, length);
+        offset += length;
+    }
+
+    /**
+     * Writes the central directory and its end records
+     *
+     * @throws IOException
+     */
+    private void writeCentralDirectory() throws IOException {
+
+        // Entries
+        long start = offset;
+        for (Entry entry : entries) {
+            boolean zip64 = entry.size >= ZIP64_MARKER || entry.compressedSize >= ZIP64_MARKER || entry.offset >= ZIP64_MARKER;
+            writeInt(0x02014b50L);
+            writeShort(zip64 ? 45 : 20);
+            writeShort(zip64 ? 45 : 20);
+            writeShort(FLAG_UTF8 | entry.flags);
+            writeShort(entry.method);
+            writeInt(time);
+            writeInt(entry.crc);
+            writeInt(zip64 ? ZIP64_MARKER : entry.compressedSize);
+            writeInt(zip64 ? ZIP64_MARKER : entry.size);
+            writeShort(entry.name.length);
+            writeShort(zip64 ? 28 : 0);
+            writeShort(entry.comment.length);
+            writeShort(0);
+            writeShort(0);
+            writeInt(0);
+            writeInt(zip64 ? ZIP64_MARKER : entry.offset);
+            writeBytes(entry.name, entry.name.length);
+            if (zip64) {
+                writeShort(0x0001);
+                writeShort(24);
+                writeLong(entry.size);
+                writeLong(entry.compressedSize);
+                writeLong(entry.offset);
+            }
+            writeBytes(entry.comment, entry.comment.length);
+        }
+        long size = offset - start;
+
+        // ZIP64 end of central directory record and locator
+        boolean zip64 = entries.size() >= 0xFFFF || size >= ZIP64_MARKER || start >= ZIP64_MARKER;
+        if (zip64) {
+            long end = offset;
+            writeInt(0x06064b50L);
+            writeLong(44);
+            writeShort(45);
+            writeShort(45);
+            writeInt(0);
+            writeInt(0);
+            writeLong(entries.size());
+            writeLong(entries.size());
+            writeLong(size);
+            writeLong(start);
+            writeInt(0x07064b50L);
+            writeInt(0);
+            writeLong(end);
+            writeInt(1);
+        }
+
+        // End of central directory record
+        writeInt(0x06054b50L);
+        writeShort(0);
+        writeShort(0);
+        writeShort(zip64 ? 0xFFFF : entries.size());
+        writeShort(zip64 ? 0xFFFF : entries.size());
+        writeInt(zip64 ? ZIP64_MARKER : size);
+        writeInt(zip64 ? ZIP64_MARKER : start);
+        writeShort(0);
+    }
+
+    /**
+     * Writes a little-endian 4-byte value
+     *
+     * @param value
+     * @throws IOException
+     */
+    private void writeInt(long value) throws IOException {
+        writeShort((int) (value & 0xFFFF));
+        writeShort((int) ((value >>> 16) & 0xFFFF));
+    }
+
+    /**
+     * Writes the local header of the given entry and registers the entry
+     *
+     * @param entry
+     * @throws IOException
+     */
+    private void writeLocalHeader(Entry entry) throws IOException {
+        entry.offset = offset;
+        boolean zip64 = entry.size >= ZIP64_MARKER || entry.compressedSize >= ZIP64_MARKER;
+        writeInt(0x04034b50L);
+        writeShort(zip64 ? 45 : 20);
+        writeShort(FLAG_UTF8 | entry.flags);
+        writeShort(entry.method);
+        writeInt(time);
+        writeInt(entry.crc);
+        writeInt(zip64 ? ZIP64_MARKER : entry.compressedSize);
+        writeInt(zip64 ? ZIP64_MARKER : entry.size);
+        writeShort(entry.name.length);
+        writeShort(zip64 ? 20 : 0);
+        writeBytes(entry.name, entry.name.length);
+        if (zip64) {
+            writeShort(0x0001);
+            writeShort(16);
+            writeLong(entry.size);
+            writeLong(entry.compressedSize);
+        }
+        entries.add(entry);
+    }
+
+    /**
+     * Writes a little-endian 8-byte value
+     *
+     * @param value
+     * @throws IOException
+     */
+    private void writeLong(long value) throws IOException {
+        writeInt(value & 0xFFFFFFFFL);
+        writeInt(value >>> 32);
+    }
+
+    /**
+     * Writes a little-endian 2-byte value
+     *
+     * @param value
+     * @throws IOException
+     */
+    private void writeShort(int value) throws IOException {
+        out.write(value & 0xFF);
+        out.write((value >>> 8) & 0xFF);
+        offset += 2;
+    }
+}
@@ -695,6 +695,7 @@ public class ARXAnonymizer { // NO_UCD
                                       config.getGeneticAlgorithmImmigrationInterval(),
                                       config.getGeneticAlgorithmMutationProbability(),
                                       config.getGeneticAlgorithmSubpopulationSize(),
+                                      config.getGeneticAlgorithmSubpopulations(),
                                       config.getGeneticAlgorithmProductionFraction(),
                                       config.getHeuristicSearchTimeLimit(),
                                       config.getHeuristicSearchStepLimit(SearchStepSemantics.CHECKS, numQIs));
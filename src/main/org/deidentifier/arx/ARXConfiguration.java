@@ -138,6 +138,14 @@ public class ARXConfiguration implements Serializable, Cloneable {
             return config.getMonotonicityOfUtility();
         }
 
+        /**
+         * Returns the number of threads which may be used
+         * @return
+         */
+        public int getNumberOfThreads() {
+            return config.getNumberOfThreads();
+        }
+
         /**
          * 
          *
@@ -431,9 +439,15 @@ public class ARXConfiguration implements Serializable, Cloneable {
     /** Number of GA iterations */
     private Integer                            geneticAlgorithmIterations            = 50;
 
+    /** Number of GA sub-populations */
+    private Integer                            geneticAlgorithmSubpopulations        = 2;
+
     /** The algorithm to use */
     private AnonymizationAlgorithm             algorithm                             = AnonymizationAlgorithm.OPTIMAL;
 
+    /** Number of threads to use */
+    private Integer                            numberOfThreads                       = 1;
+
 	
     /**
      * Creates a new configuration without tuple suppression.
@@ -574,7 +588,9 @@ public class ARXConfiguration implements Serializable, Cloneable {
         result.geneticAlgorithmMutationProbability = this.geneticAlgorithmMutationProbability;
 		result.geneticAlgorithmProductionFraction = this.geneticAlgorithmProductionFraction;
         result.geneticAlgorithmIterations = this.geneticAlgorithmIterations;
+        result.geneticAlgorithmSubpopulations = this.geneticAlgorithmSubpopulations;
         result.algorithm = this.algorithm;
+        result.numberOfThreads = this.numberOfThreads;
         if (this.attributeWeights != null) {
             result.attributeWeights = new HashMap<String, Double>(this.attributeWeights);
         } else {
@@ -748,6 +764,17 @@ public class ARXConfiguration implements Serializable, Cloneable {
 		}
 		return geneticAlgorithmSubpopulationSize;
 	}
+
+    /**
+	 * Returns the number of sub-populations
+	 * @return
+	 */
+	public int getGeneticAlgorithmSubpopulations() {
+		if (this.geneticAlgorithmSubpopulations == null) {
+			this.geneticAlgorithmSubpopulations = 2;
+		}
+		return geneticAlgorithmSubpopulations;
+	}
 	
     /**
      * The heuristic search algorithm will terminate after the returned number of steps.
@@ -889,6 +916,18 @@ public class ARXConfiguration implements Serializable, Cloneable {
         }
     }
     
+    /**
+     * Returns the number of threads which may be used for anonymization. The default is 1.
+     * @return
+     */
+    public int getNumberOfThreads() {
+        // Ensure backwards compatibility
+        if (this.numberOfThreads == null) {
+            this.numberOfThreads = 1;
+        }
+        return this.numberOfThreads;
+    }
+    
     /**
      * Returns an instance of the class, if any. Throws an exception if more than one such model exists.
      *
@@ -1226,6 +1265,18 @@ public class ARXConfiguration implements Serializable, Cloneable {
 		this.geneticAlgorithmSubpopulationSize = geneticAlgorithmSubpopulationSize;
 	}
 
+	/**
+	 * Sets the number of sub-populations. Sub-populations exchange their fittest individuals
+	 * in a ring. The default is 2.
+	 * @param geneticAlgorithmSubpopulations
+	 */
+	public void setGeneticAlgorithmSubpopulations(int geneticAlgorithmSubpopulations) {
+		if (geneticAlgorithmSubpopulations <= 0) {
+			throw new IllegalArgumentException("Parameter must be > 0");
+		}
+		this.geneticAlgorithmSubpopulations = geneticAlgorithmSubpopulations;
+	}
+
 	/**
      * The heuristic search algorithm will terminate after the given number of transformations
      * have been checked. The default is <code>Integer.MAX_VALUE</code>, i.e. no limit. ARX supports different
@@ -1284,6 +1335,15 @@ public class ARXConfiguration implements Serializable, Cloneable {
         this.relMaxOutliers = max;
     }
 
+	/**
+     * Sets the number of threads which may be used for anonymization. The default is 1.
+     * @param threads
+     */
+    public void setNumberOfThreads(int threads) {
+        if (threads <= 0) { throw new IllegalArgumentException("Parameter must be > 0"); }
+        this.numberOfThreads = threads;
+    }
+
 	/**
      * Set, if practical monotonicity assumed.
      *
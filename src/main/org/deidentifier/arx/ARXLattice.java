@@ -18,7 +18,12 @@
 package org.deidentifier.arx;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInput;
 import java.io.ObjectInputStream;
+import java.io.ObjectOutput;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
 import java.io.Serializable;
 import java.math.BigInteger;
 import java.util.ArrayList;
@@ -83,7 +88,7 @@ public class ARXLattice implements Serializable {
          * @return
          */
         public Map<String, Integer> getAttributeMap() {
-            return bottom.headermap;
+            return lattice.store.getHeaderMap();
         }
 
         /**
@@ -227,20 +232,41 @@ public class ARXLattice implements Serializable {
                 this.node = node;
             }
 
+            /**
+             * Returns the generalization level of the given dimension without
+             * copying the transformation.
+             *
+             * @param dimension
+             * @return
+             */
+            public int getGeneralization(final int dimension) {
+                return node.lattice.store.getGeneralization(node.index, dimension);
+            }
+
+            /**
+             * Renders the transformation like Arrays.toString(int[]) without
+             * copying it.
+             *
+             * @return
+             */
+            public String getTransformationAsString() {
+                return node.lattice.store.getTransformationAsString(node.index);
+            }
+
             /**
              * Sets the anonymity.
              *
              * @param anonymity
              */
             public void setAnonymity(final Anonymity anonymity) {
-                node.anonymity = anonymity;
+                node.lattice.store.setAnonymity(node.index, anonymity);
             }
 
             /**
              * Set anonymous.
              */
             public void setAnonymous() {
-                node.anonymity = Anonymity.ANONYMOUS;
+                node.lattice.store.setAnonymity(node.index, Anonymity.ANONYMOUS);
             }
 
             /**
@@ -249,7 +275,7 @@ public class ARXLattice implements Serializable {
              * @param attributes
              */
             public void setAttributes(final Map<Integer, Object> attributes) {
-                node.attributes = attributes;
+                node.lattice.store.setAttributes(node.index, attributes);
             }
 
             /**
@@ -258,7 +284,7 @@ public class ARXLattice implements Serializable {
              * @param checked
              */
             public void setChecked(final boolean checked) {
-                node.checked = checked;
+                node.lattice.store.setChecked(node.index, checked);
             }
 
             /**
@@ -267,7 +293,7 @@ public class ARXLattice implements Serializable {
              * @param headermap
              */
             public void setHeadermap(final Map<String, Integer> headermap) {
-                node.headermap = headermap;
+                node.lattice.store.setHeaderMap(headermap);
             }
 
             /**
@@ -276,7 +302,7 @@ public class ARXLattice implements Serializable {
              * @param a
              */
             public void setHighestScore(final InformationLoss<?> a) {
-                node.maxInformationLoss = InformationLoss.createInformationLoss(a, metric, getDeserializationContext().minLevel, getDeserializationContext().maxLevel);
+                node.lattice.store.setScore(node.index, LatticeStore.HIGHEST_SCORE, InformationLoss.createInformationLoss(a, metric, getDeserializationContext().minLevel, getDeserializationContext().maxLevel));
             }
 
             /**
@@ -285,7 +311,7 @@ public class ARXLattice implements Serializable {
              * @param a
              */
             public void setLowerBound(final InformationLoss<?> a) {
-                node.lowerBound = InformationLoss.createInformationLoss(a, metric, getDeserializationContext().minLevel, getDeserializationContext().maxLevel);
+                node.lattice.store.setScore(node.index, LatticeStore.LOWER_BOUND, InformationLoss.createInformationLoss(a, metric, getDeserializationContext().minLevel, getDeserializationContext().maxLevel));
             }
 
             /**
@@ -294,14 +320,14 @@ public class ARXLattice implements Serializable {
              * @param a
              */
             public void setLowestScore(final InformationLoss<?> a) {
-                node.minInformationLoss = InformationLoss.createInformationLoss(a, metric, getDeserializationContext().minLevel, getDeserializationContext().maxLevel);
+                node.lattice.store.setScore(node.index, LatticeStore.LOWEST_SCORE, InformationLoss.createInformationLoss(a, metric, getDeserializationContext().minLevel, getDeserializationContext().maxLevel));
             }
 
             /**
              * Set not anonymous.
              */
             public void setNotAnonymous() {
-                node.anonymity = Anonymity.NOT_ANONYMOUS;
+                node.lattice.store.setAnonymity(node.index, Anonymity.NOT_ANONYMOUS);
             }
 
             /**
@@ -310,7 +336,7 @@ public class ARXLattice implements Serializable {
              * @param predecessors
              */
             public void setPredecessors(final ARXNode[] predecessors) {
-                node.predecessors = predecessors;
+                node.lattice.store.setPredecessors(node.index, predecessors);
             }
 
             /**
@@ -319,7 +345,7 @@ public class ARXLattice implements Serializable {
              * @param successors
              */
             public void setSuccessors(final ARXNode[] successors) {
-                node.successors = successors;
+                node.lattice.store.setSuccessors(node.index, successors);
             }
 
             /**
@@ -328,45 +354,12 @@ public class ARXLattice implements Serializable {
              * @param transformation
              */
             public void setTransformation(final int[] transformation) {
-                node.transformation = transformation;
+                node.lattice.store.setTransformation(node.index, transformation);
             }
         }
 
-        /** Id. */
-        private Integer              id         = null;
-
-        /** The access. */
-        private final Access         access     = new Access(this);
-
-        /** Is it anonymous. */
-        private Anonymity            anonymity;
-
-        /** Attributes. */
-        private Map<Integer, Object> attributes = new HashMap<Integer, Object>();
-
-        /** Has the node been checked. */
-        private boolean              checked;
-
-        /** The header map. */
-        private Map<String, Integer> headermap;
-
-        /** The lower bound. */
-        private InformationLoss<?>   lowerBound;
-
-        /** The max information loss. */
-        private InformationLoss<?>   maxInformationLoss;
-
-        /** The min information loss. */
-        private InformationLoss<?>   minInformationLoss;
-
-        /** The predecessors. */
-        private ARXNode[]            predecessors;
-
-        /** The successors. */
-        private ARXNode[]            successors;
-
-        /** The transformation. */
-        private int[]                transformation;
+        /** The index of this node in the store of the lattice */
+        private final int            index;
 
         /** The underlying lattice */
         private final ARXLattice     lattice;
@@ -378,6 +371,7 @@ public class ARXLattice implements Serializable {
          */
         public ARXNode(ARXLattice lattice) {
             this.lattice = lattice;
+            this.index = lattice.store.add();
         }
         
         /**
@@ -394,46 +388,43 @@ public class ARXLattice implements Serializable {
                         final Map<String, Integer> headermap) {
             
             // Set properties
-            this.lattice = lattice;
-            this.headermap = headermap;
-            this.transformation = transformation.getGeneralization();
-            this.minInformationLoss = transformation.getInformationLoss();
-            this.maxInformationLoss = transformation.getInformationLoss();
-            this.lowerBound = transformation.getLowerBound();
-            this.checked = transformation.hasProperty(solutions.getPropertyChecked());
+            this(lattice);
+            InformationLoss<?> loss = transformation.getInformationLoss();
+            Anonymity anonymity;
+            lattice.store.setHeaderMap(headermap);
+            lattice.store.setTransformation(index, transformation.getGeneralization());
+            lattice.store.setChecked(index, transformation.hasProperty(solutions.getPropertyChecked()));
+            lattice.store.setScore(index, LatticeStore.LOWER_BOUND, transformation.getLowerBound());
             
             // Transfer anonymity property without uncertainty
             if (transformation.hasProperty(solutions.getPropertyChecked())){
                 if (transformation.hasProperty(solutions.getPropertyAnonymous())) {
-                    this.anonymity = Anonymity.ANONYMOUS;
+                    anonymity = Anonymity.ANONYMOUS;
                 } else if(transformation.hasProperty(solutions.getPropertyNotAnonymous())) {
-                    this.anonymity = Anonymity.NOT_ANONYMOUS;
+                    anonymity = Anonymity.NOT_ANONYMOUS;
                 } else {                  
-                    this.anonymity = Anonymity.UNKNOWN;
+                    anonymity = Anonymity.UNKNOWN;
                 }
             // This is a node for which the property is unknown
             } else {
                 if (transformation.hasProperty(solutions.getPropertyAnonymous())) {
-                    this.anonymity = uncertainty ? Anonymity.PROBABLY_ANONYMOUS : Anonymity.ANONYMOUS;
+                    anonymity = uncertainty ? Anonymity.PROBABLY_ANONYMOUS : Anonymity.ANONYMOUS;
                 } else if (transformation.hasProperty(solutions.getPropertyNotAnonymous())) {
-                    this.anonymity = uncertainty ? Anonymity.PROBABLY_NOT_ANONYMOUS : Anonymity.NOT_ANONYMOUS;
+                    anonymity = uncertainty ? Anonymity.PROBABLY_NOT_ANONYMOUS : Anonymity.NOT_ANONYMOUS;
                 } else if (transformation.hasProperty(solutions.getPropertyNotKAnonymous())) {
-                    this.anonymity = Anonymity.NOT_ANONYMOUS;
+                    anonymity = Anonymity.NOT_ANONYMOUS;
                 } else if (transformation.hasProperty(solutions.getPropertyInsufficientUtility())) {
-                    this.anonymity = Anonymity.UNKNOWN;
+                    anonymity = Anonymity.UNKNOWN;
                 } else {
-                    this.anonymity = Anonymity.UNKNOWN;
+                    anonymity = Anonymity.UNKNOWN;
                 }
             }
+            lattice.store.setAnonymity(index, anonymity);
 
             // Make sure that we have information loss available
             // Important for expand operations
-            if (this.maxInformationLoss == null) {
-                this.maxInformationLoss = metric.createInstanceOfHighestScore();
-            }
-            if (this.minInformationLoss == null) {
-                this.minInformationLoss = metric.createInstanceOfLowestScore();
-            }
+            lattice.store.setScore(index, LatticeStore.HIGHEST_SCORE, loss != null ? loss : metric.createInstanceOfHighestScore());
+            lattice.store.setScore(index, LatticeStore.LOWEST_SCORE, loss != null ? loss : metric.createInstanceOfLowestScore());
         }
 
         /**
@@ -443,14 +434,13 @@ public class ARXLattice implements Serializable {
          */
         private ARXNode(final ARXLattice lattice, 
                         final Step step) {
-            this.lattice = lattice;
-            this.headermap = step.getHeader();
-            this.transformation = step.getTransformation();
-            this.minInformationLoss = step.getScore();
-            this.maxInformationLoss = step.getScore();
-            this.lowerBound = null;
-            this.checked = true;
-            this.anonymity = Anonymity.ANONYMOUS;
+            this(lattice);
+            lattice.store.setHeaderMap(step.getHeader());
+            lattice.store.setTransformation(index, step.getTransformation());
+            lattice.store.setScore(index, LatticeStore.LOWEST_SCORE, step.getScore());
+            lattice.store.setScore(index, LatticeStore.HIGHEST_SCORE, step.getScore());
+            lattice.store.setChecked(index, true);
+            lattice.store.setAnonymity(index, Anonymity.ANONYMOUS);
             this.getAttributes().put(Integer.MAX_VALUE, step);
         }
 
@@ -460,7 +450,7 @@ public class ARXLattice implements Serializable {
          * @return
          */
         public Access access() {
-            return access;
+            return new Access(this);
         }
         
         /**
@@ -476,7 +466,7 @@ public class ARXLattice implements Serializable {
          * @return
          */
         public Anonymity getAnonymity() {
-            return anonymity;
+            return lattice.store.getAnonymity(index);
         }
 
         /**
@@ -485,7 +475,7 @@ public class ARXLattice implements Serializable {
          * @return
          */
         public Map<Integer, Object> getAttributes() {
-            return attributes;
+            return lattice.store.getAttributes(index);
         }
         
         /**
@@ -495,7 +485,7 @@ public class ARXLattice implements Serializable {
          * @return
          */
         public int getDimension(final String attr) {
-            return headermap.get(attr);
+            return lattice.store.getHeaderMap().get(attr);
         }
         
         /**
@@ -505,9 +495,9 @@ public class ARXLattice implements Serializable {
          * @return
          */
         public int getGeneralization(final String attribute) {
-            final Integer index = headermap.get(attribute);
+            final Integer index = lattice.store.getHeaderMap().get(attribute);
             if (index == null) { return 0; }
-            return transformation[index];
+            return lattice.store.getGeneralization(this.index, index);
         }
 
         /**
@@ -515,7 +505,7 @@ public class ARXLattice implements Serializable {
          * @return
          */
         public InformationLoss<?> getHighestScore() {
-            return maxInformationLoss;
+            return lattice.store.getScore(index, LatticeStore.HIGHEST_SCORE);
         }
 
         /**
@@ -523,7 +513,7 @@ public class ARXLattice implements Serializable {
          * @return
          */
         public InformationLoss<?> getLowestScore() {
-            return minInformationLoss;
+            return lattice.store.getScore(index, LatticeStore.LOWEST_SCORE);
         }
 
         /**
@@ -532,7 +522,7 @@ public class ARXLattice implements Serializable {
          * @return
          */
         public ARXNode[] getPredecessors() {
-            return predecessors;
+            return lattice.store.getPredecessors(index);
         }
 
         /**
@@ -541,6 +531,7 @@ public class ARXLattice implements Serializable {
          * @return
          */
         public String[] getQuasiIdentifyingAttributes() {
+            final Map<String, Integer> headermap = lattice.store.getHeaderMap();
             final String[] result = new String[headermap.size()];
             for (final String key : headermap.keySet()) {
                 result[headermap.get(key)] = key;
@@ -554,7 +545,7 @@ public class ARXLattice implements Serializable {
          * @return
          */
         public ARXNode[] getSuccessors() {
-            return successors;
+            return lattice.store.getSuccessors(index);
         }
 
         /**
@@ -563,20 +554,19 @@ public class ARXLattice implements Serializable {
          * @return
          */
         public int getTotalGeneralizationLevel() {
-            int level = 0;
-            for (int i : transformation) {
-                level += i;
-            }
-            return level;
+            return lattice.store.getTotalGeneralizationLevel(index);
         }
 
         /**
-         * Returns the transformation as an array.
+         * Returns the transformation as an array. The transformations of all nodes are
+         * stored in a shared array, so a new copy is created on every call and may be
+         * modified by the caller. Internal code that only reads single levels should use
+         * {@link Access#getGeneralization(int)} instead.
          *
          * @return
          */
         public int[] getTransformation() {
-            return transformation;
+            return lattice.store.getTransformation(index);
         }
 
         /**
@@ -585,7 +575,7 @@ public class ARXLattice implements Serializable {
          * @return
          */
         public boolean isChecked() {
-            return checked;
+            return lattice.store.isChecked(index);
         }
         
         /**
@@ -594,42 +584,13 @@ public class ARXLattice implements Serializable {
          */
         public ElementData render() {
             ElementData result = new ElementData("Transformation");
-            result.addProperty("Anonymity", this.anonymity);
-            result.addProperty("Minimum information loss", this.minInformationLoss.toString());
-            result.addProperty("Maximum information loss", this.maxInformationLoss.toString());
+            result.addProperty("Anonymity", this.getAnonymity());
+            result.addProperty("Minimum information loss", this.getLowestScore().toString());
+            result.addProperty("Maximum information loss", this.getHighestScore().toString());
             result.addProperty(null, renderGeneralizationScheme());
             return result;
         }
 
-        /**
-         * De-serialization.
-         *
-         * @param aInputStream
-         * @throws ClassNotFoundException
-         * @throws IOException
-         */
-        private void readObject(ObjectInputStream aInputStream) throws ClassNotFoundException, IOException {
-
-            // Default de-serialization
-            aInputStream.defaultReadObject();
-            
-            // Translate information loss, if necessary
-            this.lowerBound = InformationLoss.createInformationLoss(this.lowerBound, 
-                                                                    metric, 
-                                                                    getDeserializationContext().minLevel, 
-                                                                    getDeserializationContext().maxLevel);
-            
-            this.maxInformationLoss = InformationLoss.createInformationLoss(this.maxInformationLoss, 
-                                                                            metric, 
-                                                                            getDeserializationContext().minLevel, 
-                                                                            getDeserializationContext().maxLevel);
-            
-            this.minInformationLoss = InformationLoss.createInformationLoss(this.minInformationLoss,
-                                                                            metric, 
-                                                                            getDeserializationContext().minLevel, 
-                                                                            getDeserializationContext().maxLevel);
-        }
-
         /**
          * Renders this object
          * @return
@@ -648,7 +609,7 @@ public class ARXLattice implements Serializable {
          * @return
          */
         protected Map<String, Integer> getHeaderMap() {
-            return this.headermap;
+            return lattice.store.getHeaderMap();
         }
 
         /**
@@ -657,7 +618,7 @@ public class ARXLattice implements Serializable {
          * @return
          */
         protected Integer getId(){
-            return this.id;
+            return lattice.store.getId(index);
         }
 
         /**
@@ -666,7 +627,7 @@ public class ARXLattice implements Serializable {
          * @return
          */
         protected InformationLoss<?> getLowerBound(){
-            return this.lowerBound;
+            return lattice.store.getScore(index, LatticeStore.LOWER_BOUND);
         }
 
         /**
@@ -675,7 +636,7 @@ public class ARXLattice implements Serializable {
          * @param id
          */
         protected void setId(int id) {
-            this.id = id;
+            lattice.store.setId(index, id);
         }
     }
 
@@ -699,6 +660,9 @@ public class ARXLattice implements Serializable {
     /** SVUID */
     private static final long                    serialVersionUID       = -8790104959905019184L;
 
+    /** Version of the binary format written by {@link #write(OutputStream)} */
+    private static final int                     BINARY_FORMAT_VERSION  = 1;
+
     /**
      * Returns the deserialization context.
      * 
@@ -708,6 +672,119 @@ public class ARXLattice implements Serializable {
         return deserializationContext;
     }
 
+    /**
+     * Internal method: reads a lattice, which has been written in the binary format
+     * implemented by {@link #write(OutputStream)}. Updates the deserialization context.
+     *
+     * @param in
+     * @return
+     * @throws IOException
+     * @throws ClassNotFoundException
+     */
+    @SuppressWarnings("unchecked")
+    public static ARXLattice read(InputStream in) throws IOException, ClassNotFoundException {
+
+        // Header
+        ObjectInputStream ois = new ObjectInputStream(in);
+        int version = ois.readInt();
+        if (version < 1 || version > BINARY_FORMAT_VERSION) {
+            throw new IOException("Unsupported version of the lattice format: " + version);
+        }
+        int[] sizes = new int[ois.readInt()];
+        int total = 0;
+        for (int i = 0; i < sizes.length; i++) {
+            sizes[i] = ois.readInt();
+            total += sizes[i];
+        }
+
+        // Skeleton
+        getDeserializationContext().minLevel = 0;
+        getDeserializationContext().maxLevel = sizes.length - 1;
+        ARXLattice lattice = (ARXLattice) ois.readObject();
+        LatticeStore store = lattice.store;
+        store.setHeaderMap((Map<String, Integer>) ois.readObject());
+
+        // Nodes
+        ARXNode[] nodes = new ARXNode[total];
+        ARXNode[][] levels = new ARXNode[sizes.length][];
+        int id = 0;
+        for (int level = 0; level < sizes.length; level++) {
+            levels[level] = new ARXNode[sizes[level]];
+            for (int i = 0; i < sizes[level]; i++) {
+                nodes[id] = lattice.new ARXNode(lattice);
+                levels[level][i] = nodes[id++];
+            }
+        }
+
+        // Transformations, encoded as differences to the previous node
+        int[] transformation = new int[ois.readInt()];
+        for (ARXNode node : nodes) {
+            for (int dimension = 0; dimension < transformation.length; dimension++) {
+                int delta = readVarInt(ois);
+                transformation[dimension] += (delta >>> 1) ^ -(delta & 1);
+            }
+            store.setTransformation(node.index, transformation);
+        }
+
+        // Anonymity and checked, encoded in four bits per node
+        for (int i = 0; i < total; i += 2) {
+            int flags = ois.readUnsignedByte();
+            for (int j = i; j < i + 2 && j < total; j++, flags >>>= 4) {
+                int anonymity = flags & 0x07;
+                store.setAnonymity(nodes[j].index, anonymity == 0 ? null : Anonymity.values()[anonymity - 1]);
+                store.setChecked(nodes[j].index, (flags & 0x08) != 0);
+            }
+        }
+
+        // Scores
+        boolean decimal = ois.readBoolean();
+        for (ARXNode node : nodes) {
+            for (int offset = 0; offset < LatticeStore.SCORES; offset++) {
+                if (decimal) {
+                    store.setDecimalScore(node.index, offset, ois.readDouble());
+                } else {
+                    store.setScore(node.index, offset, (InformationLoss<?>) ois.readObject());
+                }
+            }
+        }
+
+        // Relationships
+        for (ARXNode node : nodes) {
+            ARXNode[] predecessors = new ARXNode[readVarInt(ois)];
+            for (int i = 0; i < predecessors.length; i++) {
+                predecessors[i] = nodes[readVarInt(ois)];
+            }
+            ARXNode[] successors = new ARXNode[readVarInt(ois)];
+            for (int i = 0; i < successors.length; i++) {
+                successors[i] = nodes[readVarInt(ois)];
+            }
+            store.setPredecessors(node.index, predecessors);
+            store.setSuccessors(node.index, successors);
+        }
+
+        // Attributes
+        int attributes = readVarInt(ois);
+        for (int i = 0; i < attributes; i++) {
+            ARXNode node = nodes[readVarInt(ois)];
+            store.setAttributes(node.index, (Map<Integer, Object>) ois.readObject());
+        }
+
+        // Optimum
+        int optimum = ois.readInt();
+
+        // Set structure
+        lattice.levels = levels;
+        for (ARXNode[] level : levels) {
+            if (level.length != 0) {
+                lattice.bottom = level[0];
+                break;
+            }
+        }
+        lattice.top = levels.length == 0 || levels[levels.length - 1].length == 0 ? null : levels[levels.length - 1][0];
+        lattice.optimum = optimum == -1 ? null : nodes[optimum];
+        return lattice;
+    }
+
     /** The accessor. */
     private final Access                                       access                 = new Access(this);
 
@@ -717,6 +794,9 @@ public class ARXLattice implements Serializable {
     /** The levels in the lattice. */
     private transient ARXNode[][]                              levels;
 
+    /** The properties of all nodes */
+    private transient LatticeStore                             store;
+
     /** Metric. */
     private Metric<?>                                          metric;
 
@@ -767,6 +847,7 @@ public class ARXLattice implements Serializable {
     ARXLattice(final ARXProcessStatistics statistics) {
         
         // Lots of null values
+        store = new LatticeStore();
         solutions = null;
         map = null;
         monotonicNonAnonymous = false;
@@ -806,8 +887,8 @@ public class ARXLattice implements Serializable {
         }
         for (Step s : statistics.getSteps()) {
             ARXNode node = new ARXNode(this, s);
-            node.predecessors = new ARXNode[0];
-            node.successors = new ARXNode[0];
+            store.setPredecessors(node.index, new ARXNode[0]);
+            store.setSuccessors(node.index, new ARXNode[0]);
             lattice.get(s.getTotalGeneralizationLevel()).add(node);
         }
         this.levels = new ARXNode[maxLevel + 1][];
@@ -826,8 +907,8 @@ public class ARXLattice implements Serializable {
                     
                     // Check
                     boolean relationship = true;
-                    loop: for (int i=0; i<lower.getTransformation().length; i++) {
-                        if (lower.getTransformation()[i] > upper.getTransformation()[i]) {
+                    loop: for (int i=0; i<store.getDimensions(); i++) {
+                        if (store.getGeneralization(lower.index, i) > store.getGeneralization(upper.index, i)) {
                             relationship = false;
                             break loop;
                         }
@@ -841,8 +922,8 @@ public class ARXLattice implements Serializable {
                         successors.addAll(Arrays.asList(lower.getSuccessors()));
                         predecessors.add(lower);
                         successors.add(upper);
-                        lower.predecessors = predecessors.toArray(new ARXNode[predecessors.size()]);
-                        lower.successors = successors.toArray(new ARXNode[successors.size()]);
+                        store.setPredecessors(lower.index, predecessors.toArray(new ARXNode[predecessors.size()]));
+                        store.setSuccessors(lower.index, successors.toArray(new ARXNode[successors.size()]));
                     }
                 }
             }
@@ -863,6 +944,7 @@ public class ARXLattice implements Serializable {
                final ARXConfigurationInternal config) {
 
         // Init
+        this.store = new LatticeStore();
         this.solutions = solutions;
         this.metric = config.getQualityModel();
         this.setMonotonicity(config.isSuppressionAlwaysEnabled(), config.getAbsoluteSuppressionLimit());
@@ -1050,9 +1132,9 @@ public class ARXLattice implements Serializable {
                     }
                 }
             }
-            node.access.setLowestScore(min);
-            node.access.setLowerBound(lowerBound);
-            node.access.setHighestScore(max);
+            node.access().setLowestScore(min);
+            node.access().setLowerBound(lowerBound);
+            node.access().setHighestScore(max);
         }
     }
 
@@ -1127,8 +1209,8 @@ public class ARXLattice implements Serializable {
                 
                 @Override
                 public int compare(ARXNode o1, ARXNode o2) {
-                    return Integer.compare(getDistance(o1.getTransformation(), transformation),
-                                           getDistance(o2.getTransformation(), transformation));
+                    return Integer.compare(getDistance(o1, transformation),
+                                           getDistance(o2, transformation));
                                            
                 }
  
@@ -1138,13 +1220,14 @@ public class ARXLattice implements Serializable {
                  * @param target
                  * @return
                  */
-                private int getDistance(int[] current, int[] target) {
+                private int getDistance(ARXNode current, int[] target) {
                     int distance = 0;
-                    for (int i = 0; i < current.length; i++) {
-                        if (current[i] > target[i]) {
+                    for (int i = 0; i < target.length; i++) {
+                        int level = store.getGeneralization(current.index, i);
+                        if (level > target[i]) {
                             return Integer.MAX_VALUE;
                         } else {
-                            distance += target [i] - current[i];
+                            distance += target [i] - level;
                         }
                     }
                     return distance;
@@ -1197,6 +1280,110 @@ public class ARXLattice implements Serializable {
         result.addProperty("Materialized", this.size);
         return result;
     }
+
+    /**
+     * Internal method: writes the lattice in a compact binary format. Nodes are written level by level,
+     * transformations are encoded as differences to the previous node, anonymity properties are packed
+     * into four bits per node and scores are written as decimal numbers, if possible.
+     *
+     * @param out
+     * @throws IOException
+     */
+    public void write(OutputStream out) throws IOException {
+
+        // Header
+        ObjectOutputStream oos = new ObjectOutputStream(out);
+        oos.writeInt(BINARY_FORMAT_VERSION);
+        oos.writeInt(levels.length);
+        int total = 0;
+        for (ARXNode[] level : levels) {
+            oos.writeInt(level.length);
+            total += level.length;
+        }
+
+        // Skeleton
+        oos.writeObject(this);
+        oos.writeObject(store.getHeaderMap());
+
+        // Assign identifiers in the order of levels
+        ARXNode[] nodes = new ARXNode[total];
+        int[] ids = new int[store.getSize()];
+        int id = 0;
+        for (ARXNode[] level : levels) {
+            for (ARXNode node : level) {
+                ids[node.index] = id;
+                nodes[id++] = node;
+            }
+        }
+
+        // Transformations, encoded as differences to the previous node
+        int dimensions = store.getDimensions();
+        oos.writeInt(dimensions);
+        int[] previous = new int[dimensions];
+        for (ARXNode node : nodes) {
+            for (int dimension = 0; dimension < dimensions; dimension++) {
+                int value = store.getGeneralization(node.index, dimension);
+                int delta = value - previous[dimension];
+                writeVarInt(oos, (delta << 1) ^ (delta >> 31));
+                previous[dimension] = value;
+            }
+        }
+
+        // Anonymity and checked, encoded in four bits per node
+        for (int i = 0; i < total; i += 2) {
+            int flags = 0;
+            for (int j = i; j < i + 2 && j < total; j++) {
+                Anonymity anonymity = store.getAnonymity(nodes[j].index);
+                int value = (anonymity == null ? 0 : anonymity.ordinal() + 1) | (store.isChecked(nodes[j].index) ? 0x08 : 0);
+                flags |= value << (4 * (j - i));
+            }
+            oos.writeByte(flags);
+        }
+
+        // Scores
+        boolean decimal = store.isDecimal();
+        oos.writeBoolean(decimal);
+        for (ARXNode node : nodes) {
+            for (int offset = 0; offset < LatticeStore.SCORES; offset++) {
+                if (decimal) {
+                    oos.writeDouble(store.getDecimalScore(node.index, offset));
+                } else {
+                    oos.writeObject(store.getScore(node.index, offset));
+                }
+            }
+        }
+
+        // Relationships
+        for (ARXNode node : nodes) {
+            ARXNode[] predecessors = store.getPredecessors(node.index);
+            ARXNode[] successors = store.getSuccessors(node.index);
+            writeVarInt(oos, predecessors == null ? 0 : predecessors.length);
+            for (int i = 0; predecessors != null && i < predecessors.length; i++) {
+                writeVarInt(oos, ids[predecessors[i].index]);
+            }
+            writeVarInt(oos, successors == null ? 0 : successors.length);
+            for (int i = 0; successors != null && i < successors.length; i++) {
+                writeVarInt(oos, ids[successors[i].index]);
+            }
+        }
+
+        // Attributes
+        int attributes = 0;
+        for (ARXNode node : nodes) {
+            attributes += store.hasAttributes(node.index) ? 1 : 0;
+        }
+        writeVarInt(oos, attributes);
+        for (ARXNode node : nodes) {
+            if (store.hasAttributes(node.index)) {
+                writeVarInt(oos, ids[node.index]);
+                oos.writeObject(store.getAttributes(node.index));
+            }
+        }
+
+        // Optimum
+        oos.writeInt(optimum == null ? -1 : ids[optimum.index]);
+        oos.flush();
+    }
     
     /**
      * Build an ARX lattice for an incompletely classified solution space
@@ -1284,8 +1471,8 @@ public class ARXLattice implements Serializable {
                                    solutions,
                                    optimum,
                                    headermap);
-        node.successors = new ARXNode[0];
-        node.predecessors = new ARXNode[0];
+        store.setSuccessors(node.index, new ARXNode[0]);
+        store.setPredecessors(node.index, new ARXNode[0]);
         
         // Store optimum
         this.optimum = node;
@@ -1305,16 +1492,7 @@ public class ARXLattice implements Serializable {
      * @return
      */
     private int compareLexicographically(ARXNode first, ARXNode second) {
-        int[] firstArray = first.getTransformation();
-        int[] secondArray = second.getTransformation();
-        for (int i = 0; i < firstArray.length; i++) {
-            if (firstArray[i] < secondArray[i]) {
-                return -1;
-            } else if (firstArray[i] > secondArray[i]) {
-                return +1;
-            }
-        }
-        return 0;
+        return store.compareTransformations(first.index, second.index);
     }
     
     /**
@@ -1351,14 +1529,14 @@ public class ARXLattice implements Serializable {
         }
         
         // Add successors and predecessors to given node
-        center.successors = successors.toArray(new ARXNode[successors.size()]);
-        center.predecessors = predecessors.toArray(new ARXNode[predecessors.size()]);
+        store.setSuccessors(center.index, successors.toArray(new ARXNode[successors.size()]));
+        store.setPredecessors(center.index, predecessors.toArray(new ARXNode[predecessors.size()]));
         
         // Update predecessors
         for (ARXNode node : predecessors) {
             
            List<ARXNode> nodeSuccessors = new ArrayList<ARXNode>();
-           nodeSuccessors.addAll(Arrays.asList(node.successors));
+           nodeSuccessors.addAll(Arrays.asList(node.getSuccessors()));
            int index = 0;
            while (index < nodeSuccessors.size() && compareLexicographically(nodeSuccessors.get(index), center) < 0 ) {
                index++;
@@ -1368,7 +1546,7 @@ public class ARXLattice implements Serializable {
            nodeSuccessors.add(index, center);
            
            // Add and update
-           node.successors = nodeSuccessors.toArray(new ARXNode[nodeSuccessors.size()]); 
+           store.setSuccessors(node.index, nodeSuccessors.toArray(new ARXNode[nodeSuccessors.size()]));
         }
         
 
@@ -1376,7 +1554,7 @@ public class ARXLattice implements Serializable {
         for (ARXNode node : successors) {
             
            List<ARXNode> nodePredecessors = new ArrayList<ARXNode>();
-           nodePredecessors.addAll(Arrays.asList(node.predecessors));
+           nodePredecessors.addAll(Arrays.asList(node.getPredecessors()));
            int index = 0;
            while (index < nodePredecessors.size() && compareLexicographically(nodePredecessors.get(index), center) < 0 ) {
                index++;
@@ -1386,7 +1564,7 @@ public class ARXLattice implements Serializable {
            
            // Add and update
            nodePredecessors.add(index, center);
-           node.predecessors = nodePredecessors.toArray(new ARXNode[nodePredecessors.size()]); 
+           store.setPredecessors(node.index, nodePredecessors.toArray(new ARXNode[nodePredecessors.size()]));
         }
     }
 
@@ -1422,8 +1600,8 @@ public class ARXLattice implements Serializable {
             }
         }
         
-        fnode.successors = successors.toArray(new ARXNode[successors.size()]);
-        fnode.predecessors = predecessors.toArray(new ARXNode[predecessors.size()]);
+        store.setSuccessors(fnode.index, successors.toArray(new ARXNode[successors.size()]));
+        store.setPredecessors(fnode.index, predecessors.toArray(new ARXNode[predecessors.size()]));
     }
     
 
@@ -1438,6 +1616,7 @@ public class ARXLattice implements Serializable {
 
         // Default de-serialization
         aInputStream.defaultReadObject();
+        this.store = new LatticeStore();
         
         // Translate minimum and maximum
         this.maximumInformationLoss = InformationLoss.createInformationLoss(this.maximumInformationLoss,
@@ -1456,6 +1635,24 @@ public class ARXLattice implements Serializable {
                                           getDeserializationContext().maxLevel);
     }
     
+    /**
+     * Reads a variable-length encoded non-negative integer
+     *
+     * @param in
+     * @return
+     * @throws IOException
+     */
+    private static int readVarInt(ObjectInput in) throws IOException {
+        int value = 0;
+        for (int shift = 0;; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+    }
+
     /**
      * Sets the monotonicity based on the current configuration
      * @param isSuppressionAlwaysEnabled
@@ -1469,6 +1666,21 @@ public class ARXLattice implements Serializable {
         
         this.monotonicAnonymous = this.metric.isMonotonic(absoluteSuppressionLimit);
     }
+
+    /**
+     * Writes a non-negative integer with a variable-length encoding
+     *
+     * @param out
+     * @param value
+     * @throws IOException
+     */
+    private static void writeVarInt(ObjectOutput out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
     
     /**
      * This method triggers the estimation of the information loss of all nodes
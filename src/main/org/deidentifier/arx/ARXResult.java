@@ -318,6 +318,25 @@ public class ARXResult {
             }
         }
 
+        // Re-create handles for recently applied transformations
+        OutputCache cache = registry.getCache();
+        RowSet outliers = isInputBufferAttached() ? cache.getOutliers(node) : null;
+        if (outliers != null) {
+            DataHandleOutput result = new DataHandleOutput(this,
+                                                           registry,
+                                                           manager,
+                                                           outliers,
+                                                           cache.getMicroaggregatedData(node),
+                                                           node,
+                                                           definition,
+                                                           config);
+            if (!fork) {
+                bufferLockedByHandle = result; 
+                bufferLockedByNode = node;
+            }
+            return result;
+        }
+
         // Apply the transformation
         final Transformation<?> transformation = solutionSpace.getTransformation(node.getTransformation());
         TransformationApplicator applicator = new TransformationApplicator(this.manager,
@@ -343,21 +362,43 @@ public class ARXResult {
             lattice.estimateInformationLoss();
         }
         
-        // Clone if needed
-        if (fork) {
-            information.bufferGeneralized = information.bufferGeneralized.clone(); 
-            information.bufferMicroaggregated = information.bufferMicroaggregated.clone(); 
+        // Cache suppressed records and microaggregated data, if generalized data can be computed on the fly.
+        // Locked buffers are cached when they are released, as the handle is reused until then.
+        if (fork && isInputBufferAttached()) {
+            outliers = getOutliers(information.bufferGeneralized);
+            cache.put(node, outliers, information.bufferMicroaggregated);
         }
-
+        
         // Create
-        DataHandleOutput result = new DataHandleOutput(this,
-                                                       registry,
-                                                       manager,
-                                                       information.bufferGeneralized,
-                                                       information.bufferMicroaggregated,
-                                                       node,
-                                                       definition,
-                                                       config);
+        DataHandleOutput result = null;
+        if (fork && outliers != null) {
+            
+            // Only store suppressed records, generalized data is computed on the fly.
+            // Microaggregated data is not cloned, as it is created for each transformation.
+            result = new DataHandleOutput(this,
+                                          registry,
+                                          manager,
+                                          outliers,
+                                          information.bufferMicroaggregated,
+                                          node,
+                                          definition,
+                                          config);
+        } else {
+            
+            // Clone if needed
+            if (fork) {
+                information.bufferGeneralized = information.bufferGeneralized.clone(); 
+                information.bufferMicroaggregated = information.bufferMicroaggregated.clone(); 
+            }
+            result = new DataHandleOutput(this,
+                                          registry,
+                                          manager,
+                                          information.bufferGeneralized,
+                                          information.bufferMicroaggregated,
+                                          node,
+                                          definition,
+                                          config);
+        }
         
         // Lock
         if (!fork) {
@@ -963,6 +1004,33 @@ public class ARXResult {
         return result;
     }
 
+    /**
+     * Returns the suppressed records in the given generalized data
+     *
+     * @param generalized
+     * @return
+     */
+    private RowSet getOutliers(Data generalized) {
+        DataMatrix matrix = generalized.getArray();
+        RowSet outliers = RowSet.create(matrix.getNumRows());
+        for (int row = 0; row < matrix.getNumRows(); row++) {
+            if ((matrix.get(row, 0) & Data.OUTLIER_MASK) != 0) {
+                outliers.add(row);
+            }
+        }
+        return outliers;
+    }
+
+    /**
+     * Returns whether the generalized input data is attached to the input handle, which
+     * means that it is sorted together with all handles for output data
+     * @return
+     */
+    private boolean isInputBufferAttached() {
+        DataHandleInput input = registry.getInputHandle();
+        return input != null && !input.isReleased() && input.getInputBuffer() == manager.getDataGeneralized().getArray();
+    }
+
     /**
      * Releases the buffer.
      *
@@ -970,6 +1038,13 @@ public class ARXResult {
      */
     protected void releaseBuffer(DataHandleOutput handle) {
         if (handle == bufferLockedByHandle) {
+            
+            // Cache suppressed records and microaggregated data, before the buffer is reused
+            if (handle.isMaterialized() && !handle.isOptimized() && isInputBufferAttached()) {
+                registry.getCache().put(bufferLockedByNode,
+                                        getOutliers(handle.getOutputBufferGeneralized()),
+                                        handle.getOutputBufferMicroaggregated());
+            }
             bufferLockedByHandle = null;
             bufferLockedByNode = null;
         }
@@ -21,17 +21,12 @@ import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.text.ParseException;
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
-import java.util.Map;
 import java.util.Set;
 
 import org.apache.commons.math3.util.Pair;
@@ -41,7 +36,6 @@ import org.deidentifier.arx.DataHandleInternal.InterruptHandler;
 import org.deidentifier.arx.DataType.ARXDate;
 import org.deidentifier.arx.DataType.ARXDecimal;
 import org.deidentifier.arx.DataType.ARXInteger;
-import org.deidentifier.arx.DataType.DataTypeDescription;
 import org.deidentifier.arx.aggregates.StatisticsBuilder;
 import org.deidentifier.arx.certificate.elements.ElementData;
 import org.deidentifier.arx.io.CSVDataOutput;
@@ -317,28 +311,41 @@ public abstract class DataHandle {
 
         checkReleased();
         checkColumn(column);
-        double distinct = this.getDistinctValues(column).length;
-        List<Pair<DataType<?>, Double>> result = new ArrayList<Pair<DataType<?>, Double>>();
-        DataTypeDescription<U> description = DataType.list(clazz);
-        if (description == null) {
-            return result;
-        }
-        if (description.hasFormat()) {
-            for (String format : description.getExampleFormats()) {
-                DataType<U> type = description.newInstance(format, locale);
-                double matching = getNumConformingValues(column, type) / distinct;
-                if (matching >= threshold) {
-                    result.add(new Pair<DataType<?>, Double>(type, matching));
-                }
-            }
-        } else {
-            DataType<U> type = description.newInstance();
-            double matching = getNumConformingValues(column, type) / distinct;
-            if (matching >= threshold) {
-                result.add(new Pair<DataType<?>, Double>(type, matching));
-            }
-        }
-        return result;
+        return new DataTypeMatcher(locale, threshold).getMatchingDataTypes(this.getDistinctValues(column), clazz);
+    }
+
+    /**
+     * Returns mappings from data types to the relative number of values that conform to the according type
+     * for each of the given columns. All types are matched in a single pass over the values of a column.
+     * For output handles, columns are processed with the number of threads of the configuration.
+     *
+     * @param columns the columns
+     * @param locale The locale to use
+     * @param threshold Relative minimal number of values that must match to include a data type in the results
+     * @return the matching data types of each column
+     */
+    public List<List<Pair<DataType<?>, Double>>> getMatchingDataTypes(int[] columns, Locale locale, double threshold) {
+        ARXConfiguration config = getConfiguration();
+        return new DataTypeMatcher(locale, threshold).getMatchingDataTypes(getDistinctValues(columns),
+                                                                           config == null ? 1 : config.getNumberOfThreads());
+    }
+
+    /**
+     * Returns mappings from data types to the relative number of values that conform to the according type
+     * for each of the given columns. The relative numbers are estimated from random samples of the distinct
+     * values, which are enlarged until they are above or below the threshold, or precise to one percent,
+     * with the given confidence level.
+     *
+     * @param columns the columns
+     * @param locale The locale to use
+     * @param threshold Relative minimal number of values that must match to include a data type in the results
+     * @param confidence Confidence level of the estimates, e.g. 0.99
+     * @return the matching data types of each column
+     */
+    public List<List<Pair<DataType<?>, Double>>> getMatchingDataTypes(int[] columns, Locale locale, double threshold, double confidence) {
+        ARXConfiguration config = getConfiguration();
+        return new DataTypeMatcher(locale, threshold, confidence).getMatchingDataTypes(getDistinctValues(columns),
+                                                                                       config == null ? 1 : config.getNumberOfThreads());
     }
 
     /**
@@ -375,36 +382,7 @@ public abstract class DataHandle {
      */
     public List<Pair<DataType<?>, Double>> getMatchingDataTypes(int column, Locale locale, double threshold) {
 
-        checkReleased();
-        checkColumn(column);
-        List<Pair<DataType<?>, Double>> result = new ArrayList<Pair<DataType<?>, Double>>();
-        result.addAll(getMatchingDataTypes(column, Long.class, locale, threshold));
-        result.addAll(getMatchingDataTypes(column, Date.class, locale, threshold));
-        result.addAll(getMatchingDataTypes(column, Double.class, locale, threshold));
-        result.add(new Pair<DataType<?>, Double>(DataType.STRING, 1.0d));
-        
-        // Sort order
-        final Map<Class<?>, Integer> order = new HashMap<Class<?>, Integer>();
-        order.put(Long.class, 0);
-        order.put(Date.class, 1);
-        order.put(Double.class, 2);
-        order.put(String.class, 3);
-        
-        // Sort
-        Collections.sort(result, new Comparator<Pair<DataType<?>, Double>>() {
-            public int compare(Pair<DataType<?>, Double> o1, Pair<DataType<?>, Double> o2) {
-                
-                // Sort by matching quality
-                int cmp = o1.getSecond().compareTo(o2.getSecond());
-                if (cmp != 0) return -cmp;
-                
-                // Sort by order
-                int order1 = order.get(o1.getFirst().getDescription().getWrappedClass());
-                int order2 = order.get(o2.getFirst().getDescription().getWrappedClass());
-                return Integer.compare(order1, order2);
-            }
-        });
-        return result;
+        return getMatchingDataTypes(new int[] { column }, locale, threshold).get(0);
     }
 
     /**
@@ -944,6 +922,22 @@ public abstract class DataHandle {
      */
     protected abstract String[] getDistinctValues(int column, boolean ignoreSuppression, InterruptHandler handler);
 
+    /**
+     * Returns the distinct values of each of the given columns.
+     *
+     * @param columns the columns
+     * @return the distinct values
+     */
+    protected String[][] getDistinctValues(int[] columns) {
+        checkReleased();
+        String[][] values = new String[columns.length][];
+        for (int i = 0; i < columns.length; i++) {
+            checkColumn(columns[i]);
+            values[i] = getDistinctValues(columns[i]);
+        }
+        return values;
+    }
+
     /**
      * Returns the registry associated with this handle.
      *
@@ -979,17 +973,34 @@ public abstract class DataHandle {
                                   final boolean ascending) {
 
         checkReleased();
-        try {
-            for (int i = 0; i < columns.length; i++) {
-
-                int index = columns[i];
-                int cmp = columnToDataType[index].compare(internalGetValue(row1, index, false),
-                                                   internalGetValue(row2, index, false));
-                if (cmp != 0) {
-                    return ascending ? cmp : -cmp;
-                }
+        for (int i = 0; i < columns.length; i++) {
+
+            int index = columns[i];
+            int cmp = internalCompareValues(index,
+                                            internalGetValue(row1, index, false),
+                                            internalGetValue(row2, index, false));
+            if (cmp != 0) {
+                return ascending ? cmp : -cmp;
             }
-            return 0;
+        }
+        return 0;
+    }
+
+    /**
+     * A negative integer, zero, or a positive integer as the first value is
+     * less than, equal to, or greater than the second. Values are compared
+     * like in {@link #internalCompare(int, int, int[], boolean)}.
+     *
+     * @param column the column
+     * @param value1 the value1
+     * @param value2 the value2
+     * @return the int
+     */
+    protected int internalCompareValues(final int column,
+                                        final String value1,
+                                        final String value2) {
+        try {
+            return columnToDataType[column].compare(value1, value2);
         } catch (final Exception e) {
             throw new RuntimeException(e);
         }
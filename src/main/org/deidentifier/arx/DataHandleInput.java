@@ -17,6 +17,14 @@
 
 package org.deidentifier.arx;
 
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -152,6 +160,63 @@ public class DataHandleInput extends DataHandle {
         return header[column];
     }
 
+    /**
+     * Internal method: returns a fingerprint of the data represented by this handle, which is
+     * computed from the encoded data and the dictionary instead of the values. Handles with
+     * equal fingerprints represent equal data in the same order.
+     *
+     * @return
+     */
+    public String getFingerprint() {
+        checkReleased();
+
+        // Prepare
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new DigestOutputStream(new OutputStream() {
+            @Override
+            public void write(byte[] b, int off, int len) {
+                // Only the digest is needed
+            }
+            @Override
+            public void write(int b) {
+                // Only the digest is needed
+            }
+        }, digest), 1 << 16));
+
+        // Digest header, dictionary and encoded data
+        try {
+            out.writeInt(header.length);
+            for (String attribute : header) {
+                out.writeInt(attribute.length());
+                out.writeChars(attribute);
+            }
+            for (String[] values : dictionary.getMapping()) {
+                out.writeInt(values.length);
+                for (String value : values) {
+                    out.writeInt(value.length());
+                    out.writeChars(value);
+                }
+            }
+            out.writeInt(data.getNumRows());
+            for (int row = 0; row < data.getNumRows(); row++) {
+                for (int column = 0; column < header.length; column++) {
+                    out.writeInt(data.get(row, column));
+                }
+            }
+            out.flush();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+
+        // Return
+        return new BigInteger(1, digest.digest()).toString(16);
+    }
+
     @Override
     public int getGeneralization(final String attribute) {
         checkReleased();
@@ -127,6 +127,12 @@ public class DataHandleOutput extends DataHandle {
     /** A specific slice of data */
     private Data          dataAggregated;
 
+    /** Lookup tables for the levels of generalization, if generalized data is not materialized */
+    private int[][]       levels;
+
+    /** Suppressed records, if generalized data is not materialized */
+    private RowSet        outliers;
+
     /** Column to data */
     private Data[]        columnToData;
 
@@ -172,6 +178,44 @@ public class DataHandleOutput extends DataHandle {
         // Obtain data types
         this.columnToDataType = getColumnToDataType();
     }
+
+    /**
+     * Instantiates a new handle, which does not materialize generalized data. Generalized values
+     * are looked up in the hierarchies for the generalized input data, which is sorted together
+     * with this handle. The data is materialized when it is modified by local recoding.
+     * 
+     * @param result
+     * @param registry
+     * @param manager
+     * @param outliers
+     * @param outputMicroaggregated
+     * @param node
+     * @param definition
+     * @param config
+     */
+    protected DataHandleOutput(final ARXResult result,
+                               final DataRegistry registry,
+                               final DataManager manager,
+                               final RowSet outliers,
+                               final Data outputMicroaggregated,
+                               final ARXNode node,
+                               final DataDefinition definition,
+                               final ARXConfiguration config) {
+        
+        // Prepare lookup tables
+        int[] transformation = node.getTransformation();
+        this.levels = new int[transformation.length][];
+        for (int i = 0; i < transformation.length; i++) {
+            this.levels[i] = manager.getHierarchies()[i].getLevel(transformation[i]);
+        }
+        this.outliers = outliers;
+        
+        // Initialize
+        this.initialize(result, registry, manager, manager.getDataGeneralized(), outputMicroaggregated, node, definition, config);
+
+        // Obtain data types
+        this.columnToDataType = getColumnToDataType();
+    }
         
     /**
      * Instantiates a new handle.
@@ -289,11 +333,50 @@ public class DataHandleOutput extends DataHandle {
      */
     public void write(OutputStream out) throws IOException {
         ObjectOutputStream oos = new ObjectOutputStream(out);
-        oos.writeObject(this.dataGeneralized);
+        oos.writeObject(this.levels == null ? this.dataGeneralized : createOutputBufferGeneralized());
         oos.writeObject(this.dataAggregated);
         oos.writeObject(this.columnToDataType);
     }
 
+    /**
+     * Creates a materialized copy of generalized data, which is not materialized
+     * @return
+     */
+    private Data createOutputBufferGeneralized() {
+        
+        // Prepare
+        DataMatrix input = dataGeneralized.getArray();
+        DataMatrix output = new DataMatrix(input.getNumRows(), input.getNumColumns());
+        
+        // Generalize and suppress
+        for (int row = 0; row < input.getNumRows(); row++) {
+            for (int column = 0; column < levels.length; column++) {
+                output.set(row, column, levels[column][input.get(row, column)]);
+            }
+            if (outliers.contains(row)) {
+                output.or(row, Data.OUTLIER_MASK);
+            }
+        }
+        
+        // Return
+        return Data.createWrapper(output, dataGeneralized.getHeader(), dataGeneralized.getColumns(), dataGeneralized.getDictionary());
+    }
+
+    /**
+     * Returns the encoded value of the given cell, without the flag for suppressed records
+     * @param data
+     * @param row
+     * @param index
+     * @return
+     */
+    private int getEncodedValue(final Data data, final int row, final int index) {
+        if (levels != null && data == dataGeneralized) {
+            return levels[index][data.getArray().get(row, index)];
+        } else {
+            return data.getArray().get(row, index) & Data.REMOVE_OUTLIER_MASK;
+        }
+    }
+
     /**
      * Initialization method
      * @param result
@@ -369,6 +452,30 @@ public class DataHandleOutput extends DataHandle {
         // Create view
         this.getRegistry().createOutputSubset(node, config);
     }
+
+    /**
+     * Materializes generalized data, if this has not been done yet
+     */
+    private void materialize() {
+        
+        // Check
+        if (levels == null) {
+            return;
+        }
+        
+        // Create
+        Data data = createOutputBufferGeneralized();
+        for (int column = 0; column < header.length; column++) {
+            if (columnToData[column] == dataGeneralized) {
+                columnToData[column] = data;
+            }
+        }
+        
+        // Store
+        dataGeneralized = data;
+        levels = null;
+        outliers = null;
+    }
     
     /**
      * Releases all resources.
@@ -379,6 +486,8 @@ public class DataHandleOutput extends DataHandle {
         dataInput = null;
         dataGeneralized = null;
         dataAggregated = null;
+        levels = null;
+        outliers = null;
         registry = null;
         subset = null;
         columnToDataType = null;
@@ -516,10 +625,11 @@ public class DataHandleOutput extends DataHandle {
     }
     
     /**
-     * Returns the output buffer
+     * Returns the output buffer, which is materialized if needed
      * @return
      */
     protected Data getOutputBufferGeneralized() {
+        materialize();
         return dataGeneralized;
     }
     
@@ -555,48 +665,30 @@ public class DataHandleOutput extends DataHandle {
     }
     
     /**
-     * A negative integer, zero, or a positive integer as the first argument is
+     * A negative integer, zero, or a positive integer as the first value is
      * less than, equal to, or greater than the second. It uses the specified
      * data types for comparison if no generalization was applied, otherwise it
-     * uses string comparison.
+     * uses string comparison. Suppressed values and values of identifying
+     * attributes, which are removed from output data, are greater than all
+     * other values.
      * 
-     * @param row1
-     * @param row2
-     * @param columns
-     * @param ascending
+     * @param column
+     * @param value1
+     * @param value2
      * @return the int
      */
     @Override
-    protected int internalCompare(final int row1,
-                                  final int row2,
-                                  final int[] columns,
-                                  final boolean ascending) {
-        
-        for (final int col : columns) {
-            
-            // Identifying attributes are removed from output data
-            if (columnToData[col] == null) {
-                continue;
-            }
-            
-            int cmp = 0;
-            
-            try {
-                String s1 = internalGetValue(row1, col, false);
-                String s2 = internalGetValue(row2, col, false);
-                cmp = (s1 == DataType.ANY_VALUE && s2 == DataType.ANY_VALUE) ? 0
-                        : (s1 == DataType.ANY_VALUE ? +1
-                                : (s2 == DataType.ANY_VALUE ? -1
-                                        : columnToDataType[col].compare(s1, s2)));
-            } catch (final Exception e) {
-                throw new RuntimeException(e);
-            }
-            
-            if (cmp != 0) {
-                return ascending ? cmp : -cmp;
-            }
+    protected int internalCompareValues(final int column,
+                                        final String value1,
+                                        final String value2) {
+        try {
+            return (value1 == DataType.ANY_VALUE && value2 == DataType.ANY_VALUE) ? 0
+                    : (value1 == DataType.ANY_VALUE ? +1
+                            : (value2 == DataType.ANY_VALUE ? -1
+                                    : columnToDataType[column].compare(value1, value2)));
+        } catch (final Exception e) {
+            throw new RuntimeException(e);
         }
-        return 0;
     }
 
     @Override
@@ -612,14 +704,14 @@ public class DataHandleOutput extends DataHandle {
             return -1;
             
         // Handle suppressed values
-        } else if (!ignoreSuppression && (dataGeneralized.getArray().get(row, 0) & Data.OUTLIER_MASK) !=0 && columnToSuppressionStatus[col]) {
+        } else if (!ignoreSuppression && internalIsOutlier(row) && columnToSuppressionStatus[col]) {
             return -1;
             
         // Handle all other values
         } else {
             
             // Decode and return
-            return data.getArray().get(row, columnToIndex[col]) & Data.REMOVE_OUTLIER_MASK;
+            return getEncodedValue(data, row, columnToIndex[col]);
         }
     }
     
@@ -644,14 +736,14 @@ public class DataHandleOutput extends DataHandle {
             return DataType.ANY_VALUE;
             
         // Handle suppressed values
-        } else if (!ignoreSuppression && (dataGeneralized.getArray().get(row, 0) & Data.OUTLIER_MASK) !=0 && columnToSuppressionStatus[col]) {
+        } else if (!ignoreSuppression && internalIsOutlier(row) && columnToSuppressionStatus[col]) {
             return DataType.ANY_VALUE;
             
         // Handle all other values
         } else {
             
             // Decode
-            int value = data.getArray().get(row, index) & Data.REMOVE_OUTLIER_MASK;
+            int value = getEncodedValue(data, row, index);
             String[][] dictionary = data.getDictionary().getMapping();
             return dictionary[index][value];
         }
@@ -664,7 +756,11 @@ public class DataHandleOutput extends DataHandle {
      * @return
      */
     protected boolean internalIsOutlier(final int row) {
-        return ((dataGeneralized.getArray().get(row, 0) & Data.OUTLIER_MASK) != 0);
+        if (outliers != null) {
+            return outliers.contains(row);
+        } else {
+            return ((dataGeneralized.getArray().get(row, 0) & Data.OUTLIER_MASK) != 0);
+        }
     }
     
     @Override
@@ -681,7 +777,7 @@ public class DataHandleOutput extends DataHandle {
             }
                 
             // Suppressed values are suppressed
-            if ((dataGeneralized.getArray().get(row, 0) & Data.OUTLIER_MASK) !=0 && columnToSuppressionStatus[column]) {
+            if (internalIsOutlier(row) && columnToSuppressionStatus[column]) {
                 continue;
             }
             
@@ -690,7 +786,7 @@ public class DataHandleOutput extends DataHandle {
             
             // Completely generalized values are suppressed
             int suppressed = data.getDictionary().getSuppressedCodes()[index];
-            if ((data.getArray().get(row, index) & Data.REMOVE_OUTLIER_MASK) == suppressed) {
+            if (getEncodedValue(data, row, index) == suppressed) {
                 continue;
             }
             
@@ -744,8 +840,12 @@ public class DataHandleOutput extends DataHandle {
      */
     protected void internalSwap(final int row1, final int row2) {
         
-        // Swap generalized data
-        dataGeneralized.getArray().swap(row1, row2);
+        // Swap generalized data. If it is not materialized, the input data is swapped by its handle.
+        if (outliers != null) {
+            outliers.swap(row1, row2);
+        } else {
+            dataGeneralized.getArray().swap(row1, row2);
+        }
         
         // Swap aggregated data
         if (dataAggregated.getArray().getNumRows() != 0) {
@@ -758,6 +858,14 @@ public class DataHandleOutput extends DataHandle {
         return this.anonymous;
     }
 
+    /**
+     * Returns whether generalized data is materialized instead of being computed on the fly
+     * @return
+     */
+    protected boolean isMaterialized() {
+        return this.levels == null;
+    }
+
     /**
      * Marks this handle as optimized
      * @param optimized
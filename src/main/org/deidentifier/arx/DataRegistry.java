@@ -17,6 +17,8 @@
 
 package org.deidentifier.arx;
 
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
@@ -24,17 +26,21 @@ import java.util.Map.Entry;
 
 import org.deidentifier.arx.ARXLattice.ARXNode;
 
-import cern.colt.GenericSorting;
 import cern.colt.Swapper;
-import cern.colt.function.IntComparator;
 
 /**
  * This class implements sorting and swapping for a set of paired data handles.
+ * To sort, the values of each column are mapped to their ranks once. Rows are then
+ * sorted by composite keys of ranks and the resulting permutation is applied to all
+ * handles with a minimal number of swaps.
  *
  * @author Fabian Prasser
  */
 class DataRegistry {
 
+    /** The outputs of recently applied transformations. */
+    private final OutputCache cache = new OutputCache();
+
     /** The input handle, if any. */
     private DataHandleInput input;
     
@@ -84,6 +90,157 @@ class DataRegistry {
         return result;
     }
     
+    /**
+     * Returns the number of bits needed to represent the given non-negative value.
+     *
+     * @param value
+     * @return
+     */
+    private int getBits(int value) {
+        return Integer.SIZE - Integer.numberOfLeadingZeros(value);
+    }
+
+    /**
+     * Returns the order of the rows in the given range after a stable sort. The entry at
+     * position i is the offset of the row which is to be moved to position from + i.
+     *
+     * @param handle
+     * @param from
+     * @param to
+     * @param ascending
+     * @param columns
+     * @return
+     */
+    private int[] getOrder(final DataHandle handle,
+                           final int from,
+                           final int to,
+                           final boolean ascending,
+                           final int... columns) {
+
+        // Prepare
+        final int rows = to - from;
+        int[] order = new int[rows];
+        for (int i = 0; i < rows; i++) {
+            order[i] = i;
+        }
+        if (rows < 2) {
+            return order;
+        }
+
+        // Map values to ranks
+        int[][] ranks = new int[columns.length][];
+        int[] bits = new int[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            ranks[i] = getRanks(handle, from, to, ascending, columns[i]);
+            int max = 0;
+            for (int rank : ranks[i]) {
+                max = Math.max(max, rank);
+            }
+            bits[i] = getBits(max);
+        }
+
+        // Sort by groups of columns which fit into one key, starting with the last group.
+        // The offset of each row is part of its key, which makes each pass stable.
+        final int offsetBits = getBits(rows - 1);
+        final long offsetMask = (1L << offsetBits) - 1L;
+        long[] keys = new long[rows];
+        int end = columns.length;
+        while (end > 0) {
+            int start = end - 1;
+            int width = offsetBits + bits[start];
+            while (start > 0 && width + bits[start - 1] < Long.SIZE) {
+                start--;
+                width += bits[start];
+            }
+            for (int i = 0; i < rows; i++) {
+                int row = order[i];
+                long key = 0L;
+                for (int j = start; j < end; j++) {
+                    key = (key << bits[j]) | ranks[j][row];
+                }
+                keys[i] = (key << offsetBits) | i;
+            }
+            Arrays.parallelSort(keys);
+            int[] sorted = new int[rows];
+            for (int i = 0; i < rows; i++) {
+                sorted[i] = order[(int) (keys[i] & offsetMask)];
+            }
+            order = sorted;
+            end = start;
+        }
+
+        // Return
+        return order;
+    }
+
+    /**
+     * Returns the ranks of the values of the given column in the given range. Equal values
+     * have equal ranks. Each distinct value is compared only with other distinct values.
+     *
+     * @param handle
+     * @param from
+     * @param to
+     * @param ascending
+     * @param column
+     * @return
+     */
+    private int[] getRanks(final DataHandle handle,
+                           final int from,
+                           final int to,
+                           final boolean ascending,
+                           final int column) {
+
+        // Collect codes, suppressed values are encoded as -1 and stored at index 0
+        final int rows = to - from;
+        int[] codes = new int[rows];
+        int max = -1;
+        for (int i = 0; i < rows; i++) {
+            codes[i] = handle.internalGetEncodedValue(from + i, column, false) + 1;
+            max = Math.max(max, codes[i]);
+        }
+
+        // Collect distinct values
+        final String[] values = new String[max + 1];
+        boolean[] present = new boolean[max + 1];
+        int distinct = 0;
+        for (int i = 0; i < rows; i++) {
+            if (!present[codes[i]]) {
+                present[codes[i]] = true;
+                values[codes[i]] = handle.internalGetValue(from + i, column, false);
+                distinct++;
+            }
+        }
+        Integer[] sorted = new Integer[distinct];
+        for (int code = 0, index = 0; code <= max; code++) {
+            if (present[code]) {
+                sorted[index++] = code;
+            }
+        }
+
+        // Sort distinct values
+        Comparator<Integer> comparator = new Comparator<Integer>() {
+            @Override
+            public int compare(Integer code1, Integer code2) {
+                return handle.internalCompareValues(column, values[code1], values[code2]);
+            }
+        };
+        Arrays.parallelSort(sorted, comparator);
+
+        // Assign ranks
+        int[] ranks = new int[max + 1];
+        int rank = 0;
+        for (int i = 0; i < distinct; i++) {
+            if (i > 0 && comparator.compare(sorted[i - 1], sorted[i]) != 0) {
+                rank++;
+            }
+            ranks[sorted[i]] = rank;
+        }
+        for (int i = 0; i < rows; i++) {
+            codes[i] = ascending ? ranks[codes[i]] : rank - ranks[codes[i]];
+        }
+        return codes;
+    }
+
     /**
      * Returns any of the registered subsets.
      *
@@ -99,6 +256,37 @@ class DataRegistry {
         return subset;
     }
     
+    /**
+     * Moves the rows into the given order, by calling the swapper at most once per row.
+     *
+     * @param order
+     * @param from
+     * @param swapper
+     */
+    private void permute(int[] order, int from, Swapper swapper) {
+
+        // Offsets of the rows at each position and positions of the rows
+        int[] rows = new int[order.length];
+        int[] positions = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            rows[i] = i;
+            positions[i] = i;
+        }
+
+        // Move the next row into place
+        for (int i = 0; i < order.length; i++) {
+            int position = positions[order[i]];
+            if (position != i) {
+                swapper.swap(from + i, from + position);
+                int row = rows[i];
+                rows[i] = order[i];
+                rows[position] = row;
+                positions[row] = position;
+                positions[order[i]] = i;
+            }
+        }
+    }
+
     /**
      * Sort.
      *
@@ -116,26 +304,21 @@ class DataRegistry {
                          final boolean ascending,
                          final int... columns) {
 
-        final DataHandle outer = handle;
         final DataHandleSubset subset = getSubset();
         
-        final IntComparator c = new IntComparator() {
-            @Override
-            public int compare(final int arg0, final int arg1) {
-                return outer.internalCompare(arg0, arg1, columns, ascending);
-            }
-        };
+        final int[] order = getOrder(handle, from, to, ascending, columns);
         final Swapper s = new Swapper() {
             @Override
             public void swap(final int arg0, final int arg1) {
                 if (input != null) input.internalSwap(arg0, arg1);
                 for (DataHandleOutput handle : output.values()) handle.internalSwap(arg0, arg1);
+                cache.swap(arg0, arg1);
                 if (subset != null) subset.internalSwap(arg0, arg1);
                 if (swapper != null) swapper.swap(arg0, arg1);
             }
         };
         
-        GenericSorting.mergeSort(from, to, c, s);
+        permute(order, from, s);
         
         if (subset != null){
             subset.internalRebuild();
@@ -160,12 +343,7 @@ class DataRegistry {
                               final int... columns) {
 
         final DataHandleSubset outer = handle;
-        final IntComparator c = new IntComparator() {
-            @Override
-            public int compare(final int arg0, final int arg1) {
-                return outer.internalCompare(arg0, arg1, columns, ascending);
-            }
-        };
+        final int[] order = getOrder(handle, from, to, ascending, columns);
         final Swapper s = new Swapper() {
             @Override
             public void swap(final int arg0, final int arg1) {
@@ -175,6 +353,7 @@ class DataRegistry {
                 for (DataHandleOutput handle : output.values()) {
                     handle.internalSwap(outer.internalTranslate(arg0), outer.internalTranslate(arg1));
                 }
+                cache.swap(outer.internalTranslate(arg0), outer.internalTranslate(arg1));
                 if (swapper != null) {
                     swapper.swap(outer.internalTranslate(arg0), outer.internalTranslate(arg1));
                 }
@@ -182,7 +361,7 @@ class DataRegistry {
         };
         
         // No need to swap and rebuild the subset views
-        GenericSorting.mergeSort(from, to, c, s);
+        permute(order, from, s);
     }
     
     /**
@@ -199,6 +378,7 @@ class DataRegistry {
         for (DataHandleOutput outhandle : output.values()) {
             outhandle.internalSwap(row1, row2);
         }
+        cache.swap(row1, row2);
         
         // Important to swap in only one subset
         DataHandleSubset subset = getSubset();
@@ -222,6 +402,7 @@ class DataRegistry {
         row2 = handle.internalTranslate(row2);
         if (input != null) input.internalSwap(row1, row2);
         for (DataHandleOutput outhandle : output.values()) outhandle.internalSwap(row1, row2);
+        cache.swap(row1, row2);
     }
 
     /**
@@ -264,6 +445,14 @@ class DataRegistry {
         return this.input.getBaseDataType(attribute);
     }
 
+    /**
+     * Returns the outputs of recently applied transformations
+     * @return
+     */
+    protected OutputCache getCache() {
+        return this.cache;
+    }
+
     /**
      * Returns the input handle
      * @return
@@ -343,6 +532,7 @@ class DataRegistry {
             this.output.remove(entry.getKey());
         }
         this.output.clear();
+        this.cache.clear();
         
         for (DataHandle handle : this.outputSubset.values()) {
             handle.setRegistry(null);
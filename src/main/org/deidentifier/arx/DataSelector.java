@@ -18,12 +18,15 @@
 package org.deidentifier.arx;
 
 import java.text.ParseException;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.deidentifier.arx.DataType.ARXDate;
 import org.deidentifier.arx.DataType.ARXDecimal;
+import org.deidentifier.arx.framework.data.DataMatrix;
 
 import de.linearbits.objectselector.IAccessor;
 import de.linearbits.objectselector.Selector;
@@ -38,6 +41,470 @@ import de.linearbits.objectselector.datatypes.DataType;
  */
 public class DataSelector { // NO_UCD
     
+    /**
+     * A builder which records the expression, which enables compiling it into bitmaps.
+     * Queries are parsed by the constructor of the super class, which calls the overridden
+     * methods before the fields of this class are initialized. The list of tokens is
+     * therefore created lazily and the fields must not have initializers.
+     *
+     * @author Fabian Prasser
+     */
+    private static class DataSelectorBuilder extends SelectorBuilder<Integer> {
+
+        /** The current field. */
+        private String      context;
+
+        /** The tokens. */
+        private List<Token> tokens;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param accessor
+         */
+        protected DataSelectorBuilder(IAccessor<Integer> accessor) {
+            super(accessor);
+        }
+
+        /**
+         * Creates a new instance.
+         *
+         * @param accessor
+         * @param query
+         * @throws ParseException
+         */
+        protected DataSelectorBuilder(IAccessor<Integer> accessor, String query) throws ParseException {
+            super(accessor, query);
+        }
+
+        @Override
+        public SelectorBuilder<Integer> and() {
+            super.and();
+            return record(new Token(Token.AND, null, null, null, null));
+        }
+
+        @Override
+        public SelectorBuilder<Integer> begin() {
+            super.begin();
+            return record(new Token(Token.BEGIN, null, null, null, null));
+        }
+
+        @Override
+        public SelectorBuilder<Integer> end() {
+            super.end();
+            return record(new Token(Token.END, null, null, null, null));
+        }
+
+        @Override
+        public SelectorBuilder<Integer> equals(Boolean val) {
+            super.equals(val);
+            return record("equals", Boolean.class, val);
+        }
+
+        @Override
+        public SelectorBuilder<Integer> equals(Date val) {
+            super.equals(val);
+            return record("equals", Date.class, val);
+        }
+
+        @Override
+        public SelectorBuilder<Integer> equals(double val) {
+            super.equals(val);
+            return record("equals", double.class, val);
+        }
+
+        @Override
+        public SelectorBuilder<Integer> equals(String val) {
+            super.equals(val);
+            return record("equals", String.class, val);
+        }
+
+        @Override
+        public SelectorBuilder<Integer> field(String name) {
+            super.field(name);
+            this.context = name;
+            return this;
+        }
+
+        @Override
+        public SelectorBuilder<Integer> geq(Boolean val) {
+            super.geq(val);
+            return record("geq", Boolean.class, val);
+        }
+
+        @Override
+        public SelectorBuilder<Integer> geq(Date val) {
+            super.geq(val);
+            return record("geq", Date.class, val);
+        }
+
+        @Override
+        public SelectorBuilder<Integer> geq(double val) {
+            super.geq(val);
+            return record("geq", double.class, val);
+        }
+
+        @Override
+        public SelectorBuilder<Integer> geq(String val) {
+            super.geq(val);
+            return record("geq", String.class, val);
+        }
+
+        @Override
+        public SelectorBuilder<Integer> greater(Boolean val) {
+            super.greater(val);
+            return record("greater", Boolean.class, val);
+        }
+
+        @Override
+        public SelectorBuilder<Integer> greater(Date val) {
+            super.greater(val);
+            return record("greater", Date.class, val);
+        }
+
+        @Override
+        public SelectorBuilder<Integer> greater(double val) {
+            super.greater(val);
+            return record("greater", double.class, val);
+        }
+
+        @Override
+        public SelectorBuilder<Integer> greater(String val) {
+            super.greater(val);
+            return record("greater", String.class, val);
+        }
+
+        @Override
+        public SelectorBuilder<Integer> leq(Boolean val) {
+            super.leq(val);
+            return record("leq", Boolean.class, val);
+        }
+
+        @Override
+        public SelectorBuilder<Integer> leq(Date val) {
+            super.leq(val);
+            return record("leq", Date.class, val);
+        }
+
+        @Override
+        public SelectorBuilder<Integer> leq(double val) {
+            super.leq(val);
+            return record("leq", double.class, val);
+        }
+
+        @Override
+        public SelectorBuilder<Integer> leq(String val) {
+            super.leq(val);
+            return record("leq", String.class, val);
+        }
+
+        @Override
+        public SelectorBuilder<Integer> less(Boolean val) {
+            super.less(val);
+            return record("less", Boolean.class, val);
+        }
+
+        @Override
+        public SelectorBuilder<Integer> less(Date val) {
+            super.less(val);
+            return record("less", Date.class, val);
+        }
+
+        @Override
+        public SelectorBuilder<Integer> less(double val) {
+            super.less(val);
+            return record("less", double.class, val);
+        }
+
+        @Override
+        public SelectorBuilder<Integer> less(String val) {
+            super.less(val);
+            return record("less", String.class, val);
+        }
+
+        @Override
+        public SelectorBuilder<Integer> matches(String val) {
+            super.matches(val);
+            return record("matches", String.class, val);
+        }
+
+        @Override
+        public SelectorBuilder<Integer> neq(Boolean val) {
+            super.neq(val);
+            return record("neq", Boolean.class, val);
+        }
+
+        @Override
+        public SelectorBuilder<Integer> neq(Date val) {
+            super.neq(val);
+            return record("neq", Date.class, val);
+        }
+
+        @Override
+        public SelectorBuilder<Integer> neq(double val) {
+            super.neq(val);
+            return record("neq", double.class, val);
+        }
+
+        @Override
+        public SelectorBuilder<Integer> neq(String val) {
+            super.neq(val);
+            return record("neq", String.class, val);
+        }
+
+        @Override
+        public SelectorBuilder<Integer> or() {
+            super.or();
+            return record(new Token(Token.OR, null, null, null, null));
+        }
+
+        /**
+         * Returns a copy of the tokens recorded so far.
+         *
+         * @return
+         */
+        protected List<Token> getTokens() {
+            return tokens == null ? new ArrayList<Token>() : new ArrayList<Token>(tokens);
+        }
+
+        /**
+         * Records a predicate.
+         *
+         * @param operator
+         * @param type
+         * @param value
+         * @return
+         */
+        private SelectorBuilder<Integer> record(String operator, Class<?> type, Object value) {
+            return record(new Token(Token.PREDICATE, context, operator, type, value));
+        }
+
+        /**
+         * Records a token.
+         *
+         * @param token
+         * @return
+         */
+        private SelectorBuilder<Integer> record(Token token) {
+            if (tokens == null) {
+                tokens = new ArrayList<Token>();
+            }
+            tokens.add(token);
+            return this;
+        }
+    }
+
+    /**
+     * An accessor which maps dictionary codes of a column to the according values.
+     *
+     * @author Fabian Prasser
+     */
+    private class DictionaryAccessor implements IAccessor<Integer> {
+
+        /** The values. */
+        private final String[] values;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param values
+         */
+        protected DictionaryAccessor(String[] values) {
+            this.values = values;
+        }
+
+        @Override
+        public boolean exists(String arg0) {
+            return accessor.exists(arg0);
+        }
+
+        @Override
+        public DataType<?> getType(String arg0) {
+            return accessor.getType(arg0);
+        }
+
+        @Override
+        public Object getValue(Integer arg0, String arg1) {
+            try {
+                return accessor.getType(arg1).fromString(values[arg0]);
+            } catch (RuntimeException e) {
+                throw new UncompilableValueException(e);
+            }
+        }
+
+        @Override
+        public boolean isDataTypesSupported() {
+            return true;
+        }
+
+        @Override
+        public boolean isExistanceSupported() {
+            return true;
+        }
+    }
+
+    /**
+     * A token of a recorded expression.
+     *
+     * @author Fabian Prasser
+     */
+    private static class Token {
+
+        /** Predicate */
+        private static final int PREDICATE = 0;
+
+        /** And */
+        private static final int AND       = 1;
+
+        /** Or */
+        private static final int OR        = 2;
+
+        /** Opening parenthesis */
+        private static final int BEGIN     = 3;
+
+        /** Closing parenthesis */
+        private static final int END       = 4;
+
+        /** The type of token. */
+        private final int        token;
+
+        /** The field of a predicate. */
+        private final String     field;
+
+        /** The operator of a predicate. */
+        private final String     operator;
+
+        /** The type of the value of a predicate. */
+        private final Class<?>   type;
+
+        /** The value of a predicate. */
+        private final Object     value;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param token
+         * @param field
+         * @param operator
+         * @param type
+         * @param value
+         */
+        private Token(int token, String field, String operator, Class<?> type, Object value) {
+            this.token = token;
+            this.field = field;
+            this.operator = operator;
+            this.type = type;
+            this.value = value;
+        }
+
+        /**
+         * Builds a selector which evaluates this predicate on the given accessor.
+         *
+         * @param accessor
+         * @return
+         * @throws ParseException
+         */
+        private Selector<Integer> getSelector(IAccessor<Integer> accessor) throws ParseException {
+            SelectorBuilder<Integer> builder = new SelectorBuilder<Integer>(accessor).field(field);
+            switch (operator) {
+            case "equals":
+                if (type == Boolean.class) {
+                    builder.equals((Boolean) value);
+                } else if (type == Date.class) {
+                    builder.equals((Date) value);
+                } else if (type == double.class) {
+                    builder.equals(((Double) value).doubleValue());
+                } else {
+                    builder.equals((String) value);
+                }
+                break;
+            case "geq":
+                if (type == Boolean.class) {
+                    builder.geq((Boolean) value);
+                } else if (type == Date.class) {
+                    builder.geq((Date) value);
+                } else if (type == double.class) {
+                    builder.geq(((Double) value).doubleValue());
+                } else {
+                    builder.geq((String) value);
+                }
+                break;
+            case "greater":
+                if (type == Boolean.class) {
+                    builder.greater((Boolean) value);
+                } else if (type == Date.class) {
+                    builder.greater((Date) value);
+                } else if (type == double.class) {
+                    builder.greater(((Double) value).doubleValue());
+                } else {
+                    builder.greater((String) value);
+                }
+                break;
+            case "leq":
+                if (type == Boolean.class) {
+                    builder.leq((Boolean) value);
+                } else if (type == Date.class) {
+                    builder.leq((Date) value);
+                } else if (type == double.class) {
+                    builder.leq(((Double) value).doubleValue());
+                } else {
+                    builder.leq((String) value);
+                }
+                break;
+            case "less":
+                if (type == Boolean.class) {
+                    builder.less((Boolean) value);
+                } else if (type == Date.class) {
+                    builder.less((Date) value);
+                } else if (type == double.class) {
+                    builder.less(((Double) value).doubleValue());
+                } else {
+                    builder.less((String) value);
+                }
+                break;
+            case "matches":
+                builder.matches((String) value);
+                break;
+            case "neq":
+                if (type == Boolean.class) {
+                    builder.neq((Boolean) value);
+                } else if (type == Date.class) {
+                    builder.neq((Date) value);
+                } else if (type == double.class) {
+                    builder.neq(((Double) value).doubleValue());
+                } else {
+                    builder.neq((String) value);
+                }
+                break;
+            default:
+                throw new IllegalStateException("Unknown operator: " + operator);
+            }
+            return builder.build();
+        }
+    }
+
+    /**
+     * Thrown when a value of the dictionary cannot be converted into the data type of a predicate.
+     * Row-wise evaluation may not need to convert the value, so the expression is then evaluated
+     * row by row.
+     *
+     * @author Fabian Prasser
+     */
+    private static class UncompilableValueException extends RuntimeException {
+
+        /** SVUID */
+        private static final long serialVersionUID = -2479353211858815127L;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param cause
+         */
+        private UncompilableValueException(RuntimeException cause) {
+            super(cause);
+        }
+    }
+
     /**
      * An accessor for data elements.
      *
@@ -161,11 +628,17 @@ public class DataSelector { // NO_UCD
         return new DataSelector(data, query);
     }
    
+    /** The accessor. */
+    private final DataAccessor        accessor;
+
     /** The builder. */
-    private final SelectorBuilder<Integer> builder;
+    private final DataSelectorBuilder builder;
 
     /** The selector. */
-    private Selector<Integer> selector = null;
+    private Selector<Integer>         selector = null;
+
+    /** The tokens of the expression, recorded when the selector was built. */
+    private List<Token>               tokens   = null;
 
     /**
      * 
@@ -173,7 +646,8 @@ public class DataSelector { // NO_UCD
      * @param data
      */
     private DataSelector(Data data){
-        this.builder = new SelectorBuilder<Integer>(new DataAccessor(data)); 
+        this.accessor = new DataAccessor(data);
+        this.builder = new DataSelectorBuilder(accessor); 
     }
 
     /**
@@ -184,7 +658,8 @@ public class DataSelector { // NO_UCD
      * @throws ParseException
      */
     private DataSelector(Data data, String query) throws ParseException {
-        this.builder = new SelectorBuilder<Integer>(new DataAccessor(data), query);
+        this.accessor = new DataAccessor(data);
+        this.builder = new DataSelectorBuilder(accessor, query);
     }
     
     /**
@@ -214,6 +689,7 @@ public class DataSelector { // NO_UCD
      */
     public void build() throws ParseException{
         this.selector = this.builder.build();
+        this.tokens = this.builder.getTokens();
     }
     
     /**
@@ -337,19 +813,46 @@ public class DataSelector { // NO_UCD
     }
     
     /**
-     * Determines whether the given row is selected by the expression.
+     * Returns the set of rows selected by the expression. The expression is compiled:
+     * each predicate is evaluated once per distinct value of its attribute, which results
+     * in a bitmap of rows. Bitmaps are then combined with word-wise operations.
      *
-     * @param row
      * @return
      */
-    public boolean isSelected(int row){
-        if (selector == null) {
+    public RowSet getSelectedRows() {
+        
+        // Prepare
+        assureBuilt();
+        DataHandle handle = accessor.handle;
+        handle.checkReleased();
+        
+        // Compile
+        if (handle instanceof DataHandleInput) {
             try {
-                build();
-            } catch (ParseException e) {
-                throw new RuntimeException(e);
+                return getRows((DataHandleInput) handle, 0, tokens.size());
+            } catch (UncompilableValueException e) {
+                // Evaluate row by row, which only converts values when required
+            }
+        }
+        
+        // Evaluate
+        RowSet result = RowSet.create(handle.getNumRows());
+        for (int row = 0; row < handle.getNumRows(); row++) {
+            if (selector.isSelected(row)) {
+                result.add(row);
             }
         }
+        return result;
+    }
+
+    /**
+     * Determines whether the given row is selected by the expression.
+     *
+     * @param row
+     * @return
+     */
+    public boolean isSelected(int row){
+        assureBuilt();
         return selector.isSelected(row);
     }
 
@@ -437,4 +940,108 @@ public class DataSelector { // NO_UCD
         this.builder.or();
         return this;
     }
+
+    /**
+     * Builds the selector, if not already done.
+     */
+    private void assureBuilt() {
+        if (selector == null) {
+            try {
+                build();
+            } catch (ParseException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of tokens of the operand starting at the given offset.
+     *
+     * @param offset
+     * @return
+     */
+    private int getLength(int offset) {
+        if (tokens.get(offset).token != Token.BEGIN) {
+            return 1;
+        }
+        int depth = 0;
+        for (int index = offset; index < tokens.size(); index++) {
+            int token = tokens.get(index).token;
+            depth += token == Token.BEGIN ? 1 : (token == Token.END ? -1 : 0);
+            if (depth == 0) {
+                return index - offset + 1;
+            }
+        }
+        throw new IllegalStateException("Missing closing parenthesis");
+    }
+
+    /**
+     * Returns the rows selected by the given predicate. The predicate is evaluated once
+     * for each value of the dictionary which occurs in the data.
+     *
+     * @param handle
+     * @param token
+     * @return
+     */
+    private RowSet getRows(DataHandleInput handle, Token token) {
+
+        // Prepare
+        int column = accessor.indices.get(token.field);
+        DataMatrix data = handle.data;
+        String[] values = handle.dictionary.getMapping()[column];
+        int rows = data.getNumRows();
+        
+        // Collect values
+        boolean[] present = new boolean[values.length];
+        for (int row = 0; row < rows; row++) {
+            present[data.get(row, column)] = true;
+        }
+        
+        // Evaluate predicate for each value
+        Selector<Integer> predicate;
+        try {
+            predicate = token.getSelector(new DictionaryAccessor(values));
+        } catch (ParseException e) {
+            throw new IllegalStateException(e);
+        }
+        boolean[] selected = new boolean[values.length];
+        for (int code = 0; code < values.length; code++) {
+            selected[code] = present[code] && predicate.isSelected(code);
+        }
+        
+        // Create bitmap
+        long[] array = new long[(rows + 63) >>> 6];
+        for (int row = 0; row < rows; row++) {
+            if (selected[data.get(row, column)]) {
+                array[row >>> 6] |= 1L << row;
+            }
+        }
+        return new RowSet(rows, array);
+    }
+
+    /**
+     * Returns the rows selected by the given part of the expression. Mirrors the parser
+     * of the selector: the first operand is followed by either nothing or a binary operator
+     * and the remaining expression.
+     *
+     * @param handle
+     * @param offset
+     * @param length
+     * @return
+     */
+    private RowSet getRows(DataHandleInput handle, int offset, int length) {
+        int first = getLength(offset);
+        if (first == length) {
+            Token token = tokens.get(offset);
+            return token.token == Token.PREDICATE ? getRows(handle, token) : getRows(handle, offset + 1, length - 2);
+        }
+        RowSet left = getRows(handle, offset, first);
+        RowSet right = getRows(handle, offset + first + 1, length - first - 1);
+        if (tokens.get(offset + first).token == Token.AND) {
+            left.and(right);
+        } else {
+            left.or(right);
+        }
+        return left;
+    }
 }
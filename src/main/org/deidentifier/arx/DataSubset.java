@@ -23,8 +23,13 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+
+import org.deidentifier.arx.common.WorkerPool;
+import org.deidentifier.arx.framework.data.DataMatrix;
 
 import com.carrotsearch.hppc.IntArrayList;
+import com.carrotsearch.hppc.ObjectIntOpenHashMap;
 
 /**
  * This class represents a the dataset that is to be de-identified 
@@ -35,6 +40,12 @@ import com.carrotsearch.hppc.IntArrayList;
  */
 public class DataSubset implements Serializable {
     
+    /**  SVUID */
+    private static final long serialVersionUID = 3945730896172205344L;
+
+    /** Minimal number of records for which matching is parallelized */
+    private static final int  PARALLEL_THRESHOLD = 100000;
+    
     /**
      * Wrapper around a string array.
      *
@@ -75,58 +86,186 @@ public class DataSubset implements Serializable {
         }
     }
 
-    /**  SVUID */
-    private static final long serialVersionUID = 3945730896172205344L;
-    
     /**
-     * Create a subset by matching two data instances.
+     * Computes hash codes or matches for a range of rows.
+     *
+     * @author Fabian Prasser
+     */
+    private static interface RowAction {
+
+        /**
+         * Processes the rows in [from, to[
+         * @param from
+         * @param to
+         */
+        public void process(int from, int to);
+    }
+
+    /**
+     * Create a subset by matching two data instances with a single thread.
      *
      * @param data
      * @param subset
      * @return
      */
     public static DataSubset create(Data data, Data subset){
+        return create(data, subset, 1);
+    }
+
+    /**
+     * Create a subset by matching two data instances, using the number of threads specified
+     * in the given configuration.
+     *
+     * @param data
+     * @param subset
+     * @param config
+     * @return
+     */
+    public static DataSubset create(Data data, Data subset, ARXConfiguration config){
+        return create(data, subset, config.getNumberOfThreads());
+    }
+
+    /**
+     * Create a subset by matching two data instances. Records are matched via their dictionary codes:
+     * the subset is mapped into the dictionary of the population table once and encoded rows are
+     * matched via a hash table. Each record of the subset consumes the first matching record of the
+     * population table that has not been consumed before. Hashing and probing are performed with the
+     * given number of threads.
+     *
+     * @param data
+     * @param subset
+     * @param threads
+     * @return
+     */
+    public static DataSubset create(Data data, Data subset, int threads){
+        
+        // Check
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Number of threads must be > 0");
+        }
+        DataHandle handle1 = data.getHandle();
+        DataHandle handle2 = subset.getHandle();
+        if (handle1.getNumColumns() != handle2.getNumColumns()) {
+            throw new IllegalArgumentException("Number of columns does not match: " + handle1.getNumColumns() + " != " + handle2.getNumColumns());
+        }
         
-        // TODO: Implement more efficiently
-        DataHandle bHandle = data.getHandle();
-        DataHandle sHandle = subset.getHandle();
+        // Match rows as strings, if dictionary codes are not available
+        if (!(handle1 instanceof DataHandleInput) || !(handle2 instanceof DataHandleInput)) {
+            return createByRows(data, handle1, handle2);
+        }
         
-        // Add background data to map
-        Map<Entry, List<Integer>> background = new HashMap<Entry, List<Integer>>();
+        // Prepare
+        DataHandleInput bHandle = (DataHandleInput)handle1;
+        DataHandleInput sHandle = (DataHandleInput)handle2;
+        final DataMatrix bData = bHandle.data;
+        final DataMatrix sData = sHandle.data;
+        final int columns = bData.getNumColumns();
+        int bRows = bData.getNumRows();
+        int sRows = sData.getNumRows();
+        RowSet bitset = RowSet.create(data);
+        int[] array = new int[sRows];
+        if (sRows == 0) {
+            return new DataSubset(bitset, array);
+        }
+        WorkerPool pool = threads > 1 && sRows + bRows > PARALLEL_THRESHOLD ? new WorkerPool(threads) : null;
         
-        for (int i=0; i<bHandle.getNumRows(); i++){
-            String[] tuple = new String[bHandle.getNumColumns()];
-            for (int j=0; j<tuple.length; j++){
-                tuple[j] = bHandle.getValue(i, j);
+        // Map codes of the subset to codes of the population table, -1 if a value does not exist
+        final int[][] mapping = new int[columns][];
+        for (int column = 0; column < columns; column++) {
+            String[] bValues = bHandle.dictionary.getMapping()[column];
+            String[] sValues = sHandle.dictionary.getMapping()[column];
+            ObjectIntOpenHashMap<String> codes = new ObjectIntOpenHashMap<String>(bValues.length);
+            for (int code = 0; code < bValues.length; code++) {
+                codes.put(bValues[code], code);
             }
-            Entry entry = new Entry(tuple);
-            if (!background.containsKey(entry)) {
-            	background.put(entry, new ArrayList<Integer>());
+            mapping[column] = new int[sValues.length];
+            for (int code = 0; code < sValues.length; code++) {
+                mapping[column][code] = codes.containsKey(sValues[code]) ? codes.lget() : -1;
             }
-            background.get(entry).add(i);
         }
         
-        // Init
-        RowSet bitset = RowSet.create(data);
-        int[] array = new int[sHandle.getNumRows()];
-        int idx = 0;
+        // Hash the population table
+        final int[] bHashes = new int[bRows];
+        execute(pool, bRows, new RowAction() {
+            @Override
+            public void process(int from, int to) {
+                for (int row = from; row < to; row++) {
+                    bHashes[row] = bData.hashCode(row);
+                }
+            }
+        });
         
-        // Match subset
-        for (int i=0; i<sHandle.getNumRows(); i++){
-            String[] tuple = new String[sHandle.getNumColumns()];
-            for (int j=0; j<tuple.length; j++){
-                tuple[j] = sHandle.getValue(i, j);
+        // Group equal rows of the population table. Each group is represented by its first row
+        // and its rows are linked in ascending order, starting with head[representative].
+        final int[] table = new int[getCapacity(bRows)];
+        final int mask = table.length - 1;
+        final int[] head = new int[bRows];
+        final int[] tail = new int[bRows];
+        final int[] next = new int[bRows];
+        for (int row = 0; row < bRows; row++) {
+            int slot = getSlot(bHashes[row], mask);
+            int representative = -1;
+            while (table[slot] != 0) {
+                int candidate = table[slot] - 1;
+                if (bHashes[candidate] == bHashes[row] && bData.equals(candidate, row)) {
+                    representative = candidate;
+                    break;
+                }
+                slot = (slot + 1) & mask;
             }
-            List<Integer> indices = background.get(new Entry(tuple));
-            if (indices == null) {
-                throw new IllegalArgumentException("No match found for: "+Arrays.toString(tuple));
+            next[row] = -1;
+            if (representative == -1) {
+                table[slot] = row + 1;
+                head[row] = row;
+                tail[row] = row;
+            } else {
+                next[tail[representative]] = row;
+                tail[representative] = row;
             }
-            if (indices.isEmpty()) {
-            	throw new IllegalArgumentException("Too many matches found for: "+Arrays.toString(tuple));
+        }
+        
+        // Find the group of each record in the subset, -1 if there is none
+        final int[] groups = new int[sRows];
+        execute(pool, sRows, new RowAction() {
+            @Override
+            public void process(int from, int to) {
+                int[] tuple = new int[columns];
+                for (int row = from; row < to; row++) {
+                    groups[row] = -1;
+                    boolean found = true;
+                    for (int column = 0; column < columns && found; column++) {
+                        tuple[column] = mapping[column][sData.get(row, column)];
+                        found = tuple[column] != -1;
+                    }
+                    if (found) {
+                        int hash = bData.hashCode(tuple);
+                        int slot = getSlot(hash, mask);
+                        while (table[slot] != 0) {
+                            int candidate = table[slot] - 1;
+                            if (bHashes[candidate] == hash && bData.equals(candidate, tuple)) {
+                                groups[row] = candidate;
+                                break;
+                            }
+                            slot = (slot + 1) & mask;
+                        }
+                    }
+                }
             }
-            int index = indices.remove(0);
+        });
+        
+        // Match subset, consuming one record of the group per match
+        for (int row = 0; row < sRows; row++) {
+            int group = groups[row];
+            if (group == -1) {
+                throw new IllegalArgumentException("No match found for: " + Arrays.toString(getRow(sHandle, row)));
+            }
+            int index = head[group];
+            if (index == -1) {
+                throw new IllegalArgumentException("Too many matches found for: " + Arrays.toString(getRow(sHandle, row)));
+            }
+            head[group] = next[index];
             bitset.add(index);
-            array[idx++] = index;
+            array[row] = index;
         }
         
         // Return
@@ -145,21 +284,25 @@ public class DataSubset implements Serializable {
         
         // Init
         int rows = data.getHandle().getNumRows();
-        RowSet bitset = RowSet.create(data);
-        ArrayList<Integer> list = new ArrayList<Integer>();
+        RowSet bitset = selector.getSelectedRows();
         
         // Check
-        for (int i=0; i<rows; i++){
-            if (selector.isSelected(i)) {
-                bitset.add(i);
-                list.add(i);
+        if (bitset.length() != rows) {
+            bitset = RowSet.create(data);
+            for (int i=0; i<rows; i++){
+                if (selector.isSelected(i)) {
+                    bitset.add(i);
+                }
             }
         }
         
         // Convert
-        int[] array = new int[list.size()];
-        for (int i=0; i<list.size(); i++){
-            array[i] = list.get(i);
+        int[] array = new int[bitset.size()];
+        int index = 0;
+        for (int i=0; i<rows; i++){
+            if (bitset.contains(i)) {
+                array[index++] = i;
+            }
         }
         
         // Return
@@ -301,4 +444,114 @@ public class DataSubset implements Serializable {
         }
         return new DataSubset(newset, list.toArray());
     }
+
+    /**
+     * Create a subset by matching the rows of two handles as strings.
+     *
+     * @param data
+     * @param bHandle
+     * @param sHandle
+     * @return
+     */
+    private static DataSubset createByRows(Data data, DataHandle bHandle, DataHandle sHandle) {
+        
+        // Add background data to map
+        Map<Entry, List<Integer>> background = new HashMap<Entry, List<Integer>>();
+        for (int i=0; i<bHandle.getNumRows(); i++){
+            Entry entry = new Entry(getRow(bHandle, i));
+            if (!background.containsKey(entry)) {
+                background.put(entry, new ArrayList<Integer>());
+            }
+            background.get(entry).add(i);
+        }
+        
+        // Init
+        RowSet bitset = RowSet.create(data);
+        int[] array = new int[sHandle.getNumRows()];
+        int idx = 0;
+        
+        // Match subset
+        for (int i=0; i<sHandle.getNumRows(); i++){
+            String[] tuple = getRow(sHandle, i);
+            List<Integer> indices = background.get(new Entry(tuple));
+            if (indices == null) {
+                throw new IllegalArgumentException("No match found for: "+Arrays.toString(tuple));
+            }
+            if (indices.isEmpty()) {
+                throw new IllegalArgumentException("Too many matches found for: "+Arrays.toString(tuple));
+            }
+            int index = indices.remove(0);
+            bitset.add(index);
+            array[idx++] = index;
+        }
+        
+        // Return
+        Arrays.sort(array);
+        return new DataSubset(bitset, array);
+    }
+
+    /**
+     * Executes the action for all rows, in parallel if a pool is given.
+     * @param pool
+     * @param rows
+     * @param action
+     */
+    private static void execute(WorkerPool pool, final int rows, final RowAction action) {
+        
+        // Sequential
+        if (pool == null) {
+            action.process(0, rows);
+            return;
+        }
+        
+        // Parallel
+        int threads = pool.getNumThreads();
+        List<Callable<Void>> tasks = new ArrayList<Callable<Void>>(threads);
+        for (int i = 0; i < threads; i++) {
+            final int from = (int)((long)rows * i / threads);
+            final int to = (int)((long)rows * (i + 1) / threads);
+            tasks.add(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    action.process(from, to);
+                    return null;
+                }
+            });
+        }
+        pool.invokeAll(tasks);
+    }
+
+    /**
+     * Returns the capacity of a hash table with linear probing for the given number of elements
+     * @param size
+     * @return
+     */
+    private static int getCapacity(int size) {
+        int capacity = Integer.highestOneBit(Math.max(size, 1)) << 1;
+        return capacity < 0 ? 1 << 30 : capacity;
+    }
+
+    /**
+     * Returns the given row as strings
+     * @param handle
+     * @param row
+     * @return
+     */
+    private static String[] getRow(DataHandle handle, int row) {
+        String[] tuple = new String[handle.getNumColumns()];
+        for (int column = 0; column < tuple.length; column++) {
+            tuple[column] = handle.getValue(row, column);
+        }
+        return tuple;
+    }
+
+    /**
+     * Returns the slot for the given hash code
+     * @param hash
+     * @param mask
+     * @return
+     */
+    private static int getSlot(int hash, int mask) {
+        return (hash ^ (hash >>> 16)) & mask;
+    }
 }
@@ -23,6 +23,7 @@ import java.io.Serializable;
 import java.io.StringReader;
 import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
+import java.text.Format;
 import java.text.NumberFormat;
 import java.text.ParseException;
 import java.text.ParsePosition;
@@ -79,6 +80,9 @@ public abstract class DataType<T> implements Serializable, Comparator<T> { // NO
         /** Locale. */
         private final Locale                           locale;
 
+        /** Thread-confined copies of the format. */
+        private transient ThreadLocalFormat<SimpleDateFormat> formats;
+
         /**
          * Create a date with a "dd.MM.yyyy" format string
          * for <code>SimpleDateFormat</code> and default locale.
@@ -215,8 +219,7 @@ public abstract class DataType<T> implements Serializable, Comparator<T> { // NO
             if (s == null) {
                 return NULL_VALUE;
             }
-            // TODO: We clone "format" to increase thread safety. There may be better (and more efficient) options.
-        	return ((SimpleDateFormat)format.clone()).format(s);
+            return getThreadLocalFormat().format(s);
         }
         
         /**
@@ -229,10 +232,10 @@ public abstract class DataType<T> implements Serializable, Comparator<T> { // NO
                 return NULL_VALUE;
             }
             
-            // Prepare
-            // TODO: We clone "format" to increase thread safety. There may be better (and more efficient) options.
-            SimpleDateFormat sdf = ((SimpleDateFormat)format.clone());
+            // Prepare, the shared copy must not be modified
+            SimpleDateFormat sdf = getThreadLocalFormat();
             if (zone != null) {
+                sdf = (SimpleDateFormat)sdf.clone();
                 sdf.setTimeZone(zone);
             }
             
@@ -298,12 +301,15 @@ public abstract class DataType<T> implements Serializable, Comparator<T> { // NO
 
         @Override
         public boolean isValid(String s) {
-            try {
-                parse(s);
-                return true;
-            } catch (Exception e){
+            if (s == null) {
                 return false;
             }
+            if (s.length() == NULL_VALUE.length() && s.toUpperCase().equals(NULL_VALUE)) {
+                return true;
+            }
+            ParsePosition pos = new ParsePosition(0);
+            getThreadLocalFormat().parse(s, pos);
+            return pos.getIndex() == s.length() && pos.getErrorIndex() == -1;
         }
 
         @Override
@@ -339,8 +345,7 @@ public abstract class DataType<T> implements Serializable, Comparator<T> { // NO
             }
         	try {
         	    ParsePosition pos = new ParsePosition(0);
-                // TODO: We clone "format" to increase thread safety. There may be better (and more efficient) options.
-                Date parsed = ((SimpleDateFormat)format.clone()).parse(s, pos);
+                Date parsed = getThreadLocalFormat().parse(s, pos);
                 if (pos.getIndex() != s.length() || pos.getErrorIndex() != -1) {
                     throw new IllegalArgumentException("Parse error");
                 }
@@ -373,6 +378,20 @@ public abstract class DataType<T> implements Serializable, Comparator<T> { // NO
         public String toString() {
             return "Date(" + string + ")";
         }
+
+        /**
+         * Returns the copy of the format confined to the current thread
+         *
+         * @return
+         */
+        private SimpleDateFormat getThreadLocalFormat() {
+            ThreadLocalFormat<SimpleDateFormat> formats = this.formats;
+            if (formats == null) {
+                formats = new ThreadLocalFormat<SimpleDateFormat>(format);
+                this.formats = formats;
+            }
+            return formats.get();
+        }
     }
 
     /**
@@ -402,6 +421,9 @@ public abstract class DataType<T> implements Serializable, Comparator<T> { // NO
         /** Locale. */
         private final Locale                             locale;
 
+        /** Thread-confined copies of the format. */
+        private transient ThreadLocalFormat<DecimalFormat> formats;
+
         /**
          * Default constructor.
          */
@@ -540,8 +562,7 @@ public abstract class DataType<T> implements Serializable, Comparator<T> { // NO
             if (format==null){
                 return String.valueOf(s);
             } else {
-                // TODO: We clone "format" to increase thread safety. There may be better (and more efficient) options.
-                return ((DecimalFormat)format.clone()).format(s);
+                return getThreadLocalFormat().format(s);
             }
         }
 
@@ -603,6 +624,10 @@ public abstract class DataType<T> implements Serializable, Comparator<T> { // NO
 
         @Override
         public boolean isValid(String s) {
+            if (format != null && s != null && !(s.length() == NULL_VALUE.length() && s.toUpperCase().equals(NULL_VALUE))) {
+                ParsePosition pos = new ParsePosition(0);
+                return getThreadLocalFormat().parse(s, pos) != null && pos.getIndex() == s.length() && pos.getErrorIndex() == -1;
+            }
             try {
                 parse(s);
                 return true;
@@ -643,8 +668,7 @@ public abstract class DataType<T> implements Serializable, Comparator<T> { // NO
                     return Double.valueOf(s);
                 } else {
                     ParsePosition pos = new ParsePosition(0);
-                    // TODO: We clone "format" to increase thread safety. There may be better (and more efficient) options.
-                    double parsed = ((DecimalFormat)format.clone()).parse(s, pos).doubleValue();
+                    double parsed = getThreadLocalFormat().parse(s, pos).doubleValue();
                     if (pos.getIndex() != s.length() || pos.getErrorIndex() != -1) {
                         throw new IllegalArgumentException("Parse error");
                     }
@@ -674,6 +698,20 @@ public abstract class DataType<T> implements Serializable, Comparator<T> { // NO
         public String toString() {
             return "Decimal";
         }
+
+        /**
+         * Returns the copy of the format confined to the current thread
+         *
+         * @return
+         */
+        private DecimalFormat getThreadLocalFormat() {
+            ThreadLocalFormat<DecimalFormat> formats = this.formats;
+            if (formats == null) {
+                formats = new ThreadLocalFormat<DecimalFormat>(format);
+                this.formats = formats;
+            }
+            return formats.get();
+        }
     }
 
     /**
@@ -703,6 +741,9 @@ public abstract class DataType<T> implements Serializable, Comparator<T> { // NO
         /** Locale. */
         private final Locale                           locale;
 
+        /** Thread-confined copies of the format. */
+        private transient ThreadLocalFormat<DecimalFormat> formats;
+
         /**
          * Default constructor.
          */
@@ -837,8 +878,7 @@ public abstract class DataType<T> implements Serializable, Comparator<T> { // NO
             if (format==null){
                 return String.valueOf(s);
             } else {
-                // TODO: We clone "format" to increase thread safety. There may be better (and more efficient) options.
-                return ((DecimalFormat)format.clone()).format(s);
+                return getThreadLocalFormat().format(s);
             }
         }
         
@@ -900,6 +940,9 @@ public abstract class DataType<T> implements Serializable, Comparator<T> { // NO
 
         @Override
         public boolean isValid(String s) {
+            if (format != null && s != null && !(s.length() == NULL_VALUE.length() && s.toUpperCase().equals(NULL_VALUE))) {
+                return getThreadLocalFormat().parse(s, new ParsePosition(0)) != null;
+            }
             try {
                 parse(s);
                 return true;
@@ -939,8 +982,7 @@ public abstract class DataType<T> implements Serializable, Comparator<T> { // NO
                 if (format == null) {
                     return Long.valueOf(s);
                 } else {
-                    // TODO: We clone "format" to increase thread safety. There may be better (and more efficient) options.
-                    return ((DecimalFormat)format.clone()).parse(s).longValue();
+                    return getThreadLocalFormat().parse(s).longValue();
                 }
             } catch (Exception e) {
                 throw new IllegalArgumentException(e.getMessage() + ": " + s, e);
@@ -966,6 +1008,20 @@ public abstract class DataType<T> implements Serializable, Comparator<T> { // NO
         public String toString() {
             return "Integer";
         }
+
+        /**
+         * Returns the copy of the format confined to the current thread
+         *
+         * @return
+         */
+        private DecimalFormat getThreadLocalFormat() {
+            ThreadLocalFormat<DecimalFormat> formats = this.formats;
+            if (formats == null) {
+                formats = new ThreadLocalFormat<DecimalFormat>(format);
+                this.formats = formats;
+            }
+            return formats.get();
+        }
     }
 
     /**
@@ -1608,6 +1664,34 @@ public abstract class DataType<T> implements Serializable, Comparator<T> { // NO
         public abstract Double toDouble(T t);
     }
 
+    /**
+     * Copies of a format, which are confined to threads. Formats are not thread-safe,
+     * this avoids cloning them for each call.
+     *
+     * @author Fabian Prasser
+     * @param <T>
+     */
+    private static class ThreadLocalFormat<T extends Format> extends ThreadLocal<T> {
+
+        /** The format */
+        private final T format;
+
+        /**
+         * Creates a new instance
+         *
+         * @param format
+         */
+        private ThreadLocalFormat(T format) {
+            this.format = format;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected T initialValue() {
+            return (T) format.clone();
+        }
+    }
+
     /** The string representing the NULL value */
     public static final String NULL_VALUE = "NULL";
 
@@ -0,0 +1,279 @@
+/*
+ * ARX Data Anonymization Tool
+ * Copyright 2012 - 2022 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import org.apache.commons.math3.util.Pair;
+import org.deidentifier.arx.DataType.DataTypeDescription;
+import org.deidentifier.arx.common.SamplingUtil;
+import org.deidentifier.arx.common.WorkerPool;
+
+/**
+ * This class implements the detection of data types matching the distinct values of columns.
+ * All candidate types are evaluated in a single pass over the values of a column. A candidate
+ * is skipped as soon as it can not reach the threshold anymore. Optionally, the relative number
+ * of matching values is estimated from a random sample. Columns can be processed in parallel.
+ *
+ * @author Fabian Prasser
+ */
+class DataTypeMatcher {
+
+    /** Number of distinct values of all columns above which columns are processed in parallel */
+    static final int            PARALLEL_THRESHOLD = 10000;
+
+    /** Number of sampled values after which the confidence bounds are evaluated */
+    private static final int    SAMPLE_STEP        = 100;
+
+    /** Half-width of confidence intervals which is precise enough to stop sampling */
+    private static final double SAMPLE_PRECISION   = 0.01d;
+
+    /** The locale */
+    private final Locale        locale;
+
+    /** Relative minimal number of values that must match */
+    private final double        threshold;
+
+    /** Quantile of the standard normal distribution, 0 if all values are matched */
+    private final double        z;
+
+    /**
+     * Creates a new instance, which matches all values
+     *
+     * @param locale
+     * @param threshold
+     */
+    DataTypeMatcher(Locale locale, double threshold) {
+        this.locale = locale;
+        this.threshold = threshold;
+        this.z = 0d;
+    }
+
+    /**
+     * Creates a new instance, which estimates the relative number of matching values from
+     * a sample. The sample is enlarged until the number is above or below the threshold
+     * or known precisely enough with the given confidence.
+     *
+     * @param locale
+     * @param threshold
+     * @param confidence
+     */
+    DataTypeMatcher(Locale locale, double threshold, double confidence) {
+        if (confidence <= 0d || confidence >= 1d) {
+            throw new IllegalArgumentException("Confidence level must be in ]0, 1[");
+        }
+        this.locale = locale;
+        this.threshold = threshold;
+        this.z = SamplingUtil.getQuantile(confidence);
+    }
+
+    /**
+     * Returns the matching data types of all wrapped classes for each of the given columns,
+     * ordered by the relative number of matching values. String always matches.
+     *
+     * @param values Distinct values of each column
+     * @param threads Number of threads for processing columns in parallel
+     * @return
+     */
+    List<List<Pair<DataType<?>, Double>>> getMatchingDataTypes(final String[][] values, int threads) {
+
+        // Prepare
+        List<Callable<List<Pair<DataType<?>, Double>>>> tasks = new ArrayList<Callable<List<Pair<DataType<?>, Double>>>>();
+        int size = 0;
+        for (final String[] column : values) {
+            size += column.length;
+            tasks.add(new Callable<List<Pair<DataType<?>, Double>>>() {
+                @Override
+                public List<Pair<DataType<?>, Double>> call() {
+                    return getMatchingDataTypes(column);
+                }
+            });
+        }
+
+        // Execute
+        threads = Math.min(values.length, threads);
+        if (threads > 1 && size > PARALLEL_THRESHOLD) {
+            return new WorkerPool(threads).invokeAll(tasks);
+        }
+        List<List<Pair<DataType<?>, Double>>> result = new ArrayList<List<Pair<DataType<?>, Double>>>();
+        for (String[] column : values) {
+            result.add(getMatchingDataTypes(column));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the matching data types of the given wrapped class
+     *
+     * @param values Distinct values
+     * @param clazz
+     * @return
+     */
+    <U> List<Pair<DataType<?>, Double>> getMatchingDataTypes(String[] values, Class<U> clazz) {
+        List<DataType<?>> candidates = new ArrayList<DataType<?>>();
+        addCandidates(candidates, clazz);
+        return getMatchingDataTypes(values, candidates);
+    }
+
+    /**
+     * Adds all candidates for the given wrapped class
+     *
+     * @param candidates
+     * @param clazz
+     */
+    private <U> void addCandidates(List<DataType<?>> candidates, Class<U> clazz) {
+        DataTypeDescription<U> description = DataType.list(clazz);
+        if (description == null) {
+            return;
+        }
+        if (description.hasFormat()) {
+            for (String format : description.getExampleFormats()) {
+                candidates.add(description.newInstance(format, locale));
+            }
+        } else {
+            candidates.add(description.newInstance());
+        }
+    }
+
+    /**
+     * Returns the matching data types of all wrapped classes
+     *
+     * @param values Distinct values
+     * @return
+     */
+    private List<Pair<DataType<?>, Double>> getMatchingDataTypes(String[] values) {
+
+        // Match
+        List<DataType<?>> candidates = new ArrayList<DataType<?>>();
+        addCandidates(candidates, Long.class);
+        addCandidates(candidates, Date.class);
+        addCandidates(candidates, Double.class);
+        List<Pair<DataType<?>, Double>> result = getMatchingDataTypes(values, candidates);
+        result.add(new Pair<DataType<?>, Double>(DataType.STRING, 1.0d));
+
+        // Sort order
+        final Map<Class<?>, Integer> order = new HashMap<Class<?>, Integer>();
+        order.put(Long.class, 0);
+        order.put(Date.class, 1);
+        order.put(Double.class, 2);
+        order.put(String.class, 3);
+
+        // Sort
+        Collections.sort(result, new Comparator<Pair<DataType<?>, Double>>() {
+            public int compare(Pair<DataType<?>, Double> o1, Pair<DataType<?>, Double> o2) {
+
+                // Sort by matching quality
+                int cmp = o1.getSecond().compareTo(o2.getSecond());
+                if (cmp != 0) return -cmp;
+
+                // Sort by order
+                int order1 = order.get(o1.getFirst().getDescription().getWrappedClass());
+                int order2 = order.get(o2.getFirst().getDescription().getWrappedClass());
+                return Integer.compare(order1, order2);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Matches all candidates in a single pass over the values
+     *
+     * @param values Distinct values
+     * @param candidates
+     * @return
+     */
+    private List<Pair<DataType<?>, Double>> getMatchingDataTypes(String[] values, List<DataType<?>> candidates) {
+
+        // Prepare, values are visited in random order when sampling
+        int length = values.length;
+        int[] order = z == 0d ? null : SamplingUtil.getPermutation(length);
+        int[] matches = new int[candidates.size()];
+        int[] nonmatches = new int[candidates.size()];
+        int[] counts = new int[candidates.size()];
+        boolean[] active = new boolean[candidates.size()];
+        int remaining = candidates.size();
+        for (int j = 0; j < active.length; j++) {
+            counts[j] = length;
+            active[j] = true;
+        }
+
+        // Match
+        for (int i = 0; i < length && remaining > 0; i++) {
+            String value = values[order == null ? i : order[i]];
+            for (int j = 0; j < active.length; j++) {
+                if (!active[j]) {
+                    continue;
+                }
+                if (candidates.get(j).isValid(value)) {
+                    matches[j]++;
+                } else {
+
+                    // Stop if the threshold can not be reached anymore
+                    nonmatches[j]++;
+                    if ((double) (length - nonmatches[j]) / (double) length < threshold) {
+                        active[j] = false;
+                        remaining--;
+                    }
+                }
+            }
+
+            // Stop if the result is known with the given confidence
+            int sampled = i + 1;
+            if (order != null && sampled % SAMPLE_STEP == 0 && sampled < length) {
+                for (int j = 0; j < active.length; j++) {
+                    if (active[j] && isDecided(matches[j], sampled)) {
+                        counts[j] = sampled;
+                        active[j] = false;
+                        remaining--;
+                    }
+                }
+            }
+        }
+
+        // Collect
+        List<Pair<DataType<?>, Double>> result = new ArrayList<Pair<DataType<?>, Double>>();
+        for (int j = 0; j < active.length; j++) {
+            double matching = (double) matches[j] / (double) counts[j];
+            if (matching >= threshold) {
+                result.add(new Pair<DataType<?>, Double>(candidates.get(j), matching));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns whether the Wilson score interval of the relative number of matching values
+     * in the sample excludes the threshold or is narrow enough
+     *
+     * @param matches
+     * @param sampled
+     * @return
+     */
+    private boolean isDecided(int matches, int sampled) {
+        double[] interval = SamplingUtil.getWilsonScoreInterval(matches, sampled, z);
+        return interval[0] > threshold || interval[1] < threshold || (interval[1] - interval[0]) / 2d <= SAMPLE_PRECISION;
+    }
+}
@@ -0,0 +1,480 @@
+/*
+ * ARX Data Anonymization Tool
+ * Copyright 2012 - 2022 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.deidentifier.arx.ARXLattice.ARXNode;
+import org.deidentifier.arx.ARXLattice.Anonymity;
+import org.deidentifier.arx.metric.InformationLoss;
+import org.deidentifier.arx.metric.v2.ILSingleDimensional;
+import org.deidentifier.arx.metric.v2.__MetricV2;
+
+import com.carrotsearch.hppc.IntObjectOpenHashMap;
+
+/**
+ * This class implements a columnar store for the properties of the nodes in an
+ * {@link ARXLattice}. Nodes are views, which only hold their index in this store.
+ * Transformations are stored in a single array. Information loss is stored as
+ * decimal numbers, as long as all values are single-dimensional and carry no
+ * metadata. Otherwise, the objects are stored.
+ *
+ * @author Fabian Prasser
+ */
+class LatticeStore {
+
+    /** Offset of the lowest score */
+    static final int                                LOWEST_SCORE     = 0;
+
+    /** Offset of the highest score */
+    static final int                                HIGHEST_SCORE    = 1;
+
+    /** Offset of the lower bound */
+    static final int                                LOWER_BOUND      = 2;
+
+    /** Number of scores per node */
+    static final int                                SCORES           = 3;
+
+    /** Initial capacity */
+    private static final int                        INITIAL_CAPACITY = 16;
+
+    /** Anonymity properties */
+    private static final Anonymity[]                ANONYMITY        = Anonymity.values();
+
+    /** Anonymity, 0 if unknown, ordinal + 1 otherwise */
+    private byte[]                                  anonymity;
+
+    /** Attributes, created on demand */
+    private IntObjectOpenHashMap<Map<Integer, Object>> attributes;
+
+    /** Whether nodes have been checked */
+    private boolean[]                               checked;
+
+    /** Number of dimensions, 0 if no transformation has been stored yet */
+    private int                                     dimensions;
+
+    /** The header map, which is shared by all nodes */
+    private Map<String, Integer>                    headermap;
+
+    /** Ids, -1 if not set */
+    private int[]                                   ids;
+
+    /** Scores as objects, if they can not be represented as decimal numbers */
+    private InformationLoss<?>[]                    losses;
+
+    /** Predecessors */
+    private ARXNode[][]                             predecessors;
+
+    /** Scores as decimal numbers, NaN if not set */
+    private double[]                                scores;
+
+    /** Number of nodes */
+    private int                                     size;
+
+    /** Successors */
+    private ARXNode[][]                             successors;
+
+    /** Transformations */
+    private int[]                                   transformations;
+
+    /**
+     * Creates a new instance
+     */
+    LatticeStore() {
+        this.anonymity = new byte[INITIAL_CAPACITY];
+        this.attributes = new IntObjectOpenHashMap<Map<Integer, Object>>();
+        this.checked = new boolean[INITIAL_CAPACITY];
+        this.ids = new int[INITIAL_CAPACITY];
+        this.predecessors = new ARXNode[INITIAL_CAPACITY][];
+        this.scores = new double[INITIAL_CAPACITY * SCORES];
+        this.successors = new ARXNode[INITIAL_CAPACITY][];
+    }
+
+    /**
+     * Adds a new node and returns its index
+     * @return
+     */
+    int add() {
+        if (size == ids.length) {
+            grow();
+        }
+        int index = size++;
+        ids[index] = -1;
+        if (scores != null) {
+            Arrays.fill(scores, index * SCORES, (index + 1) * SCORES, Double.NaN);
+        }
+        return index;
+    }
+
+    /**
+     * Compares the transformations of two nodes lexicographically
+     * @param first
+     * @param second
+     * @return
+     */
+    int compareTransformations(int first, int second) {
+        int offset1 = first * dimensions;
+        int offset2 = second * dimensions;
+        for (int i = 0; i < dimensions; i++) {
+            int cmp = Integer.compare(transformations[offset1 + i], transformations[offset2 + i]);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the anonymity property
+     * @param index
+     * @return
+     */
+    Anonymity getAnonymity(int index) {
+        return anonymity[index] == 0 ? null : ANONYMITY[anonymity[index] - 1];
+    }
+
+    /**
+     * Returns the attributes, which are created on demand
+     * @param index
+     * @return
+     */
+    Map<Integer, Object> getAttributes(int index) {
+        Map<Integer, Object> result = attributes.get(index);
+        if (result == null) {
+            result = new HashMap<Integer, Object>();
+            attributes.put(index, result);
+        }
+        return result;
+    }
+
+    /**
+     * Returns a score, which must be stored as a decimal number, NaN if not set
+     * @param index
+     * @param offset
+     * @return
+     */
+    double getDecimalScore(int index, int offset) {
+        return scores[index * SCORES + offset];
+    }
+
+    /**
+     * Returns the number of dimensions, 0 if no transformation has been stored yet
+     * @return
+     */
+    int getDimensions() {
+        return dimensions;
+    }
+
+    /**
+     * Returns the generalization level of the given dimension
+     * @param index
+     * @param dimension
+     * @return
+     */
+    int getGeneralization(int index, int dimension) {
+        return transformations[index * dimensions + dimension];
+    }
+
+    /**
+     * Returns the header map
+     * @return
+     */
+    Map<String, Integer> getHeaderMap() {
+        return headermap;
+    }
+
+    /**
+     * Returns the id
+     * @param index
+     * @return
+     */
+    Integer getId(int index) {
+        return ids[index] == -1 ? null : ids[index];
+    }
+
+    /**
+     * Returns the predecessors
+     * @param index
+     * @return
+     */
+    ARXNode[] getPredecessors(int index) {
+        return predecessors[index];
+    }
+
+    /**
+     * Returns a score
+     * @param index
+     * @param offset
+     * @return
+     */
+    InformationLoss<?> getScore(int index, int offset) {
+        if (scores != null) {
+            double value = scores[index * SCORES + offset];
+            return Double.isNaN(value) ? null : __MetricV2.createILSingleDimensional(value);
+        } else {
+            return losses[index * SCORES + offset];
+        }
+    }
+
+    /**
+     * Returns the number of nodes
+     * @return
+     */
+    int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the successors
+     * @param index
+     * @return
+     */
+    ARXNode[] getSuccessors(int index) {
+        return successors[index];
+    }
+
+    /**
+     * Returns the sum of all generalization levels
+     * @param index
+     * @return
+     */
+    int getTotalGeneralizationLevel(int index) {
+        int level = 0;
+        for (int i = index * dimensions; i < (index + 1) * dimensions; i++) {
+            level += transformations[i];
+        }
+        return level;
+    }
+
+    /**
+     * Returns a copy of the transformation, null if no transformation has been stored yet
+     * @param index
+     * @return
+     */
+    int[] getTransformation(int index) {
+        if (dimensions == 0) {
+            return null;
+        }
+        return Arrays.copyOfRange(transformations, index * dimensions, (index + 1) * dimensions);
+    }
+
+    /**
+     * Renders the transformation like Arrays.toString(int[]) without copying it
+     * @param index
+     * @return
+     */
+    String getTransformationAsString(int index) {
+        if (dimensions == 0) {
+            return "null";
+        }
+        StringBuilder builder = new StringBuilder();
+        builder.append('[');
+        for (int i = 0; i < dimensions; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(transformations[index * dimensions + i]);
+        }
+        builder.append(']');
+        return builder.toString();
+    }
+
+    /**
+     * Returns whether non-empty attributes are associated with the node
+     * @param index
+     * @return
+     */
+    boolean hasAttributes(int index) {
+        Map<Integer, Object> result = attributes.get(index);
+        return result != null && !result.isEmpty();
+    }
+
+    /**
+     * Returns whether the node has been checked
+     * @param index
+     * @return
+     */
+    boolean isChecked(int index) {
+        return checked[index];
+    }
+
+    /**
+     * Returns whether scores are stored as decimal numbers
+     * @return
+     */
+    boolean isDecimal() {
+        return scores != null;
+    }
+
+    /**
+     * Sets the anonymity property
+     * @param index
+     * @param anonymity
+     */
+    void setAnonymity(int index, Anonymity anonymity) {
+        this.anonymity[index] = (byte) (anonymity == null ? 0 : anonymity.ordinal() + 1);
+    }
+
+    /**
+     * Sets the attributes
+     * @param index
+     * @param attributes
+     */
+    void setAttributes(int index, Map<Integer, Object> attributes) {
+        if (attributes == null) {
+            this.attributes.remove(index);
+        } else {
+            this.attributes.put(index, attributes);
+        }
+    }
+
+    /**
+     * Sets whether the node has been checked
+     * @param index
+     * @param checked
+     */
+    void setChecked(int index, boolean checked) {
+        this.checked[index] = checked;
+    }
+
+    /**
+     * Sets a score, which must be stored as a decimal number
+     * @param index
+     * @param offset
+     * @param value
+     */
+    void setDecimalScore(int index, int offset, double value) {
+        scores[index * SCORES + offset] = value;
+    }
+
+    /**
+     * Sets the header map, which is shared by all nodes
+     * @param headermap
+     */
+    void setHeaderMap(Map<String, Integer> headermap) {
+        this.headermap = headermap;
+    }
+
+    /**
+     * Sets the id
+     * @param index
+     * @param id
+     */
+    void setId(int index, int id) {
+        this.ids[index] = id;
+    }
+
+    /**
+     * Sets the predecessors
+     * @param index
+     * @param predecessors
+     */
+    void setPredecessors(int index, ARXNode[] predecessors) {
+        this.predecessors[index] = predecessors;
+    }
+
+    /**
+     * Sets a score
+     * @param index
+     * @param offset
+     * @param loss
+     */
+    void setScore(int index, int offset, InformationLoss<?> loss) {
+        if (scores != null && loss != null && !isDecimal(loss)) {
+            convert();
+        }
+        if (scores != null) {
+            scores[index * SCORES + offset] = loss == null ? Double.NaN : ((ILSingleDimensional) loss).getValue();
+        } else {
+            losses[index * SCORES + offset] = loss;
+        }
+    }
+
+    /**
+     * Sets the successors
+     * @param index
+     * @param successors
+     */
+    void setSuccessors(int index, ARXNode[] successors) {
+        this.successors[index] = successors;
+    }
+
+    /**
+     * Sets the transformation
+     * @param index
+     * @param transformation
+     */
+    void setTransformation(int index, int[] transformation) {
+        if (transformation == null) {
+            throw new NullPointerException("Transformation must not be null");
+        }
+        if (dimensions == 0) {
+            dimensions = transformation.length;
+            transformations = new int[ids.length * dimensions];
+        } else if (transformation.length != dimensions) {
+            throw new IllegalArgumentException("Transformation must have " + dimensions + " dimensions");
+        }
+        System.arraycopy(transformation, 0, transformations, index * dimensions, dimensions);
+    }
+
+    /**
+     * Switches from decimal numbers to objects for storing scores
+     */
+    private void convert() {
+        losses = new InformationLoss<?>[ids.length * SCORES];
+        for (int i = 0; i < size * SCORES; i++) {
+            if (!Double.isNaN(scores[i])) {
+                losses[i] = __MetricV2.createILSingleDimensional(scores[i]);
+            }
+        }
+        scores = null;
+    }
+
+    /**
+     * Increases the capacity
+     */
+    private void grow() {
+        int capacity = ids.length * 2;
+        anonymity = Arrays.copyOf(anonymity, capacity);
+        checked = Arrays.copyOf(checked, capacity);
+        ids = Arrays.copyOf(ids, capacity);
+        predecessors = Arrays.copyOf(predecessors, capacity);
+        successors = Arrays.copyOf(successors, capacity);
+        if (scores != null) {
+            scores = Arrays.copyOf(scores, capacity * SCORES);
+        } else {
+            losses = Arrays.copyOf(losses, capacity * SCORES);
+        }
+        if (transformations != null) {
+            transformations = Arrays.copyOf(transformations, capacity * dimensions);
+        }
+    }
+
+    /**
+     * Returns whether the given score can be represented as a decimal number
+     * @param loss
+     * @return
+     */
+    private boolean isDecimal(InformationLoss<?> loss) {
+        return loss.getClass() == ILSingleDimensional.class &&
+               loss.getMetadata().isEmpty() &&
+               !Double.isNaN(((ILSingleDimensional) loss).getValue());
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * ARX Data Anonymization Tool
+ * Copyright 2012 - 2022 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+import org.deidentifier.arx.ARXLattice.ARXNode;
+import org.deidentifier.arx.framework.data.Data;
+import org.deidentifier.arx.framework.data.DataMatrix;
+
+/**
+ * This class implements a cache for the outputs of recently applied transformations. For each
+ * transformation, only the suppressed records and the microaggregated data are stored, from which
+ * handles that compute generalized values on the fly can be created. Rows are swapped together with
+ * all other handles. The least recently used entries are evicted when the memory budget or the maximal
+ * number of entries is exceeded. The latter bounds the overhead of swapping rows.
+ *
+ * @author Fabian Prasser
+ */
+class OutputCache {
+
+    /**
+     * An entry in the cache
+     */
+    private static class CacheEntry {
+
+        /** Suppressed records */
+        private final RowSet outliers;
+
+        /** Microaggregated data */
+        private final Data   microaggregated;
+
+        /** Size in bytes */
+        private final long   size;
+
+        /**
+         * Creates a new instance
+         * @param outliers
+         * @param microaggregated
+         */
+        private CacheEntry(RowSet outliers, Data microaggregated) {
+            this.outliers = outliers;
+            this.microaggregated = microaggregated;
+            DataMatrix matrix = microaggregated.getArray();
+            this.size = outliers.length() / 8L + 4L * matrix.getNumRows() * matrix.getNumColumns();
+        }
+    }
+
+    /** Fraction of the maximal amount of memory which may be used */
+    private static final int                           MEMORY_FRACTION = 32;
+
+    /** Maximal number of entries */
+    private static final int                           MAX_ENTRIES     = 16;
+
+    /** Entries in access order */
+    private final LinkedHashMap<ARXNode, CacheEntry> entries         = new LinkedHashMap<ARXNode, CacheEntry>(16, 0.75f, true);
+
+    /** Memory budget in bytes */
+    private final long                                 capacity;
+
+    /** Maximal number of entries */
+    private final int                                  maxEntries;
+
+    /** Current size in bytes */
+    private long                                       size            = 0L;
+
+    /**
+     * Creates a new instance with a budget which depends on the maximal amount of memory
+     */
+    OutputCache() {
+        this(Runtime.getRuntime().maxMemory() / MEMORY_FRACTION, MAX_ENTRIES);
+    }
+
+    /**
+     * Creates a new instance
+     * @param capacity Memory budget in bytes
+     * @param maxEntries Maximal number of entries
+     */
+    OutputCache(long capacity, int maxEntries) {
+        this.capacity = capacity;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Removes all entries
+     */
+    void clear() {
+        this.entries.clear();
+        this.size = 0L;
+    }
+
+    /**
+     * Returns a copy of the microaggregated data for the given transformation, null if not cached
+     * @param node
+     * @return
+     */
+    Data getMicroaggregatedData(ARXNode node) {
+        CacheEntry entry = entries.get(node);
+        return entry == null ? null : entry.microaggregated.clone();
+    }
+
+    /**
+     * Returns a copy of the suppressed records for the given transformation, null if not cached
+     * @param node
+     * @return
+     */
+    RowSet getOutliers(ARXNode node) {
+        CacheEntry entry = entries.get(node);
+        return entry == null ? null : entry.outliers.clone();
+    }
+
+    /**
+     * Stores copies of the suppressed records and the microaggregated data for the given transformation
+     * @param node
+     * @param outliers
+     * @param microaggregated
+     */
+    void put(ARXNode node, RowSet outliers, Data microaggregated) {
+
+        // Remove previous entry
+        CacheEntry entry = entries.remove(node);
+        if (entry != null) {
+            size -= entry.size;
+        }
+
+        // Check size
+        entry = new CacheEntry(outliers, microaggregated);
+        if (entry.size > capacity || maxEntries <= 0) {
+            return;
+        }
+
+        // Evict least recently used entries
+        Iterator<CacheEntry> iterator = entries.values().iterator();
+        while ((size + entry.size > capacity || entries.size() >= maxEntries) && iterator.hasNext()) {
+            size -= iterator.next().size;
+            iterator.remove();
+        }
+
+        // Store copies
+        entries.put(node, new CacheEntry(outliers.clone(), microaggregated.clone()));
+        size += entry.size;
+    }
+
+    /**
+     * Swaps the given rows in all entries
+     * @param row1
+     * @param row2
+     */
+    void swap(int row1, int row2) {
+        for (CacheEntry entry : entries.values()) {
+            entry.outliers.swap(row1, row2);
+            if (entry.microaggregated.getArray().getNumRows() != 0) {
+                entry.microaggregated.getArray().swap(row1, row2);
+            }
+        }
+    }
+}
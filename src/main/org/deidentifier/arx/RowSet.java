@@ -86,6 +86,20 @@ public class RowSet implements Serializable, Cloneable {
         this.array = new long[chunks];
     }
 
+    /**
+     * Creates a new instance from the given words
+     *
+     * @param length
+     * @param array
+     */
+    RowSet(int length, long[] array) {
+        this.length = length;
+        this.array = array;
+        for (long word : array) {
+            this.size += Long.bitCount(word);
+        }
+    }
+
     /**
      * Sets a bit
      *
@@ -97,6 +111,20 @@ public class RowSet implements Serializable, Cloneable {
         this.array[offset] |= 1L << (rowIndex & BIT_INDEX_MASK);
         this.size += array[offset] != temp ? 1 : 0; 
     }
+
+    /**
+     * Retains only rows which are also contained in the given set
+     *
+     * @param other
+     */
+    public void and(RowSet other) {
+        checkLength(other);
+        this.size = 0;
+        for (int i = 0; i < array.length; i++) {
+            array[i] &= other.array[i];
+            this.size += Long.bitCount(array[i]);
+        }
+    }
     
     @Override
     public RowSet clone() {
@@ -125,6 +153,20 @@ public class RowSet implements Serializable, Cloneable {
         return this.length;
     }
     
+    /**
+     * Adds all rows which are contained in the given set
+     *
+     * @param other
+     */
+    public void or(RowSet other) {
+        checkLength(other);
+        this.size = 0;
+        for (int i = 0; i < array.length; i++) {
+            array[i] |= other.array[i];
+            this.size += Long.bitCount(array[i]);
+        }
+    }
+    
     /**
      * Unsets a bit
      *
@@ -168,4 +210,15 @@ public class RowSet implements Serializable, Cloneable {
             remove(rowIndex2);
         }
     }
+
+    /**
+     * Checks whether the given set has the same length
+     *
+     * @param other
+     */
+    private void checkLength(RowSet other) {
+        if (other.length != this.length) {
+            throw new IllegalArgumentException("Row sets must have the same length");
+        }
+    }
 }
@@ -23,8 +23,12 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
 
 import org.deidentifier.arx.AttributeType.Hierarchy;
+import org.deidentifier.arx.common.WorkerPool;
 
 /**
  * Base class for hierarchy builders. Hierarchies can be built in two ways:<br>
@@ -80,7 +84,10 @@ public abstract class HierarchyBuilder<T> implements Serializable {
     }
     
     /**  SVUID */
-    private static final long serialVersionUID = -4182364711973630816L;
+    private static final long serialVersionUID   = -4182364711973630816L;
+
+    /** Number of values above which hierarchies are built in parallel */
+    static final int          PARALLEL_THRESHOLD = 100000;
     
     /**
      * Loads a builder from a file.
@@ -116,8 +123,59 @@ public abstract class HierarchyBuilder<T> implements Serializable {
         return create(new File(file));
     }
 
+    /**
+     * Splits the given number of values into consecutive ranges which can be processed
+     * independently. Returns the boundaries of the ranges.
+     *
+     * @param values
+     * @return
+     */
+    int[] getRanges(int values) {
+        int ranges = values > PARALLEL_THRESHOLD ? getNumberOfThreads() : 1;
+        int[] result = new int[ranges + 1];
+        for (int i = 0; i <= ranges; i++) {
+            result[i] = (int) ((long) values * i / ranges);
+        }
+        return result;
+    }
+
+    /**
+     * Executes the given independent tasks, which process the given number of values, and returns
+     * their results in order. Tasks are executed in parallel if there are enough values and more
+     * than one thread may be used.
+     *
+     * @param <U>
+     * @param values
+     * @param tasks
+     * @return
+     */
+    <U> List<U> invokeAll(int values, List<? extends Callable<U>> tasks) {
+        
+        // Parallel
+        int threads = Math.min(getNumberOfThreads(), tasks.size());
+        if (threads > 1 && values > PARALLEL_THRESHOLD) {
+            return new WorkerPool(threads).invokeAll(tasks);
+        }
+        
+        // Sequential
+        List<U> result = new ArrayList<U>(tasks.size());
+        for (Callable<U> task : tasks) {
+            try {
+                result.add(task.call());
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        }
+        return result;
+    }
+
     /** The type. */
-    private Type type;
+    private Type              type;
+
+    /** Number of threads to use, not part of the specification */
+    private transient Integer numberOfThreads = 1;
     
     /**
      * Creates a new instance.
@@ -143,6 +201,18 @@ public abstract class HierarchyBuilder<T> implements Serializable {
      */
     public abstract Hierarchy build(String[] data);
     
+    /**
+     * Returns the number of threads which may be used for building hierarchies. The default is 1.
+     *
+     * @return
+     */
+    public int getNumberOfThreads() {
+        if (this.numberOfThreads == null) {
+            this.numberOfThreads = 1;
+        }
+        return this.numberOfThreads;
+    }
+
     /**
      * Returns the type of builder.
      *
@@ -188,4 +258,15 @@ public abstract class HierarchyBuilder<T> implements Serializable {
     public void save(String file) throws IOException{
         save(new File(file));
     }
+
+    /**
+     * Sets the number of threads which may be used for building hierarchies from large numbers
+     * of values. The default is 1.
+     *
+     * @param threads
+     */
+    public void setNumberOfThreads(int threads) {
+        if (threads <= 0) { throw new IllegalArgumentException("Parameter must be > 0"); }
+        this.numberOfThreads = threads;
+    }
 }
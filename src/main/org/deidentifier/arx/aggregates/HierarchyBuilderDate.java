@@ -21,6 +21,7 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
@@ -34,6 +35,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TimeZone;
+import java.util.concurrent.Callable;
 
 import org.deidentifier.arx.AttributeType.Hierarchy;
 import org.deidentifier.arx.DataType;
@@ -420,12 +422,15 @@ public class HierarchyBuilderDate extends HierarchyBuilder<Date> implements Seri
     }
 
     /**
-     * Prepares the builder. Returns a list of the number of equivalence classes per level
+     * Prepares the builder. Returns a list of the number of equivalence classes per level.
+     * Values are parsed once, levels are then generalized independently of each other,
+     * in parallel for large inputs, and identical labels on a level are represented by
+     * the same string.
      *
      * @param data
      * @return
      */
-    public int[] prepare(String[] data){
+    public int[] prepare(final String[] data){
         
         // Check
         if (this.bottomCoding != null && this.topCoding != null) {
@@ -434,26 +439,94 @@ public class HierarchyBuilderDate extends HierarchyBuilder<Date> implements Seri
             }
         }
         
-        // Build result
-        this.result = new String[data.length][granularities.length + 1];
+        // Parse
+        final long[] times = new long[data.length];
+        final boolean[] nulls = new boolean[data.length];
+        if (granularities.length > 0) {
+            int[] ranges = getRanges(data.length);
+            List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+            for (int r = 0; r < ranges.length - 1; r++) {
+                final int from = ranges[r];
+                final int to = ranges[r + 1];
+                tasks.add(new Callable<Void>() {
+                    @Override
+                    public Void call() {
+                        for (int i = from; i < to; i++) {
+                            if (ARXDate.isNull(data[i])) {
+                                nulls[i] = true;
+                            } else {
+                                times[i] = datatype.parse(data[i]).getTime();
+                            }
+                        }
+                        return null;
+                    }
+                });
+            }
+            invokeAll(data.length, tasks);
+        }
+        
+        // Prepare labels for bottom and top coding
+        final String bottomLabel = bottomCoding == null ? null : "<" + datatype.format(bottomCoding, this.timeZone);
+        final String topLabel = topCoding == null ? null : ">=" + datatype.format(topCoding, this.timeZone);
+        final ZoneId zone = timeZone != null ? timeZone.toZoneId() : ZoneId.systemDefault();
+        
+        // Prepare result
+        final String[][] result = new String[data.length][granularities.length + 1];
         for (int i = 0; i < data.length; i++) {
-            result[i] = new String[granularities.length + 1];
             result[i][0] = data[i];
-            for (int j = 0; j < granularities.length; j++) {
-                String output = generalize(data[i], granularities[j]);
-                result[i][j + 1] = output;
-            }
         }
-
-        // Compute
-        int[] sizes = new int[this.result[0].length];
-        for (int i=0; i < sizes.length; i++){
-            Set<String> set = new HashSet<String>();
-            for (int j = 0; j < this.result.length; j++) {
-                set.add(result[j][i]);
+        
+        // Tasks
+        List<Callable<Integer>> tasks = new ArrayList<Callable<Integer>>();
+        tasks.add(new Callable<Integer>() {
+            @Override
+            public Integer call() {
+                return new HashSet<String>(Arrays.asList(data)).size();
             }
-            sizes[i] = set.size();
+        });
+        for (int j = 0; j < granularities.length; j++) {
+            final int level = j;
+            tasks.add(new Callable<Integer>() {
+                @Override
+                public Integer call() {
+                    
+                    // Prepare
+                    Granularity granularity = granularities[level];
+                    String _format = (format != null && format.contains(granularity)) ? format.get(granularity) : granularity.format;
+                    DateTimeFormatter formatter = DateTimeFormatter.ofPattern(_format, datatype.getLocale());
+                    Map<String, String> labels = new HashMap<String, String>();
+                    
+                    // Generalize
+                    for (int i = 0; i < data.length; i++) {
+                        String label;
+                        if (nulls[i]) {
+                            label = ARXDate.NULL_VALUE;
+                        } else if (bottomCoding != null && times[i] < bottomCoding.getTime()) {
+                            label = bottomLabel;
+                        } else if (topCoding != null && times[i] >= topCoding.getTime()) {
+                            label = topLabel;
+                        } else {
+                            label = generalize(times[i], zone, formatter, granularity.range);
+                        }
+                        String interned = labels.get(label);
+                        if (interned == null) {
+                            labels.put(label, label);
+                            interned = label;
+                        }
+                        result[i][level + 1] = interned;
+                    }
+                    return labels.size();
+                }
+            });
+        }
+        
+        // Build result
+        List<Integer> counts = invokeAll(data.length, tasks);
+        int[] sizes = new int[counts.size()];
+        for (int i = 0; i < sizes.length; i++) {
+            sizes[i] = counts.get(i);
         }
+        this.result = result;
         
         // Return
         return sizes;
@@ -498,53 +571,24 @@ public class HierarchyBuilderDate extends HierarchyBuilder<Date> implements Seri
 
     /**
      * Applies a generalization function
-     * @param input
-     * @param granularity
+     * @param time
+     * @param zone
+     * @param formatter
+     * @param range
      * @return
      */
-    private String generalize(String input, Granularity granularity) {
-        
-        // Null to null
-        if (ARXDate.isNull(input)) {
-            return ARXDate.NULL_VALUE;
-        }
-        
-        // Parse
-        Date date = datatype.parse(input);
-
-        // Bottom coding
-        if (bottomCoding != null) {
-            if (date.before(bottomCoding)) {
-                return "<" + datatype.format(bottomCoding, this.timeZone);
-            }
-        }
-
-        // Top coding
-        if (topCoding != null) {
-            if (date.after(topCoding) || date.equals(topCoding)) {
-                return ">=" + datatype.format(topCoding, this.timeZone);
-            }
-        }
-        
-
-        // Format
-        String _format = (format != null && format.contains(granularity)) ? format.get(granularity) : granularity.format;
-        Integer _range = granularity.range;
+    private String generalize(long time, ZoneId zone, DateTimeFormatter formatter, Integer range) {
         
         // Create zoned date time
-        ZonedDateTime dateTime = ZonedDateTime.ofInstant(date.toInstant(),
-                                                         timeZone != null ? timeZone.toZoneId() : ZoneId.systemDefault());
-        
-        // Create formatter
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern(_format, datatype.getLocale());
+        ZonedDateTime dateTime = ZonedDateTime.ofInstant(Instant.ofEpochMilli(time), zone);
         
         // Range mapping
-        if (_range == null) {
+        if (range == null) {
             return formatter.format(dateTime);
         } else {
             int dateUnit = Integer.valueOf(formatter.format(dateTime));
-            int lower    = Integer.valueOf((dateUnit) / (_range))  * (_range);
-            int upper    = lower + _range;
+            int lower    = Integer.valueOf((dateUnit) / (range))  * (range);
+            int upper    = lower + range;
             String outputDate = "[" + lower + ", " + upper + "[";
             return outputDate;
         }
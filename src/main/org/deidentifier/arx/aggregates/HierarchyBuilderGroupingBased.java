@@ -22,10 +22,12 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.Callable;
 
 import org.deidentifier.arx.AttributeType.Hierarchy;
 import org.deidentifier.arx.DataType;
@@ -285,19 +287,37 @@ public abstract class HierarchyBuilderGroupingBased<T> extends HierarchyBuilder<
         }
 
         // Add input data
-        String[][] result = new String[data.length][abstractGroups.length + 1];
+        final String[][] result = new String[data.length][abstractGroups.length + 1];
         for (int i = 0; i < result.length; i++) {
-            result[i] = new String[abstractGroups.length + 1];
             result[i][0] = data[i];
         }
         
-        // Add levels
-        for (int i = 0; i < result[0].length - 1; i++) {
-            Map<String, Map<AbstractGroup, String>> multiplicities = new HashMap<String, Map<AbstractGroup, String>>();
-            for (int j = 0; j < result.length; j++) {
-                result[j][i + 1] = getLabel(multiplicities, abstractGroups[i][j]);
-            }
+        // Add levels, which are labeled independently of each other
+        final AbstractGroup[][] groups = this.abstractGroups;
+        List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+        for (int i = 0; i < groups.length; i++) {
+            final int level = i;
+            tasks.add(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    
+                    // Groups are mostly shared, so labels are looked up by identity first
+                    Map<String, Map<AbstractGroup, String>> multiplicities = new HashMap<String, Map<AbstractGroup, String>>();
+                    Map<AbstractGroup, String> labels = new IdentityHashMap<AbstractGroup, String>();
+                    for (int j = 0; j < result.length; j++) {
+                        AbstractGroup group = groups[level][j];
+                        String label = labels.get(group);
+                        if (label == null) {
+                            label = getLabel(multiplicities, group);
+                            labels.put(group, label);
+                        }
+                        result[j][level + 1] = label;
+                    }
+                    return null;
+                }
+            });
         }
+        invokeAll(data.length, tasks);
         
         Hierarchy h = Hierarchy.create(result);
         
@@ -412,14 +432,26 @@ public abstract class HierarchyBuilderGroupingBased<T> extends HierarchyBuilder<
         this.prepared = true;
         
         // TODO: This assumes that input data does not contain duplicates
-        int[] result = new int[this.abstractGroups.length + 1];
+        final AbstractGroup[][] groups = this.abstractGroups;
+        List<Callable<Integer>> tasks = new ArrayList<Callable<Integer>>();
+        for (int i = 0; i < groups.length; i++) {
+            final int level = i;
+            tasks.add(new Callable<Integer>() {
+                @Override
+                public Integer call() {
+                    Set<AbstractGroup> set = new HashSet<AbstractGroup>();
+                    for (int j = 0; j < groups[level].length; j++) {
+                        set.add(groups[level][j]);
+                    }
+                    return set.size();
+                }
+            });
+        }
+        List<Integer> sizes = invokeAll(data.length, tasks);
+        int[] result = new int[groups.length + 1];
         result[0] = data.length;
         for (int i = 0; i < result.length - 1; i++) {
-            Set<AbstractGroup> set = new HashSet<AbstractGroup>();
-            for (int j = 0; j < this.abstractGroups[i].length; j++) {
-                set.add(abstractGroups[i][j]);
-            }
-            result[i + 1] = set.size();
+            result[i + 1] = sizes.get(i);
         }
         return result;
     }
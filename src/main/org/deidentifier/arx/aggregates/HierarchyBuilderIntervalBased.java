@@ -22,15 +22,22 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
 
 import org.deidentifier.arx.DataType;
+import org.deidentifier.arx.DataType.ARXDate;
+import org.deidentifier.arx.DataType.ARXDecimal;
+import org.deidentifier.arx.DataType.ARXInteger;
 import org.deidentifier.arx.DataType.DataTypeWithRatioScale;
 
+import com.carrotsearch.hppc.LongObjectOpenHashMap;
+
 /**
  * This class enables building hierarchies for non-categorical values by mapping them
  * into given intervals.
@@ -41,95 +48,104 @@ import org.deidentifier.arx.DataType.DataTypeWithRatioScale;
 public class HierarchyBuilderIntervalBased<T> extends HierarchyBuilderGroupingBased<T> { // NO_UCD
     
     /**
-     * This class represents an node.
+     * Maps data items to the intervals on the first level of the hierarchy, using the arithmetic
+     * of the data type.
      *
      * @author Fabian Prasser
      */
-    public class IndexNode implements Serializable {
+    private class Classifier {
 
-        /** SVUID */
-        private static final long   serialVersionUID = 5985820929677249525L;
+        /** The intervals */
+        protected final Interval<T>[]             index;
 
-        /** Children. */
-        private final IndexNode[]   children;
+        /** The lower range */
+        protected final Range<T>                  lower;
 
-        /** IsLeaf. */
-        private final boolean       isLeaf;
+        /** The upper bound of the lower snap interval */
+        protected final T                         lowerSnapMax;
 
-        /** Leafs. */
-        private final Interval<T>[] leafs;
+        /** The data type */
+        protected final DataTypeWithRatioScale<T> type;
 
-        /** Max is exclusive. */
-        private final T             max;
+        /** The upper range */
+        protected final Range<T>                  upper;
 
-        /** Min is inclusive. */
-        private final T             min;
+        /** The lower bound of the upper snap interval */
+        protected final T                         upperSnapMin;
 
-        /**
-         * Creates a new instance. Min is inclusive, max is exclusive
-         *
-         * @param min
-         * @param max
-         * @param children
-         */
-        public IndexNode(T min, T max, IndexNode[] children) {
-            this.min = min;
-            this.max = max;
-            this.children = children;
-            this.leafs = null;
-            this.isLeaf = false;
-        }
+        /** The parsed data items */
+        protected final T[]                       values;
 
         /**
-         * Creates a new instance. Min is inclusive, max is exclusive
-         *
-         * @param min
-         * @param max
-         * @param leafs
+         * Creates a new instance
+         * @param index
+         * @param type
+         * @param values
+         * @param lower
+         * @param upper
+         * @param lowerSnapMax
+         * @param upperSnapMin
          */
-        public IndexNode(T min, T max, Interval<T>[] leafs) {
-            this.min = min;
-            this.max = max;
-            this.children = null;
-            this.leafs = leafs;
-            this.isLeaf = true;
-        }
-        
-        @Override
-        public String toString(){
-            return toString("");
+        private Classifier(Interval<T>[] index, DataTypeWithRatioScale<T> type, T[] values,
+                           Range<T> lower, Range<T> upper, T lowerSnapMax, T upperSnapMin) {
+            this.index = index;
+            this.type = type;
+            this.values = values;
+            this.lower = lower;
+            this.upper = upper;
+            this.lowerSnapMax = lowerSnapMax;
+            this.upperSnapMin = upperSnapMin;
         }
-        
+
         /**
-         * Convert to string.
+         * Returns the index of the interval matching the given data item, in which case the
+         * repetition of the intervals is stored in the given array, or the type of special case.
          *
-         * @param prefix
+         * @param i
+         * @param shifts
          * @return
          */
-        private String toString(String prefix){
-            final String INTEND = "   ";
-            StringBuilder b = new StringBuilder();
-            DataType<T> type = getDataType();
-            if (this.isLeaf) {
-                b.append(prefix).append("Leafs[min=");
-                b.append(type.format(min)).append(", max=");
-                b.append(type.format(max)).append("]\n");
-                for (Interval<T> leaf : leafs) {
-                    b.append(prefix).append(INTEND).append("Leaf[min=");
-                    b.append(type.format(leaf.min)).append(", max=");
-                    b.append(type.format(leaf.max)).append(", function=");
-                    b.append(leaf.function).append("]\n");
-                }
-                return b.toString();
-            } else {
-                b.append(prefix).append("Inner[min=");
-                b.append(type.format(min)).append(", max=");
-                b.append(type.format(max)).append("]\n");
-                for (IndexNode child : children) {
-                    b.append(child.toString(prefix+INTEND));
-                }
-                return b.toString();
+        int classify(int i, int[] shifts) {
+            
+            // Empty value
+            T value = values[i];
+            if (value == null) {
+                return VALUE_NULL;
+                
+            // Error if < lower
+            } else if (type.compare(value, lower.labelBound) < 0) {
+                return VALUE_BELOW_LABEL;
+                
+            // Bottom coding    
+            } else if (type.compare(value, lower.snapBound) < 0) {
+                return VALUE_BOTTOM;
+                
+            // Error if > upper
+            } else if (type.compare(value, upper.labelBound) >= 0) {
+                return VALUE_ABOVE_LABEL;
+                
+            // Top coding
+            } else if (type.compare(value, upper.snapBound) >= 0) {
+                return VALUE_TOP;
+            }
+            
+            // Find interval using index
+            long shifted = getShift(index, type, value);
+            int position = (int)shifted;
+            int shift = (int)(shifted >> 32);
+            if (position < 0) {
+                return VALUE_NOT_FOUND;
             }
+                
+            // Snap to lower or upper
+            T offset = getOffset(index, type, shift);
+            if (type.compare(type.add(index[position].min, offset), lowerSnapMax) < 0) {
+                return VALUE_LOWER_SNAP;
+            } else if (type.compare(type.add(index[position].max, offset), upperSnapMin) > 0) {
+                return VALUE_UPPER_SNAP;
+            }
+            shifts[i] = shift;
+            return position;
         }
     }
     
@@ -314,6 +330,114 @@ public class HierarchyBuilderIntervalBased<T> extends HierarchyBuilderGroupingBa
         }
     }
     
+    /**
+     * Maps data items to the intervals on the first level of the hierarchy, using primitive
+     * arithmetic. This is only possible if the arithmetic of the data type is exact for
+     * doubles, which is ensured by the factory method.
+     *
+     * @author Fabian Prasser
+     */
+    private class PrimitiveClassifier extends Classifier {
+
+        /** Bounds */
+        private final double   lowerLabel;
+        /** Bounds */
+        private final double   lowerSnap;
+        /** Bounds */
+        private final double   lowerSnapMaxValue;
+        /** Bounds */
+        private final double   max;
+        /** The upper bounds of the intervals */
+        private final double[] maxs;
+        /** Bounds */
+        private final double   min;
+        /** The lower bounds of the intervals */
+        private final double[] mins;
+        /** The data items */
+        private final double[] primitives;
+        /** Bounds */
+        private final double   upperLabel;
+        /** Bounds */
+        private final double   upperSnap;
+        /** Bounds */
+        private final double   upperSnapMinValue;
+
+        /**
+         * Creates a new instance
+         * @param classifier
+         * @param primitives
+         * @param mins
+         * @param maxs
+         */
+        private PrimitiveClassifier(Classifier classifier, double[] primitives, double[] mins, double[] maxs) {
+            super(classifier.index, classifier.type, classifier.values, classifier.lower, classifier.upper,
+                  classifier.lowerSnapMax, classifier.upperSnapMin);
+            this.primitives = primitives;
+            this.mins = mins;
+            this.maxs = maxs;
+            this.min = mins[0];
+            this.max = maxs[maxs.length - 1];
+            this.lowerLabel = type.toDouble(lower.labelBound);
+            this.lowerSnap = type.toDouble(lower.snapBound);
+            this.upperLabel = type.toDouble(upper.labelBound);
+            this.upperSnap = type.toDouble(upper.snapBound);
+            this.lowerSnapMaxValue = type.toDouble(lowerSnapMax);
+            this.upperSnapMinValue = type.toDouble(upperSnapMin);
+        }
+
+        @Override
+        int classify(int i, int[] shifts) {
+            
+            // Handle special cases
+            double value = primitives[i];
+            if (values[i] == null) {
+                return VALUE_NULL;
+            } else if (value < lowerLabel) {
+                return VALUE_BELOW_LABEL;
+            } else if (value < lowerSnap) {
+                return VALUE_BOTTOM;
+            } else if (value >= upperLabel) {
+                return VALUE_ABOVE_LABEL;
+            } else if (value >= upperSnap) {
+                return VALUE_TOP;
+            }
+            
+            // Find repetition
+            double width = max - min;
+            int shift = (int)Math.floor((value - min) / width);
+            double shifted = value - width * shift;
+            if (shifted == max) {
+                shift++;
+                shifted = min;
+            }
+            
+            // Find interval via binary search
+            int low = 0;
+            int high = mins.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (mins[mid] <= shifted) {
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            if (high < 0 || maxs[high] <= shifted) {
+                return VALUE_NOT_FOUND;
+            }
+            
+            // Snap to lower or upper
+            double offset = width * shift;
+            if (mins[high] + offset < lowerSnapMaxValue) {
+                return VALUE_LOWER_SNAP;
+            } else if (maxs[high] + offset > upperSnapMinValue) {
+                return VALUE_UPPER_SNAP;
+            }
+            shifts[i] = shift;
+            return high;
+        }
+    }
+    
     /**
      * For each direction, this class encapsulates three bounds. Intervals will be repeated until the
      * repeat-bound is reached. The outmost intervals will than be extended to the snap-bound. Values between
@@ -419,11 +543,35 @@ public class HierarchyBuilderIntervalBased<T> extends HierarchyBuilderGroupingBa
         }
     }
 
-    /** Fanout */
-    private static final int               INDEX_FANOUT     = 2;
-
     /** SVUID. */
     private static final long              serialVersionUID = 3663874945543082808L;
+
+    /** Magnitude up to which arithmetic with integral values is exact for doubles */
+    private static final double            PRIMITIVE_LIMIT   = 1L << 50;
+
+    /** Value is null */
+    private static final int               VALUE_NULL        = -1;
+
+    /** Value is below the lower label bound */
+    private static final int               VALUE_BELOW_LABEL = -2;
+
+    /** Value is bottom coded */
+    private static final int               VALUE_BOTTOM      = -3;
+
+    /** Value is above the upper label bound */
+    private static final int               VALUE_ABOVE_LABEL = -4;
+
+    /** Value is top coded */
+    private static final int               VALUE_TOP         = -5;
+
+    /** Value is snapped to the lower snap interval */
+    private static final int               VALUE_LOWER_SNAP  = -6;
+
+    /** Value is snapped to the upper snap interval */
+    private static final int               VALUE_UPPER_SNAP  = -7;
+
+    /** No interval found for value */
+    private static final int               VALUE_NOT_FOUND   = -8;
     
     /**
      * Creates a new instance. Snapping is disabled. Repetition is disabled. Bound is determined dynamically.
@@ -494,6 +642,9 @@ public class HierarchyBuilderIntervalBased<T> extends HierarchyBuilderGroupingBa
     /** Defined intervals. */
     private List<Interval<T>> intervals = new ArrayList<Interval<T>>();
 
+    /** Parsed data items, which are passed on to the builders for higher levels */
+    private transient T[]     values;
+
     /**
      * Creates a new instance. Snapping is disabled. Repetition is disabled. Bound is determined dynamically.
      * @param type
@@ -693,6 +844,57 @@ public class HierarchyBuilderIntervalBased<T> extends HierarchyBuilderGroupingBa
         if (cmp >= 0) throw new IllegalArgumentException("Min (" + min + ") must be lower than max (" + max + ")");
     }
 
+    /**
+     * Returns a classifier using primitive arithmetic, if this is exact for the data type, the bounds
+     * and the data items. Otherwise, the given classifier is returned.
+     *
+     * @param classifier
+     * @return
+     */
+    private Classifier getClassifier(Classifier classifier) {
+        
+        // Check data type
+        DataType<T> dataType = getDataType();
+        if (!(dataType instanceof ARXInteger || dataType instanceof ARXDate ||
+              (dataType instanceof ARXDecimal && ((ARXDecimal)dataType).getFormat() == null))) {
+            return classifier;
+        }
+        
+        // Convert bounds
+        DataTypeWithRatioScale<T> type = classifier.type;
+        double[] mins = new double[classifier.index.length];
+        double[] maxs = new double[classifier.index.length];
+        for (int i = 0; i < mins.length; i++) {
+            mins[i] = type.toDouble(classifier.index[i].min);
+            maxs[i] = type.toDouble(classifier.index[i].max);
+            if (!isExact(mins[i]) || !isExact(maxs[i])) {
+                return classifier;
+            }
+        }
+        for (T bound : Arrays.asList(classifier.lower.labelBound, classifier.lower.snapBound,
+                                     classifier.upper.labelBound, classifier.upper.snapBound,
+                                     classifier.lowerSnapMax, classifier.upperSnapMin)) {
+            if (!isExact(type.toDouble(bound))) {
+                return classifier;
+            }
+        }
+        
+        // Convert data items
+        double[] primitives = new double[classifier.values.length];
+        for (int i = 0; i < primitives.length; i++) {
+            T value = classifier.values[i];
+            if (value != null) {
+                primitives[i] = type.toDouble(value);
+                if (!isExact(primitives[i])) {
+                    return classifier;
+                }
+            }
+        }
+        
+        // Done
+        return new PrimitiveClassifier(classifier, primitives, mins, maxs);
+    }
+
     /**
      * Returns the according group from the cache.
      *
@@ -711,6 +913,29 @@ public class HierarchyBuilderIntervalBased<T> extends HierarchyBuilderGroupingBa
         }
     }
 
+    /**
+     * Returns the index of the interval which contains the given value, or -1 if there is none.
+     * Uses binary search over the lower bounds of the intervals, which are adjacent and sorted.
+     *
+     * @param index
+     * @param type
+     * @param value
+     * @return
+     */
+    private int getIndex(Interval<T>[] index, DataTypeWithRatioScale<T> type, T value) {
+        int low = 0;
+        int high = index.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (type.compare(index[mid].min, value) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return high >= 0 && type.compare(index[high].max, value) > 0 ? high : -1;
+    }
+
     /**
      * Returns the matching interval.
      *
@@ -720,55 +945,20 @@ public class HierarchyBuilderIntervalBased<T> extends HierarchyBuilderGroupingBa
      * @return
      */
     @SuppressWarnings("unchecked")
-    private Interval<T> getInterval(IndexNode index, DataTypeWithRatioScale<T> type, T tValue) {
-
-        // Find interval
-        int shift = (int)Math.floor(type.ratio(type.subtract(tValue, index.min), type.subtract(index.max, index.min)));
-        T offset = type.multiply(type.subtract(index.max, index.min), shift);
-        T shifted = type.subtract(tValue, offset);
+    private Interval<T> getInterval(Interval<T>[] index, DataTypeWithRatioScale<T> type, T tValue) {
         
-        // Fix case when shifted value equals interval-max
-        if (type.compare(shifted, index.max) == 0) {
-            offset = type.multiply(type.subtract(index.max, index.min), shift + 1);
-            shifted = index.min;
-        }
-        Interval<T> interval = getInterval(index, shifted);
-
-        // Check
-        if (interval == null) {
+        // Find interval
+        long shifted = getShift(index, type, tValue);
+        int interval = (int)shifted;
+        if (interval < 0) {
             throw new IllegalStateException("No interval found for: " + type.format(tValue));
         }
         
         // Create first result interval
-        T lower = type.add(interval.min, offset);
-        T upper = type.add(interval.max, offset);
-        return new Interval<T>(this, (DataType<T>)type, lower, upper, interval.function);
-    }
-    
-    /**
-     * Performs the index lookup.
-     *
-     * @param node
-     * @param value
-     * @return
-     */
-    private Interval<T> getInterval(IndexNode node, T value) {
-        @SuppressWarnings("unchecked")
-        DataTypeWithRatioScale<T> type = (DataTypeWithRatioScale<T>)getDataType();
-        if (node.isLeaf) {
-            for (Interval<T> leaf : node.leafs) {
-                if (type.compare(leaf.min, value) <= 0 && type.compare(leaf.max, value) > 0) {
-                    return leaf;
-                }
-            }
-        } else {
-            for (IndexNode child : node.children) {
-                if (type.compare(child.min, value) <= 0 && type.compare(child.max, value) > 0) {
-                    return getInterval(child, value);
-                }
-            }
-        }
-        return null;
+        T offset = getOffset(index, type, (int)(shifted >> 32));
+        T lower = type.add(index[interval].min, offset);
+        T upper = type.add(index[interval].max, offset);
+        return new Interval<T>(this, (DataType<T>)type, lower, upper, index[interval].function);
     }
 
     /**
@@ -780,11 +970,13 @@ public class HierarchyBuilderIntervalBased<T> extends HierarchyBuilderGroupingBa
      * @return
      */
     @SuppressWarnings("unchecked")
-    private Interval<T> getIntervalUpperSnap(IndexNode index, DataTypeWithRatioScale<T> type, T tValue) {
+    private Interval<T> getIntervalUpperSnap(Interval<T>[] index, DataTypeWithRatioScale<T> type, T tValue) {
 
         // Find interval
-        double shift = Math.floor(type.ratio(type.subtract(tValue, index.min), type.subtract(index.max, index.min)));
-        T offset = type.multiply(type.subtract(index.max, index.min), shift);
+        T min = index[0].min;
+        T max = index[index.length - 1].max;
+        double shift = Math.floor(type.ratio(type.subtract(tValue, min), type.subtract(max, min)));
+        T offset = type.multiply(type.subtract(max, min), shift);
         T value = type.subtract(tValue, offset);
         Interval<T> interval = null;
 
@@ -804,7 +996,7 @@ public class HierarchyBuilderIntervalBased<T> extends HierarchyBuilderGroupingBa
                         
                         // Wrap around
                         interval = intervals.get(intervals.size()-1);
-                        offset = type.multiply(type.subtract(index.max, index.min), shift-1);
+                        offset = type.multiply(type.subtract(max, min), shift-1);
                         break;
                     }
                 } else {
@@ -830,6 +1022,85 @@ public class HierarchyBuilderIntervalBased<T> extends HierarchyBuilderGroupingBa
         return new Interval<T>(this, (DataType<T>)type, lower, upper, interval.function);
     }
 
+    /**
+     * Returns the offset of the given repetition of the intervals.
+     *
+     * @param index
+     * @param type
+     * @param shift
+     * @return
+     */
+    private T getOffset(Interval<T>[] index, DataTypeWithRatioScale<T> type, int shift) {
+        return type.multiply(type.subtract(index[index.length - 1].max, index[0].min), shift);
+    }
+    
+    /**
+     * Returns the repetition of the intervals which contains the given value in the upper 32 bits
+     * and the index of the matching interval within this repetition in the lower 32 bits.
+     *
+     * @param index
+     * @param type
+     * @param tValue
+     * @return
+     */
+    private long getShift(Interval<T>[] index, DataTypeWithRatioScale<T> type, T tValue) {
+
+        // Find repetition
+        T min = index[0].min;
+        T max = index[index.length - 1].max;
+        int shift = (int)Math.floor(type.ratio(type.subtract(tValue, min), type.subtract(max, min)));
+        T offset = type.multiply(type.subtract(max, min), shift);
+        T shifted = type.subtract(tValue, offset);
+        
+        // Fix case when shifted value equals interval-max
+        if (type.compare(shifted, max) == 0) {
+            shift++;
+            shifted = min;
+        }
+        
+        // Find interval
+        return ((long)shift << 32) | (getIndex(index, type, shifted) & 0xFFFFFFFFL);
+    }
+    
+    /**
+     * Returns whether arithmetic with the given value is exact for doubles.
+     *
+     * @param value
+     * @return
+     */
+    private boolean isExact(double value) {
+        return Math.abs(value) <= PRIMITIVE_LIMIT;
+    }
+    
+    /**
+     * Parses the data items, in parallel for large inputs.
+     *
+     * @param data
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    private T[] parse(final String[] data) {
+        final DataType<T> type = getDataType();
+        final T[] values = (T[])new Object[data.length];
+        int[] ranges = getRanges(data.length);
+        List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+        for (int r = 0; r < ranges.length - 1; r++) {
+            final int from = ranges[r];
+            final int to = ranges[r + 1];
+            tasks.add(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    for (int i = from; i < to; i++) {
+                        values[i] = type.parse(data[i]);
+                    }
+                    return null;
+                }
+            });
+        }
+        invokeAll(data.length, tasks);
+        return values;
+    }
+
     /**
      * Adds an interval.
      *
@@ -893,52 +1164,20 @@ public class HierarchyBuilderIntervalBased<T> extends HierarchyBuilderGroupingBa
         }
         
         // *******************************************************************************
-        // Step 1: Build an index for efficiently mapping a value to its matching interval
+        // Step 1: Prepare an index for efficiently mapping a value to its matching interval
         // *******************************************************************************
         
-        // Build leaf level index
-        ArrayList<IndexNode> nodes = new ArrayList<IndexNode>();
-        for (int i = 0, len = intervals.size(); i < len; i += INDEX_FANOUT) {
-            int min = i;
-            int max = Math.min(i + INDEX_FANOUT - 1, len - 1);
-
-            List<Interval<T>> leafs = new ArrayList<Interval<T>>();
-            for (int j = min; j <= max; j++) {
-                leafs.add(intervals.get(j));
-            }
-
-            nodes.add(new IndexNode(intervals.get(min).min,
-                                    intervals.get(max).max,
-                                    leafs.toArray(new Interval[leafs.size()])));
-        }
-        
-        // Builder inner nodes
-        while (nodes.size() > 1) {
-            List<IndexNode> current = (List<IndexNode>)nodes.clone();
-            nodes.clear();
-            for (int i=0, len = current.size(); i < len; i+=INDEX_FANOUT) {
-                int min = i;
-                int max = Math.min(i+INDEX_FANOUT-1, len-1);
-                List<IndexNode> temp = new ArrayList<IndexNode>();
-                for (int j=min; j<=max; j++) {
-                    temp.add(current.get(j));
-                }
-
-                nodes.add(new IndexNode(current.get(min).min, 
-                                        current.get(max).max,
-                                        temp.toArray(new HierarchyBuilderIntervalBased.IndexNode[temp.size()])));
-            }
-        }
+        // Intervals are adjacent and sorted, which enables binary search
+        final Interval<T>[] index = intervals.toArray(new Interval[intervals.size()]);
 
         // ****************************************************
         // Step 2: Prepare structures holding relevant data
         // ****************************************************
         
         // Prepare
-        String[] data = getData();
-        IndexNode index = nodes.get(0);
+        final String[] data = getData();
         List<AbstractGroup[]> result = new ArrayList<AbstractGroup[]>();
-        DataTypeWithRatioScale<T> type = (DataTypeWithRatioScale<T>)getDataType();
+        final DataTypeWithRatioScale<T> type = (DataTypeWithRatioScale<T>)getDataType();
         Map<AbstractGroup, AbstractGroup> cache = new HashMap<AbstractGroup, AbstractGroup>();
         
         // ****************************************************
@@ -947,8 +1186,8 @@ public class HierarchyBuilderIntervalBased<T> extends HierarchyBuilderGroupingBa
         
         // Create adjustments
         Range<T>[] ranges = getAdjustedRanges();
-        Range<T> tempLower = ranges[0];
-        Range<T> tempUpper = ranges[1];
+        final Range<T> tempLower = ranges[0];
+        final Range<T> tempUpper = ranges[1];
         
         // Create snap intervals
         Interval<T> lowerSnap = getInterval(index, type, tempLower.repeatBound);
@@ -967,58 +1206,87 @@ public class HierarchyBuilderIntervalBased<T> extends HierarchyBuilderGroupingBa
         // ****************************************************
         // Step 4: Create first column of hierarchy
         // ****************************************************
+        
+        // Step 4.1 Values are parsed only once for all levels
+        final T[] values = this.values != null ? this.values : parse(data);
+        
+        // Step 4.2 Map values to intervals independently of each other. For each value, the index of
+        // the interval or the type of special case is stored alongside the repetition of the intervals
+        final int[] positions = new int[data.length];
+        final int[] shifts = new int[data.length];
+        final Classifier classifier = getClassifier(new Classifier(index, type, values, tempLower, tempUpper, lowerSnap.max, upperSnap.min));
+        int[] bounds = getRanges(data.length);
+        List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+        for (int r = 0; r < bounds.length - 1; r++) {
+            final int from = bounds[r];
+            final int to = bounds[r + 1];
+            tasks.add(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    for (int i = from; i < to; i++) {
+                        positions[i] = classifier.classify(i, shifts);
+                    }
+                    return null;
+                }
+            });
+        }
+        invokeAll(data.length, tasks);
+        
+        // Step 4.3 Create intervals. Labels are created only once per distinct interval and
+        // identical intervals are represented by the same object
         Interval<T>[] first = new Interval[data.length];
+        LongObjectOpenHashMap<Interval<T>> created = new LongObjectOpenHashMap<Interval<T>>();
+        Interval<T> nullInterval = null;
+        Interval<T> bottomInterval = null;
+        Interval<T> topInterval = null;
         for (int i = 0; i < data.length; i++) {
-            
-            // Step 4.1 Parse value
-            T value = type.parse(data[i]);
             Interval<T> interval;
-            
-            // Step 4.2 Empty value
-            if (value == null) {
-                interval = new Interval<T>(this);
-                
-            // Step 4.3 Error if < lower
-            } else if (type.compare(value, tempLower.labelBound) < 0) {
-                throw new IllegalArgumentException("Data item " + type.format(value) + " is < minim value (" + type.format(tempLower.labelBound) + ")");
-                
-            // Step 4.4 Bottom coding    
-            } else if (type.compare(value, tempLower.snapBound) < 0) {
-                interval = new Interval<T>(this, true, tempLower.snapBound);
-                
-            // Step 4.5 Error if > upper
-            } else if (type.compare(value, tempUpper.labelBound) >= 0) {
-                throw new IllegalArgumentException("Data item " + type.format(value)+ " is >= maximum value (" + type.format(tempUpper.labelBound) + ")");
-                
-            // Step 4.6 Top coding
-            } else if (type.compare(value, tempUpper.snapBound) >= 0) {
-                interval = new Interval<T>(this, false, tempUpper.snapBound);
-            
-            // Step 4.7 Find interval using index
-            } else {
-                interval = getInterval(index, type, value);    
-            }
-            
-            // If found
-            if (interval.min != null && interval.max != null){
-                
-                // Step 4.8 Snap to lower
-                if (type.compare(interval.min, lowerSnap.max) < 0){
-                    interval = lowerSnap;
-                    
-                // Step 4.9 Snap to upper
-                } else if (type.compare(interval.max, upperSnap.min) > 0){
-                    interval = upperSnap;
+            switch (positions[i]) {
+            case VALUE_NULL:
+                if (nullInterval == null) {
+                    nullInterval = getGroup(cache, new Interval<T>(this));
+                }
+                interval = nullInterval;
+                break;
+            case VALUE_BELOW_LABEL:
+                throw new IllegalArgumentException("Data item " + type.format(values[i]) + " is < minim value (" + type.format(tempLower.labelBound) + ")");
+            case VALUE_BOTTOM:
+                if (bottomInterval == null) {
+                    bottomInterval = getGroup(cache, new Interval<T>(this, true, tempLower.snapBound));
+                }
+                interval = bottomInterval;
+                break;
+            case VALUE_ABOVE_LABEL:
+                throw new IllegalArgumentException("Data item " + type.format(values[i])+ " is >= maximum value (" + type.format(tempUpper.labelBound) + ")");
+            case VALUE_TOP:
+                if (topInterval == null) {
+                    topInterval = getGroup(cache, new Interval<T>(this, false, tempUpper.snapBound));
+                }
+                interval = topInterval;
+                break;
+            case VALUE_LOWER_SNAP:
+                interval = getGroup(cache, lowerSnap);
+                break;
+            case VALUE_UPPER_SNAP:
+                interval = getGroup(cache, upperSnap);
+                break;
+            case VALUE_NOT_FOUND:
+                throw new IllegalStateException("No interval found for: " + type.format(values[i]));
+            default:
+                long key = ((long)shifts[i] << 32) | positions[i];
+                interval = created.get(key);
+                if (interval == null) {
+                    Interval<T> base = index[positions[i]];
+                    T offset = getOffset(index, type, shifts[i]);
+                    interval = new Interval<T>(this, getDataType(), type.add(base.min, offset), type.add(base.max, offset), base.function);
+                    interval = getGroup(cache, interval);
+                    created.put(key, interval);
                 }
             }
-            
-            // Make sure that identical intervals are represented by the same object
-            first[i] = getGroup(cache, interval);
+            first[i] = interval;
         }
         result.add(first);
         
-        // Clean
-        index = null;
         
         // ****************************************************
         // Step 5: Prepare recursion to generate other columns
@@ -1150,8 +1418,10 @@ public class HierarchyBuilderIntervalBased<T> extends HierarchyBuilderGroupingBa
                 }
             }
             
-            // Copy data
+            // Copy data, which is not retained by the builder, as intervals refer to it
+            builder.values = values;
             builder.prepare(data);
+            builder.values = null;
 
             // ****************************************************
             // Step 7: Copy data over
@@ -27,8 +27,11 @@ import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
 import org.deidentifier.arx.DataType;
+import org.deidentifier.arx.DataType.ARXDate;
+import org.deidentifier.arx.DataType.ARXInteger;
 
 /**
  * This class enables building hierarchies for categorical and non-categorical values
@@ -181,6 +184,9 @@ public class HierarchyBuilderOrderBased<T> extends HierarchyBuilderGroupingBased
     /** Comparator */
     private final Comparator<String> comparator;
 
+    /** Comparator for parsed data items, which induces the same order. May be null. */
+    private final Comparator<T>      valueComparator;
+
     /**
      * Creates a new instance.
      *
@@ -204,6 +210,8 @@ public class HierarchyBuilderOrderBased<T> extends HierarchyBuilderGroupingBased
         } else {
             this.comparator = null;
         }
+        // Strings are compared by comparing parsed values only for these types
+        this.valueComparator = order && (type instanceof ARXInteger || type instanceof ARXDate) ? type : null;
         this.function = AggregateFunction.forType(type).createSetFunction();
     }
 
@@ -231,6 +239,7 @@ public class HierarchyBuilderOrderBased<T> extends HierarchyBuilderGroupingBased
                 }
             }
         };
+        this.valueComparator = null;
         this.function = AggregateFunction.forType(type).createSetFunction();
     }
 
@@ -256,6 +265,7 @@ public class HierarchyBuilderOrderBased<T> extends HierarchyBuilderGroupingBased
                 }
             }
         };
+        this.valueComparator = comparator;
         this.function = AggregateFunction.forType(type).createSetFunction();
     }
     
@@ -273,7 +283,11 @@ public class HierarchyBuilderOrderBased<T> extends HierarchyBuilderGroupingBased
     protected AbstractGroup[][] prepareGroups() {
         if (comparator != null) {
             try {
-                Arrays.sort(super.getData(), comparator);
+                if (valueComparator != null) {
+                    sort(super.getData(), valueComparator);
+                } else {
+                    Arrays.sort(super.getData(), comparator);
+                }
             } catch (Exception e){
                 throw new IllegalArgumentException(e.getMessage());
             }
@@ -380,4 +394,55 @@ public class HierarchyBuilderOrderBased<T> extends HierarchyBuilderGroupingBased
         // Return
         return result.toArray(new AbstractGroup[0][0]);
     }
+
+    /**
+     * Sorts the data items by parsing each item once, in parallel for large inputs, and
+     * comparing the parsed values. The sort is stable, as is sorting the items with the
+     * comparator for strings.
+     *
+     * @param data
+     * @param comparator
+     */
+    @SuppressWarnings("unchecked")
+    private void sort(final String[] data, final Comparator<T> comparator) {
+        
+        // Parse
+        final DataType<T> type = getDataType();
+        final T[] values = (T[])new Object[data.length];
+        int[] ranges = getRanges(data.length);
+        List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+        for (int r = 0; r < ranges.length - 1; r++) {
+            final int from = ranges[r];
+            final int to = ranges[r + 1];
+            tasks.add(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    for (int i = from; i < to; i++) {
+                        values[i] = type.parse(data[i]);
+                    }
+                    return null;
+                }
+            });
+        }
+        invokeAll(data.length, tasks);
+        
+        // Sort
+        Integer[] indices = new Integer[data.length];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = i;
+        }
+        Arrays.sort(indices, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer o1, Integer o2) {
+                return comparator.compare(values[o1], values[o2]);
+            }
+        });
+        
+        // Reorder
+        String[] sorted = new String[data.length];
+        for (int i = 0; i < indices.length; i++) {
+            sorted[i] = data[indices[i]];
+        }
+        System.arraycopy(sorted, 0, data, 0, data.length);
+    }
 }
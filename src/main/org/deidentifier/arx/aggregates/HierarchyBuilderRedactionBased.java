@@ -21,8 +21,14 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
 
 import org.deidentifier.arx.AttributeType.Hierarchy;
 
@@ -329,21 +335,8 @@ public class HierarchyBuilderRedactionBased<T> extends HierarchyBuilder<T> imple
      */
     public int[] prepare(String[] data){
         
-        // Check
-        prepareResult(data);
-        
-        // Compute
-        int[] sizes = new int[this.result[0].length];
-        for (int i=0; i < sizes.length; i++){
-            Set<String> set = new HashSet<String>();
-            for (int j=0; j<this.result.length; j++) {
-                set.add(result[j][i]);
-            }
-            sizes[i] = set.size();
-        }
-        
-        // Return
-        return sizes;
+        // Check and compute
+        return prepareResult(data);
     }
 
     /**
@@ -441,11 +434,14 @@ public class HierarchyBuilderRedactionBased<T> extends HierarchyBuilder<T> imple
 
     
     /**
-     * Computes the hierarchy.
+     * Computes the hierarchy. Levels are redacted independently of each other, in parallel for
+     * large inputs, and identical labels on a level are represented by the same string.
+     * Returns the number of equivalence classes per level.
      *
      * @param data
+     * @return
      */
-    private void prepareResult(String[] data){
+    private int[] prepareResult(final String[] data){
 
         // Determine length
         int length = Integer.MIN_VALUE;
@@ -459,7 +455,7 @@ public class HierarchyBuilderRedactionBased<T> extends HierarchyBuilder<T> imple
         String padding = paddingBuilder.toString();
 
         // Build list of base strings
-        String[] base = new String[data.length];
+        final String[] base = new String[data.length];
         for (int i=0; i<data.length; i++) {
             if (data[i].length()<length) {
                 String pad = padding.substring(0, length - data[i].length());
@@ -476,21 +472,58 @@ public class HierarchyBuilderRedactionBased<T> extends HierarchyBuilder<T> imple
         // Build padding string
         StringBuilder redactionBuilder = new StringBuilder();
         for (int i=0; i<length; i++) redactionBuilder.append(redactionCharacter);
-        String redaction = redactionBuilder.toString();
+        final String redaction = redactionBuilder.toString();
 
-        // Build result
-        this.result = new String[base.length][length + 1];
+        // Prepare result
+        final String[][] result = new String[base.length][length + 1];
         for (int i=0; i<base.length; i++){
-            result[i] = new String[length + 1];
             result[i][0] = data[i];
-            for (int j=1; j<length + 1; j++){
-                String redact = redaction.substring(0, j);
-                if (redactionOrder == Order.RIGHT_TO_LEFT) {
-                    result[i][j] =  base[i].substring(0, length - j) + redact;
-                } else {
-                    result[i][j] =  redact + base[i].substring(j, length);
-                }
+        }
+        
+        // Tasks
+        final int _length = length;
+        List<Callable<Integer>> tasks = new ArrayList<Callable<Integer>>();
+        tasks.add(new Callable<Integer>() {
+            @Override
+            public Integer call() {
+                return new HashSet<String>(Arrays.asList(data)).size();
             }
+        });
+        for (int j=1; j<length + 1; j++){
+            final int level = j;
+            tasks.add(new Callable<Integer>() {
+                @Override
+                public Integer call() {
+                    Map<String, String> labels = new HashMap<String, String>();
+                    String redact = redaction.substring(0, level);
+                    for (int i=0; i<base.length; i++){
+                        String label;
+                        if (redactionOrder == Order.RIGHT_TO_LEFT) {
+                            label = base[i].substring(0, _length - level) + redact;
+                        } else {
+                            label = redact + base[i].substring(level, _length);
+                        }
+                        String interned = labels.get(label);
+                        if (interned == null) {
+                            labels.put(label, label);
+                            interned = label;
+                        }
+                        result[i][level] = interned;
+                    }
+                    return labels.size();
+                }
+            });
         }
+        
+        // Build result
+        List<Integer> counts = invokeAll(data.length, tasks);
+        int[] sizes = new int[counts.size()];
+        for (int i=0; i < sizes.length; i++){
+            sizes[i] = counts.get(i);
+        }
+        this.result = result;
+        
+        // Return
+        return sizes;
     }
 }
@@ -796,6 +796,7 @@ public class StatisticsBuilder {
         Map<String, StatisticsSummaryOrdinal> ordinal = new HashMap<String, StatisticsSummaryOrdinal>();
         Map<String, DataScale> scales = new HashMap<String, DataScale>();
         Map<String, GeometricMean> geomean = new HashMap<String, GeometricMean>();
+        Map<String, Map<String, Double>> parsed = new HashMap<String, Map<String, Double>>();
         
         // Detect scales
         for (int col = 0; col < handle.getNumColumns(); col++) {
@@ -819,6 +820,7 @@ public class StatisticsBuilder {
             scales.put(attribute, scale);
             statistics.put(attribute, new DescriptiveStatistics());
             geomean.put(attribute, new GeometricMean());
+            parsed.put(attribute, new HashMap<String, Double>());
             ordinal.put(attribute, getSummaryStatisticsOrdinal(handle.getGeneralization(attribute),
                                                                handle.getDataType(attribute),
                                                                handle.getBaseDataType(attribute),
@@ -857,7 +859,14 @@ public class StatisticsBuilder {
                     if (!DataType.isAny(value) && !DataType.isNull(value)) {
                         ordinal.get(attribute).addValue(value);
                         if (type instanceof DataTypeWithRatioScale) {
-                            double doubleValue = ((DataTypeWithRatioScale) type).toDouble(type.parse(value));
+                            
+                            // Parse each distinct value once
+                            Map<String, Double> values = parsed.get(attribute);
+                            Double doubleValue = values.get(value);
+                            if (doubleValue == null) {
+                                doubleValue = ((DataTypeWithRatioScale) type).toDouble(type.parse(value));
+                                values.put(value, doubleValue);
+                            }
                             statistics.get(attribute).addValue(doubleValue);
                             geomean.get(attribute).increment(doubleValue + 1d);
                         }
@@ -18,10 +18,13 @@ package org.deidentifier.arx.aggregates;
 
 import java.text.ParseException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.deidentifier.arx.DataScale;
@@ -159,11 +162,54 @@ public class StatisticsSummary<T> {
             return index;
         }
 
+        /**
+         * Sorts the values. Distinct values are ordered with the comparator once, all values
+         * are then placed according to the rank of their distinct value. This is equivalent to a
+         * stable sort with the comparator, but values are not parsed for every comparison.
+         */
+        private void sort() {
+
+            // Order distinct values
+            Map<String, Integer> ranks = new HashMap<String, Integer>();
+            List<String> distinct = new ArrayList<String>();
+            for (String value : values) {
+                if (!ranks.containsKey(value)) {
+                    ranks.put(value, 0);
+                    distinct.add(value);
+                }
+            }
+            Collections.sort(distinct, comparator);
+
+            // Rank, values which are equal according to the comparator share a rank
+            int rank = 0;
+            for (int i = 0; i < distinct.size(); i++) {
+                if (i > 0 && comparator.compare(distinct.get(i - 1), distinct.get(i)) != 0) {
+                    rank++;
+                }
+                ranks.put(distinct.get(i), rank);
+            }
+
+            // Place values, preserving their order within ranks
+            int[] offsets = new int[rank + 2];
+            for (String value : values) {
+                offsets[ranks.get(value) + 1]++;
+            }
+            for (int i = 1; i < offsets.length; i++) {
+                offsets[i] += offsets[i - 1];
+            }
+            String[] sorted = new String[values.size()];
+            for (String value : values) {
+                sorted[offsets[ranks.get(value)]++] = value;
+            }
+            values.clear();
+            values.addAll(Arrays.asList(sorted));
+        }
+
         /**
          * Analyzes the data
          */
         void analyze() {
-            Collections.sort(values, comparator);
+            sort();
             
             if (values.size() == 0) {
                 min = DataType.NULL_VALUE;
@@ -17,7 +17,9 @@
 
 package org.deidentifier.arx.algorithm;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
@@ -25,6 +27,7 @@ import org.apache.commons.math3.fraction.BigFraction;
 import org.deidentifier.arx.dp.ExponentialMechanism;
 import org.deidentifier.arx.framework.check.TransformationChecker;
 import org.deidentifier.arx.framework.check.TransformationChecker.ScoreType;
+import org.deidentifier.arx.framework.check.TransformationResult;
 import org.deidentifier.arx.framework.check.history.History.StorageStrategy;
 import org.deidentifier.arx.framework.lattice.SolutionSpace;
 import org.deidentifier.arx.framework.lattice.Transformation;
@@ -133,15 +136,22 @@ public class DataDependentEDDPAlgorithm extends AbstractAlgorithm {
         // For each step
         for (int step = 1; step <= expansionLimit; ++step) {
             
-            // Add predecessors of the current pivot element to the set of candidates
+            // Collect predecessors of the current pivot element which are not yet candidates
             TransformationList<?> list = pivot.getPredecessors();
+            List<Transformation<?>> predecessors = new ArrayList<>();
             for (int i = 0; i < list.size(); i++) {
                 Object id = list.getQuick(i);
                 if (transformationIDToScore.containsKey(id)) continue;
-                Transformation<?> predecessor = solutionSpace.getTransformation(id);
-                assureChecked(predecessor);
-                transformationIDToScore.put(id, (ILScore)predecessor.getInformationLoss());
-                
+                predecessors.add(solutionSpace.getTransformation(id));
+            }
+            
+            // Score them, possibly concurrently
+            assureChecked(predecessors);
+            
+            // Add them to the set of candidates. The order of insertion is always the order
+            // of the predecessors, which makes sampling reproducible in deterministic mode
+            for (Transformation<?> predecessor : predecessors) {
+                transformationIDToScore.put(predecessor.getIdentifier(), (ILScore)predecessor.getInformationLoss());
             }
             
             // Remove the current pivot element from the set of candidates
@@ -182,6 +192,27 @@ public class DataDependentEDDPAlgorithm extends AbstractAlgorithm {
         }
     }
 
+    /**
+    * Makes sure that the given transformations have been checked
+    * @param transformations
+    */
+    private void assureChecked(final List<Transformation<?>> transformations) {
+        
+        // Collect
+        List<Transformation<?>> unchecked = new ArrayList<>();
+        for (Transformation<?> transformation : transformations) {
+            if (!transformation.hasProperty(propertyChecked)) {
+                unchecked.add(transformation);
+            }
+        }
+        
+        // Check and store
+        List<TransformationResult> results = checker.check(unchecked, true, ScoreType.DP_SCORE);
+        for (int i = 0; i < unchecked.size(); i++) {
+            unchecked.get(i).setChecked(results.get(i));
+        }
+    }
+
     /**
      * Executes the exponential mechanism
      * @param transformationIDToScore
@@ -19,21 +19,17 @@ package org.deidentifier.arx.algorithm;
 
 import java.math.BigInteger;
 import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.PriorityQueue;
 
 import org.deidentifier.arx.algorithm.FLASHPhaseConfiguration.PhaseAnonymityProperty;
+import org.deidentifier.arx.common.IntPriorityQueue;
 import org.deidentifier.arx.framework.check.TransformationChecker;
 import org.deidentifier.arx.framework.check.TransformationResult;
 import org.deidentifier.arx.framework.check.groupify.HashGroupify;
 import org.deidentifier.arx.framework.lattice.DependentAction;
-import org.deidentifier.arx.framework.lattice.ObjectIterator;
 import org.deidentifier.arx.framework.lattice.SolutionSpace;
 import org.deidentifier.arx.framework.lattice.SolutionSpaceLong;
 import org.deidentifier.arx.framework.lattice.Transformation;
-import org.deidentifier.arx.framework.lattice.TransformationList;
 import org.deidentifier.arx.framework.lattice.TransformationLong;
 import org.deidentifier.arx.metric.InformationLoss;
 import org.deidentifier.arx.metric.InformationLossWithBound;
@@ -43,6 +39,8 @@ import com.carrotsearch.hppc.IntArrayList;
 import cern.colt.GenericSorting;
 import cern.colt.Swapper;
 import cern.colt.function.IntComparator;
+import cern.colt.list.LongArrayList;
+import de.linearbits.jhpl.JHPLIterator.LongIterator;
 import de.linearbits.jhpl.PredictiveProperty;
 
 /**
@@ -63,7 +61,7 @@ public class FLASHAlgorithmImpl extends AbstractAlgorithm {
     private final FLASHStrategy        strategy;
 
     /** List of nodes that may be used for pruning transformations with insufficient utility. */
-    private final List<Integer>        potentiallyInsufficientUtility;
+    private final IntArrayList         potentiallyInsufficientUtility;
 
     /** The number of checked transformations */
     private int                        checked = 0;
@@ -99,7 +97,7 @@ public class FLASHAlgorithmImpl extends AbstractAlgorithm {
         this.sortedSuccessors = new int[solutionSpaceSize][];
         this.config = config;
         this.potentiallyInsufficientUtility = this.config.isPruneInsufficientUtility() ? 
-                                              new LinkedList<Integer>() : null;
+                                              new IntArrayList() : null;
     }
 
     @Override
@@ -120,7 +118,7 @@ public class FLASHAlgorithmImpl extends AbstractAlgorithm {
         checker.getHistory().setStorageStrategy(config.getSnapshotStorageStrategy());
 
         // Initialize
-        PriorityQueue<Integer> queue = new PriorityQueue<Integer>(solutionSpace.getTop().getLevel() + 1, strategy);
+        IntPriorityQueue queue = new IntPriorityQueue(solutionSpace.getTop().getLevel() + 1, strategy);
         Transformation<Long> bottom = (TransformationLong)solutionSpace.getBottom();
         Transformation<Long> top = (TransformationLong)solutionSpace.getTop();
 
@@ -176,13 +174,13 @@ public class FLASHAlgorithmImpl extends AbstractAlgorithm {
      * @param transformation
      * @param queue
      */
-    private void binarySearch(Transformation<Long> transformation, PriorityQueue<Integer> queue) {
+    private void binarySearch(Transformation<Long> transformation, IntPriorityQueue queue) {
 
         // Obtain node action
         DependentAction triggerSkip = config.getBinaryPhaseConfiguration().getTriggerSkip();
 
         // Add to queue
-        queue.add(Long.valueOf(transformation.getIdentifier()).intValue());
+        queue.add(transformation.getIdentifier().intValue());
 
         // While queue is not empty
         while (!queue.isEmpty()) {
@@ -255,7 +253,7 @@ public class FLASHAlgorithmImpl extends AbstractAlgorithm {
      * @param queue
      * @return
      */
-    private Transformation<Long> checkPath(List<Transformation<Long>> path, DependentAction triggerSkip, PriorityQueue<Integer> queue) {
+    private Transformation<Long> checkPath(List<Transformation<Long>> path, DependentAction triggerSkip, IntPriorityQueue queue) {
 
         // Obtain anonymity property
         PredictiveProperty anonymityProperty = config.getBinaryPhaseConfiguration().getAnonymityProperty() == PhaseAnonymityProperty.ANONYMITY ?
@@ -342,12 +340,12 @@ public class FLASHAlgorithmImpl extends AbstractAlgorithm {
      */
     private int[] getSortedSuccessors(final Transformation<Long> transformation) {
         
-        int identifier = Long.valueOf(transformation.getIdentifier()).intValue();
+        int identifier = transformation.getIdentifier().intValue();
         if (sortedSuccessors[identifier] == null) {
-            TransformationList<Long> list = transformation.getSuccessors();
+            LongArrayList list = ((TransformationLong)transformation).getSuccessorIdentifiers();
             int[] result = new int[list.size()];
             for (int i=0; i<list.size(); i++) {
-                result[i] = list.getQuick(i).intValue();
+                result[i] = (int)list.getQuick(i);
             }
             sort(result);
             sortedSuccessors[identifier] = result;
@@ -367,7 +365,7 @@ public class FLASHAlgorithmImpl extends AbstractAlgorithm {
 
         // Create
         IntArrayList list = new IntArrayList();
-        for (ObjectIterator<Long> iter = ((SolutionSpaceLong)solutionSpace).unsafeGetLevel(level); iter.hasNext();) {
+        for (LongIterator iter = ((SolutionSpaceLong)solutionSpace).unsafeGetLevelIdentifiers(level); iter.hasNext();) {
             long id = iter.next();
             if (!skip(triggerSkip, ((SolutionSpaceLong)solutionSpace).getTransformation(id))) {
                 list.add((int)id);
@@ -443,7 +441,7 @@ public class FLASHAlgorithmImpl extends AbstractAlgorithm {
 
         // If we haven't yet found an optimum, we simply add the node to the list of pruning candidates
         if (optimalTransformation == null) {
-            potentiallyInsufficientUtility.add(Long.valueOf(node.getIdentifier()).intValue());
+            potentiallyInsufficientUtility.add(node.getIdentifier().intValue());
             return;
         }
 
@@ -459,33 +457,35 @@ public class FLASHAlgorithmImpl extends AbstractAlgorithm {
                 node.setProperty(solutionSpace.getPropertySuccessorsPruned());
                 // Else, we store it as a future pruning candidate
             } else {
-                potentiallyInsufficientUtility.add(Long.valueOf(node.getIdentifier()).intValue());
+                potentiallyInsufficientUtility.add(node.getIdentifier().intValue());
             }
 
             // If the current node is our new optimum, we check all candidates
         } else {
 
-            // For each candidate
-            Iterator<Integer> iterator = potentiallyInsufficientUtility.iterator();
-            while (iterator.hasNext()) {
-                Integer current = iterator.next();
+            // For each candidate, retained candidates are compacted in place
+            int retained = 0;
+            for (int i = 0; i < potentiallyInsufficientUtility.size(); i++) {
+                int current = potentiallyInsufficientUtility.get(i);
 
                 // Remove the candidate, if it was already pruned in the meantime
                 Transformation<Long> currentTransformation = ((SolutionSpaceLong)solutionSpace).getTransformation((long)current);
                 if (currentTransformation.hasProperty(solutionSpace.getPropertySuccessorsPruned())) {
-                    iterator.remove();
+                    continue;
 
                     // Else, check if we can prune it
                 } else if (optimalInfoLoss.compareTo(currentTransformation.getLowerBound()) <= 0) {
                     currentTransformation.setProperty(solutionSpace.getPropertyInsufficientUtility());
                     currentTransformation.setProperty(solutionSpace.getPropertySuccessorsPruned());
-                    iterator.remove();
+                    continue;
                 }
+                potentiallyInsufficientUtility.set(retained++, current);
             }
+            potentiallyInsufficientUtility.elementsCount = retained;
 
             // The current optimum is a future pruning candidate
             if (!node.hasProperty(solutionSpace.getPropertySuccessorsPruned())) {
-                potentiallyInsufficientUtility.add(Long.valueOf(node.getIdentifier()).intValue());
+                potentiallyInsufficientUtility.add(node.getIdentifier().intValue());
             }
         }
     }
@@ -24,6 +24,8 @@ import org.deidentifier.arx.framework.data.GeneralizationHierarchy;
 import org.deidentifier.arx.framework.lattice.SolutionSpace;
 import org.deidentifier.arx.framework.lattice.Transformation;
 
+import cern.colt.function.IntComparator;
+
 /**
  * This class implements a total order on all transformations in the search space. It is
  * used by the Flash algorithm to achieve stable execution times.
@@ -31,7 +33,7 @@ import org.deidentifier.arx.framework.lattice.Transformation;
  * @author Fabian Prasser
  * @author Florian Kohlmayer
  */
-public class FLASHStrategy implements Comparator<Integer> {
+public class FLASHStrategy implements Comparator<Integer>, IntComparator {
 
     /** The distinct values. */
     private final int[][]       distinct;
@@ -95,6 +97,20 @@ public class FLASHStrategy implements Comparator<Integer> {
      */
     @Override
     public int compare(final Integer n1, final Integer n2) {
+        return compare(n1.intValue(), n2.intValue());
+    }
+
+    /**
+     * Compares transformations without boxing their identifiers.
+     * 
+     * @param n1
+     *            the n1
+     * @param n2
+     *            the n2
+     * @return the int
+     */
+    @Override
+    public int compare(final int n1, final int n2) {
 
         // Obtain vals
         if (cache[n1] == null) {
@@ -18,14 +18,17 @@ package org.deidentifier.arx.algorithm;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Random;
+import java.util.Set;
 
 import org.apache.commons.math3.distribution.EnumeratedDistribution;
 import org.apache.commons.math3.random.AbstractRandomGenerator;
 import org.apache.commons.math3.util.Pair;
 import org.deidentifier.arx.framework.check.TransformationChecker;
 import org.deidentifier.arx.framework.check.TransformationChecker.ScoreType;
+import org.deidentifier.arx.framework.check.TransformationResult;
 import org.deidentifier.arx.framework.check.history.History.StorageStrategy;
 import org.deidentifier.arx.framework.lattice.SolutionSpace;
 import org.deidentifier.arx.framework.lattice.Transformation;
@@ -55,6 +58,7 @@ public class GeneticAlgorithm extends AbstractAlgorithm {
      * @param geneticAlgorithmImmigrationInterval
      * @param geneticAlgorithmMutationProbability
      * @param geneticAlgorithmSubpopulationSize
+     * @param geneticAlgorithmSubpopulations
      * @param timeLimit
      * @param checkLimit
      * @return
@@ -69,6 +73,7 @@ public class GeneticAlgorithm extends AbstractAlgorithm {
                                            int geneticAlgorithmImmigrationInterval,
                                            double geneticAlgorithmMutationProbability,
                                            int geneticAlgorithmSubpopulationSize,
+                                           int geneticAlgorithmSubpopulations,
                                            double geneticAlgorithmpProductionFraction,
                                            int timeLimit,
                                            int checkLimit) {
@@ -82,6 +87,7 @@ public class GeneticAlgorithm extends AbstractAlgorithm {
                                geneticAlgorithmImmigrationInterval,
                                geneticAlgorithmMutationProbability,
                                geneticAlgorithmSubpopulationSize,
+                               geneticAlgorithmSubpopulations,
                                geneticAlgorithmpProductionFraction,
                                timeLimit,
                                checkLimit);
@@ -110,6 +116,8 @@ public class GeneticAlgorithm extends AbstractAlgorithm {
     /** Configuration */
     private int                         geneticAlgorithmSubpopulationSize;
     /** Configuration */
+    private int                         geneticAlgorithmSubpopulations;
+    /** Configuration */
     private double                      geneticAlgorithmProductionFraction;
 
     /**
@@ -125,6 +133,7 @@ public class GeneticAlgorithm extends AbstractAlgorithm {
      * @param geneticAlgorithmImmigrationInterval
      * @param geneticAlgorithmMutationProbability
      * @param geneticAlgorithmSubpopulationSize
+     * @param geneticAlgorithmSubpopulations
      * @param timeLimit
      * @param checkLimit
      */
@@ -138,6 +147,7 @@ public class GeneticAlgorithm extends AbstractAlgorithm {
                        int geneticAlgorithmImmigrationInterval,
                        double geneticAlgorithmMutationProbability,
                        int geneticAlgorithmSubpopulationSize,
+                       int geneticAlgorithmSubpopulations,
                        double geneticAlgorithmpProductionFraction,
                        int timeLimit,
                        int checkLimit) {
@@ -153,6 +163,7 @@ public class GeneticAlgorithm extends AbstractAlgorithm {
         this.geneticAlgorithmImmigrationInterval = geneticAlgorithmImmigrationInterval;
         this.geneticAlgorithmMutationProbability = geneticAlgorithmMutationProbability;
         this.geneticAlgorithmSubpopulationSize = geneticAlgorithmSubpopulationSize;
+        this.geneticAlgorithmSubpopulations = geneticAlgorithmSubpopulations;
         this.geneticAlgorithmProductionFraction = geneticAlgorithmpProductionFraction;
         this.random = geneticAlgorithmDeterministic ? new Random(0xDEADBEEF) : new Random();
     }
@@ -171,83 +182,94 @@ public class GeneticAlgorithm extends AbstractAlgorithm {
         int itr = geneticAlgorithmIterations;
         int imm = geneticAlgorithmImmigrationInterval;
         int immigrationCount = (int) geneticAlgorithmImmigrationFraction * k;
+        int n = geneticAlgorithmSubpopulations;
 
         // Build sub-populations
-        GeneticAlgorithmSubpopulation z1 = new GeneticAlgorithmSubpopulation();
-        GeneticAlgorithmSubpopulation z2 = new GeneticAlgorithmSubpopulation();
+        List<GeneticAlgorithmSubpopulation> populations = new ArrayList<>();
+        List<int[]> generalizations = new ArrayList<>();
+        for (int p = 0; p < n; p++) {
 
-        // Fill sub-population 1
-        for (int i = 0; i < k; i++) {
+            // Create
+            populations.add(new GeneticAlgorithmSubpopulation());
 
-            // Prepare
-            int[] generalization = new int[maxLevels.length];
+            // Fill
+            for (int i = 0; i < k; i++) {
 
-            // Create "triangle" structure to cover the solution space
-            if (i < this.maxLevels.length) {
+                // Prepare
+                int[] generalization = new int[maxLevels.length];
 
-                // Fill 0 .. i with max generalization levels
-                for (int j = 0; j <= i; j++) {
-                    generalization[j] = maxLevels[j];
-                }
+                // Create "triangle" structure to cover the solution space in the first sub-population
+                if (p == 0 && i < this.maxLevels.length) {
 
-                // Fill the rest with min generalization levels
-                for (int j = i + 1; j < maxLevels.length; j++) {
-                    generalization[j] = minLevels[j];
-                }
+                    // Fill 0 .. i with max generalization levels
+                    for (int j = 0; j <= i; j++) {
+                        generalization[j] = maxLevels[j];
+                    }
+
+                    // Fill the rest with min generalization levels
+                    for (int j = i + 1; j < maxLevels.length; j++) {
+                        generalization[j] = minLevels[j];
+                    }
 
-            } else {
+                } else {
 
-                // Generate random individual
-                for (int j = 0; j < maxLevels.length; j++) {
-                    generalization[j] = getRandomGeneralizationLevel(j);
+                    // Generate random individual
+                    for (int j = 0; j < maxLevels.length; j++) {
+                        generalization[j] = getRandomGeneralizationLevel(j);
+                    }
                 }
+                generalizations.add(generalization);
             }
-
-            // Stop
-            if (mustStop()) { return false; }
-
-            z1.addIndividual(getIndividual(generalization));
         }
 
-        // Fill sub-population 2
-        for (int i = 0; i < k; i++) {
-
-            // Prepare
-            int[] generalization = new int[maxLevels.length];
-
-            // Generate random individual
-            for (int j = 0; j < maxLevels.length; j++) {
-                generalization[j] = getRandomGeneralizationLevel(j);
+        // Evaluate all initial individuals at once
+        List<Transformation<?>> individuals = getIndividuals(generalizations);
+        for (int p = 0; p < n; p++) {
+            for (int i = 0; i < k; i++) {
+                populations.get(p).addIndividual(individuals.get(p * k + i));
             }
-
-            // Stop
-            if (mustStop()) { return false; }
-
-            z2.addIndividual(getIndividual(generalization));
         }
 
+        // Stop
+        if (mustStop()) { return false; }
+
         // Main iterator
         for (int t = 0; t < itr; t++) {
 
             // Sort by fitness descending
-            z1.sort();
-            z2.sort();
+            for (GeneticAlgorithmSubpopulation population : populations) {
+                population.sort();
+            }
 
             // Swap individuals between GASubpopulations periodically
-            if (t % imm == 0) {
+            if (n > 1 && t % imm == 0) {
 
-                // Moves the imff fittest individuals between groups
-                z1.moveFittestIndividuals(z2, immigrationCount);
-                z2.moveFittestIndividuals(z1, immigrationCount);
+                // Moves the imff fittest individuals to the next group in a ring
+                for (int p = 0; p < n; p++) {
+                    populations.get(p).moveFittestIndividuals(populations.get((p + 1) % n), immigrationCount);
+                }
 
                 // Sort by fitness descending
-                z1.sort();
-                z2.sort();
+                for (GeneticAlgorithmSubpopulation population : populations) {
+                    population.sort();
+                }
+            }
+
+            // Breed offspring of all sub-populations. Breeding only depends on
+            // the current generation, which is why the offspring of all
+            // sub-populations can be evaluated at once.
+            List<int[]> offspring = new ArrayList<>();
+            int[] offsets = new int[n + 1];
+            for (int p = 0; p < n; p++) {
+                offspring.addAll(getOffspring(populations.get(p)));
+                offsets[p + 1] = offspring.size();
             }
 
-            // Iterate
-            iterateSubpopulation(z1);
-            iterateSubpopulation(z2);
+            // Evaluate and replace
+            individuals = getIndividuals(offspring);
+            for (int p = 0; p < n; p++) {
+                setOffspring(populations.get(p), individuals.subList(offsets[p], offsets[p + 1]));
+            }
 
             // Stop
             if (mustStop()) { return false; }
@@ -258,23 +280,44 @@ public class GeneticAlgorithm extends AbstractAlgorithm {
     }
 
     /**
-     * Returns an individual
+     * Returns the individuals for the given generalization schemes. All transformations
+     * that have not been checked yet are checked at once, which allows the checker to
+     * evaluate them concurrently. Optima and progress are tracked in the given order.
      * 
-     * @param generalization
+     * @param generalizations
      * @return
      */
-    private Transformation<?> getIndividual(int[] generalization) {
-        Transformation<?> transformation = this.solutionSpace.getTransformation(generalization);
-        if (!transformation.hasProperty(this.solutionSpace.getPropertyChecked())) {
-            transformation.setChecked(this.checker.check(transformation, true, ScoreType.INFORMATION_LOSS));
+    private List<Transformation<?>> getIndividuals(List<int[]> generalizations) {
+
+        // Collect
+        List<Transformation<?>> individuals = new ArrayList<>();
+        List<Transformation<?>> unchecked = new ArrayList<>();
+        Set<Object> identifiers = new HashSet<>();
+        for (int[] generalization : generalizations) {
+            Transformation<?> transformation = this.solutionSpace.getTransformation(generalization);
+            if (!transformation.hasProperty(this.solutionSpace.getPropertyChecked()) &&
+                identifiers.add(transformation.getIdentifier())) {
+                unchecked.add(transformation);
+            }
+            individuals.add(transformation);
+        }
+
+        // Check and store
+        List<TransformationResult> results = this.checker.check(unchecked, true, ScoreType.INFORMATION_LOSS);
+        for (int i = 0; i < unchecked.size(); i++) {
+            unchecked.get(i).setChecked(results.get(i));
+        }
+
+        // Track
+        for (Transformation<?> transformation : individuals) {
+            trackOptimum(transformation);
+            trackProgressFromLimits();
         }
-        trackOptimum(transformation);
-        trackProgressFromLimits();
-        return transformation;
+        return individuals;
     }
 
     /**
-     * Returns a mutated transformation, which means that a random parent is
+     * Returns a mutated generalization scheme, which means that a random parent is
      * selected. <br>
      * - Randomly generate an integer r, representing the number of mutated
      * places (from 1 to ceil (upper bound on mutation probability * m)) <br>
@@ -284,7 +327,7 @@ public class GeneticAlgorithm extends AbstractAlgorithm {
      * 
      * @return
      */
-    private Transformation<?> getMutatedIndividual(Transformation<?> transformation) {
+    private int[] getMutatedGeneralization(Transformation<?> transformation) {
 
         // Prepare
         int[] generalization = transformation.getGeneralization().clone();
@@ -310,7 +353,7 @@ public class GeneticAlgorithm extends AbstractAlgorithm {
         }
 
         // Done
-        return getIndividual(generalization);
+        return generalization;
     }
 
     /**
@@ -380,14 +423,14 @@ public class GeneticAlgorithm extends AbstractAlgorithm {
     }
 
     /**
-     * Performs one iteration on a sub-population.
+     * Breeds the offspring for one iteration on a sub-population. Returns the
+     * generalization schemes of the crossover individuals followed by the ones of
+     * the mutated individuals.
      * 
      * @param population
+     * @return
      */
-    private void iterateSubpopulation(GeneticAlgorithmSubpopulation population) {
-
-        // Copy old Population
-        GeneticAlgorithmSubpopulation oldPopulation = new GeneticAlgorithmSubpopulation(population);
+    private List<int[]> getOffspring(GeneticAlgorithmSubpopulation population) {
 
         // The population (ordered by fitness descending) consists of 3 groups
         // - First: all individuals in the elite group will remain unchanged
@@ -401,6 +444,7 @@ public class GeneticAlgorithm extends AbstractAlgorithm {
         int crossoverCount = (int) Math.ceil(geneticAlgorithmCrossoverFraction * k);
         int eliteCount = (int) Math.ceil(geneticAlgorithmEliteFraction * k);
         int productionCount = (int) Math.ceil(geneticAlgorithmProductionFraction * k);
+        List<int[]> offspring = new ArrayList<>();
 
         // Crossover individuals
         Transformation<?>[] parents1 = getRandomIndividuals(population, productionCount, crossoverCount);
@@ -412,25 +456,41 @@ public class GeneticAlgorithm extends AbstractAlgorithm {
             for (int i = 0; i < maxLevels.length; i++) {
                 vec[i] = (random.nextDouble() < 0.5 ? parents1[crossover] : parents2[crossover]).getGeneralization()[i];
             }
-
-            // Stop
-            if (mustStop()) { return; }
-
-            // Replace
-            population.setIndividual(k - crossover - 1, getIndividual(vec));
+            offspring.add(vec);
         }
 
-        // Mutate individuals
+        // Mutate individuals of the old population
         for (int mutation = eliteCount; mutation < k - crossoverCount; mutation++) {
+            offspring.add(getMutatedGeneralization(population.getIndividual(random.nextInt(k))));
+        }
 
-            // Mutate
-            Transformation<?> individual = getMutatedIndividual(oldPopulation.getIndividual(random.nextInt(k)));
-            if (individual != null) {
-                population.setIndividual(mutation, individual);
-            }
+        // Done
+        return offspring;
+    }
 
-            // Stop
-            if (mustStop()) { return; }
+    /**
+     * Completes one iteration on a sub-population by replacing individuals with
+     * the given offspring, which must have been bred with <code>getOffspring(population)</code>.
+     * 
+     * @param population
+     * @param offspring
+     */
+    private void setOffspring(GeneticAlgorithmSubpopulation population, List<Transformation<?>> offspring) {
+
+        // Calculate mutation configuration parameters
+        int k = population.individualCount();
+        int crossoverCount = (int) Math.ceil(geneticAlgorithmCrossoverFraction * k);
+        int eliteCount = (int) Math.ceil(geneticAlgorithmEliteFraction * k);
+        int index = 0;
+
+        // Replace with crossover individuals
+        for (int crossover = 0; crossover < crossoverCount; crossover++) {
+            population.setIndividual(k - crossover - 1, offspring.get(index++));
+        }
+
+        // Replace with mutated individuals
+        for (int mutation = eliteCount; mutation < k - crossoverCount; mutation++) {
+            population.setIndividual(mutation, offspring.get(index++));
         }
     }
 }
@@ -17,12 +17,18 @@
 
 package org.deidentifier.arx.algorithm;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
 import java.util.PriorityQueue;
+import java.util.Set;
 
 import org.deidentifier.arx.framework.check.TransformationChecker;
 import org.deidentifier.arx.framework.check.TransformationChecker.ScoreType;
+import org.deidentifier.arx.framework.check.TransformationResult;
 import org.deidentifier.arx.framework.check.history.History.StorageStrategy;
 import org.deidentifier.arx.framework.lattice.SolutionSpace;
 import org.deidentifier.arx.framework.lattice.Transformation;
@@ -57,6 +63,8 @@ public class LIGHTNINGAlgorithm extends AbstractAlgorithm{
         return new LIGHTNINGAlgorithm(solutionSpace, checker, timeLimit, checkLimit);
     }
 
+    /** The number of frontier nodes expanded per step */
+    private final int                frontier;
     /** Property */
     private final PredictiveProperty propertyChecked;
     /** Property */
@@ -78,6 +86,7 @@ public class LIGHTNINGAlgorithm extends AbstractAlgorithm{
         this.checker.getHistory().setStorageStrategy(StorageStrategy.ALL);
         int stepping = space.getTop().getLevel();
         this.stepping = stepping > 0 ? stepping : 1;
+        this.frontier = checker.getNumThreads();
         this.propertyChecked = space.getPropertyChecked();
         this.propertyExpanded = space.getPropertyExpanded();
         this.propertyInsufficientUtility = space.getPropertyInsufficientUtility();
@@ -109,7 +118,7 @@ public class LIGHTNINGAlgorithm extends AbstractAlgorithm{
                 if (step % stepping == 0) {
                     dfs(queue, next);
                 } else {
-                    expand(queue, next, true);
+                    expandFrontier(queue, next, true);
                 }
                 if (mustStop()) {
                     break;
@@ -134,6 +143,31 @@ public class LIGHTNINGAlgorithm extends AbstractAlgorithm{
         }
     }
 
+    /**
+    * Makes sure that the given transformations have been checked. Unchecked transformations
+    * are checked at once, which allows the checker to check them concurrently.
+    * @param transformations
+    */
+    protected void assureChecked(final List<Transformation<?>> transformations) {
+        
+        // Collect
+        List<Transformation<?>> unchecked = new ArrayList<>();
+        for (Transformation<?> transformation : transformations) {
+            if (!transformation.hasProperty(propertyChecked)) {
+                unchecked.add(transformation);
+            }
+        }
+        
+        // Check and store
+        List<TransformationResult> results = checker.check(unchecked, true, ScoreType.INFORMATION_LOSS);
+        for (int i = 0; i < unchecked.size(); i++) {
+            Transformation<?> transformation = unchecked.get(i);
+            transformation.setChecked(results.get(i));
+            trackOptimum(transformation);
+            trackProgressFromLimits();
+        }
+    }
+
     /**
     * Performs a depth first search (without backtracking) starting from the the given transformation
     * @param queue
@@ -159,6 +193,11 @@ public class LIGHTNINGAlgorithm extends AbstractAlgorithm{
     */
     protected Transformation<?> expand(PriorityQueue<Object> queue, Transformation<?> transformation, boolean up) {
         
+        // Check all successors at once
+        if (frontier > 1) {
+            return expand(queue, Collections.<Transformation<?>>singletonList(transformation), up);
+        }
+        
         Transformation<?> result = null;
         TransformationList<?> list = up ? transformation.getSuccessors() : transformation.getPredecessors();
         for (int i = 0; i < list.size(); i++) {
@@ -179,6 +218,90 @@ public class LIGHTNINGAlgorithm extends AbstractAlgorithm{
         return result;
     }
     
+    /**
+    * Expands all given transformations at once. The successors of all transformations are checked
+    * concurrently. Returns the successor with minimal information loss, if any, null otherwise.
+    * @param queue
+    * @param transformations
+    * @param up
+    * @return
+    */
+    protected Transformation<?> expand(PriorityQueue<Object> queue, List<Transformation<?>> transformations, boolean up) {
+        
+        // Collect successors
+        List<Transformation<?>> successors = new ArrayList<>();
+        Set<Object> identifiers = new HashSet<>();
+        for (Transformation<?> transformation : transformations) {
+            TransformationList<?> list = up ? transformation.getSuccessors() : transformation.getPredecessors();
+            for (int i = 0; i < list.size(); i++) {
+                Object id = list.getQuick(i);
+                if (identifiers.add(id)) {
+                    Transformation<?> successor = solutionSpace.getTransformation(id);
+                    if (!successor.hasProperty(propertyExpanded) && !successor.hasProperty(propertyInsufficientUtility)) {
+                        successors.add(successor);
+                    }
+                }
+            }
+        }
+        
+        // Check
+        assureChecked(successors);
+        
+        // Enqueue and find best successor
+        Transformation<?> result = null;
+        for (Transformation<?> successor : successors) {
+            queue.add(successor.getIdentifier());
+            if (result == null || successor.getInformationLoss().compareTo(result.getInformationLoss()) < 0) {
+                result = successor;
+            }
+        }
+        if (mustStop()) {
+            return null;
+        }
+        for (Transformation<?> transformation : transformations) {
+            transformation.setProperty(propertyExpanded);
+        }
+        return result;
+    }
+
+    /**
+    * Expands the given transformation. If transformations are checked concurrently, further
+    * transformations with the highest priority are taken from the queue and expanded as well.
+    * @param queue
+    * @param transformation
+    * @param up
+    */
+    protected void expandFrontier(PriorityQueue<Object> queue, Transformation<?> transformation, boolean up) {
+        if (frontier > 1) {
+            expand(queue, getFrontier(queue, transformation, up), up);
+        } else {
+            expand(queue, transformation, up);
+        }
+    }
+
+    /**
+    * Returns the given transformation and further transformations with the highest priority
+    * from the queue, which are expanded concurrently. Pruned transformations are skipped.
+    * @param queue
+    * @param transformation
+    * @param up
+    * @return
+    */
+    private List<Transformation<?>> getFrontier(PriorityQueue<Object> queue, Transformation<?> transformation, boolean up) {
+        List<Transformation<?>> result = new ArrayList<>();
+        Set<Object> identifiers = new HashSet<>();
+        result.add(transformation);
+        identifiers.add(transformation.getIdentifier());
+        Object id;
+        while (result.size() < frontier && (id = queue.poll()) != null) {
+            Transformation<?> next = solutionSpace.getTransformation(id);
+            if (identifiers.add(id) && !prune(next, up)) {
+                result.add(next);
+            }
+        }
+        return result;
+    }
+
     /**
     * Returns whether we can prune this Transformation
     * @param transformation
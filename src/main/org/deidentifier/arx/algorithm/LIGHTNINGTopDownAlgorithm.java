@@ -74,7 +74,7 @@ public class LIGHTNINGTopDownAlgorithm extends LIGHTNINGAlgorithm {
         while ((nextId = queue.poll()) != null) {
             Transformation<?> next = solutionSpace.getTransformation(nextId);
             if (!prune(next, false)) {
-                expand(queue, next, false);
+                expandFrontier(queue, next, false);
                 if (mustStop()) {
                     break;
                 }
@@ -0,0 +1,579 @@
+/*
+ * ARX Data Anonymization Tool
+ * Copyright 2012 - 2022 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.common;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A minimal generator for class files, which is used to create specialized kernels at runtime.
+ * Classes extend a given super class, may declare private fields and public methods and do not
+ * implement interfaces. Class files are written in version 49, for which the JVM infers the
+ * types of stack frames itself, which means that methods may contain branches without declaring
+ * stack map frames.
+ * <br>
+ * Generation can be disabled by setting the system property {@value #PROPERTY} to false, in which
+ * case callers use loops instead of generated kernels.
+ *
+ * @author Fabian Prasser
+ */
+public class BytecodeGenerator {
+
+    /**
+     * The body of a method.
+     *
+     * @author Fabian Prasser
+     */
+    public class Code {
+
+        /** The code */
+        private final ByteArrayOutputStream code = new ByteArrayOutputStream();
+
+        /** The unresolved branches */
+        private final List<Integer>         branches = new ArrayList<Integer>();
+
+        /** The branches' labels */
+        private final List<Label>           targets  = new ArrayList<Label>();
+
+        /**
+         * Loads a reference from a local variable
+         * @param index
+         * @return
+         */
+        public Code aload(int index) {
+            return local(ALOAD, index);
+        }
+
+        /**
+         * Branches to the given label
+         * @param opcode
+         * @param label
+         * @return
+         */
+        public Code branch(int opcode, Label label) {
+            branches.add(code.size());
+            targets.add(label);
+            code.write(opcode);
+            code.write(0);
+            code.write(0);
+            return this;
+        }
+
+        /**
+         * Reads a field of this class
+         * @param name
+         * @param descriptor
+         * @return
+         */
+        public Code getField(String name, String descriptor) {
+            return reference(GETFIELD, getFieldReference(name, descriptor));
+        }
+
+        /**
+         * Loads an integer from a local variable
+         * @param index
+         * @return
+         */
+        public Code iload(int index) {
+            return local(ILOAD, index);
+        }
+
+        /**
+         * Invokes a constructor or super method
+         * @param owner
+         * @param name
+         * @param descriptor
+         * @return
+         */
+        public Code invokeSpecial(Class<?> owner, String name, String descriptor) {
+            return reference(INVOKESPECIAL, getMethodReference(getInternalName(owner), name, descriptor));
+        }
+
+        /**
+         * Invokes a virtual method
+         * @param owner
+         * @param name
+         * @param descriptor
+         * @return
+         */
+        public Code invokeVirtual(Class<?> owner, String name, String descriptor) {
+            return reference(INVOKEVIRTUAL, getMethodReference(getInternalName(owner), name, descriptor));
+        }
+
+        /**
+         * Marks the position of the given label
+         * @param label
+         * @return
+         */
+        public Code mark(Label label) {
+            label.position = code.size();
+            return this;
+        }
+
+        /**
+         * Writes an instruction without operands
+         * @param opcode
+         * @return
+         */
+        public Code op(int opcode) {
+            code.write(opcode);
+            return this;
+        }
+
+        /**
+         * Pushes an integer constant
+         * @param value
+         * @return
+         */
+        public Code push(int value) {
+            if (value >= -1 && value <= 5) {
+                code.write(ICONST_0 + value);
+            } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+                code.write(BIPUSH);
+                code.write(value);
+            } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+                code.write(SIPUSH);
+                writeShort(value);
+            } else {
+                reference(LDC_W, getConstant(CONSTANT_INTEGER, value));
+            }
+            return this;
+        }
+
+        /**
+         * Writes a field of this class
+         * @param name
+         * @param descriptor
+         * @return
+         */
+        public Code putField(String name, String descriptor) {
+            return reference(PUTFIELD, getFieldReference(name, descriptor));
+        }
+
+        /**
+         * Returns the code with resolved branches
+         * @return
+         */
+        private byte[] getBytes() {
+            byte[] result = code.toByteArray();
+            for (int i = 0; i < branches.size(); i++) {
+                int position = branches.get(i);
+                Label label = targets.get(i);
+                if (label.position == -1) {
+                    throw new IllegalStateException("Unmarked label");
+                }
+                int offset = label.position - position;
+                result[position + 1] = (byte) (offset >>> 8);
+                result[position + 2] = (byte) offset;
+            }
+            return result;
+        }
+
+        /**
+         * Writes an instruction accessing a local variable
+         * @param opcode
+         * @param index
+         * @return
+         */
+        private Code local(int opcode, int index) {
+            code.write(opcode);
+            code.write(index);
+            return this;
+        }
+
+        /**
+         * Writes an instruction referencing the constant pool
+         * @param opcode
+         * @param index
+         * @return
+         */
+        private Code reference(int opcode, int index) {
+            code.write(opcode);
+            writeShort(index);
+            return this;
+        }
+
+        /**
+         * Writes a short value
+         * @param value
+         */
+        private void writeShort(int value) {
+            code.write(value >>> 8);
+            code.write(value);
+        }
+    }
+
+    /**
+     * A branch target.
+     *
+     * @author Fabian Prasser
+     */
+    public static class Label {
+
+        /** The position */
+        private int position = -1;
+    }
+
+    /**
+     * A class loader for generated classes.
+     *
+     * @author Fabian Prasser
+     */
+    private static class Loader extends ClassLoader {
+
+        /**
+         * Creates a new instance
+         * @param parent
+         */
+        private Loader(ClassLoader parent) {
+            super(parent);
+        }
+
+        /**
+         * Defines the given class
+         * @param name
+         * @param bytes
+         * @return
+         */
+        private Class<?> define(String name, byte[] bytes) {
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+    }
+
+    /** Opcode */
+    public static final int     ICONST_0             = 0x03;
+    /** Opcode */
+    public static final int     ICONST_1             = 0x04;
+    /** Opcode */
+    public static final int     BIPUSH               = 0x10;
+    /** Opcode */
+    public static final int     SIPUSH               = 0x11;
+    /** Opcode */
+    public static final int     LDC_W                = 0x13;
+    /** Opcode */
+    public static final int     ILOAD                = 0x15;
+    /** Opcode */
+    public static final int     ALOAD                = 0x19;
+    /** Opcode */
+    public static final int     IALOAD               = 0x2e;
+    /** Opcode */
+    public static final int     AALOAD               = 0x32;
+    /** Opcode */
+    public static final int     IADD                 = 0x60;
+    /** Opcode */
+    public static final int     IAND                 = 0x7e;
+    /** Opcode */
+    public static final int     IF_ICMPEQ            = 0x9f;
+    /** Opcode */
+    public static final int     IF_ICMPNE            = 0xa0;
+    /** Opcode */
+    public static final int     IRETURN              = 0xac;
+    /** Opcode */
+    public static final int     RETURN               = 0xb1;
+    /** Opcode */
+    public static final int     GETFIELD             = 0xb4;
+    /** Opcode */
+    public static final int     PUTFIELD             = 0xb5;
+    /** Opcode */
+    public static final int     INVOKEVIRTUAL        = 0xb6;
+    /** Opcode */
+    public static final int     INVOKESPECIAL        = 0xb7;
+
+    /** Constant pool tag */
+    private static final int    CONSTANT_UTF8        = 1;
+    /** Constant pool tag */
+    private static final int    CONSTANT_INTEGER     = 3;
+    /** Constant pool tag */
+    private static final int    CONSTANT_CLASS       = 7;
+    /** Constant pool tag */
+    private static final int    CONSTANT_FIELDREF    = 9;
+    /** Constant pool tag */
+    private static final int    CONSTANT_METHODREF   = 10;
+    /** Constant pool tag */
+    private static final int    CONSTANT_NAMEANDTYPE = 12;
+
+    /** Access flags */
+    private static final int    ACC_PUBLIC           = 0x0001;
+    /** Access flags */
+    private static final int    ACC_PRIVATE          = 0x0002;
+    /** Access flags */
+    private static final int    ACC_FINAL            = 0x0010;
+    /** Access flags */
+    private static final int    ACC_SUPER            = 0x0020;
+
+    /** Version of the class file format */
+    private static final int    VERSION              = 49;
+
+    /** System property which enables or disables generation */
+    public static final String  PROPERTY             = "org.deidentifier.arx.generateCode";
+
+    /**
+     * Returns the internal name of the given class
+     * @param clazz
+     * @return
+     */
+    public static String getInternalName(Class<?> clazz) {
+        return clazz.getName().replace('.', '/');
+    }
+
+    /**
+     * Returns whether classes may be generated. The default is true.
+     * @return
+     */
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(System.getProperty(PROPERTY, "true"));
+    }
+
+    /** The constant pool */
+    private final ByteArrayOutputStream pool      = new ByteArrayOutputStream();
+
+    /** The indices of constants */
+    private final Map<String, Integer>  constants = new HashMap<String, Integer>();
+
+    /** The number of constant pool entries, plus one */
+    private int                         count     = 1;
+
+    /** The fields */
+    private final List<int[]>           fields    = new ArrayList<int[]>();
+
+    /** The methods */
+    private final List<int[]>           methods   = new ArrayList<int[]>();
+
+    /** The methods' code */
+    private final List<Code>            code      = new ArrayList<Code>();
+
+    /** The name of the class */
+    private final String                name;
+
+    /** The super class */
+    private final Class<?>              superclass;
+
+    /**
+     * Creates a new generator for a class with the given name, extending the given class.
+     * A public constructor without arguments, which calls the constructor of the super
+     * class, is generated automatically.
+     *
+     * @param name
+     * @param superclass
+     */
+    public BytecodeGenerator(String name, Class<?> superclass) {
+        this.name = name;
+        this.superclass = superclass;
+        addMethod("<init>", "()V", 1, 1).aload(0).invokeSpecial(superclass, "<init>", "()V").op(RETURN);
+    }
+
+    /**
+     * Adds a private field
+     * @param name
+     * @param descriptor
+     */
+    public void addField(String name, String descriptor) {
+        fields.add(new int[] { ACC_PRIVATE, getUtf8(name), getUtf8(descriptor) });
+    }
+
+    /**
+     * Adds a public method and returns its body
+     * @param name
+     * @param descriptor
+     * @param maxStack
+     * @param maxLocals
+     * @return
+     */
+    public Code addMethod(String name, String descriptor, int maxStack, int maxLocals) {
+        methods.add(new int[] { ACC_PUBLIC, getUtf8(name), getUtf8(descriptor), maxStack, maxLocals });
+        Code result = new Code();
+        code.add(result);
+        return result;
+    }
+
+    /**
+     * Defines the class in a new class loader with the given parent. The parent
+     * must be able to load all classes referenced by the generated class.
+     *
+     * @param parent
+     * @return
+     */
+    public Class<?> define(ClassLoader parent) {
+        return new Loader(parent).define(name, toByteArray());
+    }
+
+    /**
+     * Returns the class file
+     * @return
+     */
+    public byte[] toByteArray() {
+        try {
+            // Resolve all constants before writing the pool
+            int thisClass = getClass(name.replace('.', '/'));
+            int superClass = getClass(getInternalName(superclass));
+            int attribute = getUtf8("Code");
+            List<byte[]> bodies = new ArrayList<byte[]>();
+            for (Code body : code) {
+                bodies.add(body.getBytes());
+            }
+
+            // Header
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(VERSION);
+            out.writeShort(count);
+            pool.writeTo(out);
+            out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(0);
+
+            // Fields
+            out.writeShort(fields.size());
+            for (int[] field : fields) {
+                out.writeShort(field[0]);
+                out.writeShort(field[1]);
+                out.writeShort(field[2]);
+                out.writeShort(0);
+            }
+
+            // Methods
+            out.writeShort(methods.size());
+            for (int i = 0; i < methods.size(); i++) {
+                int[] method = methods.get(i);
+                byte[] body = bodies.get(i);
+                out.writeShort(method[0]);
+                out.writeShort(method[1]);
+                out.writeShort(method[2]);
+                out.writeShort(1);
+                out.writeShort(attribute);
+                out.writeInt(12 + body.length);
+                out.writeShort(method[3]);
+                out.writeShort(method[4]);
+                out.writeInt(body.length);
+                out.write(body);
+                out.writeShort(0);
+                out.writeShort(0);
+            }
+
+            // Attributes
+            out.writeShort(0);
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Returns the index of a class constant
+     * @param internalName
+     * @return
+     */
+    private int getClass(String internalName) {
+        return getConstant(CONSTANT_CLASS, getUtf8(internalName));
+    }
+
+    /**
+     * Returns the index of a constant with a single reference or value
+     * @param tag
+     * @param value
+     * @return
+     */
+    private int getConstant(int tag, int value) {
+        return getConstant(tag + ":" + value, tag == CONSTANT_INTEGER ? new int[] { tag, value >>> 16, value & 0xffff } : new int[] { tag, value });
+    }
+
+    /**
+     * Returns the index of the given constant, which consists of a tag and a sequence of shorts
+     * @param key
+     * @param entry
+     * @return
+     */
+    private int getConstant(String key, int[] entry) {
+        Integer index = constants.get(key);
+        if (index == null) {
+            pool.write(entry[0]);
+            for (int i = 1; i < entry.length; i++) {
+                pool.write(entry[i] >>> 8);
+                pool.write(entry[i]);
+            }
+            index = count++;
+            constants.put(key, index);
+        }
+        return index;
+    }
+
+    /**
+     * Returns the index of a reference to a field of this class
+     * @param field
+     * @param descriptor
+     * @return
+     */
+    private int getFieldReference(String field, String descriptor) {
+        return getMemberReference(CONSTANT_FIELDREF, name.replace('.', '/'), field, descriptor);
+    }
+
+    /**
+     * Returns the index of a reference to a member
+     * @param tag
+     * @param owner
+     * @param member
+     * @param descriptor
+     * @return
+     */
+    private int getMemberReference(int tag, String owner, String member, String descriptor) {
+        int nameAndType = getConstant("12:" + member + ":" + descriptor, new int[] { CONSTANT_NAMEANDTYPE, getUtf8(member), getUtf8(descriptor) });
+        int clazz = getClass(owner);
+        return getConstant(tag + ":" + owner + "." + member + ":" + descriptor, new int[] { tag, clazz, nameAndType });
+    }
+
+    /**
+     * Returns the index of a reference to a method
+     * @param owner
+     * @param method
+     * @param descriptor
+     * @return
+     */
+    private int getMethodReference(String owner, String method, String descriptor) {
+        return getMemberReference(CONSTANT_METHODREF, owner, method, descriptor);
+    }
+
+    /**
+     * Returns the index of an utf8 constant. Names and descriptors only contain ASCII characters.
+     * @param value
+     * @return
+     */
+    private int getUtf8(String value) {
+        String key = "1:" + value;
+        Integer index = constants.get(key);
+        if (index == null) {
+            pool.write(CONSTANT_UTF8);
+            pool.write(value.length() >>> 8);
+            pool.write(value.length());
+            for (int i = 0; i < value.length(); i++) {
+                pool.write(value.charAt(i));
+            }
+            index = count++;
+            constants.put(key, index);
+        }
+        return index;
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * ARX Data Anonymization Tool
+ * Copyright 2012 - 2022 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.common;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+import cern.colt.function.IntComparator;
+
+/**
+ * A priority queue of primitive integers, implemented as a binary min-heap.
+ * Elements are ordered in exactly the same way as by <code>java.util.PriorityQueue</code>,
+ * including the handling of elements which are equal according to the comparator,
+ * but values are not boxed.
+ *
+ * @author Fabian Prasser
+ */
+public class IntPriorityQueue {
+
+    /** The comparator */
+    private final IntComparator comparator;
+
+    /** The heap */
+    private int[]               heap;
+
+    /** The number of elements */
+    private int                 size;
+
+    /**
+     * Creates a new instance
+     * @param capacity
+     * @param comparator
+     */
+    public IntPriorityQueue(int capacity, IntComparator comparator) {
+        this.heap = new int[Math.max(1, capacity)];
+        this.comparator = comparator;
+        this.size = 0;
+    }
+
+    /**
+     * Adds an element
+     * @param value
+     */
+    public void add(int value) {
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, heap.length < 64 ? heap.length * 2 + 2 : heap.length + (heap.length >> 1));
+        }
+        siftUp(size++, value);
+    }
+
+    /**
+     * Removes all elements
+     */
+    public void clear() {
+        this.size = 0;
+    }
+
+    /**
+     * Returns whether the queue is empty
+     * @return
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the smallest element without removing it
+     * @return
+     */
+    public int peek() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return heap[0];
+    }
+
+    /**
+     * Removes and returns the smallest element
+     * @return
+     */
+    public int poll() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        int result = heap[0];
+        int last = heap[--size];
+        if (size != 0) {
+            siftDown(0, last);
+        }
+        return result;
+    }
+
+    /**
+     * Removes a single instance of the given element, if present
+     * @param value
+     * @return Whether the element has been removed
+     */
+    public boolean remove(int value) {
+        for (int i = 0; i < size; i++) {
+            if (heap[i] == value) {
+                removeAt(i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of elements
+     * @return
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes the element at the given index
+     * @param index
+     */
+    private void removeAt(int index) {
+        int last = heap[--size];
+        if (index != size) {
+            siftDown(index, last);
+            if (heap[index] == last) {
+                siftUp(index, last);
+            }
+        }
+    }
+
+    /**
+     * Inserts the value at the given index and moves it down until it is
+     * less than or equal to its children
+     * @param index
+     * @param value
+     */
+    private void siftDown(int index, int value) {
+        int half = size >>> 1;
+        while (index < half) {
+            int child = (index << 1) + 1;
+            int right = child + 1;
+            if (right < size && comparator.compare(heap[child], heap[right]) > 0) {
+                child = right;
+            }
+            if (comparator.compare(value, heap[child]) <= 0) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = value;
+    }
+
+    /**
+     * Inserts the value at the given index and moves it up until it is
+     * greater than or equal to its parent
+     * @param index
+     * @param value
+     */
+    private void siftUp(int index, int value) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (comparator.compare(value, heap[parent]) >= 0) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = value;
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * ARX Data Anonymization Tool
+ * Copyright 2012 - 2022 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.common;
+
+import java.util.Random;
+
+import org.apache.commons.math3.distribution.NormalDistribution;
+
+/**
+ * Utility for estimating the relative number of matching values from a random sample,
+ * which is enlarged until the estimate is precise enough.
+ * 
+ * @author Fabian Prasser
+ */
+public class SamplingUtil {
+
+    /** Seed for sampling values */
+    private static final long SEED = 0xDEADBEEF;
+
+    /**
+     * Returns a random permutation of the given number of indices. The permutation
+     * is deterministic for a given length.
+     * 
+     * @param length
+     * @return
+     */
+    public static int[] getPermutation(int length) {
+        Random random = new Random(SEED);
+        int[] permutation = new int[length];
+        for (int i = 0; i < length; i++) {
+            permutation[i] = i;
+        }
+        for (int i = length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int temp = permutation[i];
+            permutation[i] = permutation[j];
+            permutation[j] = temp;
+        }
+        return permutation;
+    }
+
+    /**
+     * Returns the quantile of the standard normal distribution for a two-sided
+     * confidence interval with the given confidence level
+     * 
+     * @param confidence Confidence level in ]0, 1[
+     * @return
+     */
+    public static double getQuantile(double confidence) {
+        return new NormalDistribution().inverseCumulativeProbability(1d - (1d - confidence) / 2d);
+    }
+
+    /**
+     * Returns the lower and upper bound of the Wilson score interval of the relative
+     * number of matching values in a sample
+     * 
+     * @param matches Number of matching values
+     * @param sampled Number of sampled values
+     * @param z Quantile of the standard normal distribution
+     * @return
+     */
+    public static double[] getWilsonScoreInterval(int matches, int sampled, double z) {
+        double n = sampled;
+        double p = (double) matches / n;
+        double z2 = z * z;
+        double denominator = 1d + z2 / n;
+        double center = (p + z2 / (2d * n)) / denominator;
+        double width = z * Math.sqrt(p * (1d - p) / n + z2 / (4d * n * n)) / denominator;
+        return new double[] { center - width, center + width };
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * ARX Data Anonymization Tool
+ * Copyright 2012 - 2022 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.common;
+
+import com.carrotsearch.hppc.LongObjectOpenHashMap;
+
+/**
+ * A thread-safe map with primitive long keys. Keys are distributed to a fixed
+ * number of stripes using golden ratio hashing. Each stripe is a separate map
+ * guarded by its own lock, which means that threads accessing different stripes
+ * do not contend with each other. Keys are not boxed.
+ *
+ * @author Fabian Prasser
+ * @param <V>
+ */
+public class StripedLongObjectMap<V> {
+
+    /** Default number of stripes */
+    private static final int                 DEFAULT_STRIPES = 64;
+
+    /** The stripes */
+    private final LongObjectOpenHashMap<V>[] stripes;
+
+    /** The shift for computing the stripe */
+    private final int                        shift;
+
+    /**
+     * Creates a new instance with a default number of stripes
+     */
+    public StripedLongObjectMap() {
+        this(DEFAULT_STRIPES);
+    }
+
+    /**
+     * Creates a new instance. The number of stripes is rounded up to the next power of two.
+     * @param stripes
+     */
+    @SuppressWarnings("unchecked")
+    public StripedLongObjectMap(int stripes) {
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("Number of stripes must be > 0");
+        }
+        int bits = 32 - Integer.numberOfLeadingZeros(stripes - 1);
+        this.stripes = (LongObjectOpenHashMap<V>[]) new LongObjectOpenHashMap<?>[1 << bits];
+        this.shift = 32 - bits;
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new LongObjectOpenHashMap<V>();
+        }
+    }
+
+    /**
+     * Removes all entries
+     */
+    public void clear() {
+        for (LongObjectOpenHashMap<V> stripe : stripes) {
+            synchronized (stripe) {
+                stripe.clear();
+            }
+        }
+    }
+
+    /**
+     * Returns whether the map contains the given key
+     * @param key
+     * @return
+     */
+    public boolean containsKey(long key) {
+        LongObjectOpenHashMap<V> stripe = getStripe(key);
+        synchronized (stripe) {
+            return stripe.containsKey(key);
+        }
+    }
+
+    /**
+     * Returns the value associated with the given key, <code>null</code> if there is none
+     * @param key
+     * @return
+     */
+    public V get(long key) {
+        LongObjectOpenHashMap<V> stripe = getStripe(key);
+        synchronized (stripe) {
+            return stripe.get(key);
+        }
+    }
+
+    /**
+     * Associates the given value with the given key. Returns the previous value
+     * or <code>null</code> if there was none.
+     * @param key
+     * @param value
+     * @return
+     */
+    public V put(long key, V value) {
+        LongObjectOpenHashMap<V> stripe = getStripe(key);
+        synchronized (stripe) {
+            return stripe.put(key, value);
+        }
+    }
+
+    /**
+     * Returns the number of entries
+     * @return
+     */
+    public int size() {
+        int size = 0;
+        for (LongObjectOpenHashMap<V> stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Returns the stripe responsible for the given key
+     * @param key
+     * @return
+     */
+    private LongObjectOpenHashMap<V> getStripe(long key) {
+        int hash = (int) (key ^ (key >>> 32)) * 0x9E3779B9;
+        return shift == 32 ? stripes[0] : stripes[hash >>> shift];
+    }
+}
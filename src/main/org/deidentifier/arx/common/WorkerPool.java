@@ -0,0 +1,116 @@
+/*
+ * ARX Data Anonymization Tool
+ * Copyright 2012 - 2022 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.common;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A pool of daemon worker threads. Idle threads terminate after a short
+ * timeout, so pools do not need to be shut down explicitly.
+ *
+ * @author Fabian Prasser
+ */
+public class WorkerPool {
+
+    /** Idle time in ms after which worker threads terminate */
+    private static final long        KEEP_ALIVE = 1000L;
+
+    /** The executor */
+    private final ThreadPoolExecutor executor;
+
+    /** The number of threads */
+    private final int                threads;
+
+    /**
+     * Creates a new instance
+     * @param threads
+     */
+    public WorkerPool(int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Number of threads must be > 0");
+        }
+        this.threads = threads;
+        this.executor = new ThreadPoolExecutor(threads, threads, KEEP_ALIVE, TimeUnit.MILLISECONDS,
+                                               new LinkedBlockingQueue<Runnable>(),
+                                               new ThreadFactory() {
+                                                   @Override
+                                                   public Thread newThread(Runnable runnable) {
+                                                       Thread thread = new Thread(runnable, "ARX worker");
+                                                       thread.setDaemon(true);
+                                                       return thread;
+                                                   }
+                                               });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Returns the number of threads
+     * @return
+     */
+    public int getNumThreads() {
+        return this.threads;
+    }
+
+    /**
+     * Executes all tasks and waits for their completion. Results are returned in the
+     * order of the tasks. Runtime exceptions and errors thrown by a task are re-thrown.
+     *
+     * @param tasks
+     * @return
+     */
+    public <T> List<T> invokeAll(List<? extends Callable<T>> tasks) {
+
+        // Execute
+        List<Future<T>> futures;
+        try {
+            futures = executor.invokeAll(tasks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for workers", e);
+        }
+
+        // Collect
+        List<T> result = new ArrayList<T>(futures.size());
+        for (Future<T> future : futures) {
+            try {
+                result.add(future.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting for workers", e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                } else if (cause instanceof Error) {
+                    throw (Error) cause;
+                } else {
+                    throw new RuntimeException(cause);
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -67,6 +67,19 @@ public class HierarchicalDistanceTCloseness extends TCloseness {
         return new HierarchicalDistanceTCloseness(this.getAttribute(), this.getT(), this.hierarchy);
     }
     
+    @Override
+    public PrivacyCriterionContext createEvaluationContext() {
+        
+        // Each context works on a private copy of the tree
+        final int[] tree = this.tree.clone();
+        return new PrivacyCriterionContext(this) {
+            @Override
+            public boolean isAnonymous(Transformation<?> transformation, HashGroupifyEntry entry) {
+                return HierarchicalDistanceTCloseness.this.isAnonymous(entry, tree);
+            }
+        };
+    }
+    
     /**
      * Returns the hierarchy backing the EMD calculations.
      *
@@ -86,6 +99,35 @@ public class HierarchicalDistanceTCloseness extends TCloseness {
 
     @Override
     public boolean isAnonymous(Transformation<?> node, HashGroupifyEntry entry) {
+        return this.isAnonymous(entry, this.tree);
+    }
+    
+	@Override
+    public boolean isLocalRecodingSupported() {
+        return true;
+    }
+
+    @Override
+    public ElementData render() {
+        ElementData result = new ElementData("t-Closeness");
+        result.addProperty("Attribute", attribute);
+        result.addProperty("Threshold (t)", this.t);
+        result.addProperty("Distance", "Hierarchical");
+        return result;
+    }
+
+    @Override
+	public String toString() {
+		return t+"-closeness with hierarchical ground-distance for attribute '"+attribute+"'";
+	}
+
+    /**
+     * Evaluates the criterion using the given tree as scratch space
+     * @param entry
+     * @param tree
+     * @return
+     */
+    private boolean isAnonymous(HashGroupifyEntry entry, int[] tree) {
         
         // Empty data in tree
         System.arraycopy(empty, 0, tree, start, empty.length);
@@ -165,23 +207,4 @@ public class HierarchicalDistanceTCloseness extends TCloseness {
         // check
         return cost <= t;
     }
-    
-	@Override
-    public boolean isLocalRecodingSupported() {
-        return true;
-    }
-
-    @Override
-    public ElementData render() {
-        ElementData result = new ElementData("t-Closeness");
-        result.addProperty("Attribute", attribute);
-        result.addProperty("Threshold (t)", this.t);
-        result.addProperty("Distance", "Hierarchical");
-        return result;
-    }
-
-    @Override
-	public String toString() {
-		return t+"-closeness with hierarchical ground-distance for attribute '"+attribute+"'";
-	}
 }
@@ -74,6 +74,17 @@ public abstract class PrivacyCriterion implements Serializable{
         return this.clone();
     }
     
+    /**
+     * Creates a context for evaluating this criterion from a single worker thread. Criteria that modify
+     * internal state in isAnonymous() must override this method and return a context that owns a private
+     * copy of this state. Must only be called after the criterion has been initialized.
+     * 
+     * @return
+     */
+    public PrivacyCriterionContext createEvaluationContext() {
+        return new PrivacyCriterionContext(this);
+    }
+
     /**
      * If a privacy model uses a data subset, it must overwrite this method
      * @return
@@ -172,7 +183,9 @@ public abstract class PrivacyCriterion implements Serializable{
     }
     
     /**
-     * Implement this, to enforce the criterion.
+     * Implement this, to enforce the criterion. This method may be called concurrently, if
+     * it does not modify the state of the criterion. Otherwise, createEvaluationContext()
+     * must be overridden.
      * @param node TODO
      * @param entry
      *
@@ -0,0 +1,68 @@
+/*
+ * ARX Data Anonymization Tool
+ * Copyright 2012 - 2022 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.criteria;
+
+import org.deidentifier.arx.framework.check.groupify.HashGroupifyEntry;
+import org.deidentifier.arx.framework.lattice.Transformation;
+
+/**
+ * A context for evaluating a privacy criterion within a single worker thread.
+ * Contexts are created via {@link PrivacyCriterion#createEvaluationContext()} after
+ * the criterion has been initialized. A context may own mutable scratch state and
+ * must therefore never be shared between threads. Different contexts of the same
+ * criterion may be used concurrently.<br>
+ * <br>
+ * The default implementation delegates to the criterion, which is correct for all
+ * criteria that do not modify their state in
+ * {@link PrivacyCriterion#isAnonymous(Transformation, HashGroupifyEntry)}.
+ *
+ * @author Fabian Prasser
+ */
+public class PrivacyCriterionContext {
+
+    /** The criterion */
+    private final PrivacyCriterion criterion;
+
+    /**
+     * Creates a new instance
+     * @param criterion
+     */
+    protected PrivacyCriterionContext(PrivacyCriterion criterion) {
+        this.criterion = criterion;
+    }
+
+    /**
+     * Returns the criterion evaluated by this context
+     * @return
+     */
+    public PrivacyCriterion getCriterion() {
+        return this.criterion;
+    }
+
+    /**
+     * Evaluates the criterion for the given equivalence class. Implementations must only
+     * modify state owned by this context.
+     *
+     * @param transformation
+     * @param entry
+     * @return
+     */
+    public boolean isAnonymous(Transformation<?> transformation, HashGroupifyEntry entry) {
+        return this.criterion.isAnonymous(transformation, entry);
+    }
+}
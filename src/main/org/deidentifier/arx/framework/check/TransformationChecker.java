@@ -17,8 +17,15 @@
 
 package org.deidentifier.arx.framework.check;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.deidentifier.arx.ARXConfiguration;
 import org.deidentifier.arx.ARXConfiguration.ARXConfigurationInternal;
+import org.deidentifier.arx.common.WorkerPool;
 import org.deidentifier.arx.framework.check.TransformationCheckerStateMachine.Transition;
 import org.deidentifier.arx.framework.check.distribution.IntArrayDictionary;
 import org.deidentifier.arx.framework.check.groupify.HashGroupify;
@@ -90,6 +97,27 @@ public class TransformationChecker {
     /** Count the number of checks performed */
     private int                                     numChecksPerformed = 0;
 
+    /** The generalized input data */
+    private final DataMatrix                        input;
+
+    /** The analyzed input data */
+    private final DataMatrix                        analyzed;
+
+    /** A history threshold */
+    private final double                            snapshotSizeDataset;
+
+    /** A history threshold */
+    private final double                            snapshotSizeSnapshot;
+
+    /** The number of threads to use for checking transformations, 0 for workers */
+    private final int                               threads;
+
+    /** Worker pool for checking transformations, created on demand */
+    private WorkerPool                              workerPool;
+
+    /** Checkers used by the workers, created on demand */
+    private TransformationChecker[]                 workers;
+
     /**
      * Creates a new transformation checker.
      * 
@@ -108,6 +136,42 @@ public class TransformationChecker {
                                  final double snapshotSizeDataset,
                                  final double snapshotSizeSnapshot,
                                  final SolutionSpace<?> solutionSpace) {
+        this(manager,
+             metric,
+             config,
+             historyMaxSize,
+             snapshotSizeDataset,
+             snapshotSizeSnapshot,
+             solutionSpace,
+             manager.getDataGeneralized().getArray(),
+             manager.getDataAnalyzed().getArray(),
+             config.getNumberOfThreads());
+    }
+
+    /**
+     * Creates a new transformation checker.
+     * 
+     * @param manager The manager
+     * @param metric The metric
+     * @param config The configuration
+     * @param historyMaxSize The history max size
+     * @param snapshotSizeDataset A history threshold
+     * @param snapshotSizeSnapshot A history threshold
+     * @param solutionSpace
+     * @param input The generalized input data
+     * @param analyzed The analyzed input data
+     * @param threads The number of threads to use for checking transformations
+     */
+    private TransformationChecker(final DataManager manager,
+                                  final Metric<?> metric,
+                                  final ARXConfigurationInternal config,
+                                  final int historyMaxSize,
+                                  final double snapshotSizeDataset,
+                                  final double snapshotSizeSnapshot,
+                                  final SolutionSpace<?> solutionSpace,
+                                  final DataMatrix input,
+                                  final DataMatrix analyzed,
+                                  final int threads) {
         
         // Store data
         this.metric = metric;
@@ -116,6 +180,11 @@ public class TransformationChecker {
         this.dataGeneralized = manager.getDataGeneralized();
         this.solutionSpace = solutionSpace;
         this.minimalClassSizeRequired = config.getMinimalGroupSize() != Integer.MAX_VALUE;
+        this.input = input;
+        this.analyzed = analyzed;
+        this.snapshotSizeDataset = snapshotSizeDataset;
+        this.snapshotSizeSnapshot = snapshotSizeSnapshot;
+        this.threads = threads;
         
         // Initialize all operators
         int initialSize = (int) (manager.getDataGeneralized().getDataLength() * 0.01d);
@@ -130,7 +199,7 @@ public class TransformationChecker {
             dictionarySensFreq = new IntArrayDictionary(0);
         }
         
-        this.history = new History(manager.getDataGeneralized().getArray().getNumRows(),
+        this.history = new History(input.getNumRows(),
                                    historyMaxSize,
                                    snapshotSizeDataset,
                                    snapshotSizeSnapshot,
@@ -140,25 +209,29 @@ public class TransformationChecker {
                                    solutionSpace);
         
         this.stateMachine = new TransformationCheckerStateMachine(history);
-        this.transformer = new Transformer(manager.getDataGeneralized().getArray(),
-                                           manager.getDataAnalyzed().getArray(),
+        this.transformer = new Transformer(input,
+                                           analyzed,
                                            manager.getAggregationInformation().getHotThreshold(),
                                            manager.getHierarchies(),
                                            config,
                                            dictionarySensValue,
                                            dictionarySensFreq);
         
+        // Groupify operators of workers analyze classes sequentially
+        int analysisThreads = threads == 0 ? 1 : threads;
         this.currentGroupify = new HashGroupify(initialSize, config, manager.getAggregationInformation().getHotThreshold(),
-                                                manager.getDataGeneralized().getArray(),
+                                                input,
                                                 transformer.getBuffer(),
-                                                manager.getDataAnalyzed().getArray(),
-                                                manager.getDataGeneralized().getDictionary().getSuppressedCodes());
+                                                analyzed,
+                                                manager.getDataGeneralized().getDictionary().getSuppressedCodes(),
+                                                analysisThreads);
         
         this.lastGroupify = new HashGroupify(initialSize, config, manager.getAggregationInformation().getHotThreshold(),
-                                             manager.getDataGeneralized().getArray(),
+                                             input,
                                              transformer.getBuffer(),
-                                             manager.getDataAnalyzed().getArray(),
-                                             manager.getDataGeneralized().getDictionary().getSuppressedCodes());
+                                             analyzed,
+                                             manager.getDataGeneralized().getDictionary().getSuppressedCodes(),
+                                             analysisThreads);
     }
 
     /**
@@ -188,7 +261,7 @@ public class TransformationChecker {
         }
         
         // Store snapshot from last check
-        if (stateMachine.getLastTransformation() != null) {
+        if (stateMachine.getLastTransformation() != null && history.getSize() != 0) {
             history.store(solutionSpace.getTransformation(stateMachine.getLastTransformation()), currentGroupify, stateMachine.getLastTransition().snapshot);
         }
         
@@ -246,6 +319,72 @@ public class TransformationChecker {
                                       bound);
     }
     
+    /**
+     * Checks the given transformations. If more than one thread has been configured,
+     * the transformations are checked concurrently by independent checkers, which do
+     * not use the history of this instance. Results are returned in the order of the
+     * given transformations and do not depend on the number of threads. The solution
+     * space is not modified, i.e. the caller must store the results.
+     * 
+     * @param nodes
+     * @param forceMeasureInfoLoss
+     * @param scoreType
+     * @return
+     */
+    public List<TransformationResult> check(final List<Transformation<?>> nodes, 
+                                            final boolean forceMeasureInfoLoss, 
+                                            final ScoreType scoreType) {
+        
+        // Check sequentially
+        if (threads <= 1 || nodes.size() <= 1) {
+            List<TransformationResult> result = new ArrayList<TransformationResult>(nodes.size());
+            for (Transformation<?> node : nodes) {
+                result.add(check(node, forceMeasureInfoLoss, scoreType));
+            }
+            return result;
+        }
+        
+        // Prepare workers
+        if (workerPool == null) {
+            workerPool = new WorkerPool(threads);
+            workers = new TransformationChecker[threads];
+            for (int i = 0; i < threads; i++) {
+                workers[i] = new TransformationChecker(manager,
+                                                       metric,
+                                                       config,
+                                                       0,
+                                                       snapshotSizeDataset,
+                                                       snapshotSizeSnapshot,
+                                                       solutionSpace,
+                                                       input.getView(),
+                                                       analyzed == null ? null : analyzed.getView(),
+                                                       0);
+            }
+        }
+        
+        // Each worker takes the next transformation, until all have been checked
+        final TransformationResult[] results = new TransformationResult[nodes.size()];
+        final AtomicInteger next = new AtomicInteger(0);
+        List<Callable<Void>> tasks = new ArrayList<Callable<Void>>(threads);
+        for (int i = 0; i < threads; i++) {
+            final TransformationChecker worker = workers[i];
+            tasks.add(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    for (int index = next.getAndIncrement(); index < results.length; index = next.getAndIncrement()) {
+                        results[index] = worker.check(nodes.get(index), forceMeasureInfoLoss, scoreType);
+                    }
+                    return null;
+                }
+            });
+        }
+        
+        // Execute
+        workerPool.invokeAll(tasks);
+        numChecksPerformed += results.length;
+        return Arrays.asList(results);
+    }
+    
     /**
      * Returns an associated transformation applicator
      * @return
@@ -303,6 +442,14 @@ public class TransformationChecker {
         return this.numChecksPerformed;
     }
     
+    /**
+     * Returns the number of threads used for checking transformations
+     * @return
+     */
+    public int getNumThreads() {
+        return this.threads == 0 ? 1 : this.threads;
+    }
+    
     /**
      * Returns the output buffer
      * @return
@@ -320,5 +467,7 @@ public class TransformationChecker {
         history.setSize(0);
         currentGroupify.stateClear();
         lastGroupify.stateClear();
+        workers = null;
+        workerPool = null;
     }
 }
\ No newline at end of file
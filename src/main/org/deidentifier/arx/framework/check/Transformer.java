@@ -39,6 +39,8 @@ import org.deidentifier.arx.framework.check.transformer.Transformer13;
 import org.deidentifier.arx.framework.check.transformer.Transformer14;
 import org.deidentifier.arx.framework.check.transformer.Transformer15;
 import org.deidentifier.arx.framework.check.transformer.TransformerAll;
+import org.deidentifier.arx.framework.check.transformer.TransformerGenerated;
+import org.deidentifier.arx.framework.check.transformer.TransformerKernel;
 import org.deidentifier.arx.framework.data.DataMatrix;
 import org.deidentifier.arx.framework.data.GeneralizationHierarchy;
 
@@ -74,6 +76,9 @@ public class Transformer {
     /** The instances. */
     protected final AbstractTransformer[]     instances;
 
+    /** Instances for more than 15 columns, created lazily while holding the lock of the array. Null if not supported. */
+    protected final AbstractTransformer[]     generated;
+
     /** The buffer. */
     protected DataMatrix                      outputGeneralized;
 
@@ -104,6 +109,7 @@ public class Transformer {
         this.dataAnalyzedNumberOfColumns = dataAnalyzedNumberOfColumns;
         this.hierarchies = hierarchies;
         this.instances = new AbstractTransformer[16];
+        this.generated = new AbstractTransformer[inputGeneralized.getNumColumns() + 1];
         this.outputGeneralized = new DataMatrix(inputGeneralized.getNumRows(), 
                                                 inputGeneralized.getNumColumns());
 
@@ -148,6 +154,7 @@ public class Transformer {
 
         // Build just one applicator
         this.instances = new AbstractTransformer[1];
+        this.generated = null;
         this.instances[0] = new TransformerAll(inputGeneralized,
                                                hierarchies,
                                                inputAnalyzed,
@@ -413,10 +420,25 @@ public class Transformer {
      */
     protected AbstractTransformer getTransformer(final long projection) {
         final int index = dimensions - Long.bitCount(projection);
-        if (index > (instances.length - 1)) {
-            return instances[0];
-        } else {
+        if (index <= (instances.length - 1)) {
             return instances[index];
+        } else if (generated != null) {
+            synchronized (generated) {
+                if (generated[index] == null) {
+                    TransformerKernel kernel = TransformerKernel.create(index);
+                    generated[index] = kernel == null ? instances[0] : new TransformerGenerated(kernel,
+                                                                                                inputGeneralized,
+                                                                                                hierarchies,
+                                                                                                inputAnalyzed,
+                                                                                                dataAnalyzedNumberOfColumns,
+                                                                                                dictionarySensValue,
+                                                                                                dictionarySensFreq,
+                                                                                                config);
+                }
+                return generated[index];
+            }
+        } else {
+            return instances[0];
         }
     }
 }
@@ -17,11 +17,19 @@
 
 package org.deidentifier.arx.framework.check.groupify;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.deidentifier.arx.ARXConfiguration.ARXConfigurationInternal;
 import org.deidentifier.arx.RowSet;
+import org.deidentifier.arx.common.WorkerPool;
 import org.deidentifier.arx.criteria.DPresence;
 import org.deidentifier.arx.criteria.Inclusion;
 import org.deidentifier.arx.criteria.PrivacyCriterion;
+import org.deidentifier.arx.criteria.PrivacyCriterionContext;
 import org.deidentifier.arx.criteria.SampleBasedCriterion;
 import org.deidentifier.arx.framework.check.distribution.Distribution;
 import org.deidentifier.arx.framework.check.distribution.DistributionAggregateFunction;
@@ -43,9 +51,18 @@ import com.carrotsearch.hppc.ObjectIntOpenHashMap;
  */
 public class HashGroupify {
 
+    /** Minimal number of classes for which the analysis is performed in parallel */
+    private static final int             PARALLEL_ANALYSIS_MIN_CLASSES = 10000;
+
+    /** Number of classes analyzed by a worker at once */
+    private static final int             PARALLEL_ANALYSIS_CHUNK_SIZE  = 1024;
+
     /** Criteria. */
     private final PrivacyCriterion[]     classBasedCriteria;
 
+    /** Contexts for evaluating the criteria from the calling thread. */
+    private final PrivacyCriterionContext[] classBasedCriteriaContexts;
+
     /** The current number of outliers. */
     private int                          currentNumOutliers;
 
@@ -112,6 +129,15 @@ public class HashGroupify {
     /** Hash code of fully generalized records*/
     private final int                    suppressedHashCode;
 
+    /** Number of threads for analyzing classes */
+    private final int                    analysisThreads;
+
+    /** Worker pool for analyzing classes, created on demand */
+    private WorkerPool                   analysisPool;
+
+    /** Contexts for evaluating the criteria, one array per worker, created on demand */
+    private PrivacyCriterionContext[][]  analysisContexts;
+
     /**
      * Constructs a new hash groupify operator.
      *
@@ -130,6 +156,29 @@ public class HashGroupify {
                         DataMatrix output,
                         DataMatrix analyzed,
                         int[] suppressedCodes) {
+        this(capacity, config, dataAnalyzedNumberOfColumns, input, output, analyzed, suppressedCodes, config.getNumberOfThreads());
+    }
+
+    /**
+     * Constructs a new hash groupify operator.
+     *
+     * @param capacity The capacity
+     * @param aggregation The aggregation information
+     * @param config The config
+     * @param input
+     * @param output
+     * @param analyzed
+     * @param suppressedCodes
+     * @param analysisThreads The number of threads to use for analyzing classes
+     */
+    public HashGroupify(int capacity, 
+                        ARXConfigurationInternal config,
+                        int dataAnalyzedNumberOfColumns,
+                        DataMatrix input,
+                        DataMatrix output,
+                        DataMatrix analyzed,
+                        int[] suppressedCodes,
+                        int analysisThreads) {
         
         // Store
         this.dataInput = input;
@@ -150,6 +199,7 @@ public class HashGroupify {
         this.suppressionLimit = config.getAbsoluteSuppressionLimit();
         this.utilityMeasure = config.getQualityModel();
         this.heuristicForSampleBasedCriteria = config.isUseHeuristicForSampleBasedCriteria();
+        this.analysisThreads = analysisThreads;
         
         // Extract research subset
         if (config.getSubset() != null) {
@@ -173,6 +223,9 @@ public class HashGroupify {
         
         // Remember, if (real) d-presence is part of the criteria that must be enforced
         privacyModelContainsDPresence = (classBasedCriteria.length > 0 && (classBasedCriteria[0] instanceof DPresence) && !(classBasedCriteria[0] instanceof Inclusion));
+        
+        // Prepare evaluation
+        this.classBasedCriteriaContexts = createEvaluationContexts();
     }
     
     /**
@@ -554,41 +607,128 @@ public class HashGroupify {
         // We have only checked k-anonymity so far
         minimalClassSizeFulfilled = (currentNumOutliers <= suppressionLimit);
         
-        // Iterate over all classes
+        // Analyze in parallel
         boolean dpresent = true;
-        currentNumOutliers = 0;
-        HashGroupifyEntry entry = hashTableFirstEntry;
-        while (entry != null) {
-            
-            // Check for anonymity
-            int anonymous = isPrivacyModelFulfilled(transformation, entry);
-            
-            // Determine outliers
-            if (anonymous != -1) {
+        if (isAnalyzeClassesInParallel()) {
+            dpresent = analyzeClassesInParallel(transformation, false);
+        } else {
+        
+            // Iterate over all classes
+            currentNumOutliers = 0;
+            HashGroupifyEntry entry = hashTableFirstEntry;
+            while (entry != null) {
                 
-                // Note: If d-presence exists, it is stored at criteria[0] by convention.
-                // If it fails, isAnonymous(entry) thus returns 1.
-                // Tuples from the public table that have no matching candidates in the private table
-                // and that do not fulfill d-presence cannot be suppressed. In this case, the whole
-                // transformation must be considered to not fulfill the privacy criteria.
-                if (privacyModelContainsDPresence && entry.count == 0 && anonymous == 1) {
-                    dpresent = false;
+                // Check for anonymity
+                int anonymous = isPrivacyModelFulfilled(transformation, entry, classBasedCriteriaContexts);
+                
+                // Determine outliers
+                if (anonymous != -1) {
+                    
+                    // Note: If d-presence exists, it is stored at criteria[0] by convention.
+                    // If it fails, isAnonymous(entry) thus returns 1.
+                    // Tuples from the public table that have no matching candidates in the private table
+                    // and that do not fulfill d-presence cannot be suppressed. In this case, the whole
+                    // transformation must be considered to not fulfill the privacy criteria.
+                    if (privacyModelContainsDPresence && entry.count == 0 && anonymous == 1) {
+                        dpresent = false;
+                    }
+                    
+                    currentNumOutliers += entry.count;
                 }
                 
-                currentNumOutliers += entry.count;
+                // We only suppress classes that are contained in the research subset
+                entry.isNotOutlier = entry.count != 0 ? (anonymous == -1) : true;
+                
+                // Next class
+                entry = entry.nextOrdered;
             }
-            
-            // We only suppress classes that are contained in the research subset
-            entry.isNotOutlier = entry.count != 0 ? (anonymous == -1) : true;
-            
-            // Next class
-            entry = entry.nextOrdered;
         }
         
         this.analyzeSampleBasedCriteria(transformation, false);
         this.privacyModelFulfilled = (currentNumOutliers <= suppressionLimit) && dpresent;
     }
     
+    /**
+     * Checks the class-based privacy criteria against each class using the worker pool. Classes are
+     * split into chunks which are processed concurrently, each worker using its own evaluation contexts.
+     * Outliers are counted with a shared counter. Sets currentNumOutliers.
+     * 
+     * @param transformation
+     * @param earlyAbort Whether to abort as soon as the suppression limit is exceeded or d-presence cannot be enforced
+     * @return False, if d-presence cannot be enforced or if the analysis has been aborted early, true otherwise
+     */
+    private boolean analyzeClassesInParallel(final Transformation<?> transformation, final boolean earlyAbort) {
+        
+        // Prepare workers
+        if (analysisPool == null) {
+            analysisPool = new WorkerPool(analysisThreads);
+            analysisContexts = new PrivacyCriterionContext[analysisThreads][];
+            for (int i = 0; i < analysisThreads; i++) {
+                analysisContexts[i] = createEvaluationContexts();
+            }
+        }
+        
+        // Collect classes
+        final HashGroupifyEntry[] entries = new HashGroupifyEntry[hashTableElementCount];
+        int index = 0;
+        HashGroupifyEntry entry = hashTableFirstEntry;
+        while (entry != null) {
+            entries[index++] = entry;
+            entry = entry.nextOrdered;
+        }
+        
+        // Shared state
+        final AtomicInteger nextChunk = new AtomicInteger(0);
+        final AtomicInteger outliers = new AtomicInteger(0);
+        final AtomicBoolean dpresent = new AtomicBoolean(true);
+        final AtomicBoolean aborted = new AtomicBoolean(false);
+        
+        // Create tasks
+        List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+        for (int i = 0; i < analysisThreads; i++) {
+            final PrivacyCriterionContext[] contexts = analysisContexts[i];
+            tasks.add(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    int start;
+                    while (!aborted.get() && (start = nextChunk.getAndAdd(PARALLEL_ANALYSIS_CHUNK_SIZE)) < entries.length) {
+                        int end = Math.min(start + PARALLEL_ANALYSIS_CHUNK_SIZE, entries.length);
+                        for (int j = start; j < end; j++) {
+                            
+                            // Check for anonymity
+                            HashGroupifyEntry entry = entries[j];
+                            int anonymous = isPrivacyModelFulfilled(transformation, entry, contexts);
+                            
+                            // Determine outliers. See analyzeAll() for details on d-presence
+                            if (anonymous != -1) {
+                                if (privacyModelContainsDPresence && entry.count == 0 && anonymous == 1) {
+                                    dpresent.set(false);
+                                    if (earlyAbort) {
+                                        aborted.set(true);
+                                        return null;
+                                    }
+                                }
+                                if (outliers.addAndGet(entry.count) > suppressionLimit && earlyAbort) {
+                                    aborted.set(true);
+                                    return null;
+                                }
+                            }
+                            
+                            // We only suppress classes that are contained in the research subset
+                            entry.isNotOutlier = entry.count != 0 ? (anonymous == -1) : true;
+                        }
+                    }
+                    return null;
+                }
+            });
+        }
+        
+        // Execute and reduce
+        analysisPool.invokeAll(tasks);
+        currentNumOutliers = outliers.get();
+        return !aborted.get() && dpresent.get();
+    }
+    
     /**
      * Analyze sample-based criteria
      * @param transformation
@@ -644,13 +784,26 @@ public class HashGroupify {
             return;
         }
         
+        // Analyze in parallel
+        // CAUTION: This leaves GroupifyEntry.isNotOutlier and currentOutliers in an inconsistent state
+        // for non-anonymous transformations
+        if (isAnalyzeClassesInParallel()) {
+            if (!analyzeClassesInParallel(transformation, true)) {
+                this.privacyModelFulfilled = false;
+                return;
+            }
+            this.analyzeSampleBasedCriteria(transformation, true);
+            this.privacyModelFulfilled = (currentNumOutliers <= suppressionLimit);
+            return;
+        }
+        
         // Iterate over all classes
         currentNumOutliers = 0;
         HashGroupifyEntry entry = hashTableFirstEntry;
         while (entry != null) {
             
             // Check for anonymity
-            int anonymous = isPrivacyModelFulfilled(transformation, entry);
+            int anonymous = isPrivacyModelFulfilled(transformation, entry, classBasedCriteriaContexts);
             
             // Determine outliers
             if (anonymous != -1) {
@@ -716,6 +869,18 @@ public class HashGroupify {
         return entry;
     }
 
+    /**
+     * Creates one context per class-based criterion. The contexts must only be used by one thread.
+     * @return
+     */
+    private PrivacyCriterionContext[] createEvaluationContexts() {
+        PrivacyCriterionContext[] contexts = new PrivacyCriterionContext[classBasedCriteria.length];
+        for (int i = 0; i < contexts.length; i++) {
+            contexts[i] = classBasedCriteria[i].createEvaluationContext();
+        }
+        return contexts;
+    }
+
     /**
      * Returns the according entry.
      * 
@@ -735,16 +900,25 @@ public class HashGroupify {
         return m;
     }
 
+    /**
+     * Returns whether classes should be analyzed in parallel
+     * @return
+     */
+    private boolean isAnalyzeClassesInParallel() {
+        return analysisThreads > 1 && classBasedCriteria.length > 0 && hashTableElementCount >= PARALLEL_ANALYSIS_MIN_CLASSES;
+    }
+
     /**
      * Checks whether the given entry is anonymous.
      * @param transformation
      * @param entry
+     * @param contexts
      * @return
      * @returns -1, if all criteria are fulfilled, 0, 
      *              if minimal group size is not fulfilled, 
      *              (index+1) if criteria[index] is not fulfilled
      */
-    private int isPrivacyModelFulfilled(Transformation<?> transformation, HashGroupifyEntry entry) {
+    private int isPrivacyModelFulfilled(Transformation<?> transformation, HashGroupifyEntry entry, PrivacyCriterionContext[] contexts) {
         
         // Check minimal group size
         if (minimalClassSize != Integer.MAX_VALUE && entry.count < minimalClassSize) {
@@ -754,8 +928,8 @@ public class HashGroupify {
         // Check other criteria
         // Note: The d-presence criterion must be checked first to ensure correct handling of d-presence with tuple suppression.
         // This is currently ensured by convention. See ARXConfiguration.getCriteriaAsArray();
-        for (int i = 0; i < classBasedCriteria.length; i++) {
-            if (!classBasedCriteria[i].isAnonymous(transformation, entry)) {
+        for (int i = 0; i < contexts.length; i++) {
+            if (!contexts[i].isAnonymous(transformation, entry)) {
                 return i + 1;
             }
         }
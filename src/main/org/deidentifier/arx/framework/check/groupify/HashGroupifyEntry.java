@@ -71,6 +71,17 @@ public class HashGroupifyEntry {
         this.matrix = matrix;
     }
     
+    /**
+     * Returns the value in the given column. In contrast to read() and next(),
+     * this does not modify the state of the shared iterator of the underlying
+     * matrix and may thus be called concurrently.
+     * @param column
+     * @return
+     */
+    public int get(int column) {
+        return matrix.get(row, column);
+    }
+    
     /**
      * Return has next
      * @return
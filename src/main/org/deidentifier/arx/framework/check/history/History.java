@@ -190,6 +190,15 @@ public class History {
         return dictionarySensValue;
     }
 
+    /**
+     * Returns the size of this history.
+     *
+     * @return
+     */
+    public int getSize() {
+        return size;
+    }
+
     /**
      * Returns the current storage strategy.
      *
@@ -244,8 +244,8 @@ public abstract class AbstractTransformer implements Callable<HashGroupify> {
     /** The hierarchies. */
     protected final GeneralizationHierarchy[] hierarchies;
     
-    /** The hierarchies */
-    protected int[][]                         hierarchy0, hierarchy1, hierarchy2, hierarchy3, hierarchy4, hierarchy5,
+    /** The hierarchies, as flat lookup tables for the levels of the current transformation */
+    protected int[]                           hierarchy0, hierarchy1, hierarchy2, hierarchy3, hierarchy4, hierarchy5,
                                               hierarchy6, hierarchy7, hierarchy8, hierarchy9, hierarchy10, hierarchy11, hierarchy12, hierarchy13, hierarchy14;
     /** The columns. */
     protected int                             column0, column1, column2, column3, column4, column5, column6, column7,
@@ -281,7 +281,7 @@ public abstract class AbstractTransformer implements Callable<HashGroupify> {
     /** The column index array. */
     protected final int[]                     mappedColumns;
     /** The column map array. */
-    protected final int[][][]                 mappedHierarchies;
+    protected final int[][]                   mappedHierarchies;
     
     /**
      * Instantiates a new abstract transformer.
@@ -318,7 +318,7 @@ public abstract class AbstractTransformer implements Callable<HashGroupify> {
         }
         this.mappedLevels = new int[arraySizes];
         this.mappedColumns = new int[arraySizes];
-        this.mappedHierarchies = new int[arraySizes][][];
+        this.mappedHierarchies = new int[arraySizes][];
 
         // Prepare delegate
         switch (config.getRequirements()) {
@@ -408,7 +408,7 @@ public abstract class AbstractTransformer implements Callable<HashGroupify> {
             if ((projection & (1L << i)) == 0) {
                 mappedLevels[index] = state[i];
                 mappedColumns[index] = i;
-                mappedHierarchies[index] = hierarchies[i].getArray();
+                mappedHierarchies[index] = hierarchies[i].getLevel(state[i]);
                 index++;
             }
         }
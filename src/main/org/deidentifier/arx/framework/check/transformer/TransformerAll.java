@@ -54,9 +54,9 @@ public class TransformerAll extends AbstractTransformer {
     @Override
     protected void processAll() {
         
-        int[][][] mHierarchies = new int[dimensions][][];
+        int[][] mHierarchies = new int[dimensions][];
         for (int i = 0; i < dimensions; i++) {
-            mHierarchies[i] = hierarchies[i].getArray();
+            mHierarchies[i] = hierarchies[i].getLevel(generalization[i]);
         }
         
         for (int i = startIndex; i < stopIndex; i++) {
@@ -65,7 +65,7 @@ public class TransformerAll extends AbstractTransformer {
             buffer.setRow(i);
             data.setRow(i);
             for (int d = 0; d < dimensions; d++) {
-                buffer.setValueAtColumn(d, mHierarchies[d][data.getValueAtColumn(d)][generalization[d]]);
+                buffer.setValueAtColumn(d, mHierarchies[d][data.getValueAtColumn(d)]);
             }
 
             // Call
@@ -76,9 +76,9 @@ public class TransformerAll extends AbstractTransformer {
     @Override
     protected void processGroupify() {
 
-        int[][][] mHierarchies = new int[dimensions][][];
+        int[][] mHierarchies = new int[dimensions][];
         for (int i = 0; i < dimensions; i++) {
-            mHierarchies[i] = hierarchies[i].getArray();
+            mHierarchies[i] = hierarchies[i].getLevel(generalization[i]);
         }
         
         while (element != null) {
@@ -88,7 +88,7 @@ public class TransformerAll extends AbstractTransformer {
             data.setRow(element.representative);
 
             for (int d = 0; d < dimensions; d++) {
-                buffer.setValueAtColumn(d, mHierarchies[d][data.getValueAtColumn(d)][generalization[d]]);
+                buffer.setValueAtColumn(d, mHierarchies[d][data.getValueAtColumn(d)]);
             }
 
             // Call
@@ -102,9 +102,9 @@ public class TransformerAll extends AbstractTransformer {
     @Override
     protected void processSnapshot() {
 
-        int[][][] mHierarchies = new int[dimensions][][];
+        int[][] mHierarchies = new int[dimensions][];
         for (int i = 0; i < dimensions; i++) {
-            mHierarchies[i] = hierarchies[i].getArray();
+            mHierarchies[i] = hierarchies[i].getLevel(generalization[i]);
         }
         
         startIndex *= ssStepWidth;
@@ -114,7 +114,7 @@ public class TransformerAll extends AbstractTransformer {
             buffer.setRow(snapshot[i]);
             data.setRow(snapshot[i]);
             for (int d = 0; d < dimensions; d++) {
-                buffer.setValueAtColumn(d, mHierarchies[d][data.getValueAtColumn(d)][generalization[d]]);
+                buffer.setValueAtColumn(d, mHierarchies[d][data.getValueAtColumn(d)]);
             }
 
             // Call
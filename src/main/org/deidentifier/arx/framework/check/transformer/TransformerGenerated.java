@@ -0,0 +1,126 @@
+/*
+ * ARX Data Anonymization Tool
+ * Copyright 2012 - 2022 Fabian Prasser and contributors
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.framework.check.transformer;
+
+import org.deidentifier.arx.ARXConfiguration.ARXConfigurationInternal;
+import org.deidentifier.arx.framework.check.TransformationCheckerStateMachine.TransitionType;
+import org.deidentifier.arx.framework.check.distribution.IntArrayDictionary;
+import org.deidentifier.arx.framework.check.groupify.HashGroupify;
+import org.deidentifier.arx.framework.check.groupify.HashGroupifyEntry;
+import org.deidentifier.arx.framework.data.DataMatrix;
+import org.deidentifier.arx.framework.data.GeneralizationHierarchy;
+
+/**
+ * A transformer for an arbitrary number of columns, which uses a kernel generated at runtime.
+ * 
+ * @author Fabian Prasser
+ */
+public class TransformerGenerated extends AbstractTransformer {
+
+    /** The kernel */
+    private final TransformerKernel kernel;
+
+    /**
+     * Instantiates a new transformer.
+     *
+     * @param kernel the kernel
+     * @param data the data
+     * @param hierarchies the hierarchies
+     * @param dataAnalyzed
+     * @param dataAnalyzedNumberOfColumns
+     * @param dictionarySensValue
+     * @param dictionarySensFreq
+     * @param config
+     */
+    public TransformerGenerated(final TransformerKernel kernel,
+                                final DataMatrix data,
+                                final GeneralizationHierarchy[] hierarchies,
+                                final DataMatrix dataAnalyzed,
+                                final int dataAnalyzedNumberOfColumns,
+                                final IntArrayDictionary dictionarySensValue,
+                                final IntArrayDictionary dictionarySensFreq,
+                                final ARXConfigurationInternal config) {
+        super(data, hierarchies, dataAnalyzed, dataAnalyzedNumberOfColumns, dictionarySensValue, dictionarySensFreq, config);
+        this.kernel = kernel;
+    }
+
+    @Override
+    public void init(final long projection,
+                     final int[] state,
+                     final HashGroupify groupify,
+                     final HashGroupify source,
+                     final int[] snapshot,
+                     final TransitionType transition,
+                     final int startIndex,
+                     final int stopIndex,
+                     final HashGroupifyEntry element,
+                     final DataMatrix buffer) {
+        super.init(projection, state, groupify, source, snapshot, transition, startIndex, stopIndex, element, buffer);
+        kernel.init(mappedColumns, mappedHierarchies);
+    }
+
+    @Override
+    protected void processAll() {
+        for (int i = startIndex; i < stopIndex; i++) {
+
+            // Transform
+            buffer.setRow(i);
+            data.setRow(i);
+            kernel.transform(data, buffer);
+
+            // Call
+            delegate.callAll(i, i);
+        }
+    }
+
+    @Override
+    protected void processGroupify() {
+
+        while (element != null) {
+
+            // Transform
+            buffer.setRow(element.representative);
+            data.setRow(element.representative);
+            kernel.transform(data, buffer);
+
+            // Call
+            delegate.callGroupify(element.representative, element);
+
+            // Next element
+            element = element.nextOrdered;
+        }
+    }
+
+    @Override
+    protected void processSnapshot() {
+
+        startIndex *= ssStepWidth;
+        stopIndex *= ssStepWidth;
+
+        for (int i = startIndex; i < stopIndex; i += ssStepWidth) {
+
+            // Transform
+            buffer.setRow(snapshot[i]);
+            data.setRow(snapshot[i]);
+            kernel.transform(data, buffer);
+
+            // Call
+            delegate.callSnapshot(snapshot[i], snapshot, i);
+        }
+    }
+}
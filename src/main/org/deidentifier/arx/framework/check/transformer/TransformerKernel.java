@@ -0,0 +1,122 @@
+/*
+ * ARX Data Anonymization Tool
+ * Copyright 2012 - 2022 Fabian Prasser and contributors
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.framework.check.transformer;
+
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.deidentifier.arx.common.BytecodeGenerator;
+import org.deidentifier.arx.common.BytecodeGenerator.Code;
+import org.deidentifier.arx.framework.data.DataMatrix;
+
+/**
+ * Transforms the current row of a data matrix for a fixed number of columns. For each number of
+ * columns, a class in which the transformation is unrolled, like in Transformer01 to Transformer15,
+ * is generated at runtime. Classes are cached as long as instances exist.
+ * 
+ * @author Fabian Prasser
+ */
+public abstract class TransformerKernel {
+
+    /** The generated classes */
+    private static final Map<Integer, WeakReference<Class<?>>> CLASSES = new HashMap<Integer, WeakReference<Class<?>>>();
+
+    /**
+     * Returns a new kernel for the given number of columns. Returns null, if no kernel
+     * could be generated or if generation is disabled.
+     *
+     * @param columns
+     * @return
+     */
+    public static TransformerKernel create(int columns) {
+        if (!BytecodeGenerator.isEnabled()) {
+            return null;
+        }
+        try {
+            Class<?> clazz;
+            synchronized (CLASSES) {
+                WeakReference<Class<?>> reference = CLASSES.get(columns);
+                clazz = reference == null ? null : reference.get();
+                if (clazz == null) {
+                    clazz = generate(columns);
+                    CLASSES.put(columns, new WeakReference<Class<?>>(clazz));
+                }
+            }
+            return (TransformerKernel) clazz.getConstructor().newInstance();
+        } catch (Exception | LinkageError e) {
+            return null;
+        }
+    }
+
+    /**
+     * Generates a kernel class. For each column i, the class has fields ci holding
+     * the index of the column and ti holding the lookup table of the hierarchy.
+     *
+     * @param columns
+     * @return
+     */
+    private static Class<?> generate(int columns) {
+
+        BytecodeGenerator generator = new BytecodeGenerator(TransformerKernel.class.getName() + "Generated" + columns, TransformerKernel.class);
+        String matrix = BytecodeGenerator.getInternalName(DataMatrix.class);
+        for (int i = 0; i < columns; i++) {
+            generator.addField("c" + i, "I");
+            generator.addField("t" + i, "[I");
+        }
+
+        // init(columns, tables)
+        Code code = generator.addMethod("init", "([I[[I)V", 3, 3);
+        for (int i = 0; i < columns; i++) {
+            code.aload(0).aload(1).push(i).op(BytecodeGenerator.IALOAD).putField("c" + i, "I");
+            code.aload(0).aload(2).push(i).op(BytecodeGenerator.AALOAD).putField("t" + i, "[I");
+        }
+        code.op(BytecodeGenerator.RETURN);
+
+        // transform(data, buffer)
+        code = generator.addMethod("transform", "(L" + matrix + ";L" + matrix + ";)V", 5, 3);
+        for (int i = 0; i < columns; i++) {
+            code.aload(2).aload(0).getField("c" + i, "I");
+            code.aload(0).getField("t" + i, "[I");
+            code.aload(1).aload(0).getField("c" + i, "I");
+            code.invokeVirtual(DataMatrix.class, "getValueAtColumn", "(I)I");
+            code.op(BytecodeGenerator.IALOAD);
+            code.invokeVirtual(DataMatrix.class, "setValueAtColumn", "(II)V");
+        }
+        code.op(BytecodeGenerator.RETURN);
+
+        // Define
+        return generator.define(TransformerKernel.class.getClassLoader());
+    }
+
+    /**
+     * Sets the indices of the columns to transform and the according lookup tables.
+     *
+     * @param columns
+     * @param tables
+     */
+    public abstract void init(int[] columns, int[][] tables);
+
+    /**
+     * Transforms the rows of the data matrices which have been set via setRow(row).
+     *
+     * @param data
+     * @param buffer
+     */
+    public abstract void transform(DataMatrix data, DataMatrix buffer);
+}
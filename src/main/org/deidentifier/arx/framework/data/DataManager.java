@@ -37,6 +37,7 @@ import org.deidentifier.arx.criteria.EDDifferentialPrivacy;
 import org.deidentifier.arx.criteria.HierarchicalDistanceTCloseness;
 import org.deidentifier.arx.criteria.PrivacyCriterion;
 import org.deidentifier.arx.framework.check.distribution.DistributionAggregateFunction;
+import org.deidentifier.arx.metric.v2.Cardinalities;
 import org.deidentifier.arx.metric.v2.DomainShare;
 import org.deidentifier.arx.metric.v2.DomainShareInterval;
 import org.deidentifier.arx.metric.v2.DomainShareMaterialized;
@@ -69,6 +70,12 @@ public class DataManager {
     /** The data definition */
     private final DataDefinition              definition;
 
+    /** The cardinalities of the generalized data */
+    private Cardinalities                     cardinalities;
+
+    /** The subset for which the cardinalities have been computed */
+    private RowSet                            cardinalitiesSubset;
+
     /** The domain shares */
     private DomainShare[]                     shares;
 
@@ -339,6 +346,27 @@ public class DataManager {
         this.subsetSize = 0;
     }
 
+    /**
+     * Returns the cardinalities of all generalized quasi-identifiers, i.e. the
+     * frequencies of all values on all generalization levels. The result is computed
+     * on demand and cached, so that all quality models initialized with this instance
+     * share the same tables.
+     * 
+     * @param subset The research subset, may be <code>null</code>
+     * @return
+     */
+    public Cardinalities getCardinalities(RowSet subset) {
+        
+        // Build on-demand
+        if (this.cardinalities == null || this.cardinalitiesSubset != subset) {
+            this.cardinalities = new Cardinalities(dataGeneralized, subset, hierarchiesGeneralized);
+            this.cardinalitiesSubset = subset;
+        }
+        
+        // Return
+        return this.cardinalities;
+    }
+
     /**
      * Returns the input data that will be analyzed.
      * 
@@ -48,6 +48,9 @@ public class DataMatrix implements Serializable {
     /** Iterate */
     private int               baseOffset       = 0;
 
+    /** Kernel for comparing rows with many columns, created lazily */
+    private transient RowEqualityKernel kernel = null;
+
     /**
      * Instantiates a new memory block.
      *
@@ -65,6 +68,19 @@ public class DataMatrix implements Serializable {
         }
     }
 
+    /**
+     * Creates a view on the given backing array.
+     *
+     * @param array
+     * @param rows
+     * @param columns
+     */
+    private DataMatrix(final int[] array, final int rows, final int columns) {
+        this.array = array;
+        this.rows = rows;
+        this.columns = columns;
+    }
+
     /**
      * ANDs the first value of the row with the given value
      * @param row
@@ -214,14 +230,7 @@ public class DataMatrix implements Serializable {
             }
             break;
         default:
-            if ((ignore != 0) && (this.array[offset1]) != (this.array[offset2] )) {
-                return false;
-            }
-            for (int i = 1; i < columns; i++) {
-                if ((ignore != i) && this.array[offset1 + i] != this.array[offset2 + i]) {
-                    return false;
-                }
-            }
+            return getKernel().equalsIgnore(this.array, offset1, offset2, ignore);
         }
         return true;
     }
@@ -262,6 +271,16 @@ public class DataMatrix implements Serializable {
         return rows;
     }
 
+    /**
+     * Returns a view on this matrix, which shares the data but not the row pointer and
+     * iterator. Views can be used to read data concurrently.
+     * 
+     * @return
+     */
+    public DataMatrix getView() {
+        return new DataMatrix(this.array, this.rows, this.columns);
+    }
+
     /**
      * Gets the value in the given column for the row which
      * has been set via setRow(row).
@@ -523,18 +542,22 @@ public class DataMatrix implements Serializable {
             }
             break;
         default:
-            if ((this.array[offset1] & flag) != (this.array[offset2] & flag)) {
-                return false;
-            }
-            for (int i = 1; i < columns; i++) {
-                if (this.array[offset1 + i] != this.array[offset2 + i]) {
-                    return false;
-                }
-            }
+            return getKernel().equals(this.array, offset1, offset2, flag);
         }
         return true;
     }
 
+    /**
+     * Returns the kernel for comparing rows
+     * @return
+     */
+    private RowEqualityKernel getKernel() {
+        if (kernel == null) {
+            kernel = RowEqualityKernel.create(columns);
+        }
+        return kernel;
+    }
+
     /**
      * Clones only a subset of the records
      * @param subset
@@ -83,6 +83,11 @@ public class DataMatrixSubset extends DataMatrix {
         return subset.length;
     }
 
+    @Override
+    public DataMatrix getView() {
+        return new DataMatrixSubset(matrix.getView(), subset);
+    }
+
     @Override
     public int getValueAtColumn(int column) {
         return matrix.getValueAtColumn(column);
@@ -35,6 +35,9 @@ public class GeneralizationHierarchy {
     /** Input->level->output. */
     protected final int[][] map;
 
+    /** Level->input->output, materialized lazily. */
+    private int[][]         levels;
+
     /** Name. */
     protected final String  attribute;
 
@@ -218,6 +221,27 @@ public class GeneralizationHierarchy {
         return map[0].length;
     }
 
+    /**
+     * Returns a flat lookup table which maps input values to the values on the given level.
+     * Tables are materialized lazily, only for levels that are actually requested.
+     *
+     * @param level
+     * @return
+     */
+    public synchronized int[] getLevel(final int level) {
+        if (levels == null) {
+            levels = new int[getLevels()][];
+        }
+        if (levels[level] == null) {
+            final int[] table = new int[map.length];
+            for (int i = 0; i < map.length; i++) {
+                table[i] = map[i][level];
+            }
+            levels[level] = table;
+        }
+        return levels[level];
+    }
+
     /**
      * Returns the number of levels
      */
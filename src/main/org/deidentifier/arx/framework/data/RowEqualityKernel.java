@@ -0,0 +1,174 @@
+/*
+ * ARX Data Anonymization Tool
+ * Copyright 2012 - 2022 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.framework.data;
+
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.deidentifier.arx.common.BytecodeGenerator;
+import org.deidentifier.arx.common.BytecodeGenerator.Code;
+import org.deidentifier.arx.common.BytecodeGenerator.Label;
+
+/**
+ * Compares rows of a data matrix with a fixed number of columns. For each number of columns,
+ * a kernel in which the comparisons are unrolled is generated at runtime. If this is not possible
+ * or disabled, a kernel which compares columns in a loop is used instead. Kernels are cached as long
+ * as they are used by a data matrix.
+ *
+ * @author Fabian Prasser
+ */
+public abstract class RowEqualityKernel {
+
+    /**
+     * Kernel which compares columns in a loop.
+     *
+     * @author Fabian Prasser
+     */
+    private static class RowEqualityKernelLoop extends RowEqualityKernel {
+
+        /** The number of columns */
+        private final int columns;
+
+        /**
+         * Creates a new instance
+         * @param columns
+         */
+        private RowEqualityKernelLoop(int columns) {
+            this.columns = columns;
+        }
+
+        @Override
+        public boolean equals(int[] array, int offset1, int offset2, int flag) {
+            if ((array[offset1] & flag) != (array[offset2] & flag)) {
+                return false;
+            }
+            for (int i = 1; i < columns; i++) {
+                if (array[offset1 + i] != array[offset2 + i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public boolean equalsIgnore(int[] array, int offset1, int offset2, int ignore) {
+            for (int i = 0; i < columns; i++) {
+                if ((ignore != i) && array[offset1 + i] != array[offset2 + i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /** Maximal number of columns for which kernels are generated, which keeps branches short */
+    private static final int                                            MAX_COLUMNS = 1000;
+
+    /** The kernels */
+    private static final Map<Integer, WeakReference<RowEqualityKernel>> KERNELS     = new HashMap<Integer, WeakReference<RowEqualityKernel>>();
+
+    /**
+     * Returns a kernel for the given number of columns. Kernels do not have state and are shared.
+     *
+     * @param columns
+     * @return
+     */
+    public static synchronized RowEqualityKernel create(int columns) {
+        if (!BytecodeGenerator.isEnabled()) {
+            return new RowEqualityKernelLoop(columns);
+        }
+        WeakReference<RowEqualityKernel> reference = KERNELS.get(columns);
+        RowEqualityKernel kernel = reference == null ? null : reference.get();
+        if (kernel == null) {
+            try {
+                kernel = columns > 0 && columns <= MAX_COLUMNS ? generate(columns) : new RowEqualityKernelLoop(columns);
+            } catch (Exception | LinkageError e) {
+                kernel = new RowEqualityKernelLoop(columns);
+            }
+            KERNELS.put(columns, new WeakReference<RowEqualityKernel>(kernel));
+        }
+        return kernel;
+    }
+
+    /**
+     * Generates a kernel
+     * @param columns
+     * @return
+     * @throws Exception
+     */
+    private static RowEqualityKernel generate(int columns) throws Exception {
+
+        BytecodeGenerator generator = new BytecodeGenerator(RowEqualityKernel.class.getName() + "Generated" + columns, RowEqualityKernel.class);
+
+        // equals(array, offset1, offset2, flag): the first column is masked with the flag
+        Code code = generator.addMethod("equals", "([IIII)Z", 4, 5);
+        Label different = new Label();
+        for (int i = columns - 1; i >= 0; i--) {
+            code.aload(1).iload(2).push(i).op(BytecodeGenerator.IADD).op(BytecodeGenerator.IALOAD);
+            if (i == 0) {
+                code.iload(4).op(BytecodeGenerator.IAND);
+            }
+            code.aload(1).iload(3).push(i).op(BytecodeGenerator.IADD).op(BytecodeGenerator.IALOAD);
+            if (i == 0) {
+                code.iload(4).op(BytecodeGenerator.IAND);
+            }
+            code.branch(BytecodeGenerator.IF_ICMPNE, different);
+        }
+        code.op(BytecodeGenerator.ICONST_1).op(BytecodeGenerator.IRETURN);
+        code.mark(different).op(BytecodeGenerator.ICONST_0).op(BytecodeGenerator.IRETURN);
+
+        // equalsIgnore(array, offset1, offset2, ignore)
+        code = generator.addMethod("equalsIgnore", "([IIII)Z", 4, 5);
+        for (int i = columns - 1; i >= 0; i--) {
+            Label next = new Label();
+            code.iload(4).push(i).branch(BytecodeGenerator.IF_ICMPEQ, next);
+            code.aload(1).iload(2).push(i).op(BytecodeGenerator.IADD).op(BytecodeGenerator.IALOAD);
+            code.aload(1).iload(3).push(i).op(BytecodeGenerator.IADD).op(BytecodeGenerator.IALOAD);
+            code.branch(BytecodeGenerator.IF_ICMPEQ, next);
+            code.op(BytecodeGenerator.ICONST_0).op(BytecodeGenerator.IRETURN);
+            code.mark(next);
+        }
+        code.op(BytecodeGenerator.ICONST_1).op(BytecodeGenerator.IRETURN);
+
+        // Define
+        return (RowEqualityKernel) generator.define(RowEqualityKernel.class.getClassLoader()).getConstructor().newInstance();
+    }
+
+    /**
+     * Compares the rows at the given offsets. The values in the first column are masked with the given flag.
+     *
+     * @param array
+     * @param offset1
+     * @param offset2
+     * @param flag
+     * @return
+     */
+    public abstract boolean equals(int[] array, int offset1, int offset2, int flag);
+
+    /**
+     * Compares the rows at the given offsets, ignoring the given column.
+     *
+     * @param array
+     * @param offset1
+     * @param offset2
+     * @param ignore
+     * @return
+     */
+    public abstract boolean equalsIgnore(int[] array, int offset1, int offset2, int ignore);
+}
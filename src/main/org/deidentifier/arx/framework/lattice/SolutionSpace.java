@@ -26,8 +26,6 @@ import org.deidentifier.arx.ARXLattice.ARXNode;
 import org.deidentifier.arx.ARXLattice.Anonymity;
 import org.deidentifier.arx.metric.InformationLoss;
 
-import com.carrotsearch.hppc.ObjectObjectOpenHashMap;
-
 import de.linearbits.jhpl.Lattice;
 import de.linearbits.jhpl.LatticeHighdimensional;
 import de.linearbits.jhpl.PredictiveProperty;
@@ -122,39 +120,16 @@ public abstract class SolutionSpace<T> {
     private final int                                             offsetLevel;
     /** The backing JHPL lattice */
     protected final Lattice<Integer, Integer>                     lattice;
-
-    /** Information loss */
-    protected ObjectObjectOpenHashMap<Object, Object>             data                        = new ObjectObjectOpenHashMap<>();
-
-    /** Information loss */
-    protected ObjectObjectOpenHashMap<Object, InformationLoss<?>> lowerBound                  = new ObjectObjectOpenHashMap<>();
-
-    /** Information loss */
-    protected ObjectObjectOpenHashMap<Object, InformationLoss<?>> utility                     = new ObjectObjectOpenHashMap<>();
    
     /**
-     * For de-serialization
+     * For de-serialization. Subclasses must call <code>load(lattice)</code> after
+     * their own state has been initialized.
      * @param lattice
      * @param config
      */
     protected SolutionSpace(ARXLattice lattice, ARXConfiguration config) {
         this(lattice.getBottom().getTransformation(), lattice.getTop().getTransformation());
         setMonotonicity(config);
-        for (ARXNode[] level : lattice.getLevels()) {
-            for (ARXNode node : level) {
-                int[] index = toJHPL(node.getTransformation());
-                int lvl = getLevel(index);
-                if (node.getAnonymity() == Anonymity.ANONYMOUS) {
-                    this.lattice.putProperty(index, lvl, this.getPropertyAnonymous());
-                } else if (node.getAnonymity() == Anonymity.NOT_ANONYMOUS) {
-                    this.lattice.putProperty(index, lvl, this.getPropertyNotAnonymous());
-                }
-                if (node.isChecked()) {
-                    this.lattice.putProperty(index, lvl, this.getPropertyChecked());
-                    this.setInformationLoss(node.getTransformation(), node.getHighestScore());
-                }
-            }
-        }
     }
 
     /**
@@ -437,6 +412,28 @@ public abstract class SolutionSpace<T> {
      */
     protected abstract InformationLoss<?> getLowerBound(T identifier);
     
+    /**
+     * Loads the properties and the information loss of all nodes in the given lattice
+     * @param lattice
+     */
+    protected void load(ARXLattice lattice) {
+        for (ARXNode[] level : lattice.getLevels()) {
+            for (ARXNode node : level) {
+                int[] index = toJHPL(node.getTransformation());
+                int lvl = getLevel(index);
+                if (node.getAnonymity() == Anonymity.ANONYMOUS) {
+                    this.lattice.putProperty(index, lvl, this.getPropertyAnonymous());
+                } else if (node.getAnonymity() == Anonymity.NOT_ANONYMOUS) {
+                    this.lattice.putProperty(index, lvl, this.getPropertyNotAnonymous());
+                }
+                if (node.isChecked()) {
+                    this.lattice.putProperty(index, lvl, this.getPropertyChecked());
+                    this.setInformationLoss(node.getTransformation(), node.getHighestScore());
+                }
+            }
+        }
+    }
+    
     /**
      * Reverses the given array
      * @param input
@@ -21,16 +21,28 @@ import java.math.BigInteger;
 
 import org.deidentifier.arx.ARXConfiguration;
 import org.deidentifier.arx.ARXLattice;
+import org.deidentifier.arx.common.StripedLongObjectMap;
 import org.deidentifier.arx.metric.InformationLoss;
 
+import de.linearbits.jhpl.JHPLIterator.LongIterator;
 import de.linearbits.jhpl.PredictiveProperty;
 
 /**
- * A class representing the solution space
+ * A class representing the solution space. Information loss, lower bounds and
+ * associated data are stored in thread-safe maps with primitive keys.
  * @author Fabian Prasser
  */
 public class SolutionSpaceLong extends SolutionSpace<Long> {
 
+    /** Data */
+    private final StripedLongObjectMap<Object>             data       = new StripedLongObjectMap<>();
+
+    /** Lower bounds */
+    private final StripedLongObjectMap<InformationLoss<?>> lowerBound = new StripedLongObjectMap<>();
+
+    /** Information loss */
+    private final StripedLongObjectMap<InformationLoss<?>> utility    = new StripedLongObjectMap<>();
+
     /**
      * Delegate constructor
      * @param lattice
@@ -38,6 +50,7 @@ public class SolutionSpaceLong extends SolutionSpace<Long> {
      */
     public SolutionSpaceLong(ARXLattice lattice, ARXConfiguration config) {
         super(lattice, config);
+        this.load(lattice);
     }
 
     /**
@@ -96,7 +109,15 @@ public class SolutionSpaceLong extends SolutionSpace<Long> {
      * @return
      */
     public Transformation<Long> getTransformation(Object _identifier) {
-        long identifier = (Long)_identifier;
+        return getTransformation((long)(Long)_identifier);
+    }
+
+    /**
+     * Returns the transformation with the given identifier, without boxing it
+     * @param identifier
+     * @return
+     */
+    public Transformation<Long> getTransformation(long identifier) {
         int[] transformationJHPL = lattice.space().toIndex(identifier);
         return new TransformationLong(transformationJHPL, identifier, lattice, this);
     }
@@ -107,8 +128,16 @@ public class SolutionSpaceLong extends SolutionSpace<Long> {
      * @return
      */
     public InformationLoss<?> getUtility(Object _identifier) {
-        long identifier = (Long)_identifier;
-        return utility.getOrDefault(identifier, null);
+        return getUtility((long)(Long)_identifier);
+    }
+
+    /**
+     * Returns the utility of the transformation with the given identifier, without boxing it
+     * @param identifier
+     * @return
+     */
+    public InformationLoss<?> getUtility(long identifier) {
+        return utility.get(identifier);
     }
     
     /**
@@ -140,13 +169,23 @@ public class SolutionSpaceLong extends SolutionSpace<Long> {
         return ObjectIterator.create(lattice.unsafe().listAllNodesAsIdentifiers(toJHPL(level)));
     }
 
+    /**
+     * Returns the identifiers of *all* nodes on the given level without boxing them. This is an unsafe
+     * operation that only performs well for "small" spaces.
+     * @param level
+     * @return
+     */
+    public LongIterator unsafeGetLevelIdentifiers(int level) {
+        return lattice.unsafe().listAllNodesAsIdentifiers(toJHPL(level));
+    }
+
     /**
      * Returns data
      * @param id
      * @return
      */
     protected Object getData(Long id) {
-        return data.getOrDefault(id, null);
+        return data.get(id);
     }
     
     /**
@@ -155,7 +194,7 @@ public class SolutionSpaceLong extends SolutionSpace<Long> {
      * @return
      */
     protected InformationLoss<?> getInformationLoss(Long identifier) {
-        return utility.getOrDefault(identifier, null);
+        return utility.get(identifier);
     }
     
     /**
@@ -164,7 +203,7 @@ public class SolutionSpaceLong extends SolutionSpace<Long> {
      * @return
      */
     protected InformationLoss<?> getLowerBound(Long identifier) {
-        return lowerBound.getOrDefault(identifier, null);
+        return lowerBound.get(identifier);
     }
 
     /**
@@ -75,7 +75,16 @@ public class TransformationLong extends Transformation<Long> {
      * @return
      */
     public TransformationList<Long> getSuccessors() {
-        cern.colt.list.LongArrayList result = new cern.colt.list.LongArrayList();
+        return TransformationList.create(getSuccessorIdentifiers());
+    }
+
+    /**
+     * Returns the identifiers of all successors, in the same order as <code>getSuccessors()</code>,
+     * without boxing them
+     * @return
+     */
+    public LongArrayList getSuccessorIdentifiers() {
+        LongArrayList result = new LongArrayList();
         for (LongIterator iter = lattice.nodes().listSuccessorsAsIdentifiers(transformationJHPL, identifier); iter.hasNext();) {
             result.add(iter.next());
         }
@@ -88,7 +97,7 @@ public class TransformationLong extends Transformation<Long> {
             lower++;
             upper--;
         }
-        return TransformationList.create(result);
+        return result;
     }
 
     /**
@@ -17,6 +17,8 @@
 
 package org.deidentifier.arx.io;
 
+import java.io.Closeable;
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.util.ArrayList;
@@ -28,7 +30,6 @@ import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.deidentifier.arx.DataType;
 import org.deidentifier.arx.io.ImportConfigurationExcel.ExcelFileTypes;
 
@@ -37,7 +38,8 @@ import org.deidentifier.arx.io.ImportConfigurationExcel.ExcelFileTypes;
  * 
  * This adapter can import data from Excel files. It handles both XLS and XLSX
  * files. The file type itself is defined by {@link ImportConfigurationExcel}.
- * The files are accessed using Apache POI.
+ * The files are accessed using Apache POI. XLSX files are streamed row by row
+ * with {@link XLSXDataInput}, XLS files are loaded completely.
  *
  * @author Karol Babioch
  * @author Fabian Prasser
@@ -49,7 +51,7 @@ public class ImportAdapterExcel extends ImportAdapter {
     private ImportConfigurationExcel config;
 
     /** Actual iterator used to go through data. */
-    private Iterator<Row>            iterator;
+    private Iterator<String[]>       iterator;
 
     /**
      * Contains the last row as returned by the iterator.
@@ -57,7 +59,7 @@ public class ImportAdapterExcel extends ImportAdapter {
      * @note This row cannot be simply returned, but needs to be further
      *       processed, e.g. to return only selected columns.
      */
-    private Row                      row;
+    private String[]                 row;
 
     /**
      * Indicates whether the first row has already been returned
@@ -74,16 +76,16 @@ public class ImportAdapterExcel extends ImportAdapter {
     /** Current row {@link lastRow} is referencing. */
     private int                      currentRow     = 0;
 
-    /** TODO */
-    private FileInputStream          input;
+    /** Input, which is closed after the last row has been read. */
+    private Closeable                input;
 
     /**
      * Creates a new instance of this object with given configuration
      * 
-     * Depending upon the file type it either uses HSSF or XSSF to access the
-     * file. In both cases {@link #iterator} will be assigned a reference to
-     * an iterator, which can then be used to access the actual data on a row by
-     * row basis.
+     * Depending upon the file type it either uses HSSF or a streaming reader
+     * to access the file. In both cases {@link #iterator} will be assigned a
+     * reference to an iterator, which can then be used to access the actual
+     * data on a row by row basis.
      * 
      * @param config
      *            {@link #config}
@@ -96,26 +98,42 @@ public class ImportAdapterExcel extends ImportAdapter {
         super(config);
         this.config = config;
 
-        /* Get row iterator */
-        input = new FileInputStream(config.getFileLocation());
-        Workbook workbook = null;
-
+        /* Get row iterator and total number of rows */
         if (config.getExcelFileType() == ExcelFileTypes.XLS) {
-            workbook = new HSSFWorkbook(input);
+
+            FileInputStream stream = new FileInputStream(config.getFileLocation());
+            input = stream;
+            Workbook workbook = new HSSFWorkbook(stream);
+            workbook.setMissingCellPolicy(Row.CREATE_NULL_AS_BLANK);
+            Sheet sheet = workbook.getSheetAt(config.getSheetIndex());
+            final Iterator<Row> rows = sheet.iterator();
+            iterator = new Iterator<String[]>() {
+                @Override
+                public boolean hasNext() {
+                    return rows.hasNext();
+                }
+                @Override
+                public String[] next() {
+                    return getValues(rows.next());
+                }
+                @Override
+                public void remove() {
+                    throw new UnsupportedOperationException();
+                }
+            };
+            totalRows = sheet.getPhysicalNumberOfRows();
+
         } else if (config.getExcelFileType() == ExcelFileTypes.XLSX) {
-            workbook = new XSSFWorkbook(input);
+
+            XLSXDataInput stream = new XLSXDataInput(new File(config.getFileLocation()), config.getSheetIndex());
+            input = stream;
+            iterator = stream;
+            totalRows = stream.getNumRows();
+
         } else {
-            input.close();
             throw new IllegalArgumentException("File type not supported");
         }
 
-        workbook.setMissingCellPolicy(Row.CREATE_NULL_AS_BLANK);
-        Sheet sheet = workbook.getSheetAt(config.getSheetIndex());
-        iterator = sheet.iterator();
-
-        /* Get total number of rows */
-        totalRows = sheet.getPhysicalNumberOfRows();
-
         /* Check whether there is actual data within the file */
         if (iterator.hasNext()) {
 
@@ -144,7 +162,10 @@ public class ImportAdapterExcel extends ImportAdapter {
      */
     @Override
     public int getProgress() {
-        return (int) (((double) currentRow / (double) totalRows) * 100d);
+        if (totalRows == 0) {
+            return 0;
+        }
+        return (int) (((double) Math.min(currentRow, totalRows) / (double) totalRows) * 100d);
     }
 
     /**
@@ -185,8 +206,7 @@ public class ImportAdapterExcel extends ImportAdapter {
         String[] result = new String[indexes.length];
         for (int i = 0; i < indexes.length; i++) {
 
-            row.getCell(indexes[i]).setCellType(Cell.CELL_TYPE_STRING);
-            result[i] = IOUtil.trim(row.getCell(indexes[i]).getStringCellValue());
+            result[i] = IOUtil.trim(getValue(row, indexes[i]));
 
             if (!dataTypes[i].isValid(result[i])) {
                 if (config.columns.get(i).isCleansing()) {
@@ -252,8 +272,7 @@ public class ImportAdapterExcel extends ImportAdapter {
 
             ImportColumn column = columns.get(i);
 
-            row.getCell(((ImportColumnExcel) column).getIndex()).setCellType(Cell.CELL_TYPE_STRING);
-            String name = IOUtil.trim(row.getCell(((ImportColumnExcel) column).getIndex()).getStringCellValue());
+            String name = IOUtil.trim(getValue(row, ((ImportColumnExcel) column).getIndex()));
 
             if (config.getContainsHeader() && !name.equals("")) {
                 /* Assign name of file itself */
@@ -286,6 +305,33 @@ public class ImportAdapterExcel extends ImportAdapter {
         return header;
     }
 
+    /**
+     * Returns the value at the given index, or an empty string for missing cells
+     *
+     * @param row
+     * @param index
+     * @return
+     */
+    private String getValue(String[] row, int index) {
+        return index < row.length ? row[index] : "";
+    }
+
+    /**
+     * Returns the values of all cells up to the last cell of the given row
+     *
+     * @param row
+     * @return
+     */
+    private String[] getValues(Row row) {
+        String[] values = new String[Math.max(0, row.getLastCellNum())];
+        for (int i = 0; i < values.length; i++) {
+            Cell cell = row.getCell(i);
+            cell.setCellType(Cell.CELL_TYPE_STRING);
+            values[i] = cell.getStringCellValue();
+        }
+        return values;
+    }
+
     /**
      * Returns an array with indexes of columns that should be imported
      * 
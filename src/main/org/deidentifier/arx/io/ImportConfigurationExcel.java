@@ -18,8 +18,6 @@
 package org.deidentifier.arx.io;
 
 import org.apache.commons.io.FilenameUtils;
-import org.apache.poi.ss.usermodel.Cell;
-import org.apache.poi.ss.usermodel.Row;
 
 /**
  * Configuration describing an Excel file
@@ -218,15 +216,14 @@ public class ImportConfigurationExcel extends ImportConfigurationFile implements
      *
      * @param row
      */
-    protected void prepare(Row row) {
+    protected void prepare(String[] row) {
 
         for (ImportColumn c : super.getColumns()) {
             ImportColumnExcel column = (ImportColumnExcel) c;
             if (!column.isIndexSpecified()) {
                 boolean found = false;
-                for (int i = 0; i < row.getPhysicalNumberOfCells(); i++) {
-                    row.getCell(i).setCellType(Cell.CELL_TYPE_STRING);
-                    if (row.getCell(i).getStringCellValue().equals(column.getName())) {
+                for (int i = 0; i < row.length; i++) {
+                    if (row[i].equals(column.getName())) {
                         found = true;
                         column.setIndex(i);
                     }
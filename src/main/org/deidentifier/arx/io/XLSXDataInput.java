@@ -0,0 +1,402 @@
+/*
+ * ARX Data Anonymization Tool
+ * Copyright 2012 - 2022 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.io;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.openxml4j.opc.PackageRelationship;
+import org.apache.poi.openxml4j.opc.PackageRelationshipCollection;
+import org.apache.poi.openxml4j.opc.PackageRelationshipTypes;
+
+/**
+ * This class implements a streaming reader for sheets of XLSX files. Instead of loading the
+ * complete workbook, the table of shared strings is read once and rows are then parsed lazily
+ * from the XML stream of the sheet. Parts of the package are parsed with StAX, without XMLBeans
+ * schemas. Values are converted to strings in the same way as
+ * <code>Cell.setCellType(Cell.CELL_TYPE_STRING)</code> does for XSSF cells. Missing cells
+ * are returned as empty strings.
+ *
+ * @author Fabian Prasser
+ */
+class XLSXDataInput implements Iterator<String[]>, Closeable {
+
+    /** Pattern of characters escaped in strings */
+    private static final Pattern ESCAPED        = Pattern.compile("_x([0-9A-Fa-f]{4})_");
+
+    /** Namespace of relationships */
+    private static final String  RELATIONSHIPS  = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+
+    /** Relationship of the shared strings table */
+    private static final String  SHARED_STRINGS = RELATIONSHIPS + "/sharedStrings";
+
+    /** The package */
+    private final OPCPackage     pkg;
+
+    /** The stream of the sheet */
+    private final InputStream    stream;
+
+    /** The parser */
+    private final XMLStreamReader reader;
+
+    /** The shared strings */
+    private final List<String>   strings;
+
+    /** The number of rows according to the dimension of the sheet, 0 if unknown */
+    private int                  rows = 0;
+
+    /** The next row */
+    private String[]             next;
+
+    /**
+     * Opens the sheet with the given index
+     *
+     * @param file
+     * @param sheet
+     * @throws IOException
+     */
+    XLSXDataInput(File file, int sheet) throws IOException {
+
+        // Open package
+        try {
+            this.pkg = OPCPackage.open(file.getPath(), PackageAccess.READ);
+        } catch (OpenXML4JException e) {
+            throw new IOException(e);
+        }
+
+        // Prepare
+        try {
+            XMLInputFactory factory = XMLInputFactory.newInstance();
+            factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+            factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+            factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+
+            // Workbook
+            PackageRelationshipCollection documents = pkg.getRelationshipsByType(PackageRelationshipTypes.CORE_DOCUMENT);
+            if (documents.size() == 0) {
+                throw new IOException("File contains no workbook");
+            }
+            PackagePart workbook = pkg.getPart(documents.getRelationship(0));
+
+            // Shared strings
+            this.strings = new ArrayList<String>();
+            PackageRelationshipCollection tables = workbook.getRelationshipsByType(SHARED_STRINGS);
+            if (tables.size() != 0) {
+                InputStream input = workbook.getRelatedPart(tables.getRelationship(0)).getInputStream();
+                try {
+                    XMLStreamReader reader = factory.createXMLStreamReader(input);
+                    while (reader.hasNext()) {
+                        if (reader.next() == XMLStreamConstants.START_ELEMENT && reader.getLocalName().equals("si")) {
+                            strings.add(readString(reader, "si"));
+                        }
+                    }
+                    reader.close();
+                } finally {
+                    input.close();
+                }
+            }
+
+            // Sheets are listed in the workbook
+            List<String> sheets = new ArrayList<String>();
+            InputStream input = workbook.getInputStream();
+            try {
+                XMLStreamReader reader = factory.createXMLStreamReader(input);
+                while (reader.hasNext()) {
+                    if (reader.next() == XMLStreamConstants.START_ELEMENT && reader.getLocalName().equals("sheet")) {
+                        sheets.add(reader.getAttributeValue(RELATIONSHIPS, "id"));
+                    }
+                }
+                reader.close();
+            } finally {
+                input.close();
+            }
+            if (sheet < 0 || sheet >= sheets.size()) {
+                throw new IllegalArgumentException("Sheet " + sheet + " does not exist");
+            }
+            PackageRelationship relationship = workbook.getRelationship(sheets.get(sheet));
+            if (relationship == null) {
+                throw new IOException("Sheet " + sheet + " not found");
+            }
+
+            // Sheet
+            this.stream = workbook.getRelatedPart(relationship).getInputStream();
+            this.reader = factory.createXMLStreamReader(stream);
+            this.next = readRow();
+
+        } catch (IOException | RuntimeException e) {
+            pkg.revert();
+            throw e;
+        } catch (OpenXML4JException | XMLStreamException e) {
+            pkg.revert();
+            throw new IOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            reader.close();
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        } finally {
+            stream.close();
+            pkg.revert();
+        }
+    }
+
+    /**
+     * Returns the number of rows according to the dimension stored in the sheet,
+     * 0 if it is not known
+     *
+     * @return
+     */
+    public int getNumRows() {
+        return rows;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return next != null;
+    }
+
+    @Override
+    public String[] next() {
+        if (next == null) {
+            throw new NoSuchElementException();
+        }
+        String[] result = next;
+        try {
+            next = readRow();
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException("Error reading sheet", e);
+        }
+        return result;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Decodes characters escaped as "_xHHHH_"
+     *
+     * @param value
+     * @return
+     */
+    private String decode(String value) {
+        if (value.indexOf("_x") == -1) {
+            return value;
+        }
+        Matcher matcher = ESCAPED.matcher(value);
+        StringBuffer buffer = new StringBuffer();
+        while (matcher.find()) {
+            matcher.appendReplacement(buffer, Matcher.quoteReplacement(String.valueOf((char) Integer.parseInt(matcher.group(1), 16))));
+        }
+        matcher.appendTail(buffer);
+        return buffer.toString();
+    }
+
+    /**
+     * Returns the index of the column from a cell reference, e.g. 27 for "AB12"
+     *
+     * @param reference
+     * @return
+     */
+    private int getColumn(String reference) {
+        int column = 0;
+        for (int i = 0; i < reference.length(); i++) {
+            char c = reference.charAt(i);
+            if (c < 'A' || c > 'Z') {
+                break;
+            }
+            column = column * 26 + (c - 'A' + 1);
+        }
+        return column - 1;
+    }
+
+    /**
+     * Returns the number of the row from a cell reference, e.g. 12 for "AB12"
+     *
+     * @param reference
+     * @return
+     */
+    private int getRow(String reference) {
+        int index = 0;
+        while (index < reference.length() && !Character.isDigit(reference.charAt(index))) {
+            index++;
+        }
+        return Integer.parseInt(reference.substring(index));
+    }
+
+    /**
+     * Returns the number of rows from a dimension, e.g. 500 for "A1:C500"
+     *
+     * @param reference
+     * @return
+     */
+    private int getRows(String reference) {
+        int index = reference.indexOf(':');
+        if (index == -1) {
+            return 0;
+        }
+        try {
+            return getRow(reference.substring(index + 1)) - getRow(reference.substring(0, index)) + 1;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Reads a cell and converts its value to a string
+     *
+     * @param type
+     * @return
+     * @throws XMLStreamException
+     */
+    private String readCell(String type) throws XMLStreamException {
+
+        // Read
+        boolean formula = false;
+        String value = null;
+        String inline = null;
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                String name = reader.getLocalName();
+                if (name.equals("v")) {
+                    value = reader.getElementText();
+                } else if (name.equals("f")) {
+                    formula = true;
+                } else if (name.equals("is")) {
+                    inline = readString(reader, "is");
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT && reader.getLocalName().equals("c")) {
+                break;
+            }
+        }
+
+        // Convert
+        if (type != null && type.equals("inlineStr")) {
+            return inline == null ? "" : inline;
+        } else if (value == null) {
+            return "";
+        } else if (type != null && type.equals("b")) {
+            return value.equals("1") ? "TRUE" : "FALSE";
+        } else if (type != null && type.equals("s") && !formula) {
+            return strings.get(Integer.parseInt(value.trim()));
+        } else {
+            return value;
+        }
+    }
+
+    /**
+     * Reads the next row, returns null if there is none
+     *
+     * @return
+     * @throws XMLStreamException
+     */
+    private String[] readRow() throws XMLStreamException {
+
+        // Find row
+        boolean found = false;
+        while (!found && reader.hasNext()) {
+            if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+                String name = reader.getLocalName();
+                if (name.equals("row")) {
+                    found = true;
+                } else if (name.equals("dimension")) {
+                    String reference = reader.getAttributeValue(null, "ref");
+                    rows = reference == null ? 0 : getRows(reference);
+                }
+            }
+        }
+        if (!found) {
+            return null;
+        }
+
+        // Read cells
+        List<String> values = new ArrayList<String>();
+        int column = -1;
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT && reader.getLocalName().equals("c")) {
+                String reference = reader.getAttributeValue(null, "r");
+                column = reference == null ? column + 1 : getColumn(reference);
+                String value = readCell(reader.getAttributeValue(null, "t"));
+                while (values.size() <= column) {
+                    values.add("");
+                }
+                values.set(column, value);
+            } else if (event == XMLStreamConstants.END_ELEMENT && reader.getLocalName().equals("row")) {
+                break;
+            }
+        }
+        return values.toArray(new String[values.size()]);
+    }
+
+    /**
+     * Reads a string, which consists of a text element or of runs of text elements.
+     * Phonetic runs are ignored.
+     *
+     * @param reader
+     * @param element
+     * @return
+     * @throws XMLStreamException
+     */
+    private String readString(XMLStreamReader reader, String element) throws XMLStreamException {
+        StringBuilder builder = new StringBuilder();
+        boolean phonetic = false;
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                String name = reader.getLocalName();
+                if (name.equals("rPh")) {
+                    phonetic = true;
+                } else if (name.equals("t") && !phonetic) {
+                    builder.append(reader.getElementText());
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                String name = reader.getLocalName();
+                if (name.equals("rPh")) {
+                    phonetic = false;
+                } else if (name.equals(element)) {
+                    break;
+                }
+            }
+        }
+        return decode(builder.toString());
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * ARX Data Anonymization Tool
+ * Copyright 2012 - 2022 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.metric.v2;
+
+import java.io.Serializable;
+
+import org.deidentifier.arx.framework.data.GeneralizationHierarchy;
+
+/**
+ * This class materializes the information loss induced by generalizing a column
+ * to a given level. For each column and level, the contributions of all values
+ * are summed up once, based on the cardinalities of the input. Afterwards, the
+ * information loss of a column at a given level can be looked up in constant time.
+ * This is only possible for models in which the contribution of a value does not
+ * depend on the values of other columns, e.g. when computing lower bounds.
+ *
+ * @author Fabian Prasser
+ */
+public class ContributionTable implements Serializable {
+
+    /**
+     * Computes the information loss induced by the records with a given value.
+     *
+     * @author Fabian Prasser
+     */
+    public static interface Contribution {
+
+        /**
+         * Returns the contribution of all records with the given input value,
+         * which is transformed into the given output value on the given level.
+         *
+         * @param column
+         * @param level
+         * @param input
+         * @param output
+         * @param count The number of records with the input value
+         * @return
+         */
+        public double getContribution(int column, int level, int input, int output, int count);
+    }
+
+    /** SVUID. */
+    private static final long serialVersionUID = -2917617045128411306L;
+
+    /** Column -> Level -> Sum of contributions. */
+    private final double[][]  table;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param cardinalities
+     * @param hierarchies
+     * @param contribution
+     */
+    public ContributionTable(Cardinalities cardinalities,
+                             GeneralizationHierarchy[] hierarchies,
+                             Contribution contribution) {
+
+        // Column -> Id -> Level -> Count
+        int[][][] counts = cardinalities.getCardinalities();
+        this.table = new double[hierarchies.length][];
+
+        // For each column
+        for (int column = 0; column < hierarchies.length; column++) {
+
+            // Prepare
+            final int[][] hierarchy = hierarchies[column].getArray();
+            final int[][] cardinality = counts[column];
+            this.table[column] = new double[hierarchies[column].getHeight()];
+
+            // For each level
+            for (int level = 0; level < this.table[column].length; level++) {
+                double sum = 0d;
+                for (int input = 0; input < hierarchy.length; input++) {
+                    final int count = cardinality[input][0];
+                    if (count != 0) {
+                        sum += contribution.getContribution(column, level, input, hierarchy[input][level], count);
+                    }
+                }
+                this.table[column][level] = sum;
+            }
+        }
+    }
+
+    /**
+     * Returns the sum of the contributions of all values in the given column
+     * on the given level.
+     *
+     * @param column
+     * @param level
+     * @return
+     */
+    public double get(int column, int level) {
+        return this.table[column][level];
+    }
+
+    /**
+     * Returns a copy of the table.
+     *
+     * @return
+     */
+    public double[][] getTable() {
+        double[][] result = new double[this.table.length][];
+        for (int column = 0; column < result.length; column++) {
+            result[column] = this.table[column].clone();
+        }
+        return result;
+    }
+}
@@ -57,6 +57,9 @@ public class MetricMDNMLoss extends AbstractMetricMultiDimensional {
     /** Reliable domain shares for each dimension. */
     private DomainShareReliable[] sharesReliable;
 
+    /** Cardinalities of the generalized attributes, used for computing lower bounds. */
+    private transient Cardinalities cardinalities;
+
     /** We must override this for backward compatibility. Remove, when re-implemented. */
     private final double          gFactor;
 
@@ -326,7 +329,42 @@ public class MetricMDNMLoss extends AbstractMetricMultiDimensional {
     
     @Override
     protected AbstractILMultiDimensional getLowerBoundInternal(Transformation<?> node) {
-        return null;
+        
+        // Check
+        if (cardinalities == null) {
+            return null;
+        }
+        
+        // Prepare
+        int dimensions = getDimensions();
+        int dimensionsGeneralized = getDimensionsGeneralized();
+        int[] transformation = node.getGeneralization();
+        double[] bound = new double[dimensions];
+        int[][][] cardinalities = this.cardinalities.getCardinalities();
+
+        // Compute lower bound from the frequencies of the generalized values
+        for (int dimension=0; dimension<dimensionsGeneralized; dimension++){
+            int level = transformation[dimension];
+            int[][] counts = cardinalities[dimension];
+            for (int value = 0; value < counts.length; value++) {
+                int count = counts[value][level];
+                if (count != 0) {
+                    double share = (double)count * shares[dimension].getShare(value, level);
+                    bound[dimension] += share * gFactor;
+                }
+            }
+        }
+        // Note: we ignore microaggregation, as we cannot compute a bound for it
+        // this means that the according entries in the resulting array are not changed and remain 0d
+        // This is not a problem, as it is OK to underestimate information loss when computing lower bounds
+        
+        // Normalize
+        for (int dimension=0; dimension<dimensionsGeneralized; dimension++){
+            bound[dimension] = normalizeGeneralized(bound[dimension], dimension);
+        }
+        
+        // Return
+        return super.createInformationLoss(bound);
     }
     
     @Override
@@ -389,6 +427,11 @@ public class MetricMDNMLoss extends AbstractMetricMultiDimensional {
         
         // Save domain shares
         this.shares = manager.getDomainShares();
+        
+        // Cardinalities for computing lower bounds of transformations that have not been checked
+        if (!this.isPrecomputed()) {
+            this.cardinalities = manager.getCardinalities(super.getSubset(config));
+        }
 
         if (config.isPrivacyModelSpecified(EDDifferentialPrivacy.class)) {
             // Save reliable domain shares
@@ -39,11 +39,8 @@ public class MetricMDNMLossPrecomputed extends MetricMDNMLoss {
     /** SUID. */
     private static final long serialVersionUID = -7505441444551612996L;
 
-    /** Cardinalities. */
-    private Cardinalities     cardinalities;
-    
-    /** Distinct values: attribute -> level -> values. */
-    private int[][][]         values;
+    /** Materialized lower bounds: attribute -> level -> loss. */
+    private ContributionTable bounds;
     
     /**
      * Creates a new instance.
@@ -119,25 +116,11 @@ public class MetricMDNMLossPrecomputed extends MetricMDNMLoss {
         int dimensionsGeneralized = getDimensionsGeneralized();
         int[] transformation = node.getGeneralization();
         double[] bound = new double[dimensions];
-        DomainShare[] shares = super.getShares();
         double gFactor = super.getGeneralizationFactor();
-        // Column -> Id -> Level -> Count
-        int[][][] cardinalities = this.cardinalities.getCardinalities();
-
 
         // For each column
         for (int column = 0; column < dimensionsGeneralized; column++) {
-
-            // Check for cached value
-            int level = transformation[column];
-            int[][] cardinality = cardinalities[column];
-            int[] values = this.values[column][level];
-            
-            for (int value : values) {
-                double count = cardinality[value][level];
-                double share = count * shares[column].getShare(value, level);
-                bound[column] += share * gFactor;
-            }
+            bound[column] = bounds.get(column, transformation[column]) * gFactor;
         }
         // Note: we ignore microaggregation, as we cannot compute a bound for it
         // this means that the according entries in the resulting array are not changed and remain 0d
@@ -167,19 +150,17 @@ public class MetricMDNMLossPrecomputed extends MetricMDNMLoss {
         // Prepare super
         super.initializeInternal(manager, definition, input, hierarchies, config);
 
-        // Compute cardinalities
-        RowSet subset = super.getSubset(config);
-        
         // Cardinalities
-        this.cardinalities = new Cardinalities(input, subset, hierarchies);
+        RowSet subset = super.getSubset(config);
+        Cardinalities cardinalities = manager.getCardinalities(subset);
         
-        // Distinct values
-        this.values = new int[hierarchies.length][][];
-        for (int i=0; i<values.length; i++) {
-            values[i] = new int[hierarchies[i].getHeight()][];
-            for (int j=0; j<values[i].length; j++){
-                values[i][j] = hierarchies[i].getDistinctValues(j);
+        // Materialize the loss of all values on all levels
+        final DomainShare[] shares = super.getShares();
+        this.bounds = new ContributionTable(cardinalities, hierarchies, new ContributionTable.Contribution() {
+            @Override
+            public double getContribution(int column, int level, int input, int output, int count) {
+                return (double)count * shares[column].getShare(output, level);
             }
-        }
+        });
     }
 }
@@ -374,24 +374,28 @@ public class MetricMDNUEntropyPrecomputed extends AbstractMetricMultiDimensional
         RowSet subset = super.getSubset(config);
         
         // Cardinalities
-        this.cardinalities = new Cardinalities(input, subset, hierarchies);
+        this.cardinalities = manager.getCardinalities(subset);
         this.rows = input.getDataLength();
         double gFactor = super.getGeneralizationFactor();
         double sFactor = super.getSuppressionFactor();
         
-        // Create a cache for the results
-        this.cache = new double[hierarchies.length][];
-        for (int i = 0; i < cache.length; i++) {
-            cache[i] = new double[hierarchies[i].getArray()[0].length];
-            Arrays.fill(cache[i], NOT_AVAILABLE);
-        }
-        
         // Create reference to the hierarchies
         final DataMatrix data = input.getArray();
         this.hierarchies = new int[data.getNumColumns()][][];
         for (int i = 0; i < hierarchies.length; i++) {
             this.hierarchies[i] = hierarchies[i].getArray();
         }
+        
+        // Materialize the entropy of all columns on all levels
+        final int[][][] cardinalities = this.cardinalities.getCardinalities();
+        this.cache = new ContributionTable(this.cardinalities, hierarchies, new ContributionTable.Contribution() {
+            @Override
+            public double getContribution(int column, int level, int input, int output, int count) {
+                final double a = count;
+                final double b = cardinalities[column][output][level];
+                return a * log2(a / b);
+            }
+        }).getTable();
 
         // Compute a reasonable min & max
         double[] min = new double[hierarchies.length];
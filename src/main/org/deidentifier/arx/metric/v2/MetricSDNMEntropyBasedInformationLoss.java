@@ -86,9 +86,8 @@ public class MetricSDNMEntropyBasedInformationLoss extends AbstractMetricSingleD
 
         int[] generalization = transformation.getGeneralization();
         double infoLoss = 1d;
-        entry.read();
         for (int dimension = 0; dimension < shares.length; dimension++) {
-            int value = entry.next();
+            int value = entry.get(dimension);
             int level = generalization[dimension];
             infoLoss *= shares[dimension].getShare(value, level);
         }
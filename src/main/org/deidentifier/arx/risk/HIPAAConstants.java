@@ -51,15 +51,15 @@ public abstract class HIPAAConstants {
     }
 
     /** Cities */
-    private Set<String>                       cities     = null;
+    private volatile Set<String>              cities     = null;
     /** First names */
-    private Set<String>                       firstnames = null;
+    private volatile Set<String>              firstnames = null;
     /** Last names */
-    private Set<String>                       lastnames  = null;
+    private volatile Set<String>              lastnames  = null;
     /** States */
-    private Set<String>                       states     = null;
+    private volatile Set<String>              states     = null;
     /** Zip codes */
-    private Set<String>                       zipcodes   = null;
+    private volatile Set<String>              zipcodes   = null;
     /** Labels */
     private Map<String, Map<String, Integer>> labels     = null;
                                                          
@@ -137,25 +137,37 @@ public abstract class HIPAAConstants {
     }
     
     /** Cities */
-    private Set<String> getCities() {
+    Set<String> getCities() {
         if (cities == null) {
-            cities = load("cities.csv");
+            synchronized (this) {
+                if (cities == null) {
+                    cities = load("cities.csv");
+                }
+            }
         }
         return cities;
     }
     
     /** First names */
-    private Set<String> getFirstnames() {
+    Set<String> getFirstnames() {
         if (firstnames == null) {
-            firstnames = load("firstnames.csv");
+            synchronized (this) {
+                if (firstnames == null) {
+                    firstnames = load("firstnames.csv");
+                }
+            }
         }
         return firstnames;
     }
     
     /** Last names */
-    private Set<String> getLastnames() {
+    Set<String> getLastnames() {
         if (lastnames == null) {
-            lastnames = load("lastnames.csv");
+            synchronized (this) {
+                if (lastnames == null) {
+                    lastnames = load("lastnames.csv");
+                }
+            }
         }
         return lastnames;
     }
@@ -201,9 +213,13 @@ public abstract class HIPAAConstants {
     }
 
     /** States */
-    private Set<String> getStates() {
+    Set<String> getStates() {
         if (states == null) {
-            states = load("states.csv");
+            synchronized (this) {
+                if (states == null) {
+                    states = load("states.csv");
+                }
+            }
         }
         return states;
     }
@@ -211,7 +227,11 @@ public abstract class HIPAAConstants {
     /** Zip codes */
     private Set<String> getZipcodes() {
         if (zipcodes == null) {
-            zipcodes = load("zipcodes.csv");
+            synchronized (this) {
+                if (zipcodes == null) {
+                    zipcodes = load("zipcodes.csv");
+                }
+            }
         }
         return zipcodes;
     }
@@ -79,6 +79,15 @@ class HIPAAIdentifierConfig {
         return identifier;
     }
     
+    /**
+     * Returns the matcher for attribute values, if any
+     * 
+     * @return
+     */
+    HIPAAMatcherAttributeValue getMatcherValue() {
+        return matcherValue;
+    }
+    
     /**
      * Returns if the attribute name matches
      * 
@@ -17,14 +17,16 @@
 
 package org.deidentifier.arx.risk;
 
+import java.text.DateFormat;
+import java.text.ParsePosition;
+import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.apache.commons.validator.routines.CalendarValidator;
-import org.apache.commons.validator.routines.DateValidator;
 import org.apache.commons.validator.routines.EmailValidator;
 import org.apache.commons.validator.routines.InetAddressValidator;
 import org.apache.commons.validator.routines.UrlValidator;
@@ -51,6 +53,11 @@ abstract class HIPAAMatcherAttributeValue {
             super(constants);
         }
         
+        @Override
+        boolean isCandidate(int features) {
+            return (features & FEATURE_DIGIT) != 0 && (features & FEATURE_NO_NUMBER) == 0;
+        }
+        
         @Override
         public boolean matches(String value) {
             if (value.isEmpty()) {
@@ -80,6 +87,11 @@ abstract class HIPAAMatcherAttributeValue {
             super(constants);
         }
         
+        @Override
+        Set<String> getDictionary() {
+            return constants.getCities();
+        }
+        
         @Override
         public boolean matches(String value) {
             value = value.trim().toLowerCase();
@@ -93,12 +105,26 @@ abstract class HIPAAMatcherAttributeValue {
      */
     static class HIPAAMatcherDate extends HIPAAMatcherAttributeValue {
 
+        /** Strict formats for all example patterns, which are cloned before use */
+        private final DateFormat[] formats;
+
         /**
          * Creates a new instance
          * @param constants
          */
         HIPAAMatcherDate(HIPAAConstants constants) {
             super(constants);
+            List<String> patterns = DataType.DATE.getDescription().getExampleFormats();
+            this.formats = new DateFormat[patterns.size()];
+            for (int i = 0; i < formats.length; i++) {
+                formats[i] = new SimpleDateFormat(patterns.get(i));
+                formats[i].setLenient(false);
+            }
+        }
+        
+        @Override
+        boolean isCandidate(int features) {
+            return (features & FEATURE_DIGIT) != 0;
         }
         
         @Override
@@ -117,13 +143,17 @@ abstract class HIPAAMatcherAttributeValue {
         }
         
         /**
+         * Validates the value like a strict DateValidator, but without compiling the patterns
+         * for each value
+         * 
          * @param value Cell content
          * @return True if input is a date
          */
         private boolean isDate(String value) {
-            DateValidator validator = DateValidator.getInstance();
-            for (String format : DataType.DATE.getDescription().getExampleFormats()) {
-                if (validator.isValid(value, format)) {
+            for (DateFormat format : formats) {
+                ParsePosition position = new ParsePosition(0);
+                Object result = ((DateFormat) format.clone()).parseObject(value, position);
+                if (result != null && position.getErrorIndex() == -1 && position.getIndex() >= value.length()) {
                     return true;
                 }
             }
@@ -164,6 +194,11 @@ abstract class HIPAAMatcherAttributeValue {
             super(constants);
         }
         
+        @Override
+        boolean isCandidate(int features) {
+            return (features & FEATURE_AT) != 0;
+        }
+        
         @Override
         public boolean matches(String value) {
             EmailValidator validator = EmailValidator.getInstance();
@@ -185,6 +220,11 @@ abstract class HIPAAMatcherAttributeValue {
             super(constants);
         }
         
+        @Override
+        Set<String> getDictionary() {
+            return constants.getFirstnames();
+        }
+        
         @Override
         public boolean matches(String value) {
             value = value.trim().toLowerCase();
@@ -227,6 +267,11 @@ abstract class HIPAAMatcherAttributeValue {
             super(constants);
         }
         
+        @Override
+        boolean isCandidate(int features) {
+            return (features & (FEATURE_DOT | FEATURE_COLON)) != 0;
+        }
+        
         @Override
         public boolean matches(String value) {
             InetAddressValidator validator = InetAddressValidator.getInstance();
@@ -248,6 +293,11 @@ abstract class HIPAAMatcherAttributeValue {
             super(constants);
         }
         
+        @Override
+        Set<String> getDictionary() {
+            return constants.getLastnames();
+        }
+        
         @Override
         public boolean matches(String value) {
             value = value.trim().toLowerCase();
@@ -263,6 +313,11 @@ abstract class HIPAAMatcherAttributeValue {
         HIPAAMatcherSSN() {
             super("[0-9]{3}-[0-9]{2}-[0-9]{4}|[0-9]{9}");
         }
+        
+        @Override
+        boolean isCandidate(int features) {
+            return (features & FEATURE_DIGIT) != 0 && (features & FEATURE_NO_SSN) == 0;
+        }
     }
     /**
      * Pattern which matches a state with a predefined list of states
@@ -278,6 +333,11 @@ abstract class HIPAAMatcherAttributeValue {
             super(constants);
         }
         
+        @Override
+        Set<String> getDictionary() {
+            return constants.getStates();
+        }
+        
         @Override
         public boolean matches(String value) {
             value = value.trim().toLowerCase();
@@ -290,17 +350,16 @@ abstract class HIPAAMatcherAttributeValue {
      * @author Florian Kohlmayer, Fabian Prasser, David Gassmann
      */
     static abstract class HIPAAMatcherString extends HIPAAMatcherAttributeValue {
-        Matcher matcher;
+        Pattern pattern;
         
         HIPAAMatcherString(String regex) {
             super(null);
-            Pattern pattern = Pattern.compile(regex);
-            matcher = pattern.matcher("");
+            pattern = Pattern.compile(regex);
         }
         
         @Override
         public boolean matches(String value) {
-            return matcher.reset(value).matches();
+            return pattern.matcher(value).matches();
         }
     }
     
@@ -318,6 +377,11 @@ abstract class HIPAAMatcherAttributeValue {
             super(constants);
         }
         
+        @Override
+        boolean isCandidate(int features) {
+            return (features & FEATURE_COLON) != 0;
+        }
+        
         @Override
         public boolean matches(String value) {
             UrlValidator validator = UrlValidator.getInstance();
@@ -378,6 +442,11 @@ abstract class HIPAAMatcherAttributeValue {
             zipCodes.add("893");
         }
         
+        @Override
+        boolean isCandidate(int features) {
+            return (features & FEATURE_DIGIT) != 0;
+        }
+        
         @Override
         public boolean matches(String value) {
             value = value.replaceAll("\\s+", "").replaceAll("-", "");
@@ -391,6 +460,53 @@ abstract class HIPAAMatcherAttributeValue {
         }
     }
 
+    /** Feature: the value contains a digit */
+    static final int FEATURE_DIGIT     = 1 << 0;
+    /** Feature: the value contains an '@' */
+    static final int FEATURE_AT        = 1 << 1;
+    /** Feature: the value contains a ':' */
+    static final int FEATURE_COLON     = 1 << 2;
+    /** Feature: the value contains a '.' */
+    static final int FEATURE_DOT       = 1 << 3;
+    /** Feature: the value contains a character which is neither a digit nor a sign */
+    static final int FEATURE_NO_NUMBER = 1 << 4;
+    /** Feature: the value contains a character which is neither an ASCII digit nor a '-' */
+    static final int FEATURE_NO_SSN    = 1 << 5;
+
+    /**
+     * Returns the features of the given value, which are determined by scanning the
+     * value once. They are used to skip matchers which can not match the value.
+     * 
+     * @param value
+     * @return
+     */
+    static int getFeatures(String value) {
+        int features = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                features |= FEATURE_DIGIT;
+                continue;
+            }
+            if (c != '-') {
+                features |= FEATURE_NO_SSN;
+            }
+            if (Character.isDigit(c)) {
+                features |= FEATURE_DIGIT;
+            } else if (c != '+' && c != '-') {
+                features |= FEATURE_NO_NUMBER;
+            }
+            if (c == '@') {
+                features |= FEATURE_AT;
+            } else if (c == ':') {
+                features |= FEATURE_COLON;
+            } else if (c == '.') {
+                features |= FEATURE_DOT;
+            }
+        }
+        return features;
+    }
+
     /** Constants*/
     protected final HIPAAConstants constants;
 
@@ -402,6 +518,26 @@ abstract class HIPAAMatcherAttributeValue {
         this.constants = constants;
     }
     
+    /**
+     * Returns the dictionary, if this matcher matches values which are contained in a
+     * dictionary after being trimmed and converted to lower case. Returns null otherwise.
+     * 
+     * @return
+     */
+    Set<String> getDictionary() {
+        return null;
+    }
+    
+    /**
+     * Returns false, if values with the given features can not be matched
+     * 
+     * @param features
+     * @return
+     */
+    boolean isCandidate(int features) {
+        return true;
+    }
+    
     /**
      * Returns true if the value matches the given Pattern.
      * @param value
@@ -194,7 +194,7 @@ public class RiskEstimateBuilder {
      * @return
      */
     public HIPAAIdentifierMatch[] getHIPAAIdentifiers() {
-        return new RiskModelHIPAASafeHarbor().getMatches(handle, 0.5d, stop);
+        return new RiskModelHIPAASafeHarbor(getNumberOfThreads()).getMatches(handle, 0.5d, stop);
     }
 
     /**
@@ -205,7 +205,24 @@ public class RiskEstimateBuilder {
      * @return
      */
     public HIPAAIdentifierMatch[] getHIPAAIdentifiers(double threshold) {
-        return new RiskModelHIPAASafeHarbor().getMatches(handle, threshold, stop);
+        return new RiskModelHIPAASafeHarbor(getNumberOfThreads()).getMatches(handle, threshold, stop);
+    }
+
+    /**
+     * Returns the a set of potential HIPAA identifiers. Values are matched with the
+     * given confidence threshold. The percentage of matching values of each attribute
+     * is estimated from a random sample of its distinct values, which is enlarged until
+     * the percentage is above or below the threshold with the given confidence level.
+     *
+     * @param threshold Confidence threshold
+     * @param confidence Confidence level of the estimates, e.g. 0.99
+     * @return
+     */
+    public HIPAAIdentifierMatch[] getHIPAAIdentifiers(double threshold, double confidence) {
+        if (confidence <= 0d || confidence >= 1d) {
+            throw new IllegalArgumentException("Confidence level must be in ]0, 1[");
+        }
+        return new RiskModelHIPAASafeHarbor(getNumberOfThreads()).getMatches(handle, threshold, confidence, stop);
     }
 
     /**
@@ -328,6 +345,15 @@ public class RiskEstimateBuilder {
         }
     }
 
+    /**
+     * Returns the number of threads of the configuration, 1 for input handles
+     *
+     * @return
+     */
+    private int getNumberOfThreads() {
+        return arxconfig == null ? 1 : arxconfig.getNumberOfThreads();
+    }
+
     /**
      * Returns a class providing population-based uniqueness estimates
      *
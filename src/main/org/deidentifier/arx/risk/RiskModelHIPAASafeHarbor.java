@@ -18,9 +18,16 @@
 package org.deidentifier.arx.risk;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
 
 import org.deidentifier.arx.DataHandleInternal;
+import org.deidentifier.arx.common.SamplingUtil;
+import org.deidentifier.arx.common.WorkerPool;
 import org.deidentifier.arx.common.WrappedBoolean;
 import org.deidentifier.arx.exceptions.ComputationInterruptedException;
 import org.deidentifier.arx.risk.HIPAAIdentifierMatch.HIPAAIdentifier;
@@ -45,14 +52,63 @@ import org.deidentifier.arx.risk.HIPAAMatcherAttributeValue.HIPAAMatcherZIP;
  */
 class RiskModelHIPAASafeHarbor {
 
+    /** Number of distinct values of all attributes above which attributes are matched in parallel */
+    static final int                               PARALLEL_THRESHOLD = 10000;
+
+    /** Number of sampled values after which the confidence bounds are evaluated */
+    private static final int                       SAMPLE_STEP        = 100;
+
     /** All configurations*/
-    private final List<HIPAAIdentifierConfig> configurations;
+    private final List<HIPAAIdentifierConfig>      configurations;
+
+    /** Configurations which match attribute values */
+    private final HIPAAIdentifierConfig[]          valueConfigurations;
+
+    /** Matchers of the configurations which match attribute values */
+    private final HIPAAMatcherAttributeValue[]     valueMatchers;
+
+    /** Bit masks of the configurations which match attribute values via dictionaries */
+    private final long[]                           dictionaryMasks;
+
+    /** Maps normalized values to bit masks of the configurations whose dictionaries contain them */
+    private final Map<String, Long>                dictionaries;
+
+    /** Number of threads for matching attributes in parallel */
+    private final int                              numberOfThreads;
 
     /**
      * Constructor
+     * 
+     * @param numberOfThreads Number of threads for matching attributes in parallel
      */
-    RiskModelHIPAASafeHarbor() {
+    RiskModelHIPAASafeHarbor(int numberOfThreads) {
         this.configurations = getConfigurations();
+        this.numberOfThreads = numberOfThreads;
+
+        // Collect matchers for attribute values
+        List<HIPAAIdentifierConfig> list = new ArrayList<HIPAAIdentifierConfig>();
+        for (HIPAAIdentifierConfig config : configurations) {
+            if (config.getMatcherValue() != null) {
+                list.add(config);
+            }
+        }
+        this.valueConfigurations = list.toArray(new HIPAAIdentifierConfig[list.size()]);
+        this.valueMatchers = new HIPAAMatcherAttributeValue[valueConfigurations.length];
+        this.dictionaryMasks = new long[valueConfigurations.length];
+        this.dictionaries = new HashMap<String, Long>();
+
+        // Combine all dictionaries, so that each value is looked up only once
+        for (int i = 0; i < valueConfigurations.length; i++) {
+            valueMatchers[i] = valueConfigurations[i].getMatcherValue();
+            Set<String> dictionary = valueMatchers[i].getDictionary();
+            if (dictionary != null && i < Long.SIZE) {
+                dictionaryMasks[i] = 1L << i;
+                for (String value : dictionary) {
+                    Long mask = dictionaries.get(value);
+                    dictionaries.put(value, mask == null ? dictionaryMasks[i] : mask | dictionaryMasks[i]);
+                }
+            }
+        }
     }
     
     /**
@@ -66,65 +122,71 @@ class RiskModelHIPAASafeHarbor {
     public HIPAAIdentifierMatch[] getMatches(DataHandleInternal handle, 
                                              double threshold,
                                              WrappedBoolean stop) {
+        return getMatches(handle, threshold, 0d, stop);
+    }
+    
+    /**
+     * Returns a list of matches with HIPAA identifiers. If a confidence level is given, the
+     * percentage of matching values is estimated from a random sample of the distinct values
+     * of each attribute. The sample is enlarged until the percentage is above or below the
+     * threshold with the given confidence.
+     * 
+     * @param handle
+     * @param threshold
+     * @param confidence Confidence level in ]0, 1[ or 0 to match all values
+     * @param stop
+     * @return An array of warnings
+     */
+    public HIPAAIdentifierMatch[] getMatches(DataHandleInternal handle,
+                                             final double threshold,
+                                             double confidence,
+                                             final WrappedBoolean stop) {
+        
+        // Check
+        if (confidence < 0d || confidence >= 1d) {
+            throw new IllegalArgumentException("Confidence must be in ]0, 1[ or 0");
+        }
         
         // Prepare
-        List<HIPAAIdentifierMatch> results = new ArrayList<HIPAAIdentifierMatch>();
+        final int columns = handle.getNumColumns();
+        final String[] attributes = new String[columns];
+        final String[][] values = new String[columns][];
+        int size = 0;
+        for (int column = 0; column < columns; column++) {
+            attributes[column] = handle.getAttributeName(column);
+            values[column] = handle.getDistinctValues(column);
+            size += values[column].length;
+        }
+        final double z = confidence == 0d ? 0d : SamplingUtil.getQuantile(confidence);
         
         // Check each attribute
-        for (int column = 0; column < handle.getNumColumns(); column++) {
-
-            // Init
-            String attribute = handle.getAttributeName(column);
-            String[] values = handle.getDistinctValues(column);
-            
-            // Match attribute name
-            for (HIPAAIdentifierConfig config : configurations) {
-                if (stop.value) {
-                    throw new ComputationInterruptedException();
-                }
-                String match = config.getMatchingAttributeName(attribute);
-                if (match != null) {
-                    results.add(new HIPAAIdentifierMatch(attribute, 
-                                                         config.getIdentifier(), 
-                                                         config.getInstance(),
-                                                         MatchType.ATTRIBUTE_NAME, 
-                                                         match));
-                }
-            }
-            
-            // Match attribute values
-            for (HIPAAIdentifierConfig config : configurations) {
-                int matches = 0;
-                int nonmatches = 0;
-                for (String value : values) {
-                    if (stop.value) {
-                        throw new ComputationInterruptedException();
+        List<List<HIPAAIdentifierMatch>> matches;
+        int threads = Math.min(columns, numberOfThreads);
+        if (threads > 1 && size > PARALLEL_THRESHOLD) {
+            List<Callable<List<HIPAAIdentifierMatch>>> tasks = new ArrayList<Callable<List<HIPAAIdentifierMatch>>>();
+            for (int column = 0; column < columns; column++) {
+                final int index = column;
+                tasks.add(new Callable<List<HIPAAIdentifierMatch>>() {
+                    @Override
+                    public List<HIPAAIdentifierMatch> call() {
+                        return getMatches(attributes[index], values[index], threshold, z, stop);
                     }
-                    
-                    // Count matching values
-                    if (config.getMatchingAttributeValue(value) != null) {
-                        matches++;
-                    } else {
-                        
-                        // Break if too many non-matching values
-                        nonmatches++;
-                        double nonpercentage = (double)nonmatches / (double)values.length;
-                        if (nonpercentage > 1d - threshold) {
-                            break;
-                        }
-                    }
-                }
-                double percentage = (double)matches / (double)values.length;
-                if (percentage > threshold) {
-                    results.add(new HIPAAIdentifierMatch(attribute, 
-                                                         config.getIdentifier(), 
-                                                         config.getInstance(),
-                                                         MatchType.ATTRIBUTE_VALUE, 
-                                                         String.valueOf(percentage)));
-                }
+                });
+            }
+            matches = new WorkerPool(threads).invokeAll(tasks);
+        } else {
+            matches = new ArrayList<List<HIPAAIdentifierMatch>>();
+            for (int column = 0; column < columns; column++) {
+                matches.add(getMatches(attributes[column], values[column], threshold, z, stop));
             }
         }
         
+        // Collect
+        List<HIPAAIdentifierMatch> results = new ArrayList<HIPAAIdentifierMatch>();
+        for (List<HIPAAIdentifierMatch> list : matches) {
+            results.addAll(list);
+        }
+        
         // Return
         return results.toArray(new HIPAAIdentifierMatch[results.size()]);
     }
@@ -256,5 +318,126 @@ class RiskModelHIPAASafeHarbor {
            
         return configurations;
     }
+
+    /**
+     * Returns the matches of one attribute
+     * 
+     * @param attribute
+     * @param values
+     * @param threshold
+     * @param z Quantile of the standard normal distribution or 0 to match all values
+     * @param stop
+     * @return
+     */
+    private List<HIPAAIdentifierMatch> getMatches(String attribute,
+                                                  String[] values,
+                                                  double threshold,
+                                                  double z,
+                                                  WrappedBoolean stop) {
+        
+        // Prepare
+        List<HIPAAIdentifierMatch> results = new ArrayList<HIPAAIdentifierMatch>();
+        
+        // Match attribute name
+        for (HIPAAIdentifierConfig config : configurations) {
+            if (stop.value) {
+                throw new ComputationInterruptedException();
+            }
+            String match = config.getMatchingAttributeName(attribute);
+            if (match != null) {
+                results.add(new HIPAAIdentifierMatch(attribute, 
+                                                     config.getIdentifier(), 
+                                                     config.getInstance(),
+                                                     MatchType.ATTRIBUTE_NAME, 
+                                                     match));
+            }
+        }
+        
+        // Prepare matching of attribute values, which are visited in random order when sampling
+        int length = values.length;
+        int[] order = z == 0d ? null : SamplingUtil.getPermutation(length);
+        int[] matches = new int[valueMatchers.length];
+        int[] nonmatches = new int[valueMatchers.length];
+        int[] counts = new int[valueMatchers.length];
+        boolean[] active = new boolean[valueMatchers.length];
+        int remaining = valueMatchers.length;
+        Arrays.fill(counts, length);
+        Arrays.fill(active, true);
+        
+        // Match attribute values with all configurations at once
+        for (int i = 0; i < length && remaining > 0; i++) {
+            if (stop.value) {
+                throw new ComputationInterruptedException();
+            }
+            
+            // Analyze value once
+            String value = values[order == null ? i : order[i]];
+            Long mask = dictionaries.get(value.trim().toLowerCase());
+            long dictionary = mask == null ? 0L : mask;
+            int features = HIPAAMatcherAttributeValue.getFeatures(value);
+            
+            // Count matching values
+            for (int j = 0; j < valueMatchers.length; j++) {
+                if (!active[j]) {
+                    continue;
+                }
+                HIPAAMatcherAttributeValue matcher = valueMatchers[j];
+                boolean match = dictionaryMasks[j] != 0L ? (dictionary & dictionaryMasks[j]) != 0L :
+                                matcher.isCandidate(features) && matcher.matches(value);
+                if (match) {
+                    matches[j]++;
+                } else {
+                    
+                    // Stop if too many non-matching values
+                    nonmatches[j]++;
+                    double nonpercentage = (double)nonmatches[j] / (double)length;
+                    if (nonpercentage > 1d - threshold) {
+                        active[j] = false;
+                        remaining--;
+                    }
+                }
+            }
+            
+            // Stop if the percentage is above or below the threshold with the given confidence
+            int sampled = i + 1;
+            if (order != null && sampled % SAMPLE_STEP == 0 && sampled < length) {
+                for (int j = 0; j < valueMatchers.length; j++) {
+                    if (active[j] && !isUndecided(SamplingUtil.getWilsonScoreInterval(matches[j], sampled, z), threshold)) {
+                        counts[j] = sampled;
+                        active[j] = false;
+                        remaining--;
+                    }
+                }
+            }
+        }
+        
+        // Collect matching configurations
+        for (int j = 0; j < valueConfigurations.length; j++) {
+            double percentage = (double)matches[j] / (double)counts[j];
+            if (percentage > threshold) {
+                HIPAAIdentifierConfig config = valueConfigurations[j];
+                results.add(new HIPAAIdentifierMatch(attribute, 
+                                                     config.getIdentifier(), 
+                                                     config.getInstance(),
+                                                     MatchType.ATTRIBUTE_VALUE, 
+                                                     String.valueOf(percentage)));
+            }
+        }
+        
+        // Return
+        return results;
+    }
+
+    /**
+     * Returns whether the Wilson score interval of the percentage of matching values
+     * in the sample contains the threshold
+     * 
+     * @param interval
+     * @param threshold
+     * @return
+     */
+    private boolean isUndecided(double[] interval, double threshold) {
+        return interval[0] <= threshold && interval[1] >= threshold;
+    }
     
 }
@@ -0,0 +1,131 @@
+/*
+ * ARX Data Anonymization Tool
+ * Copyright 2012 - 2022 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.deidentifier.arx.ARXLattice.ARXNode;
+import org.deidentifier.arx.framework.data.Data;
+import org.deidentifier.arx.framework.data.DataMatrix;
+import org.deidentifier.arx.framework.data.Dictionary;
+import org.deidentifier.arx.test.TestDataHandleOutput;
+import org.junit.Test;
+
+/**
+ * Tests the cache for the outputs of recently applied transformations. This test is located
+ * in the same package as the cache, which is not part of the public API.
+ *
+ * @author Fabian Prasser
+ */
+public class TestOutputCache {
+
+    /** Number of rows */
+    private static final int ROWS = 1000;
+
+    /**
+     * Tests that the least recently used entries are evicted
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testEviction() throws IOException {
+
+        List<ARXNode> nodes = TestDataHandleOutput.getNodes(TestDataHandleOutput.getResult(false));
+        long size = ROWS / 8 + 4 * ROWS;
+
+        // Memory budget
+        OutputCache cache = new OutputCache(3 * size, Integer.MAX_VALUE);
+        for (int i = 0; i < 4; i++) {
+            cache.put(nodes.get(i), RowSet.create(ROWS), getData());
+        }
+        assertNull(cache.getOutliers(nodes.get(0)));
+        assertNotNull(cache.getOutliers(nodes.get(1)));
+        assertNotNull(cache.getOutliers(nodes.get(2)));
+        assertNotNull(cache.getOutliers(nodes.get(3)));
+
+        // Access order
+        cache.getOutliers(nodes.get(1));
+        cache.put(nodes.get(4), RowSet.create(ROWS), getData());
+        assertNotNull(cache.getOutliers(nodes.get(1)));
+        assertNull(cache.getOutliers(nodes.get(2)));
+
+        // Number of entries
+        cache = new OutputCache(Long.MAX_VALUE, 2);
+        for (int i = 0; i < 3; i++) {
+            cache.put(nodes.get(i), RowSet.create(ROWS), getData());
+        }
+        assertNull(cache.getOutliers(nodes.get(0)));
+        assertNotNull(cache.getOutliers(nodes.get(1)));
+        assertNotNull(cache.getOutliers(nodes.get(2)));
+
+        // Entries exceeding the budget
+        cache = new OutputCache(size - 1, Integer.MAX_VALUE);
+        cache.put(nodes.get(0), RowSet.create(ROWS), getData());
+        assertNull(cache.getOutliers(nodes.get(0)));
+    }
+
+    /**
+     * Tests that handles are re-created from the cache
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testHit() throws IOException {
+
+        ARXResult result = TestDataHandleOutput.getResult(true);
+        List<ARXNode> nodes = TestDataHandleOutput.getNodes(result);
+        OutputCache cache = result.getInput().getRegistry().getCache();
+
+        // Locked buffers are cached when they are released
+        result.getOutput(nodes.get(0), false);
+        assertNull(cache.getOutliers(nodes.get(0)));
+        result.getOutput(nodes.get(1), false).release();
+        assertNotNull(cache.getOutliers(nodes.get(0)));
+        assertNotNull(cache.getOutliers(nodes.get(1)));
+
+        // Forked buffers are cached when they are created
+        result.getOutput(nodes.get(2), true).release();
+        assertNotNull(cache.getOutliers(nodes.get(2)));
+
+        // Re-create
+        for (int i = 0; i < 3; i++) {
+            DataHandleOutput handle = (DataHandleOutput) result.getOutput(nodes.get(i), false);
+            assertFalse(handle.isMaterialized());
+            handle.release();
+        }
+
+        // Materialized when not cached
+        DataHandleOutput handle = (DataHandleOutput) result.getOutput(nodes.get(3), false);
+        assertTrue(handle.isMaterialized());
+    }
+
+    /**
+     * Returns microaggregated data
+     *
+     * @return
+     */
+    private Data getData() {
+        return Data.createWrapper(new DataMatrix(ROWS, 1), new String[] { "attribute" }, new int[] { 0 }, new Dictionary(1));
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * ARX Data Anonymization Tool
+ * Copyright 2012 - 2022 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.test;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+import org.deidentifier.arx.ARXAnonymizer;
+
+/**
+ * Abstract base class for benchmarks of individual components. Benchmarks are only executed
+ * by the benchmark target. Like the benchmarks of the anonymization tests, results are printed
+ * and appended to a CSV file in the directory specified via -DBenchmark.
+ *
+ * @author Fabian Prasser
+ */
+public abstract class AbstractBenchmark {
+
+    /** Timestamp of the benchmark run */
+    private static final String timestamp = new SimpleDateFormat("yyyy-MM-dd'T'HH-mm-ss").format(new Date());
+
+    /**
+     * Returns the amount of memory used
+     *
+     * @return
+     */
+    protected long getUsedMemory() {
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+        }
+        return Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
+    }
+
+    /**
+     * Prints the given measurement and appends it to the result file
+     *
+     * @param measure
+     * @param value
+     * @param unit
+     */
+    protected void output(String measure, long value, String unit) {
+
+        // Prepare
+        String version = System.getProperty("Version");
+        String path = System.getProperty("Benchmark");
+        if (path == null || path.length() == 0) {
+            path = ".";
+        }
+        String benchmark = this.getClass().getSimpleName();
+        File file = new File(path + "/benchmark_" + version + "_" + timestamp + "_" + benchmark + ".csv");
+
+        // Write
+        Writer writer = null;
+        try {
+            boolean header = !file.exists();
+            writer = new BufferedWriter(new FileWriter(file, true));
+            if (header) {
+                writer.write("Version;Git Commit;Benchmark;Measure;Value;Unit");
+                writer.write(System.lineSeparator());
+            }
+            writer.write(ARXAnonymizer.VERSION + ";" + version + ";" + benchmark + ";" + measure + ";" + value + ";" + unit);
+            writer.write(System.lineSeparator());
+            System.out.println(benchmark + " - " + measure + ": " + value + " [" + unit + "]");
+        } catch (Exception e) {
+            e.printStackTrace();
+        } finally {
+            if (writer != null) {
+                try {
+                    writer.close();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * ARX Data Anonymization Tool
+ * Copyright 2012 - 2022 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.deidentifier.arx.ARXLattice.ARXNode;
+import org.deidentifier.arx.ARXResult;
+import org.deidentifier.arx.DataHandle;
+import org.junit.Test;
+
+/**
+ * Measures the memory required for handles to output data and the time required for
+ * creating and re-creating them.
+ *
+ * @author Fabian Prasser
+ */
+public class BenchmarkDataHandleOutput extends AbstractBenchmark {
+
+    /** Number of handles */
+    private static final int HANDLES = 50;
+
+    /**
+     * Measures the memory required for handles to different transformations and
+     * the time required for re-creating them
+     *
+     * @throws IOException
+     */
+    @Test
+    public void benchmark() throws IOException {
+
+        // Prepare
+        ARXResult result = TestDataHandleOutput.getResult(false);
+        List<ARXNode> nodes = TestDataHandleOutput.getNodes(result);
+        List<DataHandle> handles = new ArrayList<DataHandle>();
+        long memory = getUsedMemory();
+
+        // Create
+        long time = System.nanoTime();
+        for (int i = 0; i < HANDLES && i < nodes.size(); i++) {
+            handles.add(result.getOutput(nodes.get(i), true));
+        }
+        time = System.nanoTime() - time;
+        memory = getUsedMemory() - memory;
+        output("Creation time per handle", time / handles.size() / 1000000L, "ms");
+        output("Memory per handle", memory / handles.size() / 1024L, "KB");
+
+        // Re-create
+        for (DataHandle handle : handles) {
+            handle.release();
+        }
+        time = System.nanoTime();
+        for (int i = 0; i < handles.size(); i++) {
+            handles.set(i, result.getOutput(nodes.get(i), true));
+        }
+        time = System.nanoTime() - time;
+        output("Re-creation time per handle", time / handles.size() / 1000L, "us");
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * ARX Data Anonymization Tool
+ * Copyright 2012 - 2022 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.test;
+
+import java.util.Locale;
+import java.util.Random;
+
+import org.deidentifier.arx.Data;
+import org.deidentifier.arx.Data.DefaultData;
+import org.deidentifier.arx.DataType;
+import org.deidentifier.arx.aggregates.HierarchyBuilderDate;
+import org.deidentifier.arx.aggregates.HierarchyBuilderDate.Granularity;
+import org.junit.Test;
+
+/**
+ * Measures workloads which parse and format values with data types, by building summary
+ * statistics and date hierarchies for a large number of rows.
+ *
+ * @author Fabian Prasser
+ */
+public class BenchmarkDataTypeFormats extends AbstractBenchmark {
+
+    /**
+     * Builds summary statistics and date hierarchies
+     */
+    @Test
+    public void benchmark() {
+
+        // Prepare
+        final int ROWS = 200000;
+        final int REPETITIONS = 5;
+        Random random = new Random(0xDEADBEEF);
+        String[] dates = new String[ROWS];
+        DefaultData data = Data.create();
+        data.add("date", "decimal", "integer");
+        for (int row = 0; row < ROWS; row++) {
+            dates[row] = TestDataTypeFormats.getDate(random);
+            data.add(dates[row], TestDataTypeFormats.getDecimal(random), TestDataTypeFormats.getInteger(random));
+        }
+        data.getDefinition().setDataType("date", DataType.createDate("dd.MM.yyyy", Locale.US));
+        data.getDefinition().setDataType("decimal", DataType.createDecimal("#,##0.00", Locale.US));
+        data.getDefinition().setDataType("integer", DataType.createInteger("#,##0", Locale.US));
+
+        // Warmup and benchmark
+        long timeStatistics = 0;
+        long timeHierarchy = 0;
+        for (int i = 0; i < REPETITIONS + 1; i++) {
+
+            long time = System.nanoTime();
+            data.getHandle().getStatistics().getSummaryStatistics(false);
+            if (i > 0) {
+                timeStatistics += System.nanoTime() - time;
+            }
+
+            time = System.nanoTime();
+            HierarchyBuilderDate.create(DataType.createDate("dd.MM.yyyy", Locale.US),
+                                        Granularity.DAY_MONTH_YEAR,
+                                        Granularity.MONTH_YEAR,
+                                        Granularity.YEAR).build(dates);
+            if (i > 0) {
+                timeHierarchy += System.nanoTime() - time;
+            }
+        }
+
+        // Output
+        output("Summary statistics, " + ROWS + " rows", timeStatistics / REPETITIONS / 1000000L, "ms");
+        output("Date hierarchy, " + ROWS + " rows", timeHierarchy / REPETITIONS / 1000000L, "ms");
+    }
+}
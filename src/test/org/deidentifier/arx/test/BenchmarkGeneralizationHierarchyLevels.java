@@ -0,0 +1,108 @@
+/*
+ * ARX Data Anonymization Tool
+ * Copyright 2012 - 2022 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.test;
+
+import static org.deidentifier.arx.test.TestGeneralizationHierarchyLevels.HEIGHT;
+import static org.deidentifier.arx.test.TestGeneralizationHierarchyLevels.VALUES;
+
+import java.util.Random;
+
+import org.deidentifier.arx.framework.data.DataMatrix;
+import org.deidentifier.arx.framework.data.GeneralizationHierarchy;
+import org.junit.Test;
+
+/**
+ * Compares transforming a large number of rows via the flat lookup tables of generalization
+ * hierarchies to transforming them via jagged arrays.
+ *
+ * @author Fabian Prasser
+ */
+public class BenchmarkGeneralizationHierarchyLevels extends AbstractBenchmark {
+
+    /** Number of columns */
+    private static final int COLUMNS = 10;
+
+    /**
+     * Compares flat lookup tables to jagged arrays
+     */
+    @Test
+    public void benchmark() {
+
+        // Prepare
+        final int ROWS = 2000000;
+        final int REPETITIONS = 10;
+        GeneralizationHierarchy[] hierarchies = new GeneralizationHierarchy[COLUMNS];
+        for (int column = 0; column < COLUMNS; column++) {
+            hierarchies[column] = TestGeneralizationHierarchyLevels.getHierarchy();
+        }
+        Random random = new Random(0xDEADBEEF);
+        DataMatrix data = new DataMatrix(ROWS, COLUMNS);
+        DataMatrix buffer = new DataMatrix(ROWS, COLUMNS);
+        for (int row = 0; row < ROWS; row++) {
+            for (int column = 0; column < COLUMNS; column++) {
+                data.set(row, column, random.nextInt(VALUES));
+            }
+        }
+        int[] generalization = new int[COLUMNS];
+        for (int column = 0; column < COLUMNS; column++) {
+            generalization[column] = column % HEIGHT;
+        }
+
+        // Warmup and benchmark
+        long timeJagged = 0;
+        long timeFlat = 0;
+        for (int i = 0; i < REPETITIONS + 1; i++) {
+
+            long time = System.nanoTime();
+            int[][][] jagged = new int[COLUMNS][][];
+            for (int column = 0; column < COLUMNS; column++) {
+                jagged[column] = hierarchies[column].getArray();
+            }
+            for (int row = 0; row < ROWS; row++) {
+                buffer.setRow(row);
+                data.setRow(row);
+                for (int column = 0; column < COLUMNS; column++) {
+                    buffer.setValueAtColumn(column, jagged[column][data.getValueAtColumn(column)][generalization[column]]);
+                }
+            }
+            if (i > 0) {
+                timeJagged += System.nanoTime() - time;
+            }
+
+            time = System.nanoTime();
+            int[][] flat = new int[COLUMNS][];
+            for (int column = 0; column < COLUMNS; column++) {
+                flat[column] = hierarchies[column].getLevel(generalization[column]);
+            }
+            for (int row = 0; row < ROWS; row++) {
+                buffer.setRow(row);
+                data.setRow(row);
+                for (int column = 0; column < COLUMNS; column++) {
+                    buffer.setValueAtColumn(column, flat[column][data.getValueAtColumn(column)]);
+                }
+            }
+            if (i > 0) {
+                timeFlat += System.nanoTime() - time;
+            }
+        }
+
+        // Output
+        output("Jagged hierarchies, " + ROWS + " rows with " + COLUMNS + " columns", timeJagged / REPETITIONS / 1000000L, "ms");
+        output("Flat lookup tables, " + ROWS + " rows with " + COLUMNS + " columns", timeFlat / REPETITIONS / 1000000L, "ms");
+    }
+}
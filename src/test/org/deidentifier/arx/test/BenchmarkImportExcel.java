@@ -0,0 +1,145 @@
+/*
+ * ARX Data Anonymization Tool
+ * Copyright 2012 - 2022 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.test;
+
+import static org.deidentifier.arx.test.TestImportExcel.SHEET_END;
+import static org.deidentifier.arx.test.TestImportExcel.SHEET_START;
+import static org.deidentifier.arx.test.TestImportExcel.STRINGS_END;
+import static org.deidentifier.arx.test.TestImportExcel.STRINGS_START;
+import static org.junit.Assert.assertEquals;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.deidentifier.arx.Data;
+import org.deidentifier.arx.DataHandle;
+import org.deidentifier.arx.DataSource;
+import org.junit.Test;
+
+/**
+ * Measures time and peak heap usage when importing a large generated XLSX file.
+ *
+ * @author Fabian Prasser
+ */
+public class BenchmarkImportExcel extends AbstractBenchmark {
+
+    /** Rows */
+    private static final int ROWS    = 500000;
+
+    /** Columns */
+    private static final int COLUMNS = 10;
+
+    /** Shared strings */
+    private static final int STRINGS = 1000;
+
+    /**
+     * Imports a large XLSX file
+     *
+     * @throws IOException
+     */
+    @Test
+    public void benchmark() throws IOException {
+
+        // Prepare
+        File file = getFile();
+
+        // Import
+        System.gc();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            pool.resetPeakUsage();
+        }
+        long time = System.nanoTime();
+        DataSource source = DataSource.createExcelSource(file, 1, true);
+        for (int column = 0; column < COLUMNS; column++) {
+            source.addColumn(column);
+        }
+        DataHandle handle = Data.create(source).getHandle();
+        time = System.nanoTime() - time;
+        long memory = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                memory += pool.getPeakUsage().getUsed();
+            }
+        }
+        assertEquals(ROWS, handle.getNumRows());
+
+        // Output
+        output("File size", file.length() / 1024L / 1024L, "MB");
+        output("Time", time / 1000000L, "ms");
+        output("Throughput", (long) (ROWS / (time / 1000000000d)), "rows/s");
+        output("Peak heap", memory / 1024L / 1024L, "MB");
+    }
+
+    /**
+     * Writes a large XLSX file with shared strings and numbers
+     *
+     * @return
+     * @throws IOException
+     */
+    private File getFile() throws IOException {
+        File file = File.createTempFile("arx", ".xlsx");
+        file.deleteOnExit();
+        ZipOutputStream output = new ZipOutputStream(new FileOutputStream(file));
+        TestImportExcel.write(output);
+        output.putNextEntry(new ZipEntry("xl/sharedStrings.xml"));
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        writer.write(STRINGS_START);
+        for (int i = 0; i < STRINGS; i++) {
+            writer.write("<si><t>value-" + i + "</t></si>");
+        }
+        writer.write(STRINGS_END);
+        writer.flush();
+        output.putNextEntry(new ZipEntry("xl/worksheets/sheet1.xml"));
+        writer.write(SHEET_START + "<sheetData>" + SHEET_END);
+        writer.flush();
+        output.putNextEntry(new ZipEntry("xl/worksheets/sheet2.xml"));
+        writer.write(SHEET_START + "<dimension ref=\"A1:J" + (ROWS + 1) + "\"/><sheetData><row r=\"1\">");
+        for (int column = 0; column < COLUMNS; column++) {
+            writer.write("<c t=\"inlineStr\"><is><t>attribute-" + column + "</t></is></c>");
+        }
+        writer.write("</row>");
+        Random random = new Random(0xDEADBEEF);
+        for (int row = 2; row <= ROWS + 1; row++) {
+            writer.write("<row r=\"" + row + "\">");
+            for (int column = 0; column < COLUMNS; column++) {
+                String reference = (char) ('A' + column) + String.valueOf(row);
+                if (column % 2 == 0) {
+                    writer.write("<c r=\"" + reference + "\" t=\"s\"><v>" + random.nextInt(STRINGS) + "</v></c>");
+                } else {
+                    writer.write("<c r=\"" + reference + "\"><v>" + random.nextInt(100000) + "</v></c>");
+                }
+            }
+            writer.write("</row>");
+        }
+        writer.write(SHEET_END);
+        writer.flush();
+        output.close();
+        return file;
+    }
+}
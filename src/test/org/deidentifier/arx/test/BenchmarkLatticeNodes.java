@@ -0,0 +1,93 @@
+/*
+ * ARX Data Anonymization Tool
+ * Copyright 2012 - 2022 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.deidentifier.arx.ARXLattice;
+import org.deidentifier.arx.ARXLattice.ARXNode;
+import org.deidentifier.arx.ARXLattice.Anonymity;
+import org.deidentifier.arx.metric.Metric;
+import org.deidentifier.arx.metric.v2.__MetricV2;
+import org.junit.Test;
+
+/**
+ * Measures the memory required for nodes in the generalization lattice and the performance
+ * of their binary serialization.
+ *
+ * @author Fabian Prasser
+ */
+public class BenchmarkLatticeNodes extends AbstractBenchmark {
+
+    /** Number of nodes */
+    private static final int NODES = 500000;
+
+    /**
+     * Measures the memory required for nodes and the performance of serialization
+     *
+     * @throws IOException
+     * @throws ClassNotFoundException
+     */
+    @Test
+    public void benchmark() throws IOException, ClassNotFoundException {
+
+        // Prepare
+        ARXLattice lattice = TestLatticeNodes.getLattice(new DataProvider(), Metric.createDiscernabilityMetric(true));
+        List<ARXNode> nodes = new ArrayList<ARXNode>();
+        long memory = getUsedMemory();
+
+        // Create
+        long time = System.nanoTime();
+        ARXNode previous = null;
+        for (int i = 0; i < NODES; i++) {
+            ARXNode node = lattice.new ARXNode(lattice);
+            node.access().setTransformation(new int[] { i % 5, i % 2, i % 6 });
+            node.access().setAnonymity(i % 2 == 0 ? Anonymity.ANONYMOUS : Anonymity.NOT_ANONYMOUS);
+            node.access().setChecked(i % 3 == 0);
+            node.access().setHighestScore(__MetricV2.createILSingleDimensional(i));
+            node.access().setLowestScore(__MetricV2.createILSingleDimensional(i));
+            node.access().setPredecessors(previous == null ? new ARXNode[0] : new ARXNode[] { previous });
+            node.access().setSuccessors(new ARXNode[0]);
+            nodes.add(node);
+            previous = node;
+        }
+        time = System.nanoTime() - time;
+        memory = getUsedMemory() - memory;
+        output("Creation time", time / 1000000L, "ms");
+        output("Memory per node", memory / nodes.size(), "byte");
+
+        // Write
+        lattice.access().setLevels(new ARXNode[][] { nodes.toArray(new ARXNode[nodes.size()]) });
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        time = System.nanoTime();
+        lattice.write(stream);
+        time = System.nanoTime() - time;
+        output("Writing time", time / 1000000L, "ms");
+        output("Size per node", stream.size() / nodes.size(), "byte");
+
+        // Read
+        time = System.nanoTime();
+        ARXLattice.read(new ByteArrayInputStream(stream.toByteArray()));
+        time = System.nanoTime() - time;
+        output("Reading time", time / 1000000L, "ms");
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * ARX Data Anonymization Tool
+ * Copyright 2012 - 2022 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.test;
+
+import java.util.Random;
+
+import org.deidentifier.arx.common.StripedLongObjectMap;
+import org.junit.Test;
+
+import com.carrotsearch.hppc.ObjectObjectOpenHashMap;
+
+/**
+ * Compares the striped maps backing the solution space to maps with boxed keys, single-threaded.
+ *
+ * @author Fabian Prasser
+ */
+public class BenchmarkSolutionSpaceStorage extends AbstractBenchmark {
+
+    /**
+     * Compares the striped map to a map with boxed keys
+     */
+    @Test
+    public void benchmark() {
+
+        // Prepare
+        final int SIZE = 1000000;
+        final int REPETITIONS = 10;
+        long[] keys = new long[SIZE];
+        Random random = new Random(0xDEADBEEF);
+        for (int i = 0; i < SIZE; i++) {
+            keys[i] = random.nextLong() & Long.MAX_VALUE;
+        }
+
+        // Warmup and benchmark
+        long timeBoxed = 0;
+        long timeStriped = 0;
+        int found = 0;
+        for (int i = 0; i < REPETITIONS + 1; i++) {
+
+            long time = System.nanoTime();
+            ObjectObjectOpenHashMap<Object, Object> boxed = new ObjectObjectOpenHashMap<>();
+            for (long key : keys) {
+                boxed.put(key, keys);
+            }
+            for (long key : keys) {
+                found += boxed.getOrDefault(key, null) != null ? 1 : 0;
+            }
+            if (i > 0) {
+                timeBoxed += System.nanoTime() - time;
+            }
+
+            time = System.nanoTime();
+            StripedLongObjectMap<Object> striped = new StripedLongObjectMap<>();
+            for (long key : keys) {
+                striped.put(key, keys);
+            }
+            for (long key : keys) {
+                found += striped.get(key) != null ? 1 : 0;
+            }
+            if (i > 0) {
+                timeStriped += System.nanoTime() - time;
+            }
+        }
+
+        // Output
+        output("Boxed keys, " + SIZE + " puts and gets", timeBoxed / REPETITIONS / 1000000L, "ms");
+        output("Striped primitive keys, " + SIZE + " puts and gets", timeStriped / REPETITIONS / 1000000L, "ms");
+        output("Keys found", found, "#");
+    }
+}
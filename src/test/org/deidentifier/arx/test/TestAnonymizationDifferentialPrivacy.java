@@ -121,6 +121,9 @@ public class TestAnonymizationDifferentialPrivacy extends AbstractAnonymizationT
                                               { new ARXAnonymizationTestCase(createDataDependentConfiguration(Metric.createClassificationMetric(), 2d, 1d, 1E-5d, 100), "", "./data/adult.csv", 153.91935483870967, new int[] { 0, 4, 1, 2, 2, 2, 2, 0, 0 }, false, null, new String[] {"occupation", "salary-class"}) },
                                               { new ARXAnonymizationTestCase(createDataDependentConfiguration(Metric.createClassificationMetric(), 2d, 1d, 1E-5d, 100), "", "./data/cup.csv", 274.28225806451616, new int[] { 5, 3, 0, 1, 1, 4, 4, 4 }, false, null, new String[] {"INCOME", "GENDER"}) },
                                               { new ARXAnonymizationTestCase(createDataDependentConfiguration(Metric.createClassificationMetric(), 2d, 1d, 1E-5d, 100), "", "./data/fars.csv", 806.7741935483871, new int[] { 5, 1, 1, 3, 0, 0, 3, 0 }, false, null, new String[] {"isex", "ihispanic"}) },
+                                              { new ARXAnonymizationTestCase(createDataDependentConfiguration(Metric.createLossMetric(), 2d, 1d, 1E-5d, 100, 4), "", "./data/adult.csv", -364.91072721704967, new int[] { 0, 3, 1, 0, 2, 1, 1, 2, 0 }, false) },
+                                              { new ARXAnonymizationTestCase(createDataDependentConfiguration(Metric.createAECSMetric(), 2d, 1d, 1E-5d, 100, 4), "", "./data/adult.csv", "88.0", new int[] { 1, 3, 1, 1, 1, 2, 2, 0, 1 }, false) },
+                                              { new ARXAnonymizationTestCase(createDataDependentConfiguration(Metric.createClassificationMetric(), 2d, 1d, 1E-5d, 10, 4), "", "./data/adult.csv", 246.40322580645162, new int[] { 0, 4, 1, 1, 2, 2, 2, 2, 0 }, false, null, new String[] {"salary-class"}) },
         });
     }
     
@@ -141,6 +144,22 @@ public class TestAnonymizationDifferentialPrivacy extends AbstractAnonymizationT
         return result;
     }
     
+    /**
+     * Creates a new test case for data-dependent differential privacy, in which candidates are checked concurrently.
+     * @param metric
+     * @param epsilon
+     * @param searchBudget
+     * @param delta
+     * @param steps
+     * @param threads
+     * @return
+     */
+    private static ARXConfiguration createDataDependentConfiguration(Metric<?> metric, double epsilon, double searchBudget, double delta, int steps, int threads) {
+        ARXConfiguration result = createDataDependentConfiguration(metric, epsilon, searchBudget, delta, steps);
+        result.setNumberOfThreads(threads);
+        return result;
+    }
+    
     /**
      * Creates a new instance.
      *
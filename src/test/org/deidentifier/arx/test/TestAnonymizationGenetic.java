@@ -17,6 +17,7 @@
 
 package org.deidentifier.arx.test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
@@ -77,8 +78,27 @@ public class TestAnonymizationGenetic extends AbstractAnonymizationTest {
             ((ARXAnonymizationTestCase)testcase[0]).config.setHeuristicSearchStepLimit(1000);
         }
         
+        // Evaluate fitness concurrently, which must not change the results
+        List<Object[]> concurrent = Arrays.asList(new Object[][] {
+             { new ARXAnonymizationTestCase(ARXConfiguration.create(1d, Metric.createLossMetric()).addPrivacyModel(new KAnonymity(5)), "./data/adult.csv", 0.22041192847984292, new int[] {0, 3, 0, 0, 2, 1, 1, 1, 0}, false) },
+             { new ARXAnonymizationTestCase(ARXConfiguration.create(0.04d, Metric.createPrecomputedEntropyMetric(0.1d)).addPrivacyModel(new KAnonymity(100)), "./data/adult.csv", 383803.4034066361, new int[] {1, 1, 1, 1, 3, 2, 2, 1, 1}, false) },
+             { new ARXAnonymizationTestCase(ARXConfiguration.create(1d, Metric.createLossMetric()).addPrivacyModel(new KAnonymity(5)), "./data/adult.csv", 0.22041192847984292, new int[] {0, 3, 0, 0, 2, 1, 1, 1, 0}, false) },
+        });
+        for (Object[] testcase : concurrent) {
+            ((ARXAnonymizationTestCase)testcase[0]).config.setAlgorithm(AnonymizationAlgorithm.BEST_EFFORT_GENETIC);
+            ((ARXAnonymizationTestCase)testcase[0]).config.setGeneticAlgorithmDeterministic(true);
+            ((ARXAnonymizationTestCase)testcase[0]).config.setHeuristicSearchTimeLimit(Integer.MAX_VALUE);
+            ((ARXAnonymizationTestCase)testcase[0]).config.setHeuristicSearchStepLimit(1000);
+            ((ARXAnonymizationTestCase)testcase[0]).config.setNumberOfThreads(4);
+        }
+        
+        // Evolve more sub-populations
+        ((ARXAnonymizationTestCase)concurrent.get(2)[0]).config.setGeneticAlgorithmSubpopulations(4);
+        
         // Return
-        return cases;
+        List<Object[]> result = new ArrayList<Object[]>(cases);
+        result.addAll(concurrent);
+        return result;
     }
     
     /**
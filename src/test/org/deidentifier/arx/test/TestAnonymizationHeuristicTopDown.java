@@ -17,6 +17,7 @@
 
 package org.deidentifier.arx.test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
@@ -76,8 +77,24 @@ public class TestAnonymizationHeuristicTopDown extends AbstractAnonymizationTest
             ((ARXAnonymizationTestCase)testcase[0]).config.setHeuristicSearchStepLimit(1000);
         }
         
+        // Expand multiple frontier nodes concurrently
+        List<Object[]> concurrent = Arrays.asList(new Object[][] {
+             { new ARXAnonymizationTestCase(ARXConfiguration.create(1d, Metric.createLossMetric()).addPrivacyModel(new KAnonymity(5)), "./data/adult.csv", 0.22041192847984292, new int[] {0, 3, 0, 0, 2, 1, 1, 1, 0}, false) },
+             { new ARXAnonymizationTestCase(ARXConfiguration.create(0.04d, Metric.createPrecomputedEntropyMetric(0.1d)).addPrivacyModel(new KAnonymity(100)), "./data/adult.csv", 396981.29194128106, new int[] {1, 4, 1, 1, 2, 2, 2, 0, 1}, false) },
+             { new ARXAnonymizationTestCase(ARXConfiguration.create(1d, Metric.createLossMetric(0.1d)).addPrivacyModel(new KAnonymity(5)), "./data/adult.csv", 0.09257312971977383, new int[] {0, 3, 0, 0, 0, 0, 0, 0, 0}, false) },
+             { new ARXAnonymizationTestCase(ARXConfiguration.create(1d, Metric.createPrecomputedEntropyMetric(0.1d, false)).addPrivacyModel(new KAnonymity(100)), "./data/adult.csv", 371496.2359155363, new int[] {0, 4, 1, 1, 2, 2, 2, 0, 0}, false) },
+        });
+        for (Object[] testcase : concurrent) {
+            ((ARXAnonymizationTestCase)testcase[0]).config.setAlgorithm(AnonymizationAlgorithm.BEST_EFFORT_TOP_DOWN);
+            ((ARXAnonymizationTestCase)testcase[0]).config.setHeuristicSearchTimeLimit(Integer.MAX_VALUE);
+            ((ARXAnonymizationTestCase)testcase[0]).config.setHeuristicSearchStepLimit(1000);
+            ((ARXAnonymizationTestCase)testcase[0]).config.setNumberOfThreads(4);
+        }
+        
         // Return
-        return cases;
+        List<Object[]> result = new ArrayList<Object[]>(cases);
+        result.addAll(concurrent);
+        return result;
     }
     
     /**
@@ -17,10 +17,12 @@
 
 package org.deidentifier.arx.test;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
 import java.util.Arrays;
 
 import org.deidentifier.arx.ARXAnonymizer;
@@ -31,9 +33,13 @@ import org.deidentifier.arx.ARXResult;
 import org.deidentifier.arx.AttributeType;
 import org.deidentifier.arx.AttributeType.Hierarchy;
 import org.deidentifier.arx.Data;
+import org.deidentifier.arx.Data.DefaultData;
 import org.deidentifier.arx.DataHandle;
+import org.deidentifier.arx.DataHandleInput;
 import org.deidentifier.arx.DataSelector;
 import org.deidentifier.arx.DataSubset;
+import org.deidentifier.arx.DataType;
+import org.deidentifier.arx.RowSet;
 import org.deidentifier.arx.criteria.DPresence;
 import org.deidentifier.arx.criteria.Inclusion;
 import org.deidentifier.arx.criteria.KAnonymity;
@@ -47,6 +53,32 @@ import org.junit.Test;
  */
 public class TestDataHandle extends AbstractTest {
     
+    /**
+     * Test case
+     *
+     * @throws IllegalArgumentException
+     * @throws IOException
+     */
+    @Test
+    public void testFingerprint() throws IllegalArgumentException, IOException {
+        
+        final DataHandleInput handle = (DataHandleInput) provider.getData().getHandle();
+        final String fingerprint = handle.getFingerprint();
+        
+        // Stable
+        assertEquals(fingerprint, handle.getFingerprint());
+        
+        // Depends on order
+        handle.swap(0, 1);
+        assertTrue(!fingerprint.equals(handle.getFingerprint()));
+        handle.swap(0, 1);
+        assertEquals(fingerprint, handle.getFingerprint());
+        
+        // Depends on values
+        handle.replace(2, "81667", "81668");
+        assertTrue(!fingerprint.equals(handle.getFingerprint()));
+    }
+    
     /**
      * Test case
      *
@@ -242,6 +274,52 @@ public class TestDataHandle extends AbstractTest {
         
     }
     
+    /**
+     * Test case
+     *
+     * @throws IllegalArgumentException
+     * @throws IOException
+     * @throws ParseException
+     */
+    @Test
+    public void testSelector() throws IllegalArgumentException, IOException, ParseException {
+        
+        Data data = Data.create("./data/adult.csv", StandardCharsets.UTF_8, ';');
+        data.getDefinition().setDataType("age", DataType.INTEGER);
+        
+        DataSelector[] selectors = new DataSelector[] {
+                DataSelector.create(data).field("sex").equals("Male"),
+                DataSelector.create(data).field("age").equals(70).or().equals(34),
+                DataSelector.create(data).field("age").geq(30).and().field("sex").equals("Male").or().field("race").equals("White"),
+                DataSelector.create(data).begin().field("age").geq(30).and().field("sex").equals("Male").end().or().field("race").equals("White"),
+                DataSelector.create(data, "('age'<'30' or 'age'>'60') and 'sex'='Female'"),
+                DataSelector.create(data, "'age'<='20' or 'age'>='80' or 'race'<>'White' and 'age'<'25'")
+        };
+        
+        // Compiled selection must equal evaluation row by row
+        int rows = data.getHandle().getNumRows();
+        for (DataSelector selector : selectors) {
+            RowSet set = selector.getSelectedRows();
+            int size = 0;
+            for (int row = 0; row < rows; row++) {
+                assertEquals(selector.isSelected(row), set.contains(row));
+                size += set.contains(row) ? 1 : 0;
+            }
+            assertEquals(size, set.size());
+        }
+        
+        // Values which cannot be converted are only skipped by evaluation row by row
+        DefaultData data2 = Data.create();
+        data2.add("x", "y");
+        data2.add("1", "b");
+        data2.add("2", "b");
+        data2.add("unknown", "a");
+        data2.getDefinition().setDataType("x", DataType.INTEGER);
+        RowSet set = DataSelector.create(data2, "'y'='b' and 'x'>'1'").getSelectedRows();
+        assertEquals(1, set.size());
+        assertTrue(set.contains(1));
+    }
+    
     /**
      * Test case
      *
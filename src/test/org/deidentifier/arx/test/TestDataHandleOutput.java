@@ -0,0 +1,247 @@
+/*
+ * ARX Data Anonymization Tool
+ * Copyright 2012 - 2022 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.deidentifier.arx.ARXAnonymizer;
+import org.deidentifier.arx.ARXConfiguration;
+import org.deidentifier.arx.ARXLattice.ARXNode;
+import org.deidentifier.arx.ARXResult;
+import org.deidentifier.arx.AttributeType;
+import org.deidentifier.arx.AttributeType.Hierarchy;
+import org.deidentifier.arx.AttributeType.MicroAggregationFunction;
+import org.deidentifier.arx.Data;
+import org.deidentifier.arx.DataHandle;
+import org.deidentifier.arx.DataHandleOutput;
+import org.deidentifier.arx.DataType;
+import org.deidentifier.arx.criteria.KAnonymity;
+import org.deidentifier.arx.exceptions.RollbackRequiredException;
+import org.deidentifier.arx.metric.Metric;
+import org.junit.Test;
+
+/**
+ * Tests handles for output data, which compute generalized values on the fly, against
+ * handles which use the materialized buffer of the result.
+ *
+ * @author Fabian Prasser
+ */
+public class TestDataHandleOutput extends AbstractTest {
+
+    /** Quasi-identifiers */
+    private static final String[] QUASI_IDENTIFIERS = new String[] { "age", "sex", "race", "education", "marital-status" };
+
+    /**
+     * Tests handles which are re-created for recently applied transformations
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testCache() throws IOException {
+
+        ARXResult result1 = getResult(true);
+        ARXResult result2 = getResult(true);
+        Map<String, ARXNode> nodes = new HashMap<String, ARXNode>();
+        for (ARXNode node : getNodes(result2)) {
+            nodes.put(Arrays.toString(node.getTransformation()), node);
+        }
+        List<ARXNode> visited = getNodes(result1);
+
+        // Apply transformations
+        for (ARXNode node : visited) {
+            result1.getOutput(node, false);
+        }
+
+        // Rows of cached transformations are sorted together with the input
+        result1.getInput().sort(false, 2);
+        result2.getInput().sort(false, 2);
+
+        // Revisit transformations
+        for (ARXNode node : visited) {
+            DataHandle output1 = result1.getOutput(node, false);
+            DataHandle output2 = result2.getOutput(nodes.get(Arrays.toString(node.getTransformation())), false);
+            assertHandlesEqual(output2, output1);
+            output1.release();
+            output1 = result1.getOutput(node, true);
+            assertHandlesEqual(output2, output1);
+            output1.release();
+        }
+    }
+
+    /**
+     * Tests local recoding
+     *
+     * @throws IOException
+     * @throws RollbackRequiredException
+     */
+    @Test
+    public void testLocalRecoding() throws IOException, RollbackRequiredException {
+
+        ARXResult result1 = getResult(false);
+        ARXResult result2 = getResult(false);
+        DataHandle output1 = result1.getOutput(true);
+        DataHandle output2 = result2.getOutput(false);
+
+        result1.optimizeIterativeFast(output1, 0.1d);
+        result2.optimizeIterativeFast(output2, 0.1d);
+
+        assertEquals(true, output1.isOptimized());
+        assertHandlesEqual(output2, output1);
+    }
+
+    /**
+     * Tests serialization
+     *
+     * @throws IOException
+     * @throws ClassNotFoundException
+     */
+    @Test
+    public void testSerialization() throws IOException, ClassNotFoundException {
+
+        ARXResult result = getResult(true);
+        DataHandle output = result.getOutput(true);
+        String[][] expected = iteratorToArray(output.iterator());
+
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        ((DataHandleOutput) output).write(stream);
+        output.release();
+        DataHandle loaded = result.getOutput(new ByteArrayInputStream(stream.toByteArray()), result.getGlobalOptimum());
+
+        assertArrayEquals(expected, iteratorToArray(loaded.iterator()));
+    }
+
+    /**
+     * Tests sorting
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testSorting() throws IOException {
+
+        ARXResult result1 = getResult(true);
+        ARXResult result2 = getResult(true);
+        DataHandle output1 = result1.getOutput(true);
+        DataHandle output2 = result2.getOutput(false);
+
+        output1.sort(true, 0, 1);
+        output2.sort(true, 0, 1);
+        assertHandlesEqual(output2, output1);
+        assertArrayEquals(iteratorToArray(result2.getInput().iterator()), iteratorToArray(result1.getInput().iterator()));
+
+        result1.getInput().sort(false, 2);
+        result2.getInput().sort(false, 2);
+        assertHandlesEqual(output2, output1);
+    }
+
+    /**
+     * Tests values of all transformations
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testValues() throws IOException {
+        for (boolean microaggregation : new boolean[] { false, true }) {
+
+            ARXResult result1 = getResult(microaggregation);
+            ARXResult result2 = getResult(microaggregation);
+            Map<String, ARXNode> nodes = new HashMap<String, ARXNode>();
+            for (ARXNode node : getNodes(result2)) {
+                nodes.put(Arrays.toString(node.getTransformation()), node);
+            }
+
+            for (ARXNode node : getNodes(result1)) {
+                DataHandle output1 = result1.getOutput(node, true);
+                DataHandle output2 = result2.getOutput(nodes.get(Arrays.toString(node.getTransformation())), false);
+                assertHandlesEqual(output2, output1);
+                output1.release();
+            }
+        }
+    }
+
+    /**
+     * Asserts that both handles contain the same data
+     *
+     * @param expected
+     * @param actual
+     */
+    private void assertHandlesEqual(DataHandle expected, DataHandle actual) {
+        assertEquals(expected.getNumRows(), actual.getNumRows());
+        assertArrayEquals(iteratorToArray(expected.iterator()), iteratorToArray(actual.iterator()));
+        for (int row = 0; row < expected.getNumRows(); row++) {
+            assertEquals(expected.isOutlier(row), actual.isOutlier(row));
+        }
+        for (int column = 0; column < expected.getNumColumns(); column++) {
+            assertEquals(expected.getDataType(expected.getAttributeName(column)),
+                         actual.getDataType(actual.getAttributeName(column)));
+        }
+    }
+
+    /**
+     * Returns all transformations
+     *
+     * @param result
+     * @return
+     */
+    public static List<ARXNode> getNodes(ARXResult result) {
+        List<ARXNode> nodes = new ArrayList<ARXNode>();
+        for (ARXNode[] level : result.getLattice().getLevels()) {
+            nodes.addAll(Arrays.asList(level));
+        }
+        return nodes;
+    }
+
+    /**
+     * Anonymizes the adult dataset
+     *
+     * @param microaggregation
+     * @return
+     * @throws IOException
+     */
+    public static ARXResult getResult(boolean microaggregation) throws IOException {
+
+        Data data = Data.create("./data/adult.csv", StandardCharsets.UTF_8, ';');
+        for (String attribute : QUASI_IDENTIFIERS) {
+            Hierarchy hierarchy = Hierarchy.create("./data/adult_hierarchy_" + attribute + ".csv", StandardCharsets.UTF_8, ';');
+            data.getDefinition().setAttributeType(attribute, hierarchy);
+        }
+        data.getDefinition().setAttributeType("salary-class", AttributeType.INSENSITIVE_ATTRIBUTE);
+        data.getDefinition().setAttributeType("native-country", AttributeType.IDENTIFYING_ATTRIBUTE);
+        if (microaggregation) {
+            data.getDefinition().setDataType("age", DataType.INTEGER);
+            data.getDefinition().setMicroAggregationFunction("age", MicroAggregationFunction.createArithmeticMean());
+        }
+
+        ARXAnonymizer anonymizer = new ARXAnonymizer();
+        ARXConfiguration config = ARXConfiguration.create();
+        config.addPrivacyModel(new KAnonymity(5));
+        config.setSuppressionLimit(0.1d);
+        config.setQualityModel(Metric.createLossMetric(0d));
+        return anonymizer.anonymize(data, config);
+    }
+}
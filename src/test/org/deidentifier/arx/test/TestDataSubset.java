@@ -0,0 +1,205 @@
+/*
+ * ARX Data Anonymization Tool
+ * Copyright 2012 - 2022 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.deidentifier.arx.Data;
+import org.deidentifier.arx.Data.DefaultData;
+import org.deidentifier.arx.DataHandle;
+import org.deidentifier.arx.DataSubset;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests matching a subset against its population table.
+ *
+ * @author Fabian Prasser
+ */
+public class TestDataSubset {
+
+    /**
+     * Tests that matching adult_subset equals matching rows as strings
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testAdult() throws IOException {
+        for (int threads : new int[] { 1, 4 }) {
+            Data data = Data.create("./data/adult.csv", StandardCharsets.UTF_8, ';');
+            Data subset = Data.create("./data/adult_subset.csv", StandardCharsets.UTF_8, ';');
+            DataSubset result = DataSubset.create(data, subset, threads);
+            int[] expected = getExpected(data, subset);
+            assertArrayEquals(expected, result.getArray());
+            for (int row : expected) {
+                assertTrue(result.getSet().contains(row));
+            }
+            assertEquals(expected.length, result.getSet().size());
+        }
+    }
+
+    /**
+     * Tests that each duplicate of a record consumes the first record of the population
+     * table that has not been matched before
+     */
+    @Test
+    public void testDuplicates() {
+        Data data = getData(new String[][] { { "a", "1" }, { "b", "2" }, { "a", "1" }, { "c", "3" }, { "a", "1" } });
+        assertArrayEquals(new int[] { 0 }, DataSubset.create(data, getData(new String[][] { { "a", "1" } })).getArray());
+        data = getData(new String[][] { { "a", "1" }, { "b", "2" }, { "a", "1" }, { "c", "3" }, { "a", "1" } });
+        assertArrayEquals(new int[] { 0, 2 }, DataSubset.create(data, getData(new String[][] { { "a", "1" }, { "a", "1" } })).getArray());
+        data = getData(new String[][] { { "a", "1" }, { "b", "2" }, { "a", "1" }, { "c", "3" }, { "a", "1" } });
+        assertArrayEquals(new int[] { 0, 1, 2, 4 }, DataSubset.create(data, getData(new String[][] { { "a", "1" }, { "b", "2" }, { "a", "1" }, { "a", "1" } })).getArray());
+    }
+
+    /**
+     * Tests that a record matching no record of the population table is rejected
+     */
+    @Test
+    public void testNoMatch() {
+        Data data = getData(new String[][] { { "a", "1" }, { "b", "2" } });
+        assertException(data, getData(new String[][] { { "a", "2" } }), "No match found for: [a, 2]");
+    }
+
+    /**
+     * Tests matching many records with multiple threads. The number of records exceeds the
+     * threshold above which matching is parallelized.
+     */
+    @Test
+    public void testParallel() {
+        Random random = new Random(0xDEADBEEF);
+        String[][] population = new String[80000][];
+        for (int row = 0; row < population.length; row++) {
+            population[row] = new String[] { String.valueOf(random.nextInt(10)),
+                                             String.valueOf(random.nextInt(5)),
+                                             String.valueOf(random.nextInt(20)) };
+        }
+        List<String[]> rows = new ArrayList<String[]>(Arrays.asList(population));
+        Collections.shuffle(rows, random);
+        String[][] sample = rows.subList(0, 40000).toArray(new String[0][]);
+
+        int[] expected = getExpected(getData(population), getData(sample));
+        assertArrayEquals(expected, DataSubset.create(getData(population), getData(sample), 1).getArray());
+        assertArrayEquals(expected, DataSubset.create(getData(population), getData(sample), 4).getArray());
+    }
+
+    /**
+     * Tests that a record matching more often than it is contained in the population table is rejected
+     */
+    @Test
+    public void testTooManyMatches() {
+        Data data = getData(new String[][] { { "a", "1" }, { "b", "2" }, { "a", "1" } });
+        assertException(data, getData(new String[][] { { "b", "2" }, { "a", "1" }, { "b", "2" } }), "Too many matches found for: [b, 2]");
+    }
+
+    /**
+     * Tests that a record with values that are not contained in the population table is rejected
+     */
+    @Test
+    public void testUnknownValues() {
+        Data data = getData(new String[][] { { "a", "1" }, { "b", "2" } });
+        assertException(data, getData(new String[][] { { "a", "1" }, { "x", "1" } }), "No match found for: [x, 1]");
+        data = getData(new String[][] { { "a", "1" }, { "b", "2" } });
+        assertException(data, getData(new String[][] { { "b", "9" } }), "No match found for: [b, 9]");
+    }
+
+    /**
+     * Asserts that matching fails with the given message
+     *
+     * @param data
+     * @param subset
+     * @param message
+     */
+    private void assertException(Data data, Data subset, String message) {
+        try {
+            DataSubset.create(data, subset);
+        } catch (IllegalArgumentException e) {
+            assertEquals(message, e.getMessage());
+            return;
+        }
+        Assert.fail();
+    }
+
+    /**
+     * Creates a data object with two or three columns
+     *
+     * @param rows
+     * @return
+     */
+    private Data getData(String[][] rows) {
+        DefaultData data = Data.create();
+        data.add(Arrays.copyOf(new String[] { "attr1", "attr2", "attr3" }, rows[0].length));
+        for (String[] row : rows) {
+            data.add(row);
+        }
+        return data;
+    }
+
+    /**
+     * Matches the rows as strings, as done before records were matched via dictionary codes
+     *
+     * @param data
+     * @param subset
+     * @return
+     */
+    private int[] getExpected(Data data, Data subset) {
+        DataHandle bHandle = data.getHandle();
+        DataHandle sHandle = subset.getHandle();
+        Map<List<String>, List<Integer>> background = new HashMap<List<String>, List<Integer>>();
+        for (int i = 0; i < bHandle.getNumRows(); i++) {
+            List<String> tuple = getRow(bHandle, i);
+            if (!background.containsKey(tuple)) {
+                background.put(tuple, new ArrayList<Integer>());
+            }
+            background.get(tuple).add(i);
+        }
+        int[] array = new int[sHandle.getNumRows()];
+        for (int i = 0; i < sHandle.getNumRows(); i++) {
+            array[i] = background.get(getRow(sHandle, i)).remove(0);
+        }
+        Arrays.sort(array);
+        return array;
+    }
+
+    /**
+     * Returns the given row as a list of strings
+     *
+     * @param handle
+     * @param row
+     * @return
+     */
+    private List<String> getRow(DataHandle handle, int row) {
+        List<String> tuple = new ArrayList<String>();
+        for (int column = 0; column < handle.getNumColumns(); column++) {
+            tuple.add(handle.getValue(row, column));
+        }
+        return tuple;
+    }
+}
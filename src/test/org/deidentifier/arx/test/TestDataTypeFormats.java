@@ -0,0 +1,182 @@
+/*
+ * ARX Data Anonymization Tool
+ * Copyright 2012 - 2022 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+
+import org.deidentifier.arx.Data;
+import org.deidentifier.arx.Data.DefaultData;
+import org.deidentifier.arx.DataType;
+import org.deidentifier.arx.aggregates.HierarchyBuilderDate;
+import org.deidentifier.arx.aggregates.HierarchyBuilderDate.Granularity;
+import org.deidentifier.arx.aggregates.StatisticsSummary;
+import org.deidentifier.arx.common.WorkerPool;
+import org.junit.Test;
+
+/**
+ * Tests parsing and formatting values with data types, which use thread-confined formats.
+ *
+ * @author Fabian Prasser
+ */
+public class TestDataTypeFormats extends AbstractTest {
+
+    /** Number of values */
+    private static final int VALUES = 10000;
+
+    /**
+     * Tests that concurrent parsing and formatting yields the same results as sequential processing
+     */
+    @Test
+    public void testConcurrency() {
+
+        // Prepare
+        final DataType<Date> date = DataType.createDate("dd.MM.yyyy", Locale.US);
+        final DataType<Double> decimal = DataType.createDecimal("#,##0.00", Locale.US);
+        final DataType<Long> integer = DataType.createInteger("#,##0", Locale.US);
+        Random random = new Random(0xDEADBEEF);
+        final String[][] values = new String[VALUES][];
+        for (int i = 0; i < VALUES; i++) {
+            values[i] = new String[] { getDate(random), getDecimal(random), getInteger(random) };
+        }
+        String[][] expected = new String[VALUES][];
+        for (int i = 0; i < VALUES; i++) {
+            expected[i] = new String[] { date.format(date.parse(values[i][0])),
+                                         decimal.format(decimal.parse(values[i][1])),
+                                         integer.format(integer.parse(values[i][2])) };
+        }
+
+        // Process concurrently
+        final int THREADS = 4;
+        List<Callable<String[][]>> tasks = new ArrayList<Callable<String[][]>>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            tasks.add(new Callable<String[][]>() {
+                @Override
+                public String[][] call() {
+                    String[][] result = new String[VALUES][];
+                    for (int i = 0; i < VALUES; i++) {
+                        result[i] = new String[] { date.format(date.parse(values[i][0])),
+                                                   decimal.format(decimal.parse(values[i][1])),
+                                                   integer.format(integer.parse(values[i][2])) };
+                    }
+                    return result;
+                }
+            });
+        }
+
+        // Compare
+        for (String[][] result : new WorkerPool(THREADS).invokeAll(tasks)) {
+            for (int i = 0; i < VALUES; i++) {
+                for (int j = 0; j < expected[i].length; j++) {
+                    assertEquals(expected[i][j], result[i][j]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests that summary statistics order values by data type
+     */
+    @Test
+    public void testStatistics() {
+
+        DefaultData data = Data.create();
+        data.add("integer");
+        for (String value : new String[] { "10", "9", "010", "100", "9", "1", "10", "NULL", "01" }) {
+            data.add(value);
+        }
+        data.getDefinition().setDataType("integer", DataType.INTEGER);
+        Map<String, StatisticsSummary<?>> statistics = data.getHandle().getStatistics().getSummaryStatistics(false);
+        StatisticsSummary<?> summary = statistics.get("integer");
+        assertEquals("1", summary.getMinAsString());
+        assertEquals("100", summary.getMaxAsString());
+        assertEquals("10", summary.getMedianAsString());
+        assertEquals("9", summary.getModeAsString());
+        assertEquals(8, summary.getNumberOfMeasuresAsString());
+    }
+
+    /**
+     * Tests that validity checks conform to parsing
+     */
+    @Test
+    public void testValidity() {
+
+        List<DataType<?>> types = new ArrayList<DataType<?>>();
+        types.add(DataType.createDate("dd.MM.yyyy", Locale.US));
+        types.add(DataType.createDate("yyyy-MM-dd", Locale.US));
+        types.add(DataType.createDecimal("#,##0.00", Locale.US));
+        types.add(DataType.createDecimal("#,##0.00", Locale.GERMANY));
+        types.add(DataType.createInteger("#,##0", Locale.US));
+        types.add(DataType.DATE);
+        types.add(DataType.DECIMAL);
+        types.add(DataType.INTEGER);
+        String[] values = new String[] { "01.02.2003", "2003-02-01", "1,234.50", "1.234,50", "1234",
+                                         "12abc", "abc", "", "NULL", "null", "-5", "1e3", "31.02.2003",
+                                         "01.02.2003 ", " 1234" };
+        for (DataType<?> type : types) {
+            for (String value : values) {
+                boolean valid;
+                try {
+                    type.parse(value);
+                    valid = true;
+                } catch (Exception e) {
+                    valid = false;
+                }
+                assertEquals(type + ": " + value, valid, type.isValid(value));
+            }
+            assertEquals(false, type.isValid(null));
+        }
+    }
+
+    /**
+     * Returns a random date
+     *
+     * @param random
+     * @return
+     */
+    static String getDate(Random random) {
+        return String.format("%02d.%02d.%04d", 1 + random.nextInt(28), 1 + random.nextInt(12), 1950 + random.nextInt(70));
+    }
+
+    /**
+     * Returns a random decimal
+     *
+     * @param random
+     * @return
+     */
+    static String getDecimal(Random random) {
+        return String.format(Locale.US, "%,.2f", random.nextInt(1000000) / 100d);
+    }
+
+    /**
+     * Returns a random integer
+     *
+     * @param random
+     * @return
+     */
+    static String getInteger(Random random) {
+        return String.format(Locale.US, "%,d", random.nextInt(100000));
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * ARX Data Anonymization Tool
+ * Copyright 2012 - 2022 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import org.apache.commons.math3.util.Pair;
+import org.deidentifier.arx.Data;
+import org.deidentifier.arx.Data.DefaultData;
+import org.deidentifier.arx.DataHandle;
+import org.deidentifier.arx.DataType;
+import org.junit.Test;
+
+/**
+ * Tests the detection of data types matching the values of columns.
+ *
+ * @author Fabian Prasser
+ */
+public class TestDataTypeMatching {
+
+    /** Number of rows */
+    private static final int ROWS    = 5000;
+
+    /** Columns */
+    private static final int[] COLUMNS = new int[] { 0, 1, 2, 3 };
+
+    /**
+     * Tests that matching several columns at once equals matching each column
+     */
+    @Test
+    public void testColumns() {
+        DataHandle handle = getData();
+        for (double threshold : new double[] { 0d, 0.5d, 0.8d }) {
+            List<List<Pair<DataType<?>, Double>>> result = handle.getMatchingDataTypes(COLUMNS, Locale.US, threshold);
+            for (int column : COLUMNS) {
+                assertEquals(toString(handle.getMatchingDataTypes(column, Locale.US, threshold)), toString(result.get(column)));
+            }
+        }
+    }
+
+    /**
+     * Tests that the best matches are detected when sampling
+     */
+    @Test
+    public void testSampling() {
+        DataHandle handle = getData();
+        List<List<Pair<DataType<?>, Double>>> exact = handle.getMatchingDataTypes(COLUMNS, Locale.US, 0.8d);
+        List<List<Pair<DataType<?>, Double>>> sampled = handle.getMatchingDataTypes(COLUMNS, Locale.US, 0.8d, 0.99d);
+        for (int column : COLUMNS) {
+            assertEquals(exact.get(column).size(), sampled.get(column).size());
+            for (int i = 0; i < exact.get(column).size(); i++) {
+                assertEquals(exact.get(column).get(i).getFirst(), sampled.get(column).get(i).getFirst());
+                assertTrue(Math.abs(exact.get(column).get(i).getSecond() - sampled.get(column).get(i).getSecond()) < 0.05d);
+            }
+        }
+        assertEquals(DataType.INTEGER, sampled.get(0).get(0).getFirst());
+    }
+
+    /**
+     * Creates a data set with columns containing integers, dates, decimals and mostly integers
+     *
+     * @return
+     */
+    private DataHandle getData() {
+        Random random = new Random(0xDEADBEEF);
+        DefaultData data = Data.create();
+        data.add("integer", "date", "decimal", "mixed");
+        for (int i = 0; i < ROWS; i++) {
+            data.add(String.valueOf(random.nextInt(100000)),
+                     String.format("%02d.%02d.%04d", 1 + random.nextInt(28), 1 + random.nextInt(12), 1950 + random.nextInt(70)),
+                     String.valueOf(random.nextDouble()),
+                     random.nextInt(10) < 9 ? String.valueOf(random.nextInt(100000)) : "x" + random.nextInt(1000));
+        }
+        return data.getHandle();
+    }
+
+    /**
+     * Renders the types and relative numbers of matching values
+     *
+     * @param types
+     * @return
+     */
+    private String toString(List<Pair<DataType<?>, Double>> types) {
+        StringBuilder builder = new StringBuilder();
+        for (Pair<DataType<?>, Double> type : types) {
+            builder.append(type.getFirst()).append(": ").append(type.getSecond()).append("\n");
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * ARX Data Anonymization Tool
+ * Copyright 2012 - 2022 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.deidentifier.arx.framework.data.Dictionary;
+import org.deidentifier.arx.framework.data.GeneralizationHierarchy;
+import org.junit.Test;
+
+/**
+ * Tests the flat lookup tables of generalization hierarchies.
+ *
+ * @author Fabian Prasser
+ */
+public class TestGeneralizationHierarchyLevels extends AbstractTest {
+
+    /** Number of values per column */
+    static final int VALUES = 1000;
+
+    /** Height of the hierarchies */
+    static final int HEIGHT = 4;
+
+    /**
+     * Tests that the flat lookup tables match the hierarchy
+     */
+    @Test
+    public void testLevels() {
+
+        GeneralizationHierarchy hierarchy = getHierarchy();
+        int[][] map = hierarchy.getArray();
+        for (int level = HEIGHT - 1; level >= 0; level--) {
+            int[] table = hierarchy.getLevel(level);
+            assertEquals(map.length, table.length);
+            for (int value = 0; value < map.length; value++) {
+                assertEquals(map[value][level], table[value]);
+            }
+            assertSame(table, hierarchy.getLevel(level));
+        }
+    }
+
+    /**
+     * Creates a hierarchy in which each level groups ten values of the previous level
+     *
+     * @return
+     */
+    static GeneralizationHierarchy getHierarchy() {
+        Dictionary dictionary = new Dictionary(1);
+        String[][] hierarchy = new String[VALUES][HEIGHT];
+        for (int value = 0; value < VALUES; value++) {
+            dictionary.register(0, String.valueOf(value));
+            int group = value;
+            for (int level = 0; level < HEIGHT; level++) {
+                hierarchy[value][level] = level == 0 ? String.valueOf(value) : "L" + level + "-" + group;
+                group /= 10;
+            }
+        }
+        return new GeneralizationHierarchy("attribute", hierarchy, 0, dictionary);
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * ARX Data Anonymization Tool
+ * Copyright 2012 - 2022 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.deidentifier.arx.common.BytecodeGenerator;
+import org.deidentifier.arx.framework.check.transformer.TransformerKernel;
+import org.deidentifier.arx.framework.data.DataMatrix;
+import org.deidentifier.arx.framework.data.RowEqualityKernel;
+import org.junit.Test;
+
+/**
+ * Tests the kernels generated at runtime for transforming and comparing rows.
+ *
+ * @author Fabian Prasser
+ */
+public class TestGeneratedKernels extends AbstractTest {
+
+    /**
+     * Tests that loops are used if generation is disabled
+     */
+    @Test
+    public void testDisabled() {
+        System.setProperty(BytecodeGenerator.PROPERTY, "false");
+        try {
+            assertNull(TransformerKernel.create(20));
+            RowEqualityKernel kernel = RowEqualityKernel.create(20);
+            assertFalse(kernel.getClass().getName().endsWith("Generated20"));
+            int[] array = new int[40];
+            array[39] = 1;
+            assertFalse(kernel.equals(array, 0, 20, ~0));
+            assertTrue(kernel.equalsIgnore(array, 0, 20, 19));
+        } finally {
+            System.clearProperty(BytecodeGenerator.PROPERTY);
+        }
+        assertTrue(RowEqualityKernel.create(20).getClass().getName().endsWith("Generated20"));
+    }
+
+    /**
+     * Compares the generated row equality kernels to a loop
+     */
+    @Test
+    public void testRowEquality() {
+
+        Random random = new Random(0xDEADBEEF);
+        for (int columns = 1; columns <= 40; columns++) {
+
+            // Check generation
+            RowEqualityKernel kernel = RowEqualityKernel.create(columns);
+            assertTrue(kernel.getClass().getName().endsWith("Generated" + columns));
+
+            // Rows which differ in at most one column
+            int rows = 200;
+            int[] array = new int[rows * columns];
+            for (int row = 0; row < rows; row++) {
+                int column = random.nextInt(columns);
+                for (int i = 0; i < columns; i++) {
+                    array[row * columns + i] = i == column ? random.nextInt(4) : 0;
+                }
+            }
+
+            // Compare
+            for (int row1 = 0; row1 < rows; row1++) {
+                int row2 = random.nextInt(rows);
+                int flag = random.nextBoolean() ? ~0 : ~1;
+                int ignore = random.nextInt(columns + 1);
+                boolean equals = (array[row1 * columns] & flag) == (array[row2 * columns] & flag);
+                boolean equalsIgnore = true;
+                for (int i = 0; i < columns; i++) {
+                    boolean same = array[row1 * columns + i] == array[row2 * columns + i];
+                    equals &= i == 0 || same;
+                    equalsIgnore &= i == ignore || same;
+                }
+                assertEquals(equals, kernel.equals(array, row1 * columns, row2 * columns, flag));
+                assertEquals(equalsIgnore, kernel.equalsIgnore(array, row1 * columns, row2 * columns, ignore));
+            }
+        }
+    }
+
+    /**
+     * Compares the generated transformer kernels to a loop
+     */
+    @Test
+    public void testTransformer() {
+
+        Random random = new Random(0xDEADBEEF);
+        for (int columns = 16; columns <= 40; columns++) {
+
+            // Check generation
+            TransformerKernel kernel = TransformerKernel.create(columns);
+            assertNotNull(kernel);
+
+            // Prepare
+            int dimensions = columns + 5;
+            int rows = 100;
+            DataMatrix data = new DataMatrix(rows, dimensions);
+            DataMatrix buffer = new DataMatrix(rows, dimensions);
+            for (int row = 0; row < rows; row++) {
+                for (int column = 0; column < dimensions; column++) {
+                    data.set(row, column, random.nextInt(10));
+                }
+            }
+            int[] mapped = new int[dimensions];
+            int[][] tables = new int[dimensions][10];
+            for (int i = 0; i < dimensions; i++) {
+                mapped[i] = i;
+            }
+            for (int i = dimensions - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int temp = mapped[i];
+                mapped[i] = mapped[j];
+                mapped[j] = temp;
+            }
+            for (int i = 0; i < dimensions; i++) {
+                for (int value = 0; value < 10; value++) {
+                    tables[i][value] = random.nextInt(100);
+                }
+            }
+            kernel.init(mapped, tables);
+
+            // Transform and compare
+            for (int row = 0; row < rows; row++) {
+                data.setRow(row);
+                buffer.setRow(row);
+                kernel.transform(data, buffer);
+            }
+            for (int row = 0; row < rows; row++) {
+                for (int i = 0; i < dimensions; i++) {
+                    int expected = i < columns ? tables[i][data.get(row, mapped[i])] : 0;
+                    assertEquals(expected, buffer.get(row, mapped[i]));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * ARX Data Anonymization Tool
+ * Copyright 2012 - 2022 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.deidentifier.arx.ARXPopulationModel;
+import org.deidentifier.arx.ARXPopulationModel.Region;
+import org.deidentifier.arx.Data;
+import org.deidentifier.arx.Data.DefaultData;
+import org.deidentifier.arx.DataHandle;
+import org.deidentifier.arx.risk.HIPAAIdentifierMatch;
+import org.deidentifier.arx.risk.HIPAAIdentifierMatch.MatchType;
+import org.junit.Test;
+
+/**
+ * Tests matching attribute values with HIPAA identifiers, exactly and with sampling.
+ *
+ * @author Fabian Prasser
+ */
+public class TestHIPAAIdentifiers {
+
+    /** Number of rows */
+    private static final int ROWS = 5000;
+
+    /**
+     * Tests exact matching of attribute values
+     */
+    @Test
+    public void testExact() {
+        Set<String> matches = getMatches(getData().getRiskEstimator(ARXPopulationModel.create(Region.USA)).getHIPAAIdentifiers());
+        assertEquals(new TreeSet<String>(Arrays.asList("c1:Age", "c2:Email address", "c3:Social security number", "c4:IP Address", "c5:Date/Time")), matches);
+    }
+
+    /**
+     * Tests that sampling finds the same identifiers
+     */
+    @Test
+    public void testSampling() {
+        DataHandle handle = getData();
+        Set<String> expected = getMatches(handle.getRiskEstimator(ARXPopulationModel.create(Region.USA)).getHIPAAIdentifiers(0.5d));
+        Set<String> sampled = getMatches(handle.getRiskEstimator(ARXPopulationModel.create(Region.USA)).getHIPAAIdentifiers(0.5d, 0.99d));
+        assertEquals(expected, sampled);
+        for (HIPAAIdentifierMatch match : handle.getRiskEstimator(ARXPopulationModel.create(Region.USA)).getHIPAAIdentifiers(0.5d, 0.99d)) {
+            assertTrue(match.getMatchType() == MatchType.ATTRIBUTE_NAME || match.getConfidence() > 0.5d);
+        }
+    }
+
+    /**
+     * Creates a data set with columns containing ages, email addresses, social security numbers,
+     * IP addresses, dates and random strings
+     *
+     * @return
+     */
+    private DataHandle getData() {
+        Random random = new Random(0xDEADBEEF);
+        DefaultData data = Data.create();
+        data.add("c1", "c2", "c3", "c4", "c5", "c6");
+        for (int i = 0; i < ROWS; i++) {
+            data.add(String.valueOf(random.nextInt(100)),
+                     "user" + random.nextInt(100000) + "@example.org",
+                     String.format("%03d-%02d-%04d", random.nextInt(1000), random.nextInt(100), random.nextInt(10000)),
+                     random.nextInt(256) + "." + random.nextInt(256) + "." + random.nextInt(256) + "." + random.nextInt(256),
+                     String.format("%02d.%02d.%04d", 1 + random.nextInt(28), 1 + random.nextInt(12), 1950 + random.nextInt(70)),
+                     "x" + random.nextInt(100000));
+        }
+        return data.getHandle();
+    }
+
+    /**
+     * Returns the identifiers matched via attribute values as "column:instance"
+     *
+     * @param matches
+     * @return
+     */
+    private Set<String> getMatches(HIPAAIdentifierMatch[] matches) {
+        Set<String> result = new TreeSet<String>();
+        for (HIPAAIdentifierMatch match : matches) {
+            if (match.getMatchType() == MatchType.ATTRIBUTE_VALUE) {
+                result.add(match.getColumn() + ":" + match.getInstance());
+            }
+        }
+        return result;
+    }
+}
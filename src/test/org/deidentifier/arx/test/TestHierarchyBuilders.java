@@ -0,0 +1,230 @@
+/*
+ * ARX Data Anonymization Tool
+ * Copyright 2012 - 2022 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.deidentifier.arx.DataType;
+import org.deidentifier.arx.aggregates.HierarchyBuilderDate;
+import org.deidentifier.arx.aggregates.HierarchyBuilderDate.Granularity;
+import org.deidentifier.arx.aggregates.HierarchyBuilderIntervalBased;
+import org.deidentifier.arx.aggregates.HierarchyBuilderIntervalBased.Range;
+import org.deidentifier.arx.aggregates.HierarchyBuilderOrderBased;
+import org.deidentifier.arx.aggregates.HierarchyBuilderRedactionBased;
+import org.deidentifier.arx.aggregates.HierarchyBuilderRedactionBased.Order;
+import org.junit.Test;
+
+/**
+ * Tests building hierarchies for large numbers of values, which is done in bulk.
+ *
+ * @author Fabian Prasser
+ */
+public class TestHierarchyBuilders extends AbstractTest {
+
+    /** Number of values, which is above the threshold for building hierarchies in parallel */
+    private static final int VALUES  = 200000;
+
+    /** Number of threads */
+    private static final int THREADS = 4;
+
+    /**
+     * Tests generalizing dates, in parallel and sequentially
+     */
+    @Test
+    public void testDate() {
+
+        // Prepare
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd");
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTime(new Date(0L));
+        String[] data = new String[VALUES];
+        for (int i = 0; i < VALUES; i++) {
+            data[i] = format.format(calendar.getTime());
+            calendar.add(Calendar.HOUR_OF_DAY, 6);
+        }
+
+        // Build
+        DataType<Date> type = DataType.createDate("yyyy-MM-dd");
+        HierarchyBuilderDate builder = HierarchyBuilderDate.create(type, Granularity.MONTH_YEAR, Granularity.YEAR, Granularity.DECADE);
+        String[][] sequential = builder.build(data).getHierarchy();
+        builder.setNumberOfThreads(THREADS);
+        String[][] parallel = builder.build(data).getHierarchy();
+
+        // Compare
+        SimpleDateFormat month = new SimpleDateFormat("MM/yyyy");
+        SimpleDateFormat year = new SimpleDateFormat("yyyy");
+        for (int i = 0; i < VALUES; i++) {
+            assertArrayEquals(sequential[i], parallel[i]);
+            Date date = type.parse(data[i]);
+            assertEquals(data[i], parallel[i][0]);
+            assertEquals(month.format(date), parallel[i][1]);
+            assertEquals(year.format(date), parallel[i][2]);
+        }
+    }
+
+    /**
+     * Tests that mapping decimals to intervals with primitive arithmetic, which is used for decimals
+     * without a format, and with the arithmetic of the data type, which is used for decimals with a
+     * format, results in the same groups. Covers repetition, snapping and bottom and top coding.
+     */
+    @Test
+    public void testIntervalBasedClassifiers() {
+
+        // Prepare
+        String[] data = new String[VALUES];
+        for (int i = 0; i < VALUES; i++) {
+            data[i] = String.valueOf(-80d + i * 0.00125d);
+        }
+
+        // Build
+        String[][] primitive = getIntervalBasedHierarchy(DataType.DECIMAL, data);
+        String[][] generic = getIntervalBasedHierarchy(DataType.createDecimal("#.#####", Locale.US), data);
+
+        // Compare groups
+        assertEquals(primitive[0].length, generic[0].length);
+        for (int level = 1; level < primitive[0].length; level++) {
+            Map<String, Integer> primitiveGroups = new HashMap<String, Integer>();
+            Map<String, Integer> genericGroups = new HashMap<String, Integer>();
+            for (int i = 0; i < VALUES; i++) {
+                if (!primitiveGroups.containsKey(primitive[i][level])) {
+                    primitiveGroups.put(primitive[i][level], i);
+                }
+                if (!genericGroups.containsKey(generic[i][level])) {
+                    genericGroups.put(generic[i][level], i);
+                }
+                assertEquals(primitiveGroups.get(primitive[i][level]), genericGroups.get(generic[i][level]));
+            }
+        }
+    }
+
+    /**
+     * Tests mapping values to repeated intervals
+     */
+    @Test
+    public void testIntervalBased() {
+
+        HierarchyBuilderIntervalBased<Long> builder = HierarchyBuilderIntervalBased.create(DataType.INTEGER,
+                                                                                          new Range<Long>(-1000000L, -1000000L, -1000000L),
+                                                                                          new Range<Long>(1000000L, 1000000L, 1000000L));
+        builder.addInterval(0L, 10L);
+        builder.addInterval(10L, 25L);
+        builder.getLevel(0).addGroup(2);
+        builder.setNumberOfThreads(THREADS);
+
+        String[][] hierarchy = builder.build(getData()).getHierarchy();
+        for (int i = 0; i < VALUES; i++) {
+            long offset = i / 25 * 25;
+            long lower = offset + (i % 25 < 10 ? 0 : 10);
+            long upper = offset + (i % 25 < 10 ? 10 : 25);
+            assertEquals("[" + lower + ", " + upper + "]", hierarchy[i][1]);
+            assertEquals("[" + offset + ", " + (offset + 25) + "]", hierarchy[i][2]);
+        }
+    }
+
+    /**
+     * Tests ordering values by their parsed representation
+     */
+    @Test
+    public void testOrderBased() {
+
+        HierarchyBuilderOrderBased<Long> builder = HierarchyBuilderOrderBased.create(DataType.INTEGER, true);
+        builder.getLevel(0).addGroup(10);
+        builder.setNumberOfThreads(THREADS);
+
+        String[] data = getData();
+        for (int i = 0; i < data.length / 2; i++) {
+            String temp = data[i];
+            data[i] = data[data.length - 1 - i];
+            data[data.length - 1 - i] = temp;
+        }
+        assertArrayEquals(new int[] { VALUES, VALUES / 10, 1 }, builder.prepare(data));
+        for (int i = 0; i < VALUES; i++) {
+            assertEquals(String.valueOf(i), data[i]);
+        }
+    }
+
+    /**
+     * Tests that identical labels are represented by the same string
+     */
+    @Test
+    public void testRedactionBased() {
+
+        HierarchyBuilderRedactionBased<Long> builder = HierarchyBuilderRedactionBased.create(Order.RIGHT_TO_LEFT,
+                                                                                           Order.RIGHT_TO_LEFT,
+                                                                                           '0',
+                                                                                           '*');
+        builder.setNumberOfThreads(THREADS);
+        int[] sizes = builder.prepare(getData());
+        assertArrayEquals(new int[] { VALUES, VALUES / 10, VALUES / 100, VALUES / 1000, VALUES / 10000, VALUES / 100000, 1 }, sizes);
+
+        String[][] hierarchy = builder.build().getHierarchy();
+        for (int level = 1; level < hierarchy[0].length; level++) {
+            Map<String, String> labels = new HashMap<String, String>();
+            for (int i = 0; i < VALUES; i++) {
+                String label = hierarchy[i][level];
+                if (!labels.containsKey(label)) {
+                    labels.put(label, label);
+                }
+                assertSame(labels.get(label), label);
+            }
+            assertEquals(sizes[level], labels.size());
+        }
+    }
+
+    /**
+     * Builds a hierarchy with intervals, snapping and bottom and top coding for the given decimals
+     *
+     * @param type
+     * @param data
+     * @return
+     */
+    private String[][] getIntervalBasedHierarchy(DataType<Double> type, String[] data) {
+        HierarchyBuilderIntervalBased<Double> builder = HierarchyBuilderIntervalBased.create(type,
+                                                                                            new Range<Double>(-20d, -50d, -1000d),
+                                                                                            new Range<Double>(100d, 150d, 1000d));
+        builder.addInterval(0d, 2.5d);
+        builder.addInterval(2.5d, 10d);
+        builder.addInterval(10d, 12.125d);
+        builder.getLevel(0).addGroup(2);
+        builder.getLevel(1).addGroup(3);
+        builder.setNumberOfThreads(THREADS);
+        return builder.build(data).getHierarchy();
+    }
+
+    /**
+     * Returns the values to build hierarchies for
+     *
+     * @return
+     */
+    private String[] getData() {
+        String[] data = new String[VALUES];
+        for (int i = 0; i < VALUES; i++) {
+            data[i] = String.valueOf(i);
+        }
+        return data;
+    }
+}
@@ -0,0 +1,276 @@
+/*
+ * ARX Data Anonymization Tool
+ * Copyright 2012 - 2022 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.deidentifier.arx.Data;
+import org.deidentifier.arx.DataHandle;
+import org.deidentifier.arx.DataSource;
+import org.junit.Test;
+
+/**
+ * Tests importing Excel files. XLSX files are streamed, they are generated directly to cover
+ * the different representations of cells.
+ *
+ * @author Fabian Prasser
+ */
+public class TestImportExcel {
+
+    /** Content types */
+    private static final String CONTENT_TYPES = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n" +
+                                                "<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">" +
+                                                "<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>" +
+                                                "<Default Extension=\"xml\" ContentType=\"application/xml\"/>" +
+                                                "<Override PartName=\"/xl/workbook.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>" +
+                                                "<Override PartName=\"/xl/worksheets/sheet1.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>" +
+                                                "<Override PartName=\"/xl/worksheets/sheet2.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>" +
+                                                "<Override PartName=\"/xl/sharedStrings.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sharedStrings+xml\"/>" +
+                                                "</Types>";
+
+    /** Relationships of the package */
+    private static final String RELATIONSHIPS = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n" +
+                                                "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">" +
+                                                "<Relationship Id=\"rId1\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/officeDocument\" Target=\"xl/workbook.xml\"/>" +
+                                                "</Relationships>";
+
+    /** Workbook with two sheets, listed in a different order than their relationships */
+    private static final String WORKBOOK      = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n" +
+                                                "<workbook xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\" xmlns:r=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships\">" +
+                                                "<sheets><sheet name=\"first\" sheetId=\"1\" r:id=\"rId2\"/><sheet name=\"second\" sheetId=\"2\" r:id=\"rId1\"/></sheets>" +
+                                                "</workbook>";
+
+    /** Relationships of the workbook */
+    private static final String WORKBOOK_RELS = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n" +
+                                                "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">" +
+                                                "<Relationship Id=\"rId1\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/worksheet\" Target=\"worksheets/sheet2.xml\"/>" +
+                                                "<Relationship Id=\"rId2\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/worksheet\" Target=\"worksheets/sheet1.xml\"/>" +
+                                                "<Relationship Id=\"rId3\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/sharedStrings\" Target=\"sharedStrings.xml\"/>" +
+                                                "</Relationships>";
+
+    /** Start of sheets */
+    static final String         SHEET_START   = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n" +
+                                                "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\">";
+
+    /** End of sheets */
+    static final String         SHEET_END     = "</sheetData></worksheet>";
+
+    /** Start of shared strings */
+    static final String         STRINGS_START = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n" +
+                                                "<sst xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\">";
+
+    /** End of shared strings */
+    static final String         STRINGS_END   = "</sst>";
+
+    /**
+     * Tests importing columns by name
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testColumnNames() throws IOException {
+        File file = getFile();
+        DataSource source = DataSource.createExcelSource(file, 1, true);
+        source.addColumn("formula");
+        source.addColumn("string");
+        assertEquals(Arrays.asList("formula|string|",
+                                   "84|a &b|",
+                                   "x-7||",
+                                   "FALSE|tab\tend|"), getImported(source, 2));
+    }
+
+    /**
+     * Tests importing an XLS file
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testXLS() throws IOException {
+
+        // Write
+        File file = File.createTempFile("arx", ".xls");
+        file.deleteOnExit();
+        Workbook workbook = new HSSFWorkbook();
+        workbook.createSheet("first").createRow(0).createCell(0).setCellValue("other");
+        Sheet sheet = workbook.createSheet("second");
+        Random random = new Random(0xDEADBEEF);
+        for (int row = 0; row < 50; row++) {
+            if (row % 7 == 6) {
+                continue;
+            }
+            Row current = sheet.createRow(row);
+            if (row % 5 != 4) {
+                current.createCell(0).setCellValue(" value " + random.nextInt(10) + " ");
+            }
+            current.createCell(1).setCellValue(random.nextInt(100000));
+            current.createCell(2).setCellValue(random.nextInt(100000) / 100d);
+            current.createCell(3).setCellValue(random.nextBoolean());
+        }
+        OutputStream output = new FileOutputStream(file);
+        workbook.write(output);
+        output.close();
+
+        // Expected values as converted by POI
+        List<String> expected = new ArrayList<String>();
+        workbook = new HSSFWorkbook(new FileInputStream(file));
+        workbook.setMissingCellPolicy(Row.CREATE_NULL_AS_BLANK);
+        Iterator<Row> iterator = workbook.getSheetAt(1).iterator();
+        while (iterator.hasNext()) {
+            Row row = iterator.next();
+            StringBuilder builder = new StringBuilder();
+            for (int column = 0; column < 4; column++) {
+                Cell cell = row.getCell(column);
+                cell.setCellType(Cell.CELL_TYPE_STRING);
+                builder.append(cell.getStringCellValue().trim()).append("|");
+            }
+            expected.add(builder.toString());
+        }
+
+        // Compare
+        DataSource source = DataSource.createExcelSource(file, 1, true);
+        for (int column = 0; column < 4; column++) {
+            source.addColumn(column);
+        }
+        assertEquals(expected, getImported(source, 4));
+    }
+
+    /**
+     * Tests streaming an XLSX file
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testXLSX() throws IOException {
+        File file = getFile();
+        DataSource source = DataSource.createExcelSource(file, 1, true);
+        for (int column = 0; column < 6; column++) {
+            source.addColumn(column);
+        }
+        assertEquals(Arrays.asList("string|integer|decimal|boolean|formula|date|",
+                                   "a &b|42|0.1|TRUE|84|44197|",
+                                   "|-7||FALSE|x-7||",
+                                   "tab\tend|inline|||FALSE||"), getImported(source, 6));
+    }
+
+    /**
+     * Writes an XLSX file with different types of cells, missing cells and missing rows
+     *
+     * @return
+     * @throws IOException
+     */
+    private File getFile() throws IOException {
+        File file = File.createTempFile("arx", ".xlsx");
+        file.deleteOnExit();
+        ZipOutputStream output = new ZipOutputStream(new FileOutputStream(file));
+        write(output);
+        write(output, "xl/sharedStrings.xml", STRINGS_START +
+                                              "<si><t>string</t></si><si><t>integer</t></si><si><t>boolean</t></si>" +
+                                              "<si><t>formula</t></si><si><t>date</t></si>" +
+                                              "<si><r><t xml:space=\"preserve\"> a </t></r><r><t>&amp;b</t></r><rPh sb=\"0\" eb=\"1\"><t>x</t></rPh></si>" +
+                                              "<si><t>tab_x0009_end</t></si>" +
+                                              STRINGS_END);
+        write(output, "xl/worksheets/sheet1.xml", SHEET_START + "<sheetData>" +
+                                                  "<row r=\"1\"><c r=\"A1\" t=\"inlineStr\"><is><t>other</t></is></c></row>" +
+                                                  SHEET_END);
+        write(output, "xl/worksheets/sheet2.xml", SHEET_START + "<dimension ref=\"A1:F5\"/><sheetData>" +
+                                                  "<row r=\"1\"><c r=\"A1\" t=\"s\"><v>0</v></c><c r=\"B1\" t=\"s\"><v>1</v></c>" +
+                                                  "<c r=\"C1\" t=\"inlineStr\"><is><t>decimal</t></is></c><c r=\"D1\" t=\"s\"><v>2</v></c>" +
+                                                  "<c r=\"E1\" t=\"s\"><v>3</v></c><c r=\"F1\" t=\"s\"><v>4</v></c></row>" +
+                                                  "<row r=\"2\"><c r=\"A2\" t=\"s\"><v>5</v></c><c r=\"B2\"><v>42</v></c><c r=\"C2\"><v>0.1</v></c>" +
+                                                  "<c r=\"D2\" t=\"b\"><v>1</v></c><c r=\"E2\"><f>B2*2</f><v>84</v></c><c r=\"F2\" s=\"1\"><v>44197</v></c></row>" +
+                                                  "<row r=\"4\"><c r=\"B4\"><v>-7</v></c><c r=\"C4\"/><c r=\"D4\" t=\"b\"><v>0</v></c>" +
+                                                  "<c r=\"E4\" t=\"str\"><f>CONCATENATE(\"x\",B4)</f><v>x-7</v></c></row>" +
+                                                  "<row r=\"5\"><c t=\"s\"><v>6</v></c><c t=\"inlineStr\"><is><r><t>in</t></r><r><t>line</t></r></is></c>" +
+                                                  "<c r=\"E5\" t=\"b\"><f>B4&gt;0</f><v>0</v></c></row>" +
+                                                  SHEET_END);
+        output.close();
+        return file;
+    }
+
+    /**
+     * Returns the header and values of the given source
+     *
+     * @param source
+     * @param columns
+     * @return
+     * @throws IOException
+     */
+    private List<String> getImported(DataSource source, int columns) throws IOException {
+        DataHandle handle = Data.create(source).getHandle();
+        List<String> result = new ArrayList<String>();
+        StringBuilder builder = new StringBuilder();
+        for (int column = 0; column < columns; column++) {
+            builder.append(handle.getAttributeName(column)).append("|");
+        }
+        result.add(builder.toString());
+        for (int row = 0; row < handle.getNumRows(); row++) {
+            builder = new StringBuilder();
+            for (int column = 0; column < columns; column++) {
+                builder.append(handle.getValue(row, column)).append("|");
+            }
+            result.add(builder.toString());
+        }
+        return result;
+    }
+
+    /**
+     * Writes the parts describing the package and workbook
+     *
+     * @param output
+     * @throws IOException
+     */
+    static void write(ZipOutputStream output) throws IOException {
+        write(output, "[Content_Types].xml", CONTENT_TYPES);
+        write(output, "_rels/.rels", RELATIONSHIPS);
+        write(output, "xl/workbook.xml", WORKBOOK);
+        write(output, "xl/_rels/workbook.xml.rels", WORKBOOK_RELS);
+    }
+
+    /**
+     * Writes a part
+     *
+     * @param output
+     * @param name
+     * @param content
+     * @throws IOException
+     */
+    private static void write(ZipOutputStream output, String name, String content) throws IOException {
+        output.putNextEntry(new ZipEntry(name));
+        output.write(content.getBytes(StandardCharsets.UTF_8));
+        output.closeEntry();
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * ARX Data Anonymization Tool
+ * Copyright 2012 - 2022 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.deidentifier.arx.ARXAnonymizer;
+import org.deidentifier.arx.ARXConfiguration;
+import org.deidentifier.arx.ARXLattice;
+import org.deidentifier.arx.ARXLattice.ARXNode;
+import org.deidentifier.arx.ARXLattice.Anonymity;
+import org.deidentifier.arx.ARXResult;
+import org.deidentifier.arx.criteria.KAnonymity;
+import org.deidentifier.arx.metric.InformationLoss;
+import org.deidentifier.arx.metric.Metric;
+import org.deidentifier.arx.metric.v2.__MetricV2;
+import org.junit.Test;
+
+/**
+ * Tests the properties of nodes in the generalization lattice and their binary serialization.
+ *
+ * @author Fabian Prasser
+ */
+public class TestLatticeNodes extends AbstractTest {
+
+    /**
+     * Tests the properties of nodes stored via the accessor methods
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testAccess() throws IOException {
+
+        ARXLattice lattice = getLattice(provider, Metric.createDiscernabilityMetric(true));
+        ARXNode first = lattice.new ARXNode(lattice);
+        first.access().setTransformation(new int[] { 1, 0, 2 });
+        first.access().setAnonymity(Anonymity.PROBABLY_ANONYMOUS);
+        first.access().setChecked(true);
+        first.access().setLowestScore(__MetricV2.createILSingleDimensional(1d));
+        first.access().setHighestScore(__MetricV2.createILSingleDimensional(2d));
+        first.access().setLowerBound(null);
+        first.getAttributes().put(0, "comment");
+
+        ARXNode second = lattice.new ARXNode(lattice);
+        second.access().setTransformation(new int[] { 1, 1, 2 });
+        second.access().setPredecessors(new ARXNode[] { first });
+        first.access().setSuccessors(new ARXNode[] { second });
+
+        // Decimal numbers
+        assertArrayEquals(new int[] { 1, 0, 2 }, first.getTransformation());
+        assertEquals(3, first.getTotalGeneralizationLevel());
+        assertEquals(Anonymity.PROBABLY_ANONYMOUS, first.getAnonymity());
+        assertEquals(true, first.isChecked());
+        assertEquals(false, second.isChecked());
+        assertEquals(__MetricV2.createILSingleDimensional(1d), first.getLowestScore());
+        assertEquals(__MetricV2.createILSingleDimensional(2d), first.getHighestScore());
+        assertNull(second.getLowestScore());
+        assertEquals("comment", first.getAttributes().get(0));
+        assertSame(first, second.getPredecessors()[0]);
+        assertSame(second, first.getSuccessors()[0]);
+
+        // Objects
+        InformationLoss<?> loss = __MetricV2.createILMultiDimensionalArithmeticMean(3d);
+        second.access().setLowestScore(loss);
+        assertEquals(loss, second.getLowestScore());
+        assertEquals(__MetricV2.createILSingleDimensional(1d), first.getLowestScore());
+        assertEquals(__MetricV2.createILSingleDimensional(2d), first.getHighestScore());
+        assertNull(second.getHighestScore());
+
+        // Transformations are copied
+        first.getTransformation()[0] = 5;
+        assertEquals(1, first.getTransformation()[0]);
+    }
+
+    /**
+     * Tests the properties of nodes in the lattice of a result
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testLattice() throws IOException {
+        for (Metric<?> metric : new Metric<?>[] { Metric.createDiscernabilityMetric(true), Metric.createLossMetric() }) {
+            ARXLattice lattice = getLattice(provider, metric);
+            String[] attributes = lattice.getBottom().getQuasiIdentifyingAttributes();
+            int size = 0;
+            for (ARXNode[] level : lattice.getLevels()) {
+                for (ARXNode node : level) {
+                    size++;
+                    int[] transformation = node.getTransformation();
+                    assertEquals(Arrays.toString(transformation), node.access().getTransformationAsString());
+                    for (int i = 0; i < transformation.length; i++) {
+                        assertEquals(transformation[i], node.access().getGeneralization(i));
+                    }
+                    int total = 0;
+                    for (String attribute : attributes) {
+                        assertEquals(transformation[node.getDimension(attribute)], node.getGeneralization(attribute));
+                        total += node.getGeneralization(attribute);
+                    }
+                    assertEquals(total, node.getTotalGeneralizationLevel());
+                    assertTrue(node.getLowestScore().compareTo(node.getHighestScore()) <= 0);
+                    for (ARXNode predecessor : node.getPredecessors()) {
+                        assertEquals(node.getTotalGeneralizationLevel() - 1, predecessor.getTotalGeneralizationLevel());
+                    }
+                    for (ARXNode successor : node.getSuccessors()) {
+                        assertEquals(node.getTotalGeneralizationLevel() + 1, successor.getTotalGeneralizationLevel());
+                    }
+                }
+            }
+            assertEquals(lattice.getSize(), size);
+            assertSame(lattice.getBottom(), lattice.getNode(lattice.getBottom().getTransformation()));
+            assertSame(lattice.getTop(), lattice.getNode(lattice.getTop().getTransformation()));
+        }
+    }
+
+    /**
+     * Tests writing and reading lattices in the binary format
+     *
+     * @throws IOException
+     * @throws ClassNotFoundException
+     */
+    @Test
+    public void testSerialization() throws IOException, ClassNotFoundException {
+        for (Metric<?> metric : new Metric<?>[] { Metric.createDiscernabilityMetric(true), Metric.createLossMetric() }) {
+
+            ARXLattice expected = getLattice(provider, metric);
+            expected.getBottom().getAttributes().put(0, "comment");
+            ByteArrayOutputStream stream = new ByteArrayOutputStream();
+            expected.write(stream);
+            ARXLattice actual = ARXLattice.read(new ByteArrayInputStream(stream.toByteArray()));
+
+            assertEquals(expected.getSize(), actual.getSize());
+            assertEquals(expected.getLevels().length, actual.getLevels().length);
+            assertArrayEquals(expected.getBottom().getTransformation(), actual.getBottom().getTransformation());
+            assertArrayEquals(expected.getTop().getTransformation(), actual.getTop().getTransformation());
+            assertEquals(expected.getLowestScore(), actual.getLowestScore());
+            assertEquals(expected.getHighestScore(), actual.getHighestScore());
+            assertEquals("comment", actual.getBottom().getAttributes().get(0));
+            for (int level = 0; level < expected.getLevels().length; level++) {
+                assertEquals(expected.getLevels()[level].length, actual.getLevels()[level].length);
+                for (int i = 0; i < expected.getLevels()[level].length; i++) {
+                    ARXNode node1 = expected.getLevels()[level][i];
+                    ARXNode node2 = actual.getLevels()[level][i];
+                    assertArrayEquals(node1.getTransformation(), node2.getTransformation());
+                    assertArrayEquals(node1.getQuasiIdentifyingAttributes(), node2.getQuasiIdentifyingAttributes());
+                    assertEquals(node1.getAnonymity(), node2.getAnonymity());
+                    assertEquals(node1.isChecked(), node2.isChecked());
+                    assertEquals(node1.getLowestScore(), node2.getLowestScore());
+                    assertEquals(node1.getHighestScore(), node2.getHighestScore());
+                    assertEquals(node1.getPredecessors().length, node2.getPredecessors().length);
+                    for (int j = 0; j < node1.getPredecessors().length; j++) {
+                        assertArrayEquals(node1.getPredecessors()[j].getTransformation(), node2.getPredecessors()[j].getTransformation());
+                    }
+                    assertEquals(node1.getSuccessors().length, node2.getSuccessors().length);
+                    for (int j = 0; j < node1.getSuccessors().length; j++) {
+                        assertArrayEquals(node1.getSuccessors()[j].getTransformation(), node2.getSuccessors()[j].getTransformation());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns a lattice for the given quality model
+     *
+     * @param provider
+     * @param metric
+     * @return
+     * @throws IOException
+     */
+    static ARXLattice getLattice(DataProvider provider, Metric<?> metric) throws IOException {
+        provider.getData().getHandle().release();
+        provider.createDataDefinition();
+        ARXAnonymizer anonymizer = new ARXAnonymizer();
+        ARXConfiguration config = ARXConfiguration.create();
+        config.addPrivacyModel(new KAnonymity(2));
+        config.setSuppressionLimit(0d);
+        config.setQualityModel(metric);
+        ARXResult result = anonymizer.anonymize(provider.getData(), config);
+        return result.getLattice();
+    }
+}
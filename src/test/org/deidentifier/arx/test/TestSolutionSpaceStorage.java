@@ -0,0 +1,179 @@
+/*
+ * ARX Data Anonymization Tool
+ * Copyright 2012 - 2022 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.Callable;
+
+import org.deidentifier.arx.common.IntPriorityQueue;
+import org.deidentifier.arx.common.StripedLongObjectMap;
+import org.deidentifier.arx.common.WorkerPool;
+import org.deidentifier.arx.framework.lattice.ObjectIterator;
+import org.deidentifier.arx.framework.lattice.SolutionSpace;
+import org.deidentifier.arx.framework.lattice.SolutionSpaceLong;
+import org.deidentifier.arx.framework.lattice.Transformation;
+import org.junit.Test;
+
+import cern.colt.function.IntComparator;
+
+/**
+ * Tests the storage and queues backing the solution space.
+ *
+ * @author Fabian Prasser
+ */
+public class TestSolutionSpaceStorage extends AbstractTest {
+
+    /**
+     * Tests concurrent access to the striped map
+     */
+    @Test
+    public void testConcurrentAccess() {
+
+        // Prepare
+        final int THREADS = 4;
+        final int SIZE = 10000;
+        final StripedLongObjectMap<Long> map = new StripedLongObjectMap<>();
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            final int thread = i;
+            tasks.add(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    for (long key = thread; key < SIZE; key += THREADS) {
+                        map.put(key, key * 2);
+                        assertEquals(Long.valueOf(key * 2), map.get(key));
+                    }
+                    return null;
+                }
+            });
+        }
+
+        // Execute
+        new WorkerPool(THREADS).invokeAll(tasks);
+
+        // Check
+        assertEquals(SIZE, map.size());
+        for (long key = 0; key < SIZE; key++) {
+            assertEquals(Long.valueOf(key * 2), map.get(key));
+        }
+    }
+
+    /**
+     * Tests the striped map against a reference implementation
+     */
+    @Test
+    public void testMap() {
+
+        Map<Long, Integer> reference = new HashMap<>();
+        StripedLongObjectMap<Integer> map = new StripedLongObjectMap<>(3);
+        Random random = new Random(0xDEADBEEF);
+        for (int i = 0; i < 10000; i++) {
+            long key = random.nextInt(1000) - 500L;
+            if (random.nextBoolean()) {
+                assertEquals(reference.put(key, i), map.put(key, i));
+            } else {
+                assertEquals(reference.get(key), map.get(key));
+                assertEquals(reference.containsKey(key), map.containsKey(key));
+            }
+        }
+        assertEquals(reference.size(), map.size());
+        map.clear();
+        assertEquals(0, map.size());
+        assertFalse(map.containsKey(0L));
+        assertNull(map.get(0L));
+    }
+
+    /**
+     * Tests the primitive priority queue against java.util.PriorityQueue, including the order
+     * of elements which are equal according to the comparator
+     */
+    @Test
+    public void testPriorityQueue() {
+
+        // Compare by value / 10, which results in many ties
+        IntComparator comparator = new IntComparator() {
+            @Override
+            public int compare(int o1, int o2) {
+                return Integer.compare(o1 / 10, o2 / 10);
+            }
+        };
+        PriorityQueue<Integer> reference = new PriorityQueue<>(1, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer o1, Integer o2) {
+                return Integer.compare(o1 / 10, o2 / 10);
+            }
+        });
+        IntPriorityQueue queue = new IntPriorityQueue(1, comparator);
+
+        // Random operations
+        Random random = new Random(0xDEADBEEF);
+        for (int i = 0; i < 100000; i++) {
+            int operation = random.nextInt(5);
+            if (operation < 2) {
+                int value = random.nextInt(1000);
+                reference.add(value);
+                queue.add(value);
+            } else if (operation < 4) {
+                assertEquals(reference.isEmpty(), queue.isEmpty());
+                if (!reference.isEmpty()) {
+                    assertEquals(reference.poll().intValue(), queue.poll());
+                }
+            } else {
+                int value = random.nextInt(1000);
+                assertEquals(reference.remove(value), queue.remove(value));
+            }
+            assertEquals(reference.size(), queue.size());
+        }
+    }
+
+    /**
+     * Tests storing data in the solution space
+     */
+    @Test
+    public void testSolutionSpace() {
+
+        SolutionSpace<?> space = SolutionSpace.create(new int[] {0, 0, 1}, new int[] {3, 2, 4});
+        assertTrue(space instanceof SolutionSpaceLong);
+
+        // Store
+        for (ObjectIterator<?> iter = space.unsafeGetAllTransformations(); iter.hasNext();) {
+            Transformation<?> transformation = space.getTransformation(iter.next());
+            transformation.setData(transformation.getLevel());
+        }
+
+        // Check
+        int count = 0;
+        for (ObjectIterator<?> iter = space.unsafeGetAllTransformations(); iter.hasNext();) {
+            Transformation<?> transformation = space.getTransformation(iter.next());
+            assertEquals(transformation.getLevel(), transformation.getData());
+            count++;
+        }
+        assertEquals(4 * 3 * 4, count);
+    }
+}
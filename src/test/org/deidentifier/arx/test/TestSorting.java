@@ -21,6 +21,7 @@ import java.io.File;
 import java.io.FilenameFilter;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -35,6 +36,7 @@ import org.deidentifier.arx.AttributeType;
 import org.deidentifier.arx.AttributeType.Hierarchy;
 import org.deidentifier.arx.AttributeType.MicroAggregationFunction;
 import org.deidentifier.arx.Data;
+import org.deidentifier.arx.DataHandle;
 import org.deidentifier.arx.DataSelector;
 import org.deidentifier.arx.DataSubset;
 import org.deidentifier.arx.DataType;
@@ -215,4 +217,55 @@ public class TestSorting extends AbstractTest {
             }
         }
     }
+
+    /**
+     * Tests that sorting by several columns is stable and that the swapper receives
+     * the resulting permutation
+     *
+     * @throws ParseException
+     */
+    @Test
+    public void testStableSorting() throws ParseException {
+
+        // Create data with many duplicates
+        Random random = new Random(0xDEADBEEF);
+        Data data = Data.create();
+        String[][] rows = new String[2000][];
+        ((Data.DefaultData) data).add("date", "value", "id");
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = new String[] { String.format("%02d.%02d.%04d", 1 + random.nextInt(3), 1 + random.nextInt(2), 2000 + random.nextInt(3)),
+                                     String.valueOf(random.nextInt(20)),
+                                     String.valueOf(i) };
+            ((Data.DefaultData) data).add(rows[i]);
+        }
+        data.getDefinition().setDataType("date", DataType.DATE);
+        data.getDefinition().setDataType("value", DataType.INTEGER);
+
+        // Sort and track the permutation
+        final int[] tracked = new int[rows.length];
+        for (int i = 0; i < tracked.length; i++) {
+            tracked[i] = i;
+        }
+        DataHandle handle = data.getHandle();
+        handle.sort(new Swapper() {
+            @Override
+            public void swap(int arg0, int arg1) {
+                int temp = tracked[arg0];
+                tracked[arg0] = tracked[arg1];
+                tracked[arg1] = temp;
+            }
+        }, false, 0, 1);
+
+        // Check
+        for (int i = 0; i < rows.length; i++) {
+            Assert.assertEquals(rows[tracked[i]][2], handle.getValue(i, 2));
+            if (i > 0) {
+                int cmp = DataType.DATE.compare(handle.getValue(i - 1, 0), handle.getValue(i, 0));
+                if (cmp == 0) {
+                    cmp = DataType.INTEGER.compare(handle.getValue(i - 1, 1), handle.getValue(i, 1));
+                }
+                Assert.assertTrue(cmp > 0 || (cmp == 0 && tracked[i - 1] < tracked[i]));
+            }
+        }
+    }
 }
\ No newline at end of file
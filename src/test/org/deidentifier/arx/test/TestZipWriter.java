@@ -0,0 +1,264 @@
+/*
+ * ARX Data Anonymization Tool
+ * Copyright 2012 - 2022 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+
+import org.deidentifier.arx.gui.worker.io.ZipWriter;
+import org.junit.Test;
+
+/**
+ * Tests writing ZIP archives and reusing entries of previous versions.
+ *
+ * @author Fabian Prasser
+ */
+public class TestZipWriter {
+
+    /**
+     * Tests that a corrupt previous version of an archive is ignored
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testCorruptPrevious() throws IOException {
+
+        // Garbage
+        File previous = getFile();
+        RandomAccessFile file = new RandomAccessFile(previous, "rw");
+        file.write(getData(1000, 0));
+        file.close();
+        File output = getFile();
+        ZipWriter writer = new ZipWriter(output, previous);
+        assertTrue(writer.putNextEntry("a", "1"));
+        writer.write(getData(1000, 1));
+        writer.close();
+        assertArrayEquals(getData(1000, 1), read(output, "a"));
+
+        // Corrupt local header
+        previous = getFile();
+        writer = new ZipWriter(previous, null);
+        writer.putNextEntry("a", "1");
+        writer.write(getData(1000, 2));
+        writer.close();
+        file = new RandomAccessFile(previous, "rw");
+        file.write(new byte[4]);
+        file.close();
+        writer = new ZipWriter(output, previous);
+        assertTrue(writer.putNextEntry("a", "1"));
+        writer.write(getData(1000, 3));
+        writer.close();
+        assertArrayEquals(getData(1000, 3), read(output, "a"));
+    }
+
+    /**
+     * Tests writing an empty entry
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testEmptyEntry() throws IOException {
+        File output = getFile();
+        ZipWriter writer = new ZipWriter(output, null);
+        writer.putNextEntry("empty");
+        writer.putNextEntry("a");
+        writer.write(getData(1000, 0));
+        writer.close();
+        assertArrayEquals(new byte[0], read(output, "empty"));
+        assertArrayEquals(getData(1000, 0), read(output, "a"));
+    }
+
+    /**
+     * Tests writing entries which are compressed in multiple chunks or while they are written
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testLargeEntries() throws IOException {
+        testLargeEntries(1);
+    }
+
+    /**
+     * Tests writing entries whose chunks are compressed in parallel
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testLargeEntriesParallel() throws IOException {
+        testLargeEntries(4);
+    }
+
+    /**
+     * Tests reusing entries with matching fingerprints
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testReuse() throws IOException {
+
+        // Write
+        File previous = getFile();
+        ZipWriter writer = new ZipWriter(previous, null);
+        writer.putNextEntry("a", "1");
+        writer.write(getData(1000, 0));
+        writer.putNextEntry("b", "1");
+        writer.write(getData(1000, 1));
+        writer.putNextEntry("c");
+        writer.write(getData(1000, 2));
+        writer.close();
+
+        // Update
+        File output = getFile();
+        writer = new ZipWriter(output, previous);
+        assertFalse(writer.putNextEntry("a", "1"));
+        assertTrue(writer.putNextEntry("b", "2"));
+        writer.write(getData(1000, 3));
+        writer.putNextEntry("c");
+        writer.write(getData(1000, 2));
+        writer.close();
+
+        // Check
+        assertArrayEquals(getData(1000, 0), read(output, "a"));
+        assertArrayEquals(getData(1000, 3), read(output, "b"));
+        assertArrayEquals(getData(1000, 2), read(output, "c"));
+        ZipFile file = new ZipFile(output);
+        assertEquals("1", file.getEntry("a").getComment());
+        assertEquals("2", file.getEntry("b").getComment());
+        file.close();
+    }
+
+    /**
+     * Returns compressible pseudo-random data
+     *
+     * @param length
+     * @param seed
+     * @return
+     */
+    private byte[] getData(int length, int seed) {
+        Random random = new Random(seed);
+        StringBuilder builder = new StringBuilder();
+        while (builder.length() < length) {
+            builder.append("value-").append(random.nextInt(10000)).append(';');
+        }
+        return builder.substring(0, length).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns a temporary file
+     *
+     * @return
+     * @throws IOException
+     */
+    private File getFile() throws IOException {
+        File file = File.createTempFile("arx", ".zip");
+        file.deleteOnExit();
+        return file;
+    }
+
+    /**
+     * Reads the given entry of the given archive
+     *
+     * @param archive
+     * @param name
+     * @return
+     * @throws IOException
+     */
+    private byte[] read(File archive, String name) throws IOException {
+        ZipFile file = new ZipFile(archive);
+        try {
+            ZipEntry entry = file.getEntry(name);
+            byte[] data = read(file.getInputStream(entry));
+            assertEquals(entry.getSize(), data.length);
+            return data;
+        } finally {
+            file.close();
+        }
+    }
+
+    /**
+     * Reads the given stream
+     *
+     * @param input
+     * @return
+     * @throws IOException
+     */
+    private byte[] read(InputStream input) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1 << 16];
+        int length;
+        while ((length = input.read(buffer)) != -1) {
+            output.write(buffer, 0, length);
+        }
+        return output.toByteArray();
+    }
+
+    /**
+     * Writes and reads entries which are compressed in multiple chunks or while they are written
+     *
+     * @param threads
+     * @throws IOException
+     */
+    private void testLargeEntries(int threads) throws IOException {
+        
+        // Write
+        File output = getFile();
+        ZipWriter writer = new ZipWriter(output, null, threads);
+        writer.putNextEntry("chunks");
+        writer.write(getData(1 << 20, 0));
+        writer.putNextEntry("stream");
+        for (int i = 0; i < 20; i++) {
+            writer.write(getData(1 << 20, i));
+        }
+        writer.putNextEntry("a");
+        writer.write(getData(1000, 0));
+        writer.close();
+        
+        // Read
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        for (int i = 0; i < 20; i++) {
+            stream.write(getData(1 << 20, i));
+        }
+        assertArrayEquals(getData(1 << 20, 0), read(output, "chunks"));
+        assertArrayEquals(stream.toByteArray(), read(output, "stream"));
+        assertArrayEquals(getData(1000, 0), read(output, "a"));
+        
+        // Read sequentially
+        ZipInputStream input = new ZipInputStream(new FileInputStream(output));
+        assertEquals("chunks", input.getNextEntry().getName());
+        assertArrayEquals(getData(1 << 20, 0), read(input));
+        assertEquals("stream", input.getNextEntry().getName());
+        assertArrayEquals(stream.toByteArray(), read(input));
+        assertEquals("a", input.getNextEntry().getName());
+        assertArrayEquals(getData(1000, 0), read(input));
+        input.close();
+    }
+}